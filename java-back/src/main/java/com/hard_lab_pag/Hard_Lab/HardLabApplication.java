@@ -2,8 +2,10 @@ package com.hard_lab_pag.Hard_Lab;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class HardLabApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,30 @@
+package com.hard_lab_pag.Hard_Lab.attachments;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AttachmentBlobRepository extends JpaRepository<AttachmentBlob, String> {
+
+    // Registra o blob ou renova last_seen_at; segura o lock da linha até o fim da transação
+    @Modifying
+    @Query(value = "INSERT INTO attachment_blobs (sha256, size, content_type, created_at, last_seen_at) " +
+            "VALUES (:sha, :size, :contentType, :now, :now) " +
+            "ON DUPLICATE KEY UPDATE last_seen_at = VALUES(last_seen_at)", nativeQuery = true)
+    int upsert(@Param("sha") String sha, @Param("size") long size, @Param("contentType") String contentType, @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT sha256 FROM attachment_blobs WHERE last_seen_at < :cutoff AND sha256 > :afterSha " +
+            "ORDER BY sha256 LIMIT :limit", nativeQuery = true)
+    List<String> findStale(@Param("cutoff") LocalDateTime cutoff, @Param("afterSha") String afterSha, @Param("limit") int limit);
+
+    // Trava a linha e confirma que continua sem uso recente antes de apagar o arquivo
+    @Query(value = "SELECT sha256 FROM attachment_blobs WHERE sha256 = :sha AND last_seen_at < :cutoff FOR UPDATE", nativeQuery = true)
+    Optional<String> lockIfStale(@Param("sha") String sha, @Param("cutoff") LocalDateTime cutoff);
+}
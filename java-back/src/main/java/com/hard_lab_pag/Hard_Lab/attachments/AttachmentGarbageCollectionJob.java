@@ -0,0 +1,32 @@
+package com.hard_lab_pag.Hard_Lab.attachments;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.hard_lab_pag.Hard_Lab.infra.LeaseLockService;
+
+@Component
+public class AttachmentGarbageCollectionJob {
+
+    static final String LEASE_NAME = "attachment-gc";
+
+    private final AttachmentService attachmentService;
+    private final LeaseLockService leaseLockService;
+
+    @Value("${attachments.gc.lease:PT30M}")
+    private Duration lease;
+
+    public AttachmentGarbageCollectionJob(AttachmentService attachmentService, LeaseLockService leaseLockService) {
+        this.attachmentService = attachmentService;
+        this.leaseLockService = leaseLockService;
+    }
+
+    // Apenas uma instância executa por vez (lease no banco)
+    @Scheduled(cron = "${attachments.gc.cron:0 30 3 * * *}")
+    public void run() {
+        leaseLockService.runExclusively(LEASE_NAME, lease, attachmentService::collectGarbage);
+    }
+}
@@ -0,0 +1,60 @@
+package com.hard_lab_pag.Hard_Lab.attachments;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+// Quem enviou o blob: só esse usuário (ou quem já lê um documento que o cita) pode citar o hash num documento
+@Entity
+@Table(name = "attachment_grants")
+public class AttachmentGrant {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    protected AttachmentGrant() {}
+
+    public Key getId() { return id; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(nullable = false, length = 64)
+        private String sha256;
+
+        @Column(nullable = false)
+        private String gmail;
+
+        protected Key() {}
+
+        public Key(String sha256, String gmail) {
+            this.sha256 = sha256;
+            this.gmail = gmail;
+        }
+
+        public String getSha256() { return sha256; }
+        public String getGmail() { return gmail; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return Objects.equals(sha256, other.sha256) && Objects.equals(gmail, other.gmail);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sha256, gmail);
+        }
+    }
+}
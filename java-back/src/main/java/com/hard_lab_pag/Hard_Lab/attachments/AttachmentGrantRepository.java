@@ -0,0 +1,23 @@
+package com.hard_lab_pag.Hard_Lab.attachments;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AttachmentGrantRepository extends JpaRepository<AttachmentGrant, AttachmentGrant.Key> {
+
+    // Reenvio do mesmo conteúdo pelo mesmo usuário mantém a concessão original
+    @Modifying
+    @Query(value = "INSERT INTO attachment_grants (sha256, gmail, created_at) VALUES (:sha, :gmail, :now) " +
+            "ON DUPLICATE KEY UPDATE created_at = created_at", nativeQuery = true)
+    int grant(@Param("sha") String sha, @Param("gmail") String gmail, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "DELETE FROM attachment_grants WHERE sha256 = :sha", nativeQuery = true)
+    int deleteBySha(@Param("sha") String sha);
+}
@@ -0,0 +1,355 @@
+package com.hard_lab_pag.Hard_Lab.attachments;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.hard_lab_pag.Hard_Lab.documents.DocumentAccess;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentIndexRegistry;
+import com.hard_lab_pag.Hard_Lab.documents.JsonDocument;
+
+import jakarta.persistence.EntityManager;
+
+@Service
+public class AttachmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(AttachmentService.class);
+
+    static final String ATTACHMENTS_FIELD = "attachments";
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final String URL_PREFIX = "/api/attachments/";
+    private static final int GC_CHUNK_SIZE = 500;
+    private static final int EXTERNALIZE_CHUNK_SIZE = 100;
+    private static final String MISSING_REFERENCE = "Anexo não encontrado; envie o arquivo novamente";
+
+    private final LocalBlobStore blobStore;
+    private final AttachmentBlobRepository blobRepository;
+    private final AttachmentGrantRepository grantRepository;
+    private final DocumentIndexRegistry registry;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${attachments.max-size:50MB}")
+    private DataSize maxSize;
+
+    // Blobs mais novos que isso não são coletados (upload feito, documento ainda não salvo)
+    @Value("${attachments.gc.grace:PT24H}")
+    private Duration grace;
+
+    public AttachmentService(
+        LocalBlobStore blobStore,
+        AttachmentBlobRepository blobRepository,
+        AttachmentGrantRepository grantRepository,
+        DocumentIndexRegistry registry,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.blobStore = blobStore;
+        this.blobRepository = blobRepository;
+        this.grantRepository = grantRepository;
+        this.registry = registry;
+        this.entityManager = entityManager;
+        // Registro do blob em transação própria: o arquivo já está em disco mesmo se a escrita do documento falhar
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Upload em streaming: o corpo vai direto para disco, sem passar inteiro pela memória.
+    // O envio concede ao usuário o direito de citar o hash (ver AttachmentGrant)
+    public Map<String, Object> upload(InputStream content, String contentType, String name, String uploader) throws IOException {
+        AttachmentBlob blob = store(content, contentType, uploader);
+        Map<String, Object> ref = reference(blob.getSha256(), blob.getSize(), blob.getContentType(), name);
+        ref.put("uploadedAt", LocalDateTime.now().toString());
+        return ref;
+    }
+
+    public AttachmentBlob find(String sha256) {
+        if (!LocalBlobStore.isValidSha256(sha256)) {
+            return null;
+        }
+        return blobRepository.findById(sha256).orElse(null);
+    }
+
+    public Path path(String sha256) {
+        return blobStore.path(sha256);
+    }
+
+    // Leitura do blob segue o documento que o cita: professores/administradores, quem enviou o arquivo, ou o autor
+    // de algum documento com a referência (que só pôde citá-la por uma dessas vias, ver externalize)
+    public boolean canRead(String sha256, UserDetails user) {
+        if (user == null) {
+            return false;
+        }
+        if (DocumentAccess.isPrivileged(user)) {
+            return true;
+        }
+        if (grantRepository.existsById(new AttachmentGrant.Key(sha256, user.getUsername()))) {
+            return true;
+        }
+        for (DocumentIndexRegistry.DocumentType type : registry.all()) {
+            List<?> rows = entityManager.createNativeQuery("SELECT 1 FROM `" + type.getTable() + "` d, " +
+                    "JSON_TABLE(d.data, '$.attachments[*]' COLUMNS (sha VARCHAR(64) PATH '$.sha256')) jt " +
+                    "WHERE d.created_by = ?1 AND jt.sha = ?2 LIMIT 1")
+                .setParameter(1, user.getUsername())
+                .setParameter(2, sha256)
+                .getResultList();
+            if (!rows.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Troca anexos embutidos (data URL / base64) por referências e valida as referências recebidas: só entram hashes
+    // que o usuário enviou ou já lê. Chamado na transação da escrita do documento.
+    public Map<String, Object> externalize(Map<String, Object> data, UserDetails user) {
+        Map<String, Object> result = convertInline(data, user != null ? user.getUsername() : null);
+        Set<String> shas = referencedIn(result);
+        for (String sha : shas) {
+            if (!LocalBlobStore.isValidSha256(sha)) {
+                throw new IllegalArgumentException("Referência de anexo inválida: " + sha);
+            }
+            // Mesma resposta de um hash inexistente: a escrita não revela se o arquivo de outro usuário existe
+            if (!canRead(sha, user)) {
+                throw new IllegalArgumentException(MISSING_REFERENCE);
+            }
+        }
+        touch(shas);
+        return result;
+    }
+
+    // Migração dos documentos antigos: converte anexos embutidos em blocos, uma transação por bloco
+    @SuppressWarnings("unchecked")
+    public int externalizeExisting() {
+        int converted = 0;
+        for (DocumentIndexRegistry.DocumentType type : registry.all()) {
+            long afterId = 0;
+            while (true) {
+                final long cursor = afterId;
+                ChunkResult result = transactionTemplate.execute(status -> {
+                    List<JsonDocument> docs = entityManager.createQuery("SELECT d FROM " + type.getEntityClass().getSimpleName() +
+                            " d WHERE d.id > :afterId ORDER BY d.id")
+                        .setParameter("afterId", cursor)
+                        .setMaxResults(EXTERNALIZE_CHUNK_SIZE)
+                        .getResultList();
+                    int changed = 0;
+                    for (JsonDocument doc : docs) {
+                        Map<String, Object> data = convertInline(doc.getData(), null);
+                        if (data != doc.getData()) {
+                            doc.setData(data);
+                            changed++;
+                        }
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                    return new ChunkResult(docs.isEmpty() ? null : docs.get(docs.size() - 1).getId(), changed);
+                });
+                if (result == null || result.lastId() == null) {
+                    break;
+                }
+                converted += result.converted();
+                afterId = result.lastId();
+            }
+        }
+        return converted;
+    }
+
+    // Devolve o próprio mapa quando não há nada embutido; uploader null (migração) não gera concessão
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> convertInline(Map<String, Object> data, String uploader) {
+        if (data == null || !(data.get(ATTACHMENTS_FIELD) instanceof List<?> attachments)) {
+            return data;
+        }
+        List<Object> converted = new ArrayList<>(attachments.size());
+        boolean changed = false;
+        for (Object raw : attachments) {
+            InlineContent inline = raw instanceof Map<?, ?> m ? inlineContent((Map<String, Object>) m) : null;
+            if (inline == null) {
+                converted.add(raw);
+                continue;
+            }
+            Map<String, Object> attachment = (Map<String, Object>) raw;
+            AttachmentBlob blob = storeInline(inline, uploader);
+            Map<String, Object> ref = new LinkedHashMap<>(attachment);
+            ref.remove("content");
+            ref.remove("base64");
+            ref.putAll(reference(blob.getSha256(), blob.getSize(), blob.getContentType(), text(attachment.get("name"))));
+            converted.add(ref);
+            changed = true;
+        }
+        if (!changed) {
+            return data;
+        }
+        Map<String, Object> result = new LinkedHashMap<>(data);
+        result.put(ATTACHMENTS_FIELD, converted);
+        return result;
+    }
+
+    private static Set<String> referencedIn(Map<String, Object> data) {
+        Set<String> shas = new LinkedHashSet<>();
+        if (data != null && data.get(ATTACHMENTS_FIELD) instanceof List<?> attachments) {
+            for (Object raw : attachments) {
+                if (raw instanceof Map<?, ?> m && text(m.get("sha256")) != null) {
+                    shas.add(text(m.get("sha256")));
+                }
+            }
+        }
+        return shas;
+    }
+
+    // Renova last_seen_at das referências; a atualização trava as linhas, então o GC não remove no meio da escrita
+    private void touch(Set<String> shas) {
+        if (shas.isEmpty()) return;
+        int updated = entityManager.createNativeQuery("UPDATE attachment_blobs SET last_seen_at = ?1 WHERE sha256 IN (?2)")
+            .setParameter(1, LocalDateTime.now())
+            .setParameter(2, shas)
+            .executeUpdate();
+        if (updated != shas.size()) {
+            throw new IllegalArgumentException(MISSING_REFERENCE);
+        }
+    }
+
+    // Marca e varre: coleta os hashes citados nos documentos e remove blobs antigos que ninguém cita
+    public int collectGarbage() {
+        Set<String> referenced = referencedHashes();
+        LocalDateTime cutoff = LocalDateTime.now().minus(grace);
+        String after = "";
+        int removed = 0;
+        while (true) {
+            List<String> stale = blobRepository.findStale(cutoff, after, GC_CHUNK_SIZE);
+            if (stale.isEmpty()) {
+                break;
+            }
+            for (String sha : stale) {
+                if (!referenced.contains(sha) && Boolean.TRUE.equals(transactionTemplate.execute(status -> sweep(sha, cutoff)))) {
+                    removed++;
+                }
+            }
+            after = stale.get(stale.size() - 1);
+        }
+        if (removed > 0) {
+            log.info("GC de anexos: {} blobs removidos", removed);
+        }
+        return removed;
+    }
+
+    private boolean sweep(String sha, LocalDateTime cutoff) {
+        if (blobRepository.lockIfStale(sha, cutoff).isEmpty()) {
+            return false;
+        }
+        try {
+            blobStore.delete(sha);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        grantRepository.deleteBySha(sha);
+        blobRepository.deleteById(sha);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> referencedHashes() {
+        Set<String> hashes = new HashSet<>();
+        for (DocumentIndexRegistry.DocumentType type : registry.all()) {
+            List<Object> rows = entityManager.createNativeQuery("SELECT DISTINCT jt.sha FROM `" + type.getTable() + "` d, " +
+                    "JSON_TABLE(d.data, '$.attachments[*]' COLUMNS (sha VARCHAR(64) PATH '$.sha256')) jt WHERE jt.sha IS NOT NULL")
+                .getResultList();
+            rows.forEach(row -> hashes.add(row.toString()));
+        }
+        return hashes;
+    }
+
+    private AttachmentBlob store(InputStream content, String contentType, String uploader) throws IOException {
+        LocalBlobStore.StagedBlob staged = blobStore.stage(content, maxSize.toBytes());
+        String type = contentType != null && !contentType.isBlank() ? MediaType.parseMediaType(contentType).toString() : DEFAULT_CONTENT_TYPE;
+        try {
+            return transactionTemplate.execute(status -> {
+                // O upsert trava a linha antes de mover o arquivo: o GC do mesmo hash espera este commit
+                blobRepository.upsert(staged.sha256(), staged.size(), type, LocalDateTime.now());
+                if (uploader != null) {
+                    grantRepository.grant(staged.sha256(), uploader, LocalDateTime.now());
+                }
+                try {
+                    blobStore.commit(staged);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return blobRepository.findById(staged.sha256()).orElseThrow();
+            });
+        } finally {
+            blobStore.discard(staged);
+        }
+    }
+
+    private AttachmentBlob storeInline(InlineContent inline, String uploader) {
+        InputStream decoded = Base64.getMimeDecoder().wrap(new ByteArrayInputStream(inline.base64().getBytes(StandardCharsets.US_ASCII)));
+        try {
+            return store(decoded, inline.contentType(), uploader);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Anexo embutido inválido", e);
+        }
+    }
+
+    // Aceita "url": "data:<tipo>;base64,<conteúdo>" (formato do app) ou "content"/"base64" com o conteúdo cru
+    static InlineContent inlineContent(Map<String, Object> attachment) {
+        String type = text(attachment.get("type"));
+        String url = text(attachment.get("url"));
+        if (url != null && url.startsWith("data:")) {
+            int comma = url.indexOf(',');
+            String meta = comma > 0 ? url.substring(5, comma) : "";
+            if (comma < 0 || !meta.endsWith(";base64")) {
+                throw new IllegalArgumentException("Anexo embutido deve estar em base64");
+            }
+            String mediaType = meta.substring(0, meta.length() - ";base64".length());
+            return new InlineContent(url.substring(comma + 1), mediaType.isEmpty() ? type : mediaType);
+        }
+        String content = text(attachment.get("content"));
+        if (content == null) content = text(attachment.get("base64"));
+        return content != null ? new InlineContent(content, type) : null;
+    }
+
+    static Map<String, Object> reference(String sha256, long size, String contentType, String name) {
+        Map<String, Object> ref = new LinkedHashMap<>();
+        ref.put("id", sha256);
+        ref.put("sha256", sha256);
+        ref.put("size", size);
+        ref.put("type", contentType);
+        if (name != null) ref.put("name", name);
+        ref.put("url", URL_PREFIX + sha256);
+        return ref;
+    }
+
+    private static String text(Object value) {
+        if (value == null) return null;
+        String s = value.toString().trim();
+        return s.isEmpty() ? null : s;
+    }
+
+    record InlineContent(String base64, String contentType) {}
+
+    private record ChunkResult(Long lastId, int converted) {}
+}
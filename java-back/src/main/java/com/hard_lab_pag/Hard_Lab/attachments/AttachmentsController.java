@@ -0,0 +1,116 @@
+package com.hard_lab_pag.Hard_Lab.attachments;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping("/api/attachments")
+public class AttachmentsController {
+
+    // Tipos que o navegador exibe sem executar script na origem da API
+    private static final List<MediaType> INLINE_TYPES = List.of(
+        MediaType.IMAGE_PNG,
+        MediaType.IMAGE_JPEG,
+        MediaType.IMAGE_GIF,
+        MediaType.parseMediaType("image/webp"),
+        MediaType.APPLICATION_PDF,
+        MediaType.TEXT_PLAIN
+    );
+
+    private final AttachmentService attachmentService;
+
+    public AttachmentsController(AttachmentService attachmentService) {
+        this.attachmentService = attachmentService;
+    }
+
+    // Corpo cru (aceita Transfer-Encoding: chunked); devolve a referência a gravar em "attachments"
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> upload(
+        @AuthenticationPrincipal UserDetails user,
+        HttpServletRequest request,
+        @RequestParam(value = "name", required = false) String name,
+        @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType
+    ) throws IOException {
+        if (user == null) {
+            throw new AccessDeniedException("Não autenticado");
+        }
+        Map<String, Object> reference = attachmentService.upload(request.getInputStream(), contentType, name, user.getUsername());
+        return ResponseEntity.status(HttpStatus.CREATED).body(reference);
+    }
+
+    // Resource em disco: o Spring atende Range (206) e faz o streaming sem carregar o arquivo.
+    // Sem acesso a um documento que cite o hash a resposta é 404, sem revelar que o blob existe.
+    @GetMapping("/{sha256}")
+    public ResponseEntity<Resource> download(
+        @AuthenticationPrincipal UserDetails user,
+        @PathVariable String sha256,
+        @RequestParam(value = "name", required = false) String name
+    ) {
+        AttachmentBlob blob = attachmentService.find(sha256);
+        if (blob == null || !attachmentService.canRead(sha256, user)) {
+            return ResponseEntity.notFound().build();
+        }
+        Path path = attachmentService.path(sha256);
+        if (!Files.exists(path)) {
+            return ResponseEntity.notFound().build();
+        }
+        MediaType type = MediaType.parseMediaType(blob.getContentType());
+        // O tipo veio do cliente no upload: fora da lista segura (ex.: text/html, SVG) o navegador só baixa o arquivo
+        ContentDisposition.Builder disposition = isInlineSafe(type) ? ContentDisposition.inline() : ContentDisposition.attachment();
+        if (name != null && !name.isBlank()) {
+            disposition.filename(name);
+        }
+        return ResponseEntity.ok()
+            .contentType(type)
+            .eTag("\"" + sha256 + "\"")
+            // Conteúdo endereçado pelo hash nunca muda
+            .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+            .header(HttpHeaders.CONTENT_DISPOSITION, disposition.build().toString())
+            .header("X-Content-Type-Options", "nosniff")
+            .body(new FileSystemResource(path));
+    }
+
+    static boolean isInlineSafe(MediaType type) {
+        return INLINE_TYPES.stream().anyMatch(safe -> safe.equalsTypeAndSubtype(type));
+    }
+
+    // Admin: converter anexos embutidos dos documentos existentes em referências
+    @PostMapping("/externalize")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> externalize() {
+        return ResponseEntity.ok(Map.of("convertedDocuments", attachmentService.externalizeExisting()));
+    }
+
+    // Admin: executar a coleta de blobs sem referência agora
+    @PostMapping("/gc")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> collectGarbage() {
+        return ResponseEntity.ok(Map.of("removedBlobs", attachmentService.collectGarbage()));
+    }
+}
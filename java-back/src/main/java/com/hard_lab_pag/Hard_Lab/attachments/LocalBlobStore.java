@@ -0,0 +1,108 @@
+package com.hard_lab_pag.Hard_Lab.attachments;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.hard_lab_pag.Hard_Lab.infra.PayloadTooLargeException;
+
+// Armazena o conteúdo em disco por SHA-256 (<raiz>/ab/cd/<sha>); conteúdo igual ocupa um único arquivo
+@Component
+public class LocalBlobStore {
+
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path staging;
+
+    public LocalBlobStore(@Value("${attachments.storage-dir:data/attachments}") String storageDir) {
+        this.root = Paths.get(storageDir).toAbsolutePath().normalize();
+        this.staging = root.resolve("tmp");
+        try {
+            Files.createDirectories(staging);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível criar o diretório de anexos: " + root, e);
+        }
+    }
+
+    // Copia o fluxo para um arquivo temporário calculando o hash em uma única passada
+    public StagedBlob stage(InputStream in, long maxBytes) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(staging, "upload-", ".part");
+        long size = 0;
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                size += read;
+                if (size > maxBytes) {
+                    throw new PayloadTooLargeException("Anexo excede o limite de " + maxBytes + " bytes");
+                }
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return new StagedBlob(HexFormat.of().formatHex(digest.digest()), size, temp);
+    }
+
+    // Move o temporário para o caminho definitivo; se o conteúdo já existe, só descarta o temporário
+    public void commit(StagedBlob blob) throws IOException {
+        Path target = path(blob.sha256());
+        if (Files.exists(target)) {
+            discard(blob);
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(blob.temp(), target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            discard(blob);
+        }
+    }
+
+    public void discard(StagedBlob blob) throws IOException {
+        Files.deleteIfExists(blob.temp());
+    }
+
+    public boolean delete(String sha256) throws IOException {
+        return Files.deleteIfExists(path(sha256));
+    }
+
+    public Path path(String sha256) {
+        if (!isValidSha256(sha256)) {
+            throw new IllegalArgumentException("Identificador de anexo inválido");
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    public static boolean isValidSha256(String value) {
+        return value != null && SHA256.matcher(value).matches();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record StagedBlob(String sha256, long size, Path temp) {}
+}
@@ -1,6 +1,11 @@
 package com.hard_lab_pag.Hard_Lab.auth;
 
+import java.util.Map;
+
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -9,41 +14,71 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.hard_lab_pag.Hard_Lab.auth.dto.AuthResponse;
 import com.hard_lab_pag.Hard_Lab.auth.dto.LoginRequest;
+import com.hard_lab_pag.Hard_Lab.auth.dto.RefreshTokenRequest;
 import com.hard_lab_pag.Hard_Lab.auth.dto.RegisterRequest;
+import com.hard_lab_pag.Hard_Lab.security.LoginAdmissionControl;
 import com.hard_lab_pag.Hard_Lab.user.UserService;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
 	private final UserService userService;
+	private final AuthTokenService authTokenService;
+	private final LoginAdmissionControl admissionControl;
 
-	public AuthController(UserService userService) {
+	public AuthController(UserService userService, AuthTokenService authTokenService, LoginAdmissionControl admissionControl) {
 		this.userService = userService;
+		this.authTokenService = authTokenService;
+		this.admissionControl = admissionControl;
 	}
 
 	@PostMapping("/register")
-	public ResponseEntity<AuthResponse> register(@Validated @RequestBody RegisterRequest request) {
-		String token = userService.register(request);
-		return ResponseEntity.ok(new AuthResponse(token));
+	public ResponseEntity<AuthResponse> register(@Validated @RequestBody RegisterRequest request, HttpServletRequest http) {
+		admissionControl.admitIp(http.getRemoteAddr());
+		return ResponseEntity.ok(userService.register(request));
 	}
 
 	@PostMapping("/login")
-	public ResponseEntity<AuthResponse> login(@Validated @RequestBody LoginRequest request) {
-		String token = userService.login(request);
-		return ResponseEntity.ok(new AuthResponse(token));
+	public ResponseEntity<AuthResponse> login(@Validated @RequestBody LoginRequest request, HttpServletRequest http) {
+		admissionControl.admit(request.getGmail(), http.getRemoteAddr());
+		return ResponseEntity.ok(userService.login(request));
+	}
+
+	// Troca o refresh token por um novo par (o refresh token enviado deixa de valer)
+	@PostMapping("/refresh")
+	public ResponseEntity<AuthResponse> refresh(@Validated @RequestBody RefreshTokenRequest request) {
+		return ResponseEntity.ok(authTokenService.refresh(request.getRefreshToken()));
+	}
+
+	// Encerra a sessão do refresh token; o access token dela é recusado em poucos segundos em todas as instâncias
+	@PostMapping("/logout")
+	public ResponseEntity<?> logout(@Validated @RequestBody RefreshTokenRequest request) {
+		authTokenService.logout(request.getRefreshToken());
+		return ResponseEntity.noContent().build();
+	}
+
+	// Encerra todas as sessões do usuário autenticado
+	@PostMapping("/logout-all")
+	@PreAuthorize("isAuthenticated()")
+	public ResponseEntity<Map<String, Object>> logoutAll(@AuthenticationPrincipal UserDetails user) {
+		return ResponseEntity.ok(Map.of("revokedSessions", authTokenService.logoutAll(user.getUsername())));
 	}
 
 	// Recuperação de senha: solicitar reset
 	@PostMapping("/forgot-password")
-	public ResponseEntity<?> forgotPassword(@Validated @RequestBody com.hard_lab_pag.Hard_Lab.auth.dto.ForgotPasswordRequest request) {
+	public ResponseEntity<?> forgotPassword(@Validated @RequestBody com.hard_lab_pag.Hard_Lab.auth.dto.ForgotPasswordRequest request, HttpServletRequest http) {
+		admissionControl.admit(request.getGmail(), http.getRemoteAddr());
 		userService.initiatePasswordReset(request.getGmail());
 		return ResponseEntity.ok().build();
 	}
 
 	// Recuperação de senha: efetivar reset
 	@PostMapping("/reset-password")
-	public ResponseEntity<?> resetPassword(@Validated @RequestBody com.hard_lab_pag.Hard_Lab.auth.dto.ResetPasswordRequest request) {
+	public ResponseEntity<?> resetPassword(@Validated @RequestBody com.hard_lab_pag.Hard_Lab.auth.dto.ResetPasswordRequest request, HttpServletRequest http) {
+		admissionControl.admitIp(http.getRemoteAddr());
 		userService.resetPassword(request.getToken(), request.getNovaSenha());
 		return ResponseEntity.ok().build();
 	}
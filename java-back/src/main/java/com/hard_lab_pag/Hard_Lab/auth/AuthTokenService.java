@@ -0,0 +1,134 @@
+package com.hard_lab_pag.Hard_Lab.auth;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hard_lab_pag.Hard_Lab.auth.dto.AuthResponse;
+import com.hard_lab_pag.Hard_Lab.infra.UnauthorizedException;
+import com.hard_lab_pag.Hard_Lab.security.JwtService;
+import com.hard_lab_pag.Hard_Lab.security.SessionRevocationList;
+import com.hard_lab_pag.Hard_Lab.user.User;
+import com.hard_lab_pag.Hard_Lab.user.UserRepository;
+
+// Emite o par access token (curto) + refresh token (rotativo, gravado como hash) e revoga sessões
+@Service
+public class AuthTokenService {
+
+	private final RefreshTokenRepository refreshTokenRepository;
+	private final RevokedSessionRepository revokedSessionRepository;
+	private final UserRepository userRepository;
+	private final JwtService jwtService;
+	private final SessionRevocationList revocationList;
+
+	@Value("${security.refresh.ttl:P30D}")
+	private Duration refreshTtl;
+
+	// Revogação precisa valer enquanto um access token da sessão puder estar vivo
+	@Value("${security.jwt.expiration-ms:86400000}")
+	private long accessTokenTtlMs;
+
+	public AuthTokenService(
+		RefreshTokenRepository refreshTokenRepository,
+		RevokedSessionRepository revokedSessionRepository,
+		UserRepository userRepository,
+		JwtService jwtService,
+		SessionRevocationList revocationList
+	) {
+		this.refreshTokenRepository = refreshTokenRepository;
+		this.revokedSessionRepository = revokedSessionRepository;
+		this.userRepository = userRepository;
+		this.jwtService = jwtService;
+		this.revocationList = revocationList;
+	}
+
+	// Nova sessão (login/cadastro)
+	@Transactional
+	public AuthResponse issue(User user) {
+		return issue(user, UUID.randomUUID().toString());
+	}
+
+	// Rotação: o refresh token apresentado é consumido e um novo é emitido na mesma sessão.
+	// Reapresentar um token já consumido indica vazamento: a sessão inteira é revogada.
+	@Transactional(noRollbackFor = UnauthorizedException.class)
+	public AuthResponse refresh(String rawRefreshToken) {
+		RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawRefreshToken))
+			.orElseThrow(() -> new UnauthorizedException("Refresh token inválido"));
+		Instant now = Instant.now();
+		if (current.getRevokedAt() != null || current.getExpiresAt().isBefore(now)) {
+			throw new UnauthorizedException("Sessão expirada ou encerrada");
+		}
+		if (refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+			revokeSession(current.getSessionId());
+			throw new UnauthorizedException("Refresh token reutilizado; sessão encerrada");
+		}
+		User user = userRepository.findByGmail(current.getUserGmail())
+			.filter(u -> !Boolean.FALSE.equals(u.getAtivo()))
+			.orElseThrow(() -> {
+				revokeSession(current.getSessionId());
+				return new UnauthorizedException("Usuário inativo");
+			});
+		return issue(user, current.getSessionId());
+	}
+
+	@Transactional
+	public void logout(String rawRefreshToken) {
+		refreshTokenRepository.findByTokenHash(hash(rawRefreshToken))
+			.ifPresent(token -> revokeSession(token.getSessionId()));
+	}
+
+	// Encerra todas as sessões do usuário (ex.: "sair de todos os dispositivos")
+	@Transactional
+	public int logoutAll(String gmail) {
+		List<String> sessions = refreshTokenRepository.findActiveSessionIds(gmail, Instant.now());
+		sessions.forEach(this::revokeSession);
+		return sessions.size();
+	}
+
+	private void revokeSession(String sessionId) {
+		Instant now = Instant.now();
+		Instant accessTokensExpireAt = now.plusMillis(accessTokenTtlMs);
+		refreshTokenRepository.revokeSession(sessionId, now);
+		revokedSessionRepository.upsert(sessionId, now, accessTokensExpireAt);
+		// Outras instâncias recebem pelo polling; esta passa a recusar assim que o commit acontece
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				revocationList.add(sessionId, accessTokensExpireAt);
+			}
+		});
+	}
+
+	private AuthResponse issue(User user, String sessionId) {
+		String rawRefreshToken = TokenDigests.newToken();
+		RefreshToken refreshToken = new RefreshToken();
+		refreshToken.setTokenHash(hash(rawRefreshToken));
+		refreshToken.setSessionId(sessionId);
+		refreshToken.setUserGmail(user.getGmail());
+		refreshToken.setExpiresAt(Instant.now().plus(refreshTtl));
+		refreshTokenRepository.save(refreshToken);
+
+		// Papéis e época de segurança vão no token; o filtro monta o usuário sem consultar o banco
+		Map<String, Object> claims = new HashMap<>();
+		claims.put(JwtService.CLAIM_ROLES, user.getRoles());
+		claims.put(JwtService.CLAIM_EPOCH, user.getSecurityEpoch());
+		claims.put(JwtService.CLAIM_SESSION, sessionId);
+		return new AuthResponse(jwtService.generateToken(user.getGmail(), claims), rawRefreshToken);
+	}
+
+	static String hash(String rawToken) {
+		if (rawToken == null || rawToken.isBlank()) {
+			throw new UnauthorizedException("Refresh token ausente");
+		}
+		return TokenDigests.sha256Hex(rawToken);
+	}
+}
@@ -0,0 +1,62 @@
+package com.hard_lab_pag.Hard_Lab.auth;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hard_lab_pag.Hard_Lab.infra.LeaseLockService;
+
+// Remove refresh tokens e tokens de reset vencidos e revogações que já não protegem nenhum access token
+@Component
+public class AuthTokenSweepJob {
+
+	static final String LEASE_NAME = "auth-token-sweep";
+	private static final int BATCH_SIZE = 1000;
+
+	private final RefreshTokenRepository refreshTokenRepository;
+	private final RevokedSessionRepository revokedSessionRepository;
+	private final PasswordResetTokenRepository passwordResetTokenRepository;
+	private final LeaseLockService leaseLockService;
+	private final TransactionTemplate transactionTemplate;
+
+	@Value("${security.refresh.sweep-lease:PT10M}")
+	private Duration lease;
+
+	public AuthTokenSweepJob(
+		RefreshTokenRepository refreshTokenRepository,
+		RevokedSessionRepository revokedSessionRepository,
+		PasswordResetTokenRepository passwordResetTokenRepository,
+		LeaseLockService leaseLockService,
+		PlatformTransactionManager transactionManager
+	) {
+		this.refreshTokenRepository = refreshTokenRepository;
+		this.revokedSessionRepository = revokedSessionRepository;
+		this.passwordResetTokenRepository = passwordResetTokenRepository;
+		this.leaseLockService = leaseLockService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Scheduled(cron = "${security.refresh.sweep-cron:0 15 * * * *}")
+	public void run() {
+		leaseLockService.runExclusively(LEASE_NAME, lease, this::sweep);
+	}
+
+	// Lotes pequenos, uma transação por lote, para não segurar locks na tabela
+	void sweep() {
+		Instant now = Instant.now();
+		while (Integer.valueOf(BATCH_SIZE).equals(transactionTemplate.execute(status -> refreshTokenRepository.deleteExpired(now, BATCH_SIZE)))) {
+			// continua até um lote incompleto
+		}
+		while (Integer.valueOf(BATCH_SIZE).equals(transactionTemplate.execute(status -> revokedSessionRepository.deleteExpired(now, BATCH_SIZE)))) {
+			// continua até um lote incompleto
+		}
+		while (Integer.valueOf(BATCH_SIZE).equals(transactionTemplate.execute(status -> passwordResetTokenRepository.deleteExpired(now, BATCH_SIZE)))) {
+			// continua até um lote incompleto
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.hard_lab_pag.Hard_Lab.auth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+
+// A versão anterior guardava o token de reset em claro em users.reset_token; a entidade não mapeia mais
+// a coluna, então os valores antigos só são apagados aqui, em blocos curtos (UPDATE idempotente, sem lease)
+@Component
+public class LegacyResetTokenCleanup implements ApplicationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(LegacyResetTokenCleanup.class);
+
+	private static final int CHUNK_SIZE = 500;
+
+	private final EntityManager entityManager;
+	private final TransactionTemplate transactionTemplate;
+
+	public LegacyResetTokenCleanup(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+		this.entityManager = entityManager;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (legacyColumnExists()) {
+			clear();
+		}
+	}
+
+	void clear() {
+		int cleared = 0;
+		while (true) {
+			Integer rows = transactionTemplate.execute(status -> entityManager.createNativeQuery(
+					"UPDATE users SET reset_token = NULL, reset_token_expires_at = NULL WHERE reset_token IS NOT NULL LIMIT ?1")
+				.setParameter(1, CHUNK_SIZE)
+				.executeUpdate());
+			if (rows == null || rows == 0) {
+				break;
+			}
+			cleared += rows;
+		}
+		if (cleared > 0) {
+			log.info("Tokens de reset em claro apagados de users.reset_token: {} usuários", cleared);
+		}
+	}
+
+	private boolean legacyColumnExists() {
+		Number count = (Number) entityManager.createNativeQuery(
+				"SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE() AND table_name = 'users' AND column_name = 'reset_token'")
+			.getSingleResult();
+		return count.intValue() > 0;
+	}
+}
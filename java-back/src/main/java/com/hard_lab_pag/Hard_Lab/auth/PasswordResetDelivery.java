@@ -0,0 +1,10 @@
+package com.hard_lab_pag.Hard_Lab.auth;
+
+import com.hard_lab_pag.Hard_Lab.user.User;
+
+// Canal que leva o token de reset até o usuário (e-mail, por exemplo); sem um bean destes o
+// forgot-password não emite token e o administrador usa POST /api/users/{id}/password-reset
+public interface PasswordResetDelivery {
+
+	void deliver(User user, PasswordResetService.Issued issued);
+}
@@ -0,0 +1,66 @@
+package com.hard_lab_pag.Hard_Lab.auth;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Emissão e consumo dos tokens de reset de senha; a linha do usuário só muda quando o reset é efetivado
+@Service
+public class PasswordResetService {
+
+	private final PasswordResetTokenRepository repository;
+	private final Duration ttl;
+
+	public PasswordResetService(
+		PasswordResetTokenRepository repository,
+		@Value("${security.password-reset.ttl:PT1H}") Duration ttl
+	) {
+		this.repository = repository;
+		this.ttl = ttl;
+	}
+
+	// Token em claro para o canal de entrega (ou para o administrador); o banco guarda só o hash
+	public record Issued(String token, Instant expiresAt) {}
+
+	@Transactional
+	public Issued issue(Long userId) {
+		repository.deleteByUserId(userId);
+		String rawToken = TokenDigests.newToken();
+		PasswordResetToken token = new PasswordResetToken();
+		token.setTokenHash(TokenDigests.sha256Hex(rawToken));
+		token.setUserId(userId);
+		token.setExpiresAt(Instant.now().plus(ttl));
+		repository.save(token);
+		return new Issued(rawToken, token.getExpiresAt());
+	}
+
+	// Leitura pela chave primária, sem consumir; serve para recusar token inválido antes do BCrypt
+	@Transactional(readOnly = true)
+	public Long requireValid(String rawToken) {
+		return repository.findById(hash(rawToken))
+			.filter(token -> token.getExpiresAt().isAfter(Instant.now()))
+			.map(PasswordResetToken::getUserId)
+			.orElseThrow(() -> new IllegalArgumentException("Token inválido ou expirado"));
+	}
+
+	// Consome o token na transação do chamador; duas requisições com o mesmo token não passam ambas
+	@Transactional(propagation = Propagation.MANDATORY)
+	public Long consume(String rawToken) {
+		Long userId = requireValid(rawToken);
+		if (repository.consume(hash(rawToken), Instant.now()) == 0) {
+			throw new IllegalArgumentException("Token inválido ou expirado");
+		}
+		return userId;
+	}
+
+	private static String hash(String rawToken) {
+		if (rawToken == null || rawToken.isBlank()) {
+			throw new IllegalArgumentException("Token inválido ou expirado");
+		}
+		return TokenDigests.sha256Hex(rawToken);
+	}
+}
@@ -0,0 +1,43 @@
+package com.hard_lab_pag.Hard_Lab.auth;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Token de reset de senha fora da tabela users; a chave é o SHA-256 do token enviado ao usuário
+@Entity
+@Table(name = "password_reset_tokens", indexes = {
+	@Index(name = "idx_password_reset_tokens_user", columnList = "user_id"),
+	@Index(name = "idx_password_reset_tokens_expires", columnList = "expires_at")
+})
+public class PasswordResetToken {
+
+	@Id
+	@Column(name = "token_hash", length = 64)
+	private String tokenHash;
+
+	@Column(name = "user_id", nullable = false)
+	private Long userId;
+
+	@Column(nullable = false, updatable = false)
+	private Instant createdAt = Instant.now();
+
+	@Column(name = "expires_at", nullable = false)
+	private Instant expiresAt;
+
+	public String getTokenHash() { return tokenHash; }
+	public void setTokenHash(String tokenHash) { this.tokenHash = tokenHash; }
+
+	public Long getUserId() { return userId; }
+	public void setUserId(Long userId) { this.userId = userId; }
+
+	public Instant getCreatedAt() { return createdAt; }
+	public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+	public Instant getExpiresAt() { return expiresAt; }
+	public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+}
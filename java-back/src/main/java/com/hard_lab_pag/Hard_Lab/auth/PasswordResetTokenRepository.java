@@ -0,0 +1,27 @@
+package com.hard_lab_pag.Hard_Lab.auth;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, String> {
+
+	// Uso único: só quem apagar a linha (1) efetiva o reset; 0 = inexistente, vencido ou já usado
+	@Modifying
+	@Query("DELETE FROM PasswordResetToken t WHERE t.tokenHash = :tokenHash AND t.expiresAt > :now")
+	int consume(@Param("tokenHash") String tokenHash, @Param("now") Instant now);
+
+	// Um pedido novo invalida os anteriores do mesmo usuário
+	@Modifying
+	@Query("DELETE FROM PasswordResetToken t WHERE t.userId = :userId")
+	int deleteByUserId(@Param("userId") Long userId);
+
+	@Modifying
+	@Query(value = "DELETE FROM password_reset_tokens WHERE expires_at < :cutoff LIMIT :limit", nativeQuery = true)
+	int deleteExpired(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
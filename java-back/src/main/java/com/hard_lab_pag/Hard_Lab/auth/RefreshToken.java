@@ -0,0 +1,72 @@
+package com.hard_lab_pag.Hard_Lab.auth;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Refresh token rotativo; só o SHA-256 é gravado. Todos os tokens de uma sessão compartilham o sessionId (claim "sid")
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+	@Index(name = "idx_refresh_tokens_hash", columnList = "token_hash", unique = true),
+	@Index(name = "idx_refresh_tokens_session", columnList = "session_id"),
+	@Index(name = "idx_refresh_tokens_user", columnList = "user_gmail"),
+	@Index(name = "idx_refresh_tokens_expires", columnList = "expires_at")
+})
+public class RefreshToken {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "token_hash", nullable = false, length = 64)
+	private String tokenHash;
+
+	@Column(name = "session_id", nullable = false, length = 36)
+	private String sessionId;
+
+	@Column(name = "user_gmail", nullable = false, length = 254)
+	private String userGmail;
+
+	@Column(nullable = false, updatable = false)
+	private Instant createdAt = Instant.now();
+
+	@Column(name = "expires_at", nullable = false)
+	private Instant expiresAt;
+
+	// Preenchido na rotação; reutilizar um token já usado revoga a sessão inteira
+	@Column
+	private Instant usedAt;
+
+	@Column
+	private Instant revokedAt;
+
+	public Long getId() { return id; }
+	public void setId(Long id) { this.id = id; }
+
+	public String getTokenHash() { return tokenHash; }
+	public void setTokenHash(String tokenHash) { this.tokenHash = tokenHash; }
+
+	public String getSessionId() { return sessionId; }
+	public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+
+	public String getUserGmail() { return userGmail; }
+	public void setUserGmail(String userGmail) { this.userGmail = userGmail; }
+
+	public Instant getCreatedAt() { return createdAt; }
+	public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+	public Instant getExpiresAt() { return expiresAt; }
+	public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+
+	public Instant getUsedAt() { return usedAt; }
+	public void setUsedAt(Instant usedAt) { this.usedAt = usedAt; }
+
+	public Instant getRevokedAt() { return revokedAt; }
+	public void setRevokedAt(Instant revokedAt) { this.revokedAt = revokedAt; }
+}
@@ -0,0 +1,33 @@
+package com.hard_lab_pag.Hard_Lab.auth;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+	Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+	// Marca como usado só se ainda não foi; 0 linhas significa reutilização (ou corrida) do mesmo token
+	@Modifying
+	@Query("UPDATE RefreshToken t SET t.usedAt = :now WHERE t.id = :id AND t.usedAt IS NULL AND t.revokedAt IS NULL")
+	int markUsed(@Param("id") Long id, @Param("now") Instant now);
+
+	@Modifying
+	@Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.sessionId = :sessionId AND t.revokedAt IS NULL")
+	int revokeSession(@Param("sessionId") String sessionId, @Param("now") Instant now);
+
+	@Query("SELECT DISTINCT t.sessionId FROM RefreshToken t WHERE t.userGmail = :gmail AND t.revokedAt IS NULL AND t.expiresAt > :now")
+	List<String> findActiveSessionIds(@Param("gmail") String gmail, @Param("now") Instant now);
+
+	@Modifying
+	@Query(value = "DELETE FROM refresh_tokens WHERE expires_at < :cutoff LIMIT :limit", nativeQuery = true)
+	int deleteExpired(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
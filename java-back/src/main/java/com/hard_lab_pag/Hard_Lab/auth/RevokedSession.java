@@ -0,0 +1,37 @@
+package com.hard_lab_pag.Hard_Lab.auth;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Sessão revogada; mantida só enquanto algum access token da sessão ainda pode estar válido
+@Entity
+@Table(name = "revoked_sessions", indexes = {
+	@Index(name = "idx_revoked_sessions_revoked", columnList = "revoked_at"),
+	@Index(name = "idx_revoked_sessions_expires", columnList = "expires_at")
+})
+public class RevokedSession {
+
+	@Id
+	@Column(length = 36)
+	private String sessionId;
+
+	@Column(name = "revoked_at", nullable = false)
+	private Instant revokedAt;
+
+	@Column(name = "expires_at", nullable = false)
+	private Instant expiresAt;
+
+	public String getSessionId() { return sessionId; }
+	public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+
+	public Instant getRevokedAt() { return revokedAt; }
+	public void setRevokedAt(Instant revokedAt) { this.revokedAt = revokedAt; }
+
+	public Instant getExpiresAt() { return expiresAt; }
+	public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+}
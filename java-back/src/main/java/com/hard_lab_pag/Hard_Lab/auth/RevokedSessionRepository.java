@@ -0,0 +1,28 @@
+package com.hard_lab_pag.Hard_Lab.auth;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RevokedSessionRepository extends JpaRepository<RevokedSession, String> {
+
+	List<RevokedSession> findByExpiresAtAfter(Instant now);
+
+	List<RevokedSession> findByRevokedAtAfter(Instant since);
+
+	// Revogar de novo renova revoked_at, para o polling por revoked_at das outras instâncias enxergar a nova validade
+	@Modifying
+	@Query(value = "INSERT INTO revoked_sessions (session_id, revoked_at, expires_at) VALUES (:sessionId, :now, :expiresAt) " +
+			"ON DUPLICATE KEY UPDATE revoked_at = VALUES(revoked_at), expires_at = GREATEST(expires_at, VALUES(expires_at))", nativeQuery = true)
+	int upsert(@Param("sessionId") String sessionId, @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+	@Modifying
+	@Query(value = "DELETE FROM revoked_sessions WHERE expires_at < :now LIMIT :limit", nativeQuery = true)
+	int deleteExpired(@Param("now") Instant now, @Param("limit") int limit);
+}
@@ -0,0 +1,32 @@
+package com.hard_lab_pag.Hard_Lab.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+// Tokens opacos (refresh, reset de senha): valor aleatório para o cliente, só o SHA-256 no banco
+final class TokenDigests {
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+	private static final int TOKEN_BYTES = 32;
+
+	private TokenDigests() {}
+
+	static String newToken() {
+		byte[] bytes = new byte[TOKEN_BYTES];
+		RANDOM.nextBytes(bytes);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+
+	static String sha256Hex(String rawToken) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -2,9 +2,11 @@ package com.hard_lab_pag.Hard_Lab.auth.dto;
 
 public class AuthResponse {
 	private String token;
+	private String refreshToken;
 	public AuthResponse(String token) { this.token = token; }
+	public AuthResponse(String token, String refreshToken) { this.token = token; this.refreshToken = refreshToken; }
 	public String getToken() { return token; }
 	public void setToken(String token) { this.token = token; }
+	public String getRefreshToken() { return refreshToken; }
+	public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
 }
-
-
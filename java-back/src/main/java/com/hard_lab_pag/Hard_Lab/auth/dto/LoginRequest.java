@@ -1,5 +1,7 @@
 package com.hard_lab_pag.Hard_Lab.auth.dto;
 
+import com.hard_lab_pag.Hard_Lab.user.User;
+
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 
@@ -10,7 +12,7 @@ public class LoginRequest {
 	private String senha;
 
 	public String getGmail() { return gmail; }
-	public void setGmail(String gmail) { this.gmail = gmail; }
+	public void setGmail(String gmail) { this.gmail = User.normalizeGmail(gmail); }
 	public String getSenha() { return senha; }
 	public void setSenha(String senha) { this.senha = senha; }
 }
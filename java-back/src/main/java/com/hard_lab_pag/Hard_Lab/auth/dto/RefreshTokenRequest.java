@@ -0,0 +1,11 @@
+package com.hard_lab_pag.Hard_Lab.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class RefreshTokenRequest {
+	@NotBlank
+	private String refreshToken;
+
+	public String getRefreshToken() { return refreshToken; }
+	public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+}
@@ -2,6 +2,7 @@ package com.hard_lab_pag.Hard_Lab.auth.dto;
 
 import java.util.Set;
 import com.hard_lab_pag.Hard_Lab.user.Role;
+import com.hard_lab_pag.Hard_Lab.user.User;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -24,7 +25,7 @@ public class RegisterRequest {
 	private Set<Role> roles; // opcional: se não vier, default ACADEMICO
 
 	public String getGmail() { return gmail; }
-	public void setGmail(String gmail) { this.gmail = gmail; }
+	public void setGmail(String gmail) { this.gmail = User.normalizeGmail(gmail); }
 
 	public String getNome() { return nome; }
 	public void setNome(String nome) { this.nome = nome; }
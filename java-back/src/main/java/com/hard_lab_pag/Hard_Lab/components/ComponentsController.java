@@ -12,8 +12,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.hard_lab_pag.Hard_Lab.components.dto.CreateComponentRequest;
+import com.hard_lab_pag.Hard_Lab.infra.ETags;
 
 @RestController
 @RequestMapping("/api/components")
@@ -44,9 +46,9 @@ public class ComponentsController {
 	// Buscar componente por ID
 	@GetMapping("/{id}")
 	@PreAuthorize("isAuthenticated()")
-	public ResponseEntity<Component> getComponentById(@PathVariable Long id) {
+	public ResponseEntity<Component> getComponentById(@PathVariable Long id, WebRequest request) {
 		Component component = componentService.getComponentById(id);
-		return ResponseEntity.ok(component);
+		return ETags.respond(request, component.getVersion(), component);
 	}
 
 	// Buscar componentes por texto
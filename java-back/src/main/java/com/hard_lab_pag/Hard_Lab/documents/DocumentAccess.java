@@ -0,0 +1,64 @@
+package com.hard_lab_pag.Hard_Lab.documents;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+// Regra de edição dos documentos: o autor, professores e administradores
+public final class DocumentAccess {
+
+    // Chaves do fluxo de aprovação: o autor não aprova o próprio registro
+    private static final Set<String> WORKFLOW_KEYS = Set.of("status", "approvals");
+
+    // Estados com que o autor pode criar um registro (rascunho ou enviado para aprovação)
+    private static final Set<String> AUTHOR_STATUSES = Set.of("draft", "pending");
+
+    private DocumentAccess() {}
+
+    // Leitura de um registro pelo id: o autor, professores e administradores (mesmo escopo das listagens)
+    public static boolean canView(JsonDocument document, UserDetails user) {
+        return user != null && (isPrivileged(user) || user.getUsername().equals(document.getCreatedBy()));
+    }
+
+    public static void requireEditable(JsonDocument document, UserDetails user) {
+        if (user == null) {
+            throw new AccessDeniedException("Não autenticado");
+        }
+        if (!isPrivileged(user) && !user.getUsername().equals(document.getCreatedBy())) {
+            throw new AccessDeniedException("Sem permissão para alterar este registro");
+        }
+    }
+
+    // Merge patch: além de poder editar o registro, só professores e administradores mexem em status e aprovações
+    public static void requirePatchable(JsonDocument document, Map<String, Object> patch, UserDetails user) {
+        requireEditable(document, user);
+        if (!isPrivileged(user) && patch.keySet().stream().anyMatch(WORKFLOW_KEYS::contains)) {
+            throw new AccessDeniedException("Apenas professores e administradores alteram status e aprovações");
+        }
+    }
+
+    // Criação: o autor só escolhe um estado inicial e não traz aprovações preenchidas
+    public static void requireCreatable(Map<String, Object> payload, UserDetails user) {
+        if (user == null) {
+            throw new AccessDeniedException("Não autenticado");
+        }
+        if (isPrivileged(user)) {
+            return;
+        }
+        Object status = payload.get("status");
+        Object approvals = payload.get("approvals");
+        if ((status != null && !AUTHOR_STATUSES.contains(String.valueOf(status)))
+                || (approvals != null && !(approvals instanceof List<?> list && list.isEmpty()))) {
+            throw new AccessDeniedException("Apenas professores e administradores alteram status e aprovações");
+        }
+    }
+
+    // Professores e administradores veem e alteram registros de qualquer usuário
+    public static boolean isPrivileged(UserDetails user) {
+        return user != null && user.getAuthorities().stream()
+            .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()) || "ROLE_PROFESSOR".equals(a.getAuthority()));
+    }
+}
@@ -0,0 +1,134 @@
+package com.hard_lab_pag.Hard_Lab.documents;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+
+// Metadados dos caminhos indexados de cada entidade documento, lidos das anotações @IndexedPath
+@Component
+public class DocumentIndexRegistry {
+
+    private static final Pattern JSON_PATH = Pattern.compile("^\\$(\\.[A-Za-z_][A-Za-z0-9_]*)+$");
+    private static final Pattern FIELD_NAME = Pattern.compile("^[A-Za-z][A-Za-z0-9]*$");
+
+    private final Map<Class<?>, DocumentType> types = new LinkedHashMap<>();
+
+    public DocumentIndexRegistry(EntityManagerFactory entityManagerFactory) {
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Class<?> javaType = entity.getJavaType();
+            if (JsonDocument.class.isAssignableFrom(javaType)) {
+                types.put(javaType, describe(javaType));
+            }
+        }
+    }
+
+    public Collection<DocumentType> all() {
+        return types.values();
+    }
+
+    public DocumentType get(Class<?> entityClass) {
+        DocumentType type = types.get(entityClass);
+        if (type == null) {
+            throw new IllegalStateException("Entidade sem metadados de documento: " + entityClass.getSimpleName());
+        }
+        return type;
+    }
+
+    private static DocumentType describe(Class<?> entityClass) {
+        Table table = entityClass.getAnnotation(Table.class);
+        if (table == null || table.name().isBlank()) {
+            throw new IllegalStateException("Entidade documento sem @Table(name): " + entityClass.getSimpleName());
+        }
+        Map<String, IndexedField> fields = new LinkedHashMap<>();
+        for (IndexedPath path : entityClass.getAnnotationsByType(IndexedPath.class)) {
+            if (!FIELD_NAME.matcher(path.field()).matches() || !JSON_PATH.matcher(path.path()).matches()) {
+                throw new IllegalStateException("@IndexedPath inválido em " + entityClass.getSimpleName() + ": " + path.field());
+            }
+            fields.put(path.field(), new IndexedField(table.name(), path));
+        }
+        return new DocumentType(entityClass, table.name(), fields);
+    }
+
+    public static class DocumentType {
+
+        private final Class<?> entityClass;
+        private final String table;
+        private final Map<String, IndexedField> fields;
+
+        DocumentType(Class<?> entityClass, String table, Map<String, IndexedField> fields) {
+            this.entityClass = entityClass;
+            this.table = table;
+            this.fields = fields;
+        }
+
+        public Class<?> getEntityClass() { return entityClass; }
+        public String getTable() { return table; }
+        public Map<String, IndexedField> getFields() { return fields; }
+
+        public IndexedField field(String name) {
+            IndexedField field = fields.get(name);
+            if (field == null) {
+                throw new IllegalArgumentException("Campo não indexado: " + name);
+            }
+            return field;
+        }
+    }
+
+    public static class IndexedField {
+
+        private final String table;
+        private final String name;
+        private final String path;
+        private final IndexedPath.PathType type;
+        private final int length;
+        private final String column;
+        private final String indexName;
+
+        IndexedField(String table, IndexedPath path) {
+            this.table = table;
+            this.name = path.field();
+            this.path = path.path();
+            this.type = path.type();
+            this.length = path.length();
+            this.column = "doc_" + path.field().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase();
+            this.indexName = "idx_" + table + "_" + column;
+        }
+
+        public String getTable() { return table; }
+        public String getName() { return name; }
+        public String getPath() { return path; }
+        public IndexedPath.PathType getType() { return type; }
+        public String getColumn() { return column; }
+        public String getIndexName() { return indexName; }
+
+        public String sqlType() {
+            return switch (type) {
+                case STRING -> "VARCHAR(" + length + ")";
+                case NUMBER -> "DECIMAL(19,4)";
+                case DATE -> "DATE";
+            };
+        }
+
+        // Valores que não convertem para o tipo (ou ausentes) viram NULL em vez de falhar a escrita
+        public String generationExpression() {
+            String returning = switch (type) {
+                case STRING -> "CHAR(" + length + ")";
+                case NUMBER -> "DECIMAL(19,4)";
+                case DATE -> "DATE";
+            };
+            return "JSON_VALUE(`data`, '" + path + "' RETURNING " + returning + " NULL ON EMPTY NULL ON ERROR)";
+        }
+
+        // Assinatura gravada no COMMENT da coluna para detectar mudanças de definição
+        public String signature() {
+            return "docidx:" + Integer.toHexString((sqlType() + "|" + generationExpression()).hashCode());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.hard_lab_pag.Hard_Lab.documents;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.hard_lab_pag.Hard_Lab.infra.KeysetCursor;
+import com.hard_lab_pag.Hard_Lab.infra.KeysetPage;
+
+// Listagens de documentos compartilhadas pelos controllers de pedidos, projetos e reservas
+public final class DocumentListing {
+
+    private DocumentListing() {}
+
+    // Professores e administradores veem todos os registros; os demais usuários, apenas os próprios
+    public static <T extends JsonDocument> List<T> visibleTo(DocumentRepository<T> repository, UserDetails user) {
+        if (user == null) {
+            throw new AccessDeniedException("Não autenticado");
+        }
+        return DocumentAccess.isPrivileged(user) ? repository.findAll() : repository.findAllOwned(user.getUsername());
+    }
+
+    // Registros do usuário paginados por cursor (mais recentes primeiro); pageSize já limitado pelo chamador
+    public static <T extends JsonDocument> KeysetPage<T> ownedPage(DocumentRepository<T> repository, String owner, String cursor, int pageSize) {
+        return keysetPage(cursor, pageSize,
+            page -> repository.findOwnedFirstPage(owner, page),
+            (after, page) -> repository.findOwnedAfter(owner, after.getCreatedAt(), after.getId(), page));
+    }
+
+    // Mesma paginação com outras consultas de escopo (ex.: projetos dos quais o usuário participa)
+    public static <T extends JsonDocument> KeysetPage<T> keysetPage(
+        String cursor,
+        int pageSize,
+        Function<PageRequest, List<T>> firstPage,
+        BiFunction<KeysetCursor, PageRequest, List<T>> pageAfter
+    ) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<T> rows = after == null ? firstPage.apply(page) : pageAfter.apply(after, page);
+        return KeysetPage.of(rows, pageSize, d -> new KeysetCursor(d.getCreatedAt(), d.getId()).encode());
+    }
+}
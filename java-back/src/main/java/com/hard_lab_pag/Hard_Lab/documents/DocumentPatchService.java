@@ -0,0 +1,85 @@
+package com.hard_lab_pag.Hard_Lab.documents;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hard_lab_pag.Hard_Lab.infra.PreconditionFailedException;
+
+import jakarta.persistence.EntityManager;
+
+// Atualizações parciais do JSON direto no MySQL: só o patch trafega e é gravado
+@Service
+public class DocumentPatchService {
+
+    private final DocumentIndexRegistry registry;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public DocumentPatchService(DocumentIndexRegistry registry, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.registry = registry;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    // RFC 7396 via JSON_MERGE_PATCH; só grava se a versão ainda for a carregada, e recarrega a entidade gerenciada
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T extends JsonDocument> T mergePatch(T document, Map<String, Object> patch) {
+        String table = registry.get(document.getClass()).getTable();
+        entityManager.flush();
+        int updated = entityManager.createNativeQuery("UPDATE `" + table + "` SET data = JSON_MERGE_PATCH(COALESCE(data, JSON_OBJECT()), CAST(?1 AS JSON)), " +
+                "updated_at = ?2, version = version + 1 WHERE id = ?3 AND version = ?4")
+            .setParameter(1, toJson(patch))
+            .setParameter(2, LocalDateTime.now())
+            .setParameter(3, document.getId())
+            .setParameter(4, document.getVersion())
+            .executeUpdate();
+        if (updated == 0) {
+            throw new PreconditionFailedException("Registro alterado por outra pessoa; recarregue e tente novamente");
+        }
+        entityManager.refresh(document);
+        return document;
+    }
+
+    // Substitui chaves de primeiro nível com JSON_SET (ex.: totais recalculados pelo servidor); complementa um mergePatch na mesma transação
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T extends JsonDocument> T setFields(T document, Map<String, Object> values) {
+        if (values.isEmpty()) {
+            return document;
+        }
+        String table = registry.get(document.getClass()).getTable();
+        StringBuilder sql = new StringBuilder("UPDATE `").append(table).append("` SET data = JSON_SET(data");
+        int param = 1;
+        for (String key : values.keySet()) {
+            if (!key.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+                throw new IllegalArgumentException("Chave inválida: " + key);
+            }
+            sql.append(", '$.").append(key).append("', CAST(?").append(param++).append(" AS JSON)");
+        }
+        sql.append(") WHERE id = ?").append(param);
+
+        entityManager.flush();
+        var query = entityManager.createNativeQuery(sql.toString());
+        param = 1;
+        for (Object value : values.values()) {
+            query.setParameter(param++, toJson(value));
+        }
+        query.setParameter(param, document.getId());
+        query.executeUpdate();
+        entityManager.refresh(document);
+        return document;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Patch inválido");
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.hard_lab_pag.Hard_Lab.documents;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+// Consulta tipada sobre os campos declarados com @IndexedPath
+public class DocumentQuery<T extends JsonDocument> {
+
+    public enum Op {
+        EQ, NE, GT, GTE, LT, LTE, IN, PREFIX
+    }
+
+    public record Filter(String field, Op op, List<String> values) {}
+
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 500;
+
+    private final Class<T> entityClass;
+    private final List<Filter> filters = new ArrayList<>();
+    private String sortField = "createdAt";
+    private boolean descending = true;
+    private int limit = DEFAULT_LIMIT;
+    private int offset = 0;
+    private String owner;
+
+    private DocumentQuery(Class<T> entityClass) {
+        this.entityClass = entityClass;
+    }
+
+    public static <T extends JsonDocument> DocumentQuery<T> of(Class<T> entityClass) {
+        return new DocumentQuery<>(entityClass);
+    }
+
+    // Parâmetros HTTP: campo=valor, campo.gte=valor, campo.in=a,b, sort=-campo, limit, offset
+    // (qualquer outro parâmetro vira filtro e é recusado pelo DocumentQueryService se não for um campo indexado)
+    public static <T extends JsonDocument> DocumentQuery<T> fromParams(Class<T> entityClass, Map<String, String> params) {
+        DocumentQuery<T> query = of(entityClass);
+        params.forEach((key, value) -> {
+            switch (key) {
+                case "sort" -> query.orderBy(value.startsWith("-") ? value.substring(1) : value, value.startsWith("-"));
+                case "limit" -> query.limit(parseInt(key, value));
+                case "offset" -> query.offset(parseInt(key, value));
+                default -> {
+                    int dot = key.lastIndexOf('.');
+                    if (dot < 0) {
+                        query.where(key, Op.EQ, value);
+                    } else {
+                        Op op = parseOp(key.substring(dot + 1));
+                        List<String> values = op == Op.IN ? List.of(value.split(",")) : List.of(value);
+                        query.filters.add(new Filter(key.substring(0, dot), op, values));
+                    }
+                }
+            }
+        });
+        return query;
+    }
+
+    public DocumentQuery<T> where(String field, Op op, Object value) {
+        filters.add(new Filter(field, op, List.of(String.valueOf(value))));
+        return this;
+    }
+
+    public DocumentQuery<T> whereIn(String field, List<?> values) {
+        filters.add(new Filter(field, Op.IN, values.stream().map(String::valueOf).toList()));
+        return this;
+    }
+
+    public DocumentQuery<T> orderBy(String field, boolean descending) {
+        this.sortField = field;
+        this.descending = descending;
+        return this;
+    }
+
+    public DocumentQuery<T> limit(int limit) {
+        this.limit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return this;
+    }
+
+    public DocumentQuery<T> offset(int offset) {
+        this.offset = Math.max(0, offset);
+        return this;
+    }
+
+    // Restringe aos registros criados por este usuário (coluna created_by, fora do JSON)
+    public DocumentQuery<T> ownedBy(String owner) {
+        this.owner = owner;
+        return this;
+    }
+
+    // Mesma regra da listagem: professores e administradores consultam tudo, os demais apenas os próprios registros
+    public DocumentQuery<T> visibleTo(UserDetails user) {
+        if (user == null) {
+            throw new AccessDeniedException("Não autenticado");
+        }
+        return DocumentAccess.isPrivileged(user) ? this : ownedBy(user.getUsername());
+    }
+
+    public Class<T> getEntityClass() { return entityClass; }
+    public List<Filter> getFilters() { return filters; }
+    public String getSortField() { return sortField; }
+    public boolean isDescending() { return descending; }
+    public int getLimit() { return limit; }
+    public int getOffset() { return offset; }
+    public String getOwner() { return owner; }
+
+    private static Op parseOp(String name) {
+        try {
+            return Op.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Operador inválido: " + name);
+        }
+    }
+
+    private static int parseInt(String key, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para " + key + ": " + value);
+        }
+    }
+}
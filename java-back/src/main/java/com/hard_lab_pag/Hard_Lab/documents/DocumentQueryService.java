@@ -0,0 +1,120 @@
+package com.hard_lab_pag.Hard_Lab.documents;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hard_lab_pag.Hard_Lab.documents.DocumentIndexRegistry.DocumentType;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentIndexRegistry.IndexedField;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+// Executa DocumentQuery como SQL nativo sobre as colunas geradas (usa os índices de cada caminho)
+@Service
+public class DocumentQueryService {
+
+    private final DocumentIndexRegistry registry;
+    private final JsonPathIndexManager indexManager;
+    private final EntityManager entityManager;
+
+    public DocumentQueryService(DocumentIndexRegistry registry, JsonPathIndexManager indexManager, EntityManager entityManager) {
+        this.registry = registry;
+        this.indexManager = indexManager;
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public <T extends JsonDocument> List<T> find(DocumentQuery<T> query) {
+        DocumentType type = registry.get(query.getEntityClass());
+        StringBuilder sql = new StringBuilder("SELECT * FROM `").append(type.getTable()).append("`");
+        List<Object> params = new ArrayList<>();
+
+        String separator = " WHERE ";
+        if (query.getOwner() != null) {
+            sql.append(separator).append("`created_by` = ?");
+            params.add(query.getOwner());
+            separator = " AND ";
+        }
+        for (DocumentQuery.Filter filter : query.getFilters()) {
+            IndexedField field = queryableField(type, filter.field());
+            sql.append(separator).append('`').append(field.getColumn()).append('`');
+            switch (filter.op()) {
+                case EQ -> sql.append(" = ?");
+                case NE -> sql.append(" <> ?");
+                case GT -> sql.append(" > ?");
+                case GTE -> sql.append(" >= ?");
+                case LT -> sql.append(" < ?");
+                case LTE -> sql.append(" <= ?");
+                case PREFIX -> {
+                    if (field.getType() != IndexedPath.PathType.STRING) {
+                        throw new IllegalArgumentException("Operador prefix só se aplica a texto: " + field.getName());
+                    }
+                    sql.append(" LIKE ?");
+                }
+                case IN -> sql.append(" IN (").append(String.join(", ", Collections.nCopies(filter.values().size(), "?"))).append(")");
+            }
+            for (String value : filter.values()) {
+                params.add(filter.op() == DocumentQuery.Op.PREFIX ? escapeLike(value) + "%" : convert(field, value));
+            }
+            separator = " AND ";
+        }
+
+        String direction = query.isDescending() ? " DESC" : " ASC";
+        sql.append(" ORDER BY ").append(sortColumn(type, query.getSortField())).append(direction)
+           .append(", `id`").append(direction)
+           .append(" LIMIT ? OFFSET ?");
+        params.add(query.getLimit());
+        params.add(query.getOffset());
+
+        Query nativeQuery = entityManager.createNativeQuery(sql.toString(), query.getEntityClass());
+        for (int i = 0; i < params.size(); i++) {
+            nativeQuery.setParameter(i + 1, params.get(i));
+        }
+        return nativeQuery.getResultList();
+    }
+
+    private String sortColumn(DocumentType type, String field) {
+        return switch (field) {
+            case "id" -> "`id`";
+            case "createdAt" -> "`created_at`";
+            case "updatedAt" -> "`updated_at`";
+            default -> "`" + queryableField(type, field).getColumn() + "`";
+        };
+    }
+
+    // Só campos declarados com @IndexedPath cuja coluna gerada já existe; o resto vira 400 em vez de erro de SQL
+    private IndexedField queryableField(DocumentType type, String name) {
+        IndexedField field = type.getFields().get(name);
+        if (field == null) {
+            throw new IllegalArgumentException("Parâmetro de consulta desconhecido: " + name);
+        }
+        if (!indexManager.isReady(field)) {
+            throw new IllegalArgumentException("Campo ainda não disponível para consulta: " + name);
+        }
+        return field;
+    }
+
+    private static Object convert(IndexedField field, String value) {
+        try {
+            return switch (field.getType()) {
+                case STRING -> value;
+                case NUMBER -> new BigDecimal(value);
+                case DATE -> LocalDate.parse(value);
+            };
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Valor inválido para " + field.getName() + ": " + value);
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,26 @@
+package com.hard_lab_pag.Hard_Lab.documents;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+// Consultas por dono comuns aos documentos, cobertas pelo índice (created_by, created_at) de cada tabela
+@NoRepositoryBean
+public interface DocumentRepository<T extends JsonDocument> extends JpaRepository<T, Long> {
+
+    @Query("SELECT d FROM #{#entityName} d WHERE d.createdBy = :owner ORDER BY d.createdAt DESC, d.id DESC")
+    List<T> findAllOwned(@Param("owner") String owner);
+
+    @Query("SELECT d FROM #{#entityName} d WHERE d.createdBy = :owner ORDER BY d.createdAt DESC, d.id DESC")
+    List<T> findOwnedFirstPage(@Param("owner") String owner, Pageable pageable);
+
+    @Query("SELECT d FROM #{#entityName} d WHERE d.createdBy = :owner " +
+           "AND (d.createdAt < :createdAt OR (d.createdAt = :createdAt AND d.id < :id)) " +
+           "ORDER BY d.createdAt DESC, d.id DESC")
+    List<T> findOwnedAfter(@Param("owner") String owner, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+}
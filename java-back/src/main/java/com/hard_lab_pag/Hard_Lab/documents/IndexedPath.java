@@ -0,0 +1,31 @@
+package com.hard_lab_pag.Hard_Lab.documents;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Declara um caminho do JSON "data" que vira coluna gerada + índice no MySQL e pode ser filtrado/ordenado
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(IndexedPaths.class)
+public @interface IndexedPath {
+
+    // Nome usado na API de consulta (ex.: "status")
+    String field();
+
+    // Caminho JSON simples (ex.: "$.status" ou "$.supplier.name")
+    String path();
+
+    PathType type() default PathType.STRING;
+
+    // Tamanho máximo para STRING
+    int length() default 64;
+
+    enum PathType {
+        STRING,
+        NUMBER,
+        DATE
+    }
+}
@@ -0,0 +1,12 @@
+package com.hard_lab_pag.Hard_Lab.documents;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface IndexedPaths {
+    IndexedPath[] value();
+}
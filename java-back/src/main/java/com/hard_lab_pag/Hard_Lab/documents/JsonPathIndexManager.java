@@ -0,0 +1,191 @@
+package com.hard_lab_pag.Hard_Lab.documents;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.hard_lab_pag.Hard_Lab.documents.DocumentIndexRegistry.DocumentType;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentIndexRegistry.IndexedField;
+import com.hard_lab_pag.Hard_Lab.infra.LeaseLockService;
+
+// Sincroniza na inicialização as colunas geradas e índices declarados com @IndexedPath (sem migrações manuais)
+@Component
+public class JsonPathIndexManager implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(JsonPathIndexManager.class);
+    private static final String SIGNATURE_PREFIX = "docidx:";
+    private static final String LEASE_NAME = "document-indexes";
+
+    private final DocumentIndexRegistry registry;
+    private final JdbcTemplate jdbcTemplate;
+    private final LeaseLockService leaseLockService;
+
+    // Colunas já conferidas com a assinatura atual e índice criado (table.column)
+    private final Set<String> readyColumns = ConcurrentHashMap.newKeySet();
+
+    @Value("${documents.indexes.manage:true}")
+    private boolean manage;
+
+    @Value("${documents.indexes.lease:PT10M}")
+    private Duration lease;
+
+    public JsonPathIndexManager(DocumentIndexRegistry registry, JdbcTemplate jdbcTemplate, LeaseLockService leaseLockService) {
+        this.registry = registry;
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseLockService = leaseLockService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (manage) {
+            sync();
+        }
+        // Instância sem o lease (ou com manage=false) parte do que já está no schema; o resto fica para recheck
+        refreshReadiness();
+    }
+
+    private void sync() {
+        // Só uma instância altera o schema por vez; as demais seguem subindo e passam a consultar
+        // cada campo quando o recheck encontrar a coluna com a assinatura atual
+        boolean ran = leaseLockService.runExclusively(LEASE_NAME, lease, () -> {
+            for (DocumentType type : registry.all()) {
+                if (!sync(type)) {
+                    return;
+                }
+            }
+        });
+        if (!ran) {
+            log.info("Colunas geradas dos documentos sendo sincronizadas por outra instância");
+        }
+    }
+
+    // Verificado pelo DocumentQueryService antes de filtrar/ordenar pela coluna; só lê o estado em memória
+    public boolean isReady(IndexedField field) {
+        return readyColumns.contains(key(field));
+    }
+
+    // Campos que outra instância ainda está criando passam a valer aqui no próximo recheck; com tudo pronto não consulta o banco
+    @Scheduled(fixedDelayString = "${documents.indexes.recheck-interval-ms:60000}", initialDelayString = "${documents.indexes.recheck-interval-ms:60000}")
+    public void recheck() {
+        refreshReadiness();
+    }
+
+    // Duas consultas ao information_schema por tabela com campo pendente, não por requisição
+    void refreshReadiness() {
+        for (DocumentType type : registry.all()) {
+            List<IndexedField> pending = type.getFields().values().stream()
+                .filter(field -> !readyColumns.contains(key(field)))
+                .toList();
+            if (pending.isEmpty()) {
+                continue;
+            }
+            Map<String, Object> comments = new HashMap<>();
+            for (Map<String, Object> row : jdbcTemplate.queryForList(
+                    "SELECT COLUMN_NAME, COLUMN_COMMENT FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() " +
+                    "AND TABLE_NAME = ? AND COLUMN_COMMENT LIKE ?", type.getTable(), SIGNATURE_PREFIX + "%")) {
+                comments.put(String.valueOf(row.get("COLUMN_NAME")), row.get("COLUMN_COMMENT"));
+            }
+            Set<String> indexes = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT DISTINCT INDEX_NAME FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() " +
+                "AND TABLE_NAME = ?", String.class, type.getTable()));
+            for (IndexedField field : pending) {
+                if (field.signature().equals(comments.get(field.getColumn())) && indexes.contains(field.getIndexName())) {
+                    readyColumns.add(key(field));
+                }
+            }
+        }
+    }
+
+    private static String key(IndexedField field) {
+        return field.getTable() + "." + field.getColumn();
+    }
+
+    // false quando o lease foi perdido no meio (outra instância assume a partir do ponto em que parou)
+    private boolean sync(DocumentType type) {
+        String table = type.getTable();
+        for (IndexedField field : type.getFields().values()) {
+            if (!leaseLockService.renew(LEASE_NAME, lease)) {
+                log.warn("Lease {} perdido; interrompendo a sincronização em {}.{}", LEASE_NAME, table, field.getColumn());
+                return false;
+            }
+            String comment = currentComment(table, field.getColumn());
+            if (comment != null && !comment.startsWith(SIGNATURE_PREFIX)) {
+                log.warn("Coluna {}.{} já existe e não é gerenciada por @IndexedPath; ignorando", table, field.getColumn());
+                continue;
+            }
+            if (field.signature().equals(comment)) {
+                ensureIndex(table, field);
+                readyColumns.add(key(field));
+                continue;
+            }
+            if (comment != null) {
+                // Definição mudou: recria coluna e índice
+                readyColumns.remove(key(field));
+                dropColumn(table, field.getColumn(), field.getIndexName());
+            }
+            log.info("Criando coluna gerada {}.{} para {}", table, field.getColumn(), field.getPath());
+            jdbcTemplate.execute("ALTER TABLE `" + table + "` ADD COLUMN `" + field.getColumn() + "` " + field.sqlType() +
+                " GENERATED ALWAYS AS (" + field.generationExpression() + ") VIRTUAL COMMENT '" + field.signature() + "'");
+            ensureIndex(table, field);
+            readyColumns.add(key(field));
+        }
+
+        // Remove colunas geradas que deixaram de ser declaradas
+        Set<String> declared = type.getFields().values().stream().map(IndexedField::getColumn).collect(Collectors.toSet());
+        List<String> managed = jdbcTemplate.queryForList(
+            "SELECT COLUMN_NAME FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() " +
+            "AND TABLE_NAME = ? AND COLUMN_COMMENT LIKE ?", String.class, table, SIGNATURE_PREFIX + "%");
+        for (String column : managed) {
+            if (!declared.contains(column)) {
+                log.info("Removendo coluna gerada não declarada {}.{}", table, column);
+                dropColumn(table, column, "idx_" + table + "_" + column);
+            }
+        }
+        return true;
+    }
+
+    // null quando a coluna não existe
+    private String currentComment(String table, String column) {
+        List<String> comments = jdbcTemplate.queryForList(
+            "SELECT COLUMN_COMMENT FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() " +
+            "AND TABLE_NAME = ? AND COLUMN_NAME = ?", String.class, table, column);
+        if (comments.isEmpty()) {
+            return null;
+        }
+        return comments.get(0) != null ? comments.get(0) : "";
+    }
+
+    private void ensureIndex(String table, IndexedField field) {
+        if (!indexExists(table, field.getIndexName())) {
+            jdbcTemplate.execute("CREATE INDEX `" + field.getIndexName() + "` ON `" + table + "` (`" + field.getColumn() + "`)");
+        }
+    }
+
+    private void dropColumn(String table, String column, String indexName) {
+        if (indexExists(table, indexName)) {
+            jdbcTemplate.execute("DROP INDEX `" + indexName + "` ON `" + table + "`");
+        }
+        jdbcTemplate.execute("ALTER TABLE `" + table + "` DROP COLUMN `" + column + "`");
+    }
+
+    private boolean indexExists(String table, String indexName) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() " +
+            "AND TABLE_NAME = ? AND INDEX_NAME = ?", Integer.class, table, indexName);
+        return count != null && count > 0;
+    }
+}
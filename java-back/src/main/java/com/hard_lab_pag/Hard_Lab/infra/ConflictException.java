@@ -0,0 +1,9 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+// Registro único já existe (HTTP 409), inclusive quando a corrida só aparece na restrição UNIQUE do banco
+public class ConflictException extends RuntimeException {
+
+	public ConflictException(String message) {
+		super(message);
+	}
+}
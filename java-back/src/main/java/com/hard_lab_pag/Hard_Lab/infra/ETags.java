@@ -0,0 +1,60 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+// ETags fortes derivadas da coluna @Version das entidades
+public final class ETags {
+
+	private ETags() {}
+
+	public static String of(Long version) {
+		return "\"" + (version != null ? version : 0L) + "\"";
+	}
+
+	// GET condicional: 304 sem corpo quando If-None-Match contém a versão atual
+	public static <T> ResponseEntity<T> respond(WebRequest request, Long version, T body) {
+		String etag = of(version);
+		if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag, true)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+		}
+		return ResponseEntity.ok().eTag(etag).body(body);
+	}
+
+	public static <T> ResponseEntity<T> ok(Long version, T body) {
+		return ResponseEntity.ok().eTag(of(version)).body(body);
+	}
+
+	// Sem If-Match a escrita segue (compatibilidade com clientes antigos); com If-Match exige a versão atual
+	public static void requireMatch(String ifMatch, Long currentVersion) {
+		if (ifMatch == null || ifMatch.isBlank()) {
+			return;
+		}
+		if (!matches(ifMatch, of(currentVersion), false)) {
+			throw new PreconditionFailedException("Registro alterado por outra pessoa; recarregue e tente novamente");
+		}
+	}
+
+	private static boolean matches(String header, String etag, boolean weakComparison) {
+		if (header == null || header.isBlank()) {
+			return false;
+		}
+		for (String candidate : header.split(",")) {
+			String value = candidate.trim();
+			if (value.equals("*")) {
+				return true;
+			}
+			if (value.startsWith("W/")) {
+				// If-Match usa comparação forte: ETag fraca nunca casa
+				if (!weakComparison) continue;
+				value = value.substring(2);
+			}
+			if (value.equals(etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
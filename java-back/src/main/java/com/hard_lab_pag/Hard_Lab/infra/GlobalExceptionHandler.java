@@ -3,6 +3,8 @@ package com.hard_lab_pag.Hard_Lab.infra;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -34,6 +36,56 @@ public class GlobalExceptionHandler {
 		body.put("error", ex.getMessage());
 		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
 	}
-}
 
+	@ExceptionHandler(ConflictException.class)
+	public ResponseEntity<Map<String, Object>> handleConflict(ConflictException ex) {
+		Map<String, Object> body = new HashMap<>();
+		body.put("status", 409);
+		body.put("error", ex.getMessage());
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+	}
+
+	@ExceptionHandler({PreconditionFailedException.class, OptimisticLockingFailureException.class})
+	public ResponseEntity<Map<String, Object>> handlePreconditionFailed(RuntimeException ex) {
+		Map<String, Object> body = new HashMap<>();
+		body.put("status", 412);
+		body.put("error", ex instanceof PreconditionFailedException ? ex.getMessage() : "Registro alterado por outra pessoa; recarregue e tente novamente");
+		return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(body);
+	}
+
+	@ExceptionHandler(PayloadTooLargeException.class)
+	public ResponseEntity<Map<String, Object>> handlePayloadTooLarge(PayloadTooLargeException ex) {
+		Map<String, Object> body = new HashMap<>();
+		body.put("status", 413);
+		body.put("error", ex.getMessage());
+		return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(body);
+	}
 
+	@ExceptionHandler(UnauthorizedException.class)
+	public ResponseEntity<Map<String, Object>> handleUnauthorized(UnauthorizedException ex) {
+		Map<String, Object> body = new HashMap<>();
+		body.put("status", 401);
+		body.put("error", ex.getMessage());
+		return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(body);
+	}
+
+	@ExceptionHandler(TooManyRequestsException.class)
+	public ResponseEntity<Map<String, Object>> handleTooManyRequests(TooManyRequestsException ex) {
+		Map<String, Object> body = new HashMap<>();
+		body.put("status", 429);
+		body.put("error", ex.getMessage());
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+			.header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+			.body(body);
+	}
+
+	@ExceptionHandler(ServiceOverloadedException.class)
+	public ResponseEntity<Map<String, Object>> handleOverloaded(ServiceOverloadedException ex) {
+		Map<String, Object> body = new HashMap<>();
+		body.put("status", 503);
+		body.put("error", ex.getMessage());
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+			.header(HttpHeaders.RETRY_AFTER, "1")
+			.body(body);
+	}
+}
@@ -0,0 +1,40 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Cursor opaco de paginação por keyset (createdAt, id) para listagens em ordem decrescente
+public final class KeysetCursor {
+
+	private final LocalDateTime createdAt;
+	private final Long id;
+
+	public KeysetCursor(LocalDateTime createdAt, Long id) {
+		this.createdAt = createdAt;
+		this.id = id;
+	}
+
+	public LocalDateTime getCreatedAt() { return createdAt; }
+	public Long getId() { return id; }
+
+	public String encode() {
+		String raw = createdAt + "|" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	// Retorna null para a primeira página
+	public static KeysetCursor decode(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return null;
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int sep = raw.lastIndexOf('|');
+			return new KeysetCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+		} catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("Cursor inválido");
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+import java.util.List;
+import java.util.function.Function;
+
+// Página de resultados com o cursor para a próxima (null quando não há mais itens)
+public class KeysetPage<T> {
+
+	private final List<T> items;
+	private final String nextCursor;
+
+	public KeysetPage(List<T> items, String nextCursor) {
+		this.items = items;
+		this.nextCursor = nextCursor;
+	}
+
+	// Espera limit + 1 linhas: a sobra indica que existe próxima página
+	public static <T> KeysetPage<T> of(List<T> rows, int limit, Function<T, String> cursorOf) {
+		if (rows.size() <= limit) {
+			return new KeysetPage<>(rows, null);
+		}
+		List<T> items = rows.subList(0, limit);
+		return new KeysetPage<>(List.copyOf(items), cursorOf.apply(items.get(limit - 1)));
+	}
+
+	public static int clampLimit(int limit, int max) {
+		return Math.max(1, Math.min(limit, max));
+	}
+
+	public List<T> getItems() { return items; }
+	public String getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,71 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class LeaseLockService {
+
+	private final SchedulerLeaseRepository leaseRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final String owner;
+
+	public LeaseLockService(SchedulerLeaseRepository leaseRepository, PlatformTransactionManager transactionManager) {
+		this.leaseRepository = leaseRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.owner = resolveHostName() + ":" + UUID.randomUUID();
+	}
+
+	public boolean tryAcquire(String name, Duration leaseFor) {
+		Integer acquired = transactionTemplate.execute(status -> {
+			Instant now = Instant.now();
+			leaseRepository.insertIfAbsent(name, now);
+			return leaseRepository.acquire(name, owner, now, now.plus(leaseFor));
+		});
+		return acquired != null && acquired == 1;
+	}
+
+	// Tarefas longas renovam entre blocos; false = o lease venceu e outra instância pode ter assumido, parar
+	public boolean renew(String name, Duration leaseFor) {
+		Integer renewed = transactionTemplate.execute(status -> {
+			Instant now = Instant.now();
+			return leaseRepository.renew(name, owner, now, now.plus(leaseFor));
+		});
+		return renewed != null && renewed == 1;
+	}
+
+	public void release(String name) {
+		transactionTemplate.executeWithoutResult(status -> leaseRepository.release(name, owner, Instant.now()));
+	}
+
+	// Executa a tarefa apenas se esta instância conseguir o lease; retorna false se outra instância já está rodando
+	public boolean runExclusively(String name, Duration leaseFor, Runnable task) {
+		if (!tryAcquire(name, leaseFor)) {
+			return false;
+		}
+		try {
+			task.run();
+		} finally {
+			release(name);
+		}
+		return true;
+	}
+
+	public String getOwner() { return owner; }
+
+	private static String resolveHostName() {
+		try {
+			return InetAddress.getLocalHost().getHostName();
+		} catch (Exception e) {
+			return "unknown-host";
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Progresso de cada cópia de dados legados feita na subida (uma linha por migração)
+@Entity
+@Table(name = "migration_checkpoints")
+public class MigrationCheckpoint {
+
+	@Id
+	@Column(length = 64)
+	private String name;
+
+	// Id da última entidade já copiada
+	@Column(name = "last_id", nullable = false)
+	private Long lastId = 0L;
+
+	// Preenchido ao fim da cópia; a partir daí a migração não roda de novo
+	@Column(name = "completed_at")
+	private Instant completedAt;
+
+	public String getName() { return name; }
+	public void setName(String name) { this.name = name; }
+
+	public Long getLastId() { return lastId; }
+	public void setLastId(Long lastId) { this.lastId = lastId; }
+
+	public Instant getCompletedAt() { return completedAt; }
+	public void setCompletedAt(Instant completedAt) { this.completedAt = completedAt; }
+}
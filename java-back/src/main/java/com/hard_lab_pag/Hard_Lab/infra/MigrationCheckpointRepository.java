@@ -0,0 +1,28 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MigrationCheckpointRepository extends JpaRepository<MigrationCheckpoint, String> {
+
+	@Modifying
+	@Query(value = "INSERT IGNORE INTO migration_checkpoints (name, last_id) VALUES (:name, 0)", nativeQuery = true)
+	int insertIfAbsent(@Param("name") String name);
+
+	@Query(value = "SELECT last_id FROM migration_checkpoints WHERE name = :name AND completed_at IS NULL FOR UPDATE", nativeQuery = true)
+	Long findPendingLastIdForUpdate(@Param("name") String name);
+
+	@Modifying
+	@Query(value = "UPDATE migration_checkpoints SET last_id = :lastId WHERE name = :name", nativeQuery = true)
+	int advance(@Param("name") String name, @Param("lastId") long lastId);
+
+	@Modifying
+	@Query(value = "UPDATE migration_checkpoints SET completed_at = :now WHERE name = :name", nativeQuery = true)
+	int complete(@Param("name") String name, @Param("now") Instant now);
+}
@@ -0,0 +1,9 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+// Corpo da requisição acima do limite configurado (HTTP 413)
+public class PayloadTooLargeException extends RuntimeException {
+
+	public PayloadTooLargeException(String message) {
+		super(message);
+	}
+}
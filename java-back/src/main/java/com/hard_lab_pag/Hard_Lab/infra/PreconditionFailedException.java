@@ -0,0 +1,9 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+// Versão enviada em If-Match não corresponde à atual (HTTP 412)
+public class PreconditionFailedException extends RuntimeException {
+
+	public PreconditionFailedException(String message) {
+		super(message);
+	}
+}
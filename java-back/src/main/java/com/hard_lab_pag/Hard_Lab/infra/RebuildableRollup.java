@@ -0,0 +1,17 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+// Agregado mantido incrementalmente que o RollupRebuildJob sabe recontar do zero, em blocos por id.
+// Os dois métodos rodam dentro da transação do bloco, com o estado do rebuild já travado (FOR UPDATE).
+public interface RebuildableRollup {
+
+	// Chave em rollup_rebuild_states (e no lease do rebuild)
+	String rebuildName();
+
+	// Apaga até limit linhas do agregado; 0 = já está vazio
+	int clearChunk(int limit);
+
+	// Reconta as entidades com id > afterId (até limit, travadas FOR UPDATE); null se não havia mais nenhuma
+	Chunk recountAfter(long afterId, int limit);
+
+	record Chunk(long lastId, int size) {}
+}
@@ -0,0 +1,28 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Lado das escritas ao vivo de um agregado reconstruível. A escrita trava o estado do rebuild (FOR SHARE) antes de
+// tocar na entidade, na mesma ordem do bloco do rebuild (estado FOR UPDATE, depois entidades): sem deadlock entre os dois
+@Service
+public class RollupRebuildGuard {
+
+	private final RollupRebuildStateRepository stateRepository;
+
+	public RollupRebuildGuard(RollupRebuildStateRepository stateRepository) {
+		this.stateRepository = stateRepository;
+	}
+
+	// Chamar no início da transação da escrita, antes de INSERT/UPDATE na entidade
+	@Transactional(propagation = Propagation.MANDATORY)
+	public Long lockForWrite(String name) {
+		return stateRepository.findWatermarkForShare(name);
+	}
+
+	// Rebuild em andamento e a entidade ainda não recontada (ou nova): o bloco dela vai ler o estado já confirmado
+	public static boolean leftToRebuild(Long watermark, Long id) {
+		return watermark != null && (id == null || id > watermark);
+	}
+}
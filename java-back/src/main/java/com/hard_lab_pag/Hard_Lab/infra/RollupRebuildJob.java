@@ -0,0 +1,137 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+// Rebuild dos agregados incrementais em blocos por id. Cada bloco trava o estado, trava as entidades, reconta e avança
+// o watermark na mesma transação; escritas ao vivo além do watermark ficam para o rebuild (ver RollupRebuildGuard).
+// Roda na primeira subida (sem estado), após pedido do admin e retoma de onde parou após queda da instância.
+@Component
+public class RollupRebuildJob {
+
+	private static final Logger log = LoggerFactory.getLogger(RollupRebuildJob.class);
+	static final String LEASE_PREFIX = "rebuild:";
+
+	private final List<RebuildableRollup> rollups;
+	private final RollupRebuildStateRepository stateRepository;
+	private final LeaseLockService leaseLockService;
+	private final TransactionTemplate transactionTemplate;
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "rollup-rebuild"));
+
+	@Value("${rollups.rebuild.chunk-size:500}")
+	private int chunkSize;
+
+	@Value("${rollups.rebuild.lease:PT5M}")
+	private Duration lease;
+
+	public RollupRebuildJob(
+		List<RebuildableRollup> rollups,
+		RollupRebuildStateRepository stateRepository,
+		LeaseLockService leaseLockService,
+		PlatformTransactionManager transactionManager
+	) {
+		this.rollups = rollups;
+		this.stateRepository = stateRepository;
+		this.leaseLockService = leaseLockService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	// Sem rebuild pendente é só uma leitura do estado de cada agregado
+	@Scheduled(fixedDelayString = "${rollups.rebuild.poll-interval-ms:60000}", initialDelayString = "${rollups.rebuild.initial-delay-ms:30000}")
+	public void poll() {
+		for (RebuildableRollup rollup : rollups) {
+			if (pending(rollup.rebuildName())) {
+				run(rollup);
+			}
+		}
+	}
+
+	// Recomeça do zero em segundo plano; a partir daqui as escritas ao vivo deixam o agregado para o rebuild.
+	// Se outra instância já está no rebuild, ela percebe o recomeço no próximo bloco.
+	public void request(String name) {
+		RebuildableRollup rollup = rollups.stream()
+			.filter(r -> r.rebuildName().equals(name))
+			.findFirst()
+			.orElseThrow(() -> new IllegalArgumentException("Agregado desconhecido: " + name));
+		transactionTemplate.executeWithoutResult(status -> stateRepository.setWatermark(name, RollupRebuildState.CLEARING));
+		executor.execute(() -> run(rollup));
+	}
+
+	public boolean pending(String name) {
+		return stateRepository.findById(name)
+			.map(state -> state.getRebuildWatermark() != null)
+			.orElse(true);
+	}
+
+	private void run(RebuildableRollup rollup) {
+		String leaseName = LEASE_PREFIX + rollup.rebuildName();
+		try {
+			leaseLockService.runExclusively(leaseName, lease, () -> resume(rollup, () -> leaseLockService.renew(leaseName, lease)));
+		} catch (RuntimeException e) {
+			// O watermark fica onde parou; a próxima verificação agendada retoma
+			log.warn("Rebuild de {} interrompido: {}", rollup.rebuildName(), e.getMessage());
+		}
+	}
+
+	// Entidades recontadas; keepGoing (renovação do lease) é consultado antes de cada bloco
+	int resume(RebuildableRollup rollup, BooleanSupplier keepGoing) {
+		String name = rollup.rebuildName();
+		transactionTemplate.executeWithoutResult(status -> stateRepository.insertIfAbsent(name));
+		int processed = 0;
+		while (keepGoing.getAsBoolean()) {
+			Integer chunk = transactionTemplate.execute(status -> nextChunk(rollup));
+			if (chunk == null) {
+				if (processed > 0) {
+					log.info("Rebuild de {} concluído: {} registros recontados", name, processed);
+				}
+				break;
+			}
+			processed += chunk;
+		}
+		return processed;
+	}
+
+	// O watermark é relido travado a cada bloco: um novo pedido de rebuild no meio do caminho recomeça a contagem.
+	// null = rebuild concluído
+	private Integer nextChunk(RebuildableRollup rollup) {
+		String name = rollup.rebuildName();
+		Long watermark = stateRepository.findWatermarkForUpdate(name);
+		if (watermark == null) {
+			return null;
+		}
+		if (watermark == RollupRebuildState.CLEARING) {
+			if (rollup.clearChunk(chunkSize) == 0) {
+				stateRepository.setWatermark(name, 0L);
+			}
+			return 0;
+		}
+		RebuildableRollup.Chunk chunk = rollup.recountAfter(watermark, chunkSize);
+		if (chunk == null) {
+			stateRepository.finish(name, Instant.now());
+			return null;
+		}
+		stateRepository.setWatermark(name, chunk.lastId());
+		return chunk.size();
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		executor.shutdownNow();
+		executor.awaitTermination(5, TimeUnit.SECONDS);
+	}
+}
@@ -0,0 +1,37 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Progresso do rebuild de cada agregado mantido incrementalmente (uma linha por agregado)
+@Entity
+@Table(name = "rollup_rebuild_states")
+public class RollupRebuildState {
+
+	// Rebuild começando: o agregado ainda vai ser esvaziado
+	public static final long CLEARING = -1L;
+
+	@Id
+	@Column(length = 64)
+	private String name;
+
+	// null = agregado em dia; senão, id da última entidade já recontada
+	@Column(name = "rebuild_watermark")
+	private Long rebuildWatermark;
+
+	@Column(name = "rebuilt_at")
+	private Instant rebuiltAt;
+
+	public String getName() { return name; }
+	public void setName(String name) { this.name = name; }
+
+	public Long getRebuildWatermark() { return rebuildWatermark; }
+	public void setRebuildWatermark(Long rebuildWatermark) { this.rebuildWatermark = rebuildWatermark; }
+
+	public Instant getRebuiltAt() { return rebuiltAt; }
+	public void setRebuiltAt(Instant rebuiltAt) { this.rebuiltAt = rebuiltAt; }
+}
@@ -0,0 +1,34 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RollupRebuildStateRepository extends JpaRepository<RollupRebuildState, String> {
+
+	// Sem linha de estado o agregado nunca foi montado a partir do histórico: o rebuild começa do zero
+	@Modifying
+	@Query(value = "INSERT IGNORE INTO rollup_rebuild_states (name, rebuild_watermark) VALUES (:name, -1)", nativeQuery = true)
+	int insertIfAbsent(@Param("name") String name);
+
+	// Leituras travadas devolvem sempre o valor confirmado mais recente, mesmo em REPEATABLE READ
+	@Query(value = "SELECT rebuild_watermark FROM rollup_rebuild_states WHERE name = :name FOR SHARE", nativeQuery = true)
+	Long findWatermarkForShare(@Param("name") String name);
+
+	@Query(value = "SELECT rebuild_watermark FROM rollup_rebuild_states WHERE name = :name FOR UPDATE", nativeQuery = true)
+	Long findWatermarkForUpdate(@Param("name") String name);
+
+	@Modifying
+	@Query(value = "INSERT INTO rollup_rebuild_states (name, rebuild_watermark) VALUES (:name, :watermark) " +
+			"ON DUPLICATE KEY UPDATE rebuild_watermark = VALUES(rebuild_watermark)", nativeQuery = true)
+	int setWatermark(@Param("name") String name, @Param("watermark") Long watermark);
+
+	@Modifying
+	@Query(value = "UPDATE rollup_rebuild_states SET rebuild_watermark = NULL, rebuilt_at = :now WHERE name = :name", nativeQuery = true)
+	int finish(@Param("name") String name, @Param("now") Instant now);
+}
@@ -0,0 +1,33 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Lease de execução exclusiva de jobs agendados entre instâncias
+@Entity
+@Table(name = "scheduler_leases")
+public class SchedulerLease {
+
+	@Id
+	@Column(length = 64)
+	private String name;
+
+	@Column(nullable = false)
+	private Instant lockedUntil;
+
+	@Column(nullable = false)
+	private String lockedBy;
+
+	public String getName() { return name; }
+	public void setName(String name) { this.name = name; }
+
+	public Instant getLockedUntil() { return lockedUntil; }
+	public void setLockedUntil(Instant lockedUntil) { this.lockedUntil = lockedUntil; }
+
+	public String getLockedBy() { return lockedBy; }
+	public void setLockedBy(String lockedBy) { this.lockedBy = lockedBy; }
+}
@@ -0,0 +1,33 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+	@Modifying
+	@Query(value = "INSERT IGNORE INTO scheduler_leases (name, locked_until, locked_by) VALUES (:name, :now, '')", nativeQuery = true)
+	int insertIfAbsent(@Param("name") String name, @Param("now") Instant now);
+
+	// Só adquire se o lease expirou ou já pertence a esta instância (renovação)
+	@Modifying
+	@Query(value = "UPDATE scheduler_leases SET locked_until = :until, locked_by = :owner " +
+			"WHERE name = :name AND (locked_until <= :now OR locked_by = :owner)", nativeQuery = true)
+	int acquire(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now, @Param("until") Instant until);
+
+	// Renovação estrita: só estende um lease desta instância que ainda não venceu
+	@Modifying
+	@Query(value = "UPDATE scheduler_leases SET locked_until = :until " +
+			"WHERE name = :name AND locked_by = :owner AND locked_until > :now", nativeQuery = true)
+	int renew(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now, @Param("until") Instant until);
+
+	@Modifying
+	@Query(value = "UPDATE scheduler_leases SET locked_until = :now WHERE name = :name AND locked_by = :owner", nativeQuery = true)
+	int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now);
+}
@@ -0,0 +1,64 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Partes comuns dos índices invertidos de busca (user_search_terms, project_search_terms): termos normalizados
+// com peso por campo, resultado na ordem do ranking e reconstrução do índice em blocos por id
+public final class SearchTerms {
+
+	public static final int MIN_TOKEN_LENGTH = 2;
+	public static final int MAX_TERM_LENGTH = 100;
+
+	private SearchTerms() {}
+
+	// Palavras do texto com o peso do campo; merge decide o peso de um termo que aparece em mais de um campo
+	public static void add(Map<String, Integer> terms, Object text, int weight, BinaryOperator<Integer> merge) {
+		if (text != null) {
+			add(terms, TextNormalizer.tokens(text.toString(), MIN_TOKEN_LENGTH), weight, merge);
+		}
+	}
+
+	public static void add(Map<String, Integer> terms, Collection<String> tokens, int weight, BinaryOperator<Integer> merge) {
+		for (String token : tokens) {
+			if (!token.isEmpty() && token.length() <= MAX_TERM_LENGTH) {
+				terms.merge(token, weight, merge);
+			}
+		}
+	}
+
+	// O ranking devolve ids; a carga por id (IN) não preserva a ordem
+	public static <T> List<T> inRankOrder(List<Long> ids, Collection<T> rows, Function<T, Long> idOf) {
+		Map<Long, T> byId = rows.stream().collect(Collectors.toMap(idOf, Function.identity()));
+		List<T> result = new ArrayList<>(ids.size());
+		for (Long id : ids) {
+			T row = byId.get(id);
+			if (row != null) result.add(row);
+		}
+		return result;
+	}
+
+	// indexAfter indexa o bloco seguinte ao id (uma transação por bloco) e devolve as linhas indexadas
+	public static <T> int reindexInChunks(TransactionTemplate transactionTemplate, LongFunction<List<T>> indexAfter, Function<T, Long> idOf) {
+		long afterId = 0;
+		int processed = 0;
+		while (true) {
+			final long cursor = afterId;
+			List<T> chunk = transactionTemplate.execute(status -> indexAfter.apply(cursor));
+			if (chunk == null || chunk.isEmpty()) {
+				break;
+			}
+			processed += chunk.size();
+			afterId = idOf.apply(chunk.get(chunk.size() - 1));
+		}
+		return processed;
+	}
+}
@@ -0,0 +1,9 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+// Capacidade esgotada; o cliente deve tentar de novo em instantes (HTTP 503 com Retry-After)
+public class ServiceOverloadedException extends RuntimeException {
+
+	public ServiceOverloadedException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,18 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+// Cópia de dados do esquema antigo que precisa terminar antes de a instância receber tráfego (ver StartupMigrationRunner).
+// Só copia: a origem fica intacta para instâncias antigas e para rollback, e sai num release posterior.
+public interface StartupMigration {
+
+	// Chave em migration_checkpoints (e no lease da migração)
+	String migrationName();
+
+	// false = a tabela/coluna antiga não existe, nada a copiar
+	boolean hasLegacyData();
+
+	// Copia as entidades com id > afterId (até limit) dentro da transação do bloco, com o checkpoint travado;
+	// null se não havia mais nenhuma
+	Chunk copyAfter(long afterId, int limit);
+
+	record Chunk(long lastId, int size) {}
+}
@@ -0,0 +1,119 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Roda as StartupMigration depois de criados os beans e antes de o servidor web subir: nenhuma requisição vê dados
+// pela metade. Uma instância copia por vez (lease); as outras esperam o checkpoint ser concluído. Cada bloco copia
+// e avança o checkpoint na mesma transação, então uma queda retoma do último bloco e nada é copiado duas vezes.
+@Component
+public class StartupMigrationRunner implements SmartInitializingSingleton {
+
+	private static final Logger log = LoggerFactory.getLogger(StartupMigrationRunner.class);
+	static final String LEASE_PREFIX = "migration:";
+
+	private final List<StartupMigration> migrations;
+	private final MigrationCheckpointRepository checkpointRepository;
+	private final LeaseLockService leaseLockService;
+	private final TransactionTemplate transactionTemplate;
+
+	@Value("${migrations.chunk-size:500}")
+	private int chunkSize;
+
+	@Value("${migrations.lease:PT5M}")
+	private Duration lease;
+
+	@Value("${migrations.wait-interval:PT2S}")
+	private Duration waitInterval;
+
+	public StartupMigrationRunner(
+		List<StartupMigration> migrations,
+		MigrationCheckpointRepository checkpointRepository,
+		LeaseLockService leaseLockService,
+		PlatformTransactionManager transactionManager
+	) {
+		this.migrations = migrations;
+		this.checkpointRepository = checkpointRepository;
+		this.leaseLockService = leaseLockService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		for (StartupMigration migration : migrations) {
+			if (!completed(migration.migrationName()) && migration.hasLegacyData()) {
+				runToCompletion(migration);
+			}
+		}
+	}
+
+	// Sem o lease, outra instância está copiando: espera; se ela cair, o lease vence e esta assume do checkpoint
+	void runToCompletion(StartupMigration migration) {
+		String name = migration.migrationName();
+		String leaseName = LEASE_PREFIX + name;
+		while (!completed(name)) {
+			boolean ran = leaseLockService.runExclusively(leaseName, lease, () -> resume(migration, () -> leaseLockService.renew(leaseName, lease)));
+			if (!ran) {
+				log.info("Migração {} em andamento em outra instância; aguardando", name);
+				sleep(waitInterval);
+			}
+		}
+	}
+
+	boolean completed(String name) {
+		return checkpointRepository.findById(name)
+			.map(checkpoint -> checkpoint.getCompletedAt() != null)
+			.orElse(false);
+	}
+
+	// Entidades copiadas; keepGoing (renovação do lease) é consultado antes de cada bloco
+	int resume(StartupMigration migration, BooleanSupplier keepGoing) {
+		String name = migration.migrationName();
+		transactionTemplate.executeWithoutResult(status -> checkpointRepository.insertIfAbsent(name));
+		int copied = 0;
+		while (keepGoing.getAsBoolean()) {
+			Integer chunk = transactionTemplate.execute(status -> nextChunk(migration));
+			if (chunk == null) {
+				log.info("Migração {} concluída: {} registros copiados nesta execução", name, copied);
+				break;
+			}
+			copied += chunk;
+		}
+		return copied;
+	}
+
+	// null = migração concluída
+	private Integer nextChunk(StartupMigration migration) {
+		String name = migration.migrationName();
+		Long lastId = checkpointRepository.findPendingLastIdForUpdate(name);
+		if (lastId == null) {
+			return null;
+		}
+		StartupMigration.Chunk chunk = migration.copyAfter(lastId, chunkSize);
+		if (chunk == null) {
+			checkpointRepository.complete(name, Instant.now());
+			return null;
+		}
+		checkpointRepository.advance(name, chunk.lastId());
+		return chunk.size();
+	}
+
+	private static void sleep(Duration duration) {
+		try {
+			Thread.sleep(duration.toMillis());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Subida interrompida aguardando migração", e);
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Normalização de texto para busca: minúsculas, sem acentos ("João" -> "joao")
+public final class TextNormalizer {
+
+	private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+
+	private TextNormalizer() {}
+
+	public static String normalize(String text) {
+		if (text == null) return "";
+		String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+		return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).trim();
+	}
+
+	public static Set<String> tokens(String text, int minLength) {
+		Set<String> tokens = new LinkedHashSet<>();
+		for (String token : SEPARATORS.split(normalize(text))) {
+			if (token.length() >= minLength) {
+				tokens.add(token);
+			}
+		}
+		return tokens;
+	}
+}
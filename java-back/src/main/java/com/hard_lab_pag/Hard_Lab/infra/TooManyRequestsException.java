@@ -0,0 +1,14 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+// Limite de tentativas excedido (HTTP 429 com Retry-After)
+public class TooManyRequestsException extends RuntimeException {
+
+	private final long retryAfterSeconds;
+
+	public TooManyRequestsException(String message, long retryAfterSeconds) {
+		super(message);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
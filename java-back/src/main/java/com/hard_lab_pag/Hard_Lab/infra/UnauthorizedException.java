@@ -0,0 +1,9 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+// Credencial ausente, inválida ou revogada (HTTP 401)
+public class UnauthorizedException extends RuntimeException {
+
+	public UnauthorizedException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,49 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Dispositivo que recebe push; chave pelo SHA-256 do token (o mesmo aparelho registrado de novo só atualiza last_seen_at)
+@Entity
+@Table(name = "device_tokens", indexes = {
+	@Index(name = "idx_device_tokens_user", columnList = "user_id, last_seen_at"),
+	@Index(name = "idx_device_tokens_last_seen", columnList = "last_seen_at")
+})
+public class DeviceToken {
+
+	@Id
+	@Column(name = "token_hash", length = 64)
+	private String tokenHash;
+
+	@Column(nullable = false, length = 512)
+	private String token;
+
+	@Column(name = "user_id", nullable = false)
+	private Long userId;
+
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private Instant createdAt;
+
+	@Column(name = "last_seen_at", nullable = false)
+	private Instant lastSeenAt;
+
+	public String getTokenHash() { return tokenHash; }
+	public void setTokenHash(String tokenHash) { this.tokenHash = tokenHash; }
+
+	public String getToken() { return token; }
+	public void setToken(String token) { this.token = token; }
+
+	public Long getUserId() { return userId; }
+	public void setUserId(Long userId) { this.userId = userId; }
+
+	public Instant getCreatedAt() { return createdAt; }
+	public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+	public Instant getLastSeenAt() { return lastSeenAt; }
+	public void setLastSeenAt(Instant lastSeenAt) { this.lastSeenAt = lastSeenAt; }
+}
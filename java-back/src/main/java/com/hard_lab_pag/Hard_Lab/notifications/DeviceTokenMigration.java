@@ -0,0 +1,64 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.hard_lab_pag.Hard_Lab.infra.StartupMigration;
+
+import jakarta.persistence.EntityManager;
+
+// Copia users.device_token (um aparelho por usuário) para device_tokens antes de a instância atender (ver
+// StartupMigrationRunner). A coluna antiga fica intacta: instâncias antigas do rolling deploy continuam enviando push
+// por ela e um rollback não perde nada; ela só é limpa num release posterior. SHA2 do MySQL gera o mesmo hash que
+// DeviceTokenService.hash. Aparelhos registrados nas instâncias antigas depois da cópia se registram de novo no próximo login.
+@Component
+@ConditionalOnProperty(name = "notifications.devices.migration.enabled", havingValue = "true", matchIfMissing = true)
+public class DeviceTokenMigration implements StartupMigration {
+
+	static final String NAME = "device-tokens";
+
+	private final EntityManager entityManager;
+
+	public DeviceTokenMigration(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	@Override
+	public String migrationName() {
+		return NAME;
+	}
+
+	@Override
+	public boolean hasLegacyData() {
+		Number count = (Number) entityManager.createNativeQuery(
+				"SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE() AND table_name = 'users' AND column_name = 'device_token'")
+			.getSingleResult();
+		return count.intValue() > 0;
+	}
+
+	// O checkpoint avança na mesma transação, então cada usuário é copiado uma vez mesmo sem limpar a coluna
+	@Override
+	@SuppressWarnings("unchecked")
+	public Chunk copyAfter(long afterId, int limit) {
+		List<Number> ids = entityManager.createNativeQuery("SELECT id FROM users WHERE device_token IS NOT NULL AND id > ?1 ORDER BY id LIMIT ?2")
+			.setParameter(1, afterId)
+			.setParameter(2, limit)
+			.getResultList();
+		if (ids.isEmpty()) {
+			return null;
+		}
+		long from = ids.get(0).longValue();
+		long to = ids.get(ids.size() - 1).longValue();
+		// Token já registrado pela versão nova mantém o dono e o last_seen_at atuais
+		entityManager.createNativeQuery("INSERT INTO device_tokens (token_hash, token, user_id, created_at, last_seen_at) "
+				+ "SELECT SHA2(device_token, 256), device_token, id, NOW(6), NOW(6) FROM users "
+				+ "WHERE device_token IS NOT NULL AND device_token <> '' AND id BETWEEN ?1 AND ?2 "
+				+ "ON DUPLICATE KEY UPDATE token_hash = token_hash")
+			.setParameter(1, from)
+			.setParameter(2, to)
+			.executeUpdate();
+		return new Chunk(to, ids.size());
+	}
+}
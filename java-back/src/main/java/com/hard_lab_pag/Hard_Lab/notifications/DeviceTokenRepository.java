@@ -0,0 +1,42 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DeviceTokenRepository extends JpaRepository<DeviceToken, String> {
+
+	// Mesmo token de novo: só renova last_seen_at; token que trocou de conta passa para o novo usuário
+	@Modifying
+	@Query(value = "INSERT INTO device_tokens (token_hash, token, user_id, created_at, last_seen_at) "
+		+ "VALUES (:hash, :token, :userId, :now, :now) "
+		+ "ON DUPLICATE KEY UPDATE user_id = :userId, last_seen_at = :now", nativeQuery = true)
+	int upsert(@Param("hash") String hash, @Param("token") String token, @Param("userId") Long userId, @Param("now") Instant now);
+
+	// Aparelhos do usuário do visto mais recentemente ao mais antigo; o hash desempata last_seen_at iguais
+	@Query("SELECT d.tokenHash FROM DeviceToken d WHERE d.userId = :userId ORDER BY d.lastSeenAt DESC, d.tokenHash DESC")
+	List<String> findHashesNewestFirst(@Param("userId") Long userId);
+
+	@Modifying
+	@Query("DELETE FROM DeviceToken d WHERE d.tokenHash = :hash AND d.userId = :userId")
+	int deleteOwned(@Param("hash") String hash, @Param("userId") Long userId);
+
+	@Modifying
+	@Query("DELETE FROM DeviceToken d WHERE d.tokenHash IN :hashes")
+	int deleteByHashes(@Param("hashes") Collection<String> hashes);
+
+	// (gmail, token) de todos os dispositivos dos destinatários
+	@Query("SELECT u.gmail, d.token FROM DeviceToken d JOIN User u ON u.id = d.userId WHERE u.gmail IN :gmails")
+	List<Object[]> findTokensByGmails(@Param("gmails") Collection<String> gmails);
+
+	@Modifying
+	@Query(value = "DELETE FROM device_tokens WHERE last_seen_at < :cutoff LIMIT :limit", nativeQuery = true)
+	int deleteStale(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,89 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hard_lab_pag.Hard_Lab.infra.UnauthorizedException;
+import com.hard_lab_pag.Hard_Lab.user.UserRepository;
+
+// Registro de dispositivos por usuário (vários aparelhos); registrar de novo é um upsert pequeno, sem regravar o usuário
+@Service
+public class DeviceTokenService {
+
+	private final DeviceTokenRepository deviceTokenRepository;
+	private final UserRepository userRepository;
+
+	@Value("${notifications.devices.max-per-user:10}")
+	private int maxPerUser;
+
+	public DeviceTokenService(DeviceTokenRepository deviceTokenRepository, UserRepository userRepository) {
+		this.deviceTokenRepository = deviceTokenRepository;
+		this.userRepository = userRepository;
+	}
+
+	@Transactional
+	public void register(String gmail, String token) {
+		Long userId = requireUserId(gmail);
+		deviceTokenRepository.upsert(hash(token), token, userId, Instant.now());
+		trimToMostRecent(userId);
+	}
+
+	// Mantém só os maxPerUser vistos mais recentemente. A lista do usuário é curta (limite + 1), e a ordem total
+	// (last_seen_at, hash) não apaga mais de um aparelho quando dois foram vistos no mesmo instante
+	int trimToMostRecent(Long userId) {
+		List<String> hashes = deviceTokenRepository.findHashesNewestFirst(userId);
+		if (hashes.size() <= maxPerUser) {
+			return 0;
+		}
+		return deviceTokenRepository.deleteByHashes(hashes.subList(maxPerUser, hashes.size()));
+	}
+
+	// Logout do aparelho; só remove se o token for do próprio usuário
+	@Transactional
+	public boolean unregister(String gmail, String token) {
+		return deviceTokenRepository.deleteOwned(hash(token), requireUserId(gmail)) > 0;
+	}
+
+	@Transactional(readOnly = true)
+	public Map<String, List<String>> tokensFor(Collection<String> gmails) {
+		Map<String, List<String>> tokens = new HashMap<>();
+		for (Object[] row : deviceTokenRepository.findTokensByGmails(gmails)) {
+			tokens.computeIfAbsent((String) row[0], gmail -> new ArrayList<>()).add((String) row[1]);
+		}
+		return tokens;
+	}
+
+	// Tokens que o provedor rejeitou, apagados de uma vez
+	@Transactional
+	public int invalidate(Collection<String> tokens) {
+		if (tokens.isEmpty()) {
+			return 0;
+		}
+		return deviceTokenRepository.deleteByHashes(tokens.stream().map(DeviceTokenService::hash).toList());
+	}
+
+	static String hash(String token) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private Long requireUserId(String gmail) {
+		return userRepository.findIdByGmail(gmail).orElseThrow(() -> new UnauthorizedException("Usuário não encontrado"));
+	}
+}
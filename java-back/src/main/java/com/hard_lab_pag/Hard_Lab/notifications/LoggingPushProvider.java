@@ -0,0 +1,28 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Provedor local (padrão em desenvolvimento): só registra no log e considera entregue
+@Component
+@ConditionalOnProperty(name = "notifications.push.provider", havingValue = "log", matchIfMissing = true)
+public class LoggingPushProvider implements PushProvider {
+
+	private static final Logger log = LoggerFactory.getLogger(LoggingPushProvider.class);
+
+	@Override
+	public List<PushResult> send(List<PushMessage> messages) {
+		for (PushMessage message : messages) {
+			log.info("Push (log) para dispositivo {}...: {}", abbreviate(message.deviceToken()), message.title());
+		}
+		return messages.stream().map(PushResult::delivered).toList();
+	}
+
+	private static String abbreviate(String token) {
+		return token.length() <= 8 ? token : token.substring(0, 8);
+	}
+}
@@ -0,0 +1,15 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public class MarkReadRequest {
+	@NotEmpty
+	@Size(max = 500)
+	private List<Long> ids;
+
+	public List<Long> getIds() { return ids; }
+	public void setIds(List<Long> ids) { this.ids = ids; }
+}
@@ -0,0 +1,25 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Não lidas por usuário, mantido junto com cada escrita na caixa de entrada; o badge do app lê só esta linha
+@Entity
+@Table(name = "notification_counters")
+public class NotificationCounter {
+
+	@Id
+	@Column(name = "user_id")
+	private Long userId;
+
+	@Column(nullable = false)
+	private Integer unread = 0;
+
+	public Long getUserId() { return userId; }
+	public void setUserId(Long userId) { this.userId = userId; }
+
+	public Integer getUnread() { return unread; }
+	public void setUnread(Integer unread) { this.unread = unread; }
+}
@@ -0,0 +1,22 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationCounterRepository extends JpaRepository<NotificationCounter, Long> {
+
+	// Upsert atômico: incrementos concorrentes não se perdem e o contador nunca fica negativo
+	@Modifying
+	@Query(value = "INSERT INTO notification_counters (user_id, unread) VALUES (:userId, GREATEST(:delta, 0)) "
+		+ "ON DUPLICATE KEY UPDATE unread = GREATEST(unread + :delta, 0)", nativeQuery = true)
+	int add(@Param("userId") Long userId, @Param("delta") int delta);
+
+	@Query("SELECT c.unread FROM NotificationCounter c WHERE c.userId = :userId")
+	Optional<Integer> findUnread(@Param("userId") Long userId);
+}
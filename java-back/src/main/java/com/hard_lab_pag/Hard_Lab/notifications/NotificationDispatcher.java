@@ -0,0 +1,270 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hard_lab_pag.Hard_Lab.notifications.PushProvider.Outcome;
+import com.hard_lab_pag.Hard_Lab.notifications.PushProvider.PushMessage;
+import com.hard_lab_pag.Hard_Lab.notifications.PushProvider.PushResult;
+
+import jakarta.annotation.PreDestroy;
+
+// Esvazia o outbox em lotes para o PushProvider. Uma janela de mensagens em voo (semáforo) limita o que sai:
+// sem vaga, as linhas continuam PENDING no banco até o provedor dar conta. Falhas voltam com backoff exponencial.
+@Component
+public class NotificationDispatcher {
+
+	private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+	private static final int MAX_ERROR_LENGTH = 500;
+
+	private final NotificationOutboxRepository outboxRepository;
+	private final DeviceTokenService deviceTokenService;
+	private final PushProvider pushProvider;
+	private final TransactionTemplate transactionTemplate;
+	private final ExecutorService senders;
+	private final Semaphore inFlight;
+	private final int batchSize;
+	private final AtomicBoolean draining = new AtomicBoolean();
+	private final AtomicBoolean drainAgain = new AtomicBoolean();
+
+	@Value("${notifications.dispatch.claim-timeout:PT2M}")
+	private Duration claimTimeout;
+
+	@Value("${notifications.dispatch.backoff-base:PT10S}")
+	private Duration backoffBase;
+
+	@Value("${notifications.dispatch.backoff-max:PT1H}")
+	private Duration backoffMax;
+
+	@Value("${notifications.dispatch.max-attempts:8}")
+	private int maxAttempts;
+
+	public NotificationDispatcher(
+		NotificationOutboxRepository outboxRepository,
+		DeviceTokenService deviceTokenService,
+		PushProvider pushProvider,
+		PlatformTransactionManager transactionManager,
+		@Value("${notifications.dispatch.batch-size:100}") int batchSize,
+		@Value("${notifications.dispatch.max-in-flight:500}") int maxInFlight,
+		@Value("${notifications.dispatch.threads:2}") int threads
+	) {
+		this.outboxRepository = outboxRepository;
+		this.deviceTokenService = deviceTokenService;
+		this.pushProvider = pushProvider;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.batchSize = batchSize;
+		this.inFlight = new Semaphore(maxInFlight);
+		this.senders = Executors.newFixedThreadPool(threads, namedThreads());
+	}
+
+	@Scheduled(fixedDelayString = "${notifications.dispatch.poll-interval-ms:2000}")
+	public void poll() {
+		drain();
+	}
+
+	// Chamado após o commit de um enqueue; não bloqueia quem chamou
+	public void wakeUp() {
+		try {
+			senders.execute(this::drain);
+		} catch (RejectedExecutionException e) {
+			// Encerrando: o próximo polling (ou outra instância) entrega
+		}
+	}
+
+	// Um dreno por vez nesta instância; pedidos durante o dreno fazem mais uma passada no final
+	int drain() {
+		if (!draining.compareAndSet(false, true)) {
+			drainAgain.set(true);
+			return 0;
+		}
+		int dispatched = 0;
+		try {
+			do {
+				drainAgain.set(false);
+				dispatched += drainOnce();
+			} while (drainAgain.get());
+		} finally {
+			draining.set(false);
+		}
+		return dispatched;
+	}
+
+	private int drainOnce() {
+		int dispatched = 0;
+		while (true) {
+			int window = Math.min(batchSize, inFlight.availablePermits());
+			if (window == 0) {
+				break;
+			}
+			List<NotificationOutbox> batch = claim(window);
+			if (batch.isEmpty()) {
+				break;
+			}
+			// Só este dreno adquire vagas, então há pelo menos window livres
+			inFlight.acquireUninterruptibly(batch.size());
+			try {
+				senders.execute(() -> deliver(batch));
+			} catch (RejectedExecutionException e) {
+				// Linhas ficam SENDING e voltam a vencer após claimTimeout
+				inFlight.release(batch.size());
+				break;
+			}
+			dispatched += batch.size();
+		}
+		return dispatched;
+	}
+
+	private List<NotificationOutbox> claim(int limit) {
+		List<NotificationOutbox> batch = transactionTemplate.execute(status -> {
+			Instant now = Instant.now();
+			List<NotificationOutbox> due = outboxRepository.lockDue(now, limit);
+			if (!due.isEmpty()) {
+				outboxRepository.claim(due.stream().map(NotificationOutbox::getId).toList(), now.plus(claimTimeout));
+			}
+			return due;
+		});
+		return batch != null ? batch : List.of();
+	}
+
+	void deliver(List<NotificationOutbox> batch) {
+		try {
+			Set<String> recipients = new HashSet<>();
+			batch.forEach(event -> recipients.add(event.getRecipientGmail()));
+			Map<String, List<String>> tokens = deviceTokenService.tokensFor(recipients);
+
+			// Uma mensagem por dispositivo do destinatário
+			List<PushMessage> messages = new ArrayList<>();
+			for (NotificationOutbox event : batch) {
+				for (String token : tokens.getOrDefault(event.getRecipientGmail(), List.of())) {
+					messages.add(new PushMessage(event.getId(), token, event.getTitle(), event.getBody(), event.getPayload()));
+				}
+			}
+			List<PushResult> results;
+			if (messages.isEmpty()) {
+				results = List.of();
+			} else {
+				try {
+					results = pushProvider.send(messages);
+				} catch (RuntimeException e) {
+					log.warn("Falha no provedor de push para {} mensagens", messages.size(), e);
+					results = messages.stream().map(m -> PushResult.retry(m, e.toString())).toList();
+				}
+			}
+
+			Map<Long, List<PushResult>> resultsByEvent = new HashMap<>();
+			Set<String> deadTokens = new HashSet<>();
+			for (PushResult result : results) {
+				resultsByEvent.computeIfAbsent(result.outboxId(), id -> new ArrayList<>()).add(result);
+				if (result.outcome() == Outcome.INVALID_TOKEN) {
+					deadTokens.add(result.deviceToken());
+				}
+			}
+			Map<Long, Integer> expected = new HashMap<>();
+			messages.forEach(m -> expected.merge(m.outboxId(), 1, Integer::sum));
+			transactionTemplate.executeWithoutResult(status -> apply(batch, resultsByEvent, expected, deadTokens));
+		} catch (RuntimeException e) {
+			// Sem gravar o resultado, as linhas voltam a vencer após claimTimeout
+			log.warn("Falha ao processar lote de notificações", e);
+		} finally {
+			inFlight.release(batch.size());
+		}
+	}
+
+	private void apply(List<NotificationOutbox> batch, Map<Long, List<PushResult>> resultsByEvent, Map<Long, Integer> expected, Set<String> deadTokens) {
+		Instant now = Instant.now();
+		List<Long> done = new ArrayList<>();
+		for (NotificationOutbox event : batch) {
+			List<PushResult> results = resultsByEvent.getOrDefault(event.getId(), List.of());
+			String error = retryError(results, expected.getOrDefault(event.getId(), 0));
+			if (error == null) {
+				done.add(event.getId());
+				continue;
+			}
+			int attempts = event.getAttempts() + 1;
+			if (attempts >= maxAttempts) {
+				outboxRepository.reschedule(event.getId(), NotificationOutbox.STATUS_FAILED, attempts, now, truncate(error));
+			} else {
+				outboxRepository.reschedule(event.getId(), NotificationOutbox.STATUS_PENDING, attempts, now.plus(withJitter(backoff(attempts, backoffBase, backoffMax))), truncate(error));
+			}
+		}
+		if (!done.isEmpty()) {
+			outboxRepository.deleteDelivered(done);
+		}
+		if (!deadTokens.isEmpty()) {
+			deviceTokenService.invalidate(deadTokens);
+		}
+	}
+
+	// Evento concluído (null) se algum dispositivo recebeu ou se todos os tokens eram inválidos; sem dispositivo também.
+	// Só volta para a fila quando nenhum recebeu e houve falha temporária (ou resposta faltando): repetir não duplica em outro aparelho.
+	static String retryError(List<PushResult> results, int expected) {
+		String error = results.size() < expected ? "Sem resposta do provedor" : null;
+		for (PushResult result : results) {
+			if (result.outcome() == Outcome.DELIVERED) {
+				return null;
+			}
+			if (result.outcome() == Outcome.RETRY && error == null) {
+				error = result.error() != null ? result.error() : "Falha temporária no provedor";
+			}
+		}
+		return error;
+	}
+
+	// base * 2^(tentativas-1), limitado a max
+	static Duration backoff(int attempts, Duration base, Duration max) {
+		int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+		Duration delay = base.multipliedBy(1L << exponent);
+		return delay.compareTo(max) > 0 ? max : delay;
+	}
+
+	// Até +20% aleatório: falhas do mesmo lote não voltam todas no mesmo instante
+	private static Duration withJitter(Duration delay) {
+		return delay.plusMillis(ThreadLocalRandom.current().nextLong(delay.toMillis() / 5 + 1));
+	}
+
+	private static String truncate(String error) {
+		return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+	}
+
+	int availableWindow() {
+		return inFlight.availablePermits();
+	}
+
+	@PreDestroy
+	void shutdown() throws InterruptedException {
+		senders.shutdown();
+		senders.awaitTermination(5, TimeUnit.SECONDS);
+	}
+
+	private static ThreadFactory namedThreads() {
+		AtomicInteger counter = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, "notification-dispatch-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+}
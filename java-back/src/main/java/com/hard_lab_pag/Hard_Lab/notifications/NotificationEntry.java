@@ -0,0 +1,82 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Caixa de entrada do usuário; a listagem percorre (user_id, created_at, id) em ordem decrescente
+@Entity
+@Table(name = "notifications", indexes = {
+	@Index(name = "idx_notifications_user_created", columnList = "user_id, created_at, id"),
+	@Index(name = "idx_notifications_created", columnList = "created_at"),
+	@Index(name = "idx_notifications_stream_seq", columnList = "stream_seq")
+})
+public class NotificationEntry {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "user_id", nullable = false)
+	private Long userId;
+
+	@Column(nullable = false, length = 64)
+	private String type;
+
+	@Column(nullable = false, length = 200)
+	private String title;
+
+	@Column(length = 1000)
+	private String body;
+
+	@JdbcTypeCode(SqlTypes.JSON)
+	@Column(columnDefinition = "JSON")
+	private Map<String, Object> payload;
+
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private LocalDateTime createdAt = LocalDateTime.now();
+
+	@Column(name = "read_at")
+	private LocalDateTime readAt;
+
+	// Ordem de entrega no stream, dada depois do commit (ver NotificationRelay); null = ainda não sequenciada
+	@Column(name = "stream_seq")
+	private Long streamSeq;
+
+	public Long getId() { return id; }
+	public void setId(Long id) { this.id = id; }
+
+	public Long getUserId() { return userId; }
+	public void setUserId(Long userId) { this.userId = userId; }
+
+	public String getType() { return type; }
+	public void setType(String type) { this.type = type; }
+
+	public String getTitle() { return title; }
+	public void setTitle(String title) { this.title = title; }
+
+	public String getBody() { return body; }
+	public void setBody(String body) { this.body = body; }
+
+	public Map<String, Object> getPayload() { return payload; }
+	public void setPayload(Map<String, Object> payload) { this.payload = payload; }
+
+	public LocalDateTime getCreatedAt() { return createdAt; }
+	public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+	public LocalDateTime getReadAt() { return readAt; }
+	public void setReadAt(LocalDateTime readAt) { this.readAt = readAt; }
+
+	public Long getStreamSeq() { return streamSeq; }
+	public void setStreamSeq(Long streamSeq) { this.streamSeq = streamSeq; }
+}
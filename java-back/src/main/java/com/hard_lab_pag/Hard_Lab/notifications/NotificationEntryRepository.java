@@ -0,0 +1,62 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationEntryRepository extends JpaRepository<NotificationEntry, Long> {
+
+	@Query("SELECT n FROM NotificationEntry n WHERE n.userId = :userId ORDER BY n.createdAt DESC, n.id DESC")
+	List<NotificationEntry> findFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+	@Query("SELECT n FROM NotificationEntry n WHERE n.userId = :userId "
+		+ "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) ORDER BY n.createdAt DESC, n.id DESC")
+	List<NotificationEntry> findAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+	// O total alterado é o que sai do contador de não lidas
+	@Modifying
+	@Query("UPDATE NotificationEntry n SET n.readAt = :now WHERE n.userId = :userId AND n.id IN :ids AND n.readAt IS NULL")
+	int markRead(@Param("userId") Long userId, @Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+	@Modifying
+	@Query("UPDATE NotificationEntry n SET n.readAt = :now WHERE n.userId = :userId AND n.readAt IS NULL")
+	int markAllRead(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+	// Lote para a retenção: id, usuário e se ainda estava não lida (para descontar do contador)
+	@Query(value = "SELECT id, user_id, read_at IS NULL FROM notifications WHERE created_at < :cutoff ORDER BY created_at LIMIT :limit FOR UPDATE", nativeQuery = true)
+	List<Object[]> lockExpired(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+	@Modifying
+	@Query("DELETE FROM NotificationEntry n WHERE n.id IN :ids")
+	int deleteByIds(@Param("ids") Collection<Long> ids);
+
+	@Query(value = "SELECT EXISTS(SELECT 1 FROM notifications WHERE stream_seq IS NULL)", nativeQuery = true)
+	long anyUnsequenced();
+
+	// Só linhas já confirmadas: as de transações abertas estão travadas pelo INSERT e ficam para a próxima passada
+	@Query(value = "SELECT id FROM notifications WHERE stream_seq IS NULL ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+	List<Long> lockUnsequenced(@Param("limit") int limit);
+
+	@Modifying
+	@Query("UPDATE NotificationEntry n SET n.streamSeq = :seq WHERE n.id = :id")
+	int assignStreamSeq(@Param("id") Long id, @Param("seq") long seq);
+
+	@Query("SELECT COALESCE(MAX(n.streamSeq), 0) FROM NotificationEntry n")
+	long maxStreamSeq();
+
+	// Entrega ao vivo: tudo o que foi sequenciado depois do cursor da instância, com o gmail do destinatário
+	@Query("SELECT n, u.gmail FROM NotificationEntry n, User u WHERE u.id = n.userId AND n.streamSeq > :after ORDER BY n.streamSeq")
+	List<Object[]> findSequencedAfter(@Param("after") long after, Pageable pageable);
+
+	// Replay do Last-Event-ID: as mais recentes primeiro, para o limite cortar as mais antigas
+	@Query("SELECT n FROM NotificationEntry n, User u WHERE u.id = n.userId AND u.gmail = :gmail AND n.streamSeq > :after ORDER BY n.streamSeq DESC")
+	List<NotificationEntry> findRecentSequencedAfter(@Param("gmail") String gmail, @Param("after") long after, Pageable pageable);
+}
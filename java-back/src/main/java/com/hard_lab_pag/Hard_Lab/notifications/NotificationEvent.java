@@ -0,0 +1,13 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Evento entregue pelo stream; o id é o da caixa de entrada (para marcar como lida) e o seq, em ordem de commit,
+// é o id do evento SSE e o Last-Event-ID ao reconectar
+public record NotificationEvent(Long id, Long seq, String type, String title, String body, Map<String, Object> payload, LocalDateTime createdAt) {
+
+	static NotificationEvent of(NotificationEntry entry) {
+		return new NotificationEvent(entry.getId(), entry.getStreamSeq(), entry.getType(), entry.getTitle(), entry.getBody(), entry.getPayload(), entry.getCreatedAt());
+	}
+}
@@ -0,0 +1,89 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hard_lab_pag.Hard_Lab.infra.KeysetCursor;
+import com.hard_lab_pag.Hard_Lab.infra.KeysetPage;
+import com.hard_lab_pag.Hard_Lab.infra.UnauthorizedException;
+import com.hard_lab_pag.Hard_Lab.user.UserRepository;
+
+// Caixa de entrada por usuário. Toda escrita que muda o estado de leitura ajusta o contador na mesma transação,
+// pelo número de linhas realmente alteradas; o badge nunca faz COUNT(*).
+@Service
+public class NotificationInboxService {
+
+	private final NotificationEntryRepository entryRepository;
+	private final NotificationCounterRepository counterRepository;
+	private final UserRepository userRepository;
+
+	public NotificationInboxService(
+		NotificationEntryRepository entryRepository,
+		NotificationCounterRepository counterRepository,
+		UserRepository userRepository
+	) {
+		this.entryRepository = entryRepository;
+		this.counterRepository = counterRepository;
+		this.userRepository = userRepository;
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public NotificationEntry add(Long userId, String type, String title, String body, Map<String, Object> payload) {
+		NotificationEntry entry = new NotificationEntry();
+		entry.setUserId(userId);
+		entry.setType(type);
+		entry.setTitle(title);
+		entry.setBody(body);
+		entry.setPayload(payload);
+		entryRepository.save(entry);
+		counterRepository.add(userId, 1);
+		return entry;
+	}
+
+	@Transactional(readOnly = true)
+	public KeysetPage<NotificationResponse> page(String gmail, String cursor, int limit) {
+		Long userId = requireUserId(gmail);
+		KeysetCursor after = KeysetCursor.decode(cursor);
+		PageRequest page = PageRequest.of(0, limit + 1);
+		List<NotificationEntry> rows = after == null
+			? entryRepository.findFirstPage(userId, page)
+			: entryRepository.findAfter(userId, after.getCreatedAt(), after.getId(), page);
+		return KeysetPage.of(rows.stream().map(NotificationResponse::new).toList(), limit,
+			n -> new KeysetCursor(n.getCreatedAt(), n.getId()).encode());
+	}
+
+	@Transactional(readOnly = true)
+	public int unreadCount(String gmail) {
+		return counterRepository.findUnread(requireUserId(gmail)).orElse(0);
+	}
+
+	@Transactional
+	public int markRead(String gmail, List<Long> ids) {
+		Long userId = requireUserId(gmail);
+		int updated = entryRepository.markRead(userId, ids, LocalDateTime.now());
+		if (updated > 0) {
+			counterRepository.add(userId, -updated);
+		}
+		return updated;
+	}
+
+	@Transactional
+	public int markAllRead(String gmail) {
+		Long userId = requireUserId(gmail);
+		int updated = entryRepository.markAllRead(userId, LocalDateTime.now());
+		if (updated > 0) {
+			counterRepository.add(userId, -updated);
+		}
+		return updated;
+	}
+
+	private Long requireUserId(String gmail) {
+		return userRepository.findIdByGmail(gmail).orElseThrow(() -> new UnauthorizedException("Usuário não encontrado"));
+	}
+}
@@ -0,0 +1,96 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Evento de notificação gravado na mesma transação da mudança de negócio; o NotificationDispatcher entrega depois.
+// Linhas SENDING com next_attempt_at vencido (instância caiu no meio do envio) voltam a ser elegíveis.
+@Entity
+@Table(name = "notification_outbox", indexes = {
+	@Index(name = "idx_notification_outbox_due", columnList = "status, next_attempt_at")
+})
+public class NotificationOutbox {
+
+	public static final String STATUS_PENDING = "PENDING";
+	public static final String STATUS_SENDING = "SENDING";
+	public static final String STATUS_FAILED = "FAILED";
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "recipient_gmail", nullable = false, length = 254)
+	private String recipientGmail;
+
+	@Column(nullable = false, length = 64)
+	private String type;
+
+	@Column(nullable = false, length = 200)
+	private String title;
+
+	@Column(length = 1000)
+	private String body;
+
+	@JdbcTypeCode(SqlTypes.JSON)
+	@Column(columnDefinition = "JSON")
+	private Map<String, Object> payload;
+
+	@Column(nullable = false, length = 16)
+	private String status = STATUS_PENDING;
+
+	@Column(nullable = false)
+	private Integer attempts = 0;
+
+	@Column(name = "next_attempt_at", nullable = false)
+	private Instant nextAttemptAt = Instant.now();
+
+	@Column(nullable = false, updatable = false)
+	private Instant createdAt = Instant.now();
+
+	@Column(length = 500)
+	private String lastError;
+
+	public Long getId() { return id; }
+	public void setId(Long id) { this.id = id; }
+
+	public String getRecipientGmail() { return recipientGmail; }
+	public void setRecipientGmail(String recipientGmail) { this.recipientGmail = recipientGmail; }
+
+	public String getType() { return type; }
+	public void setType(String type) { this.type = type; }
+
+	public String getTitle() { return title; }
+	public void setTitle(String title) { this.title = title; }
+
+	public String getBody() { return body; }
+	public void setBody(String body) { this.body = body; }
+
+	public Map<String, Object> getPayload() { return payload; }
+	public void setPayload(Map<String, Object> payload) { this.payload = payload; }
+
+	public String getStatus() { return status; }
+	public void setStatus(String status) { this.status = status; }
+
+	public Integer getAttempts() { return attempts; }
+	public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+	public Instant getNextAttemptAt() { return nextAttemptAt; }
+	public void setNextAttemptAt(Instant nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+	public Instant getCreatedAt() { return createdAt; }
+	public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+	public String getLastError() { return lastError; }
+	public void setLastError(String lastError) { this.lastError = lastError; }
+}
@@ -0,0 +1,44 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+	// Linhas vencidas, travadas até o fim da transação; SKIP LOCKED deixa outras instâncias pegarem outras linhas
+	@Query(value = "SELECT * FROM notification_outbox WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now "
+		+ "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+	List<NotificationOutbox> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+	// Reserva as linhas durante o envio; se a instância cair, voltam a vencer em claimedUntil
+	@Modifying
+	@Query("UPDATE NotificationOutbox n SET n.status = 'SENDING', n.nextAttemptAt = :claimedUntil WHERE n.id IN :ids")
+	int claim(@Param("ids") Collection<Long> ids, @Param("claimedUntil") Instant claimedUntil);
+
+	@Modifying
+	@Query("DELETE FROM NotificationOutbox n WHERE n.id IN :ids")
+	int deleteDelivered(@Param("ids") Collection<Long> ids);
+
+	@Modifying
+	@Query("UPDATE NotificationOutbox n SET n.status = :status, n.attempts = :attempts, n.nextAttemptAt = :nextAttemptAt, n.lastError = :error WHERE n.id = :id")
+	int reschedule(
+		@Param("id") Long id,
+		@Param("status") String status,
+		@Param("attempts") int attempts,
+		@Param("nextAttemptAt") Instant nextAttemptAt,
+		@Param("error") String error
+	);
+
+	// Retenção: eventos que esgotaram as tentativas
+	@Modifying
+	@Query(value = "DELETE FROM notification_outbox WHERE status = 'FAILED' AND created_at < :cutoff LIMIT :limit", nativeQuery = true)
+	int deleteFailedBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,135 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+// Leva as notificações confirmadas às conexões SSE de todas as instâncias, qualquer que seja a que gravou.
+// O id IDENTITY sai na ordem do INSERT, não do commit; por isso cada linha confirmada recebe um stream_seq sob a
+// trava de notification_stream_sequence, e cada instância lê stream_seq > cursor sem pular nada que confirmou tarde.
+@Component
+public class NotificationRelay {
+
+	private static final Logger log = LoggerFactory.getLogger(NotificationRelay.class);
+
+	private final NotificationEntryRepository entryRepository;
+	private final NotificationStreamSequenceRepository sequenceRepository;
+	private final NotificationStreamService streamService;
+	private final TransactionTemplate transactionTemplate;
+	private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> new Thread(r, "notification-relay"));
+	private final AtomicBoolean running = new AtomicBoolean();
+	private final AtomicBoolean runAgain = new AtomicBoolean();
+	// -1 = ainda não posicionado; a primeira passada começa do fim (histórico não é ao vivo)
+	private long cursor = -1;
+
+	@Value("${notifications.stream.relay-batch-size:200}")
+	private int batchSize;
+
+	public NotificationRelay(
+		NotificationEntryRepository entryRepository,
+		NotificationStreamSequenceRepository sequenceRepository,
+		NotificationStreamService streamService,
+		PlatformTransactionManager transactionManager
+	) {
+		this.entryRepository = entryRepository;
+		this.sequenceRepository = sequenceRepository;
+		this.streamService = streamService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	// Entregas feitas por outras instâncias chegam aqui em até um intervalo
+	@Scheduled(fixedDelayString = "${notifications.stream.relay-interval-ms:1000}")
+	public void poll() {
+		relay();
+	}
+
+	// Chamado após o commit de um enqueue nesta instância; não bloqueia quem chamou
+	public void wakeUp() {
+		try {
+			worker.execute(this::relay);
+		} catch (RejectedExecutionException e) {
+			// Encerrando: o próximo polling (ou outra instância) entrega
+		}
+	}
+
+	// Uma passada por vez nesta instância; pedidos durante a passada fazem mais uma no final
+	void relay() {
+		if (!running.compareAndSet(false, true)) {
+			runAgain.set(true);
+			return;
+		}
+		try {
+			if (cursor < 0) {
+				cursor = entryRepository.maxStreamSeq();
+			}
+			do {
+				runAgain.set(false);
+				sequence();
+				publish();
+			} while (runAgain.get());
+		} catch (RuntimeException e) {
+			// Cursor e sequência ficam onde estavam; a próxima passada retoma
+			log.warn("Repasse de notificações interrompido: {}", e.getMessage());
+		} finally {
+			running.set(false);
+		}
+	}
+
+	// Numera as linhas já confirmadas, em blocos; a leitura sem trava evita escrever quando não há nada novo
+	int sequence() {
+		int sequenced = 0;
+		while (entryRepository.anyUnsequenced() > 0) {
+			Integer chunk = transactionTemplate.execute(status -> {
+				sequenceRepository.insertIfAbsent(NotificationStreamSequence.NAME);
+				long last = sequenceRepository.lockLastSeq(NotificationStreamSequence.NAME);
+				List<Long> ids = entryRepository.lockUnsequenced(batchSize);
+				for (Long id : ids) {
+					entryRepository.assignStreamSeq(id, ++last);
+				}
+				sequenceRepository.setLastSeq(NotificationStreamSequence.NAME, last);
+				return ids.size();
+			});
+			if (chunk == null || chunk == 0) {
+				break;
+			}
+			sequenced += chunk;
+		}
+		return sequenced;
+	}
+
+	int publish() {
+		int published = 0;
+		while (true) {
+			List<Object[]> rows = entryRepository.findSequencedAfter(cursor, PageRequest.of(0, batchSize));
+			for (Object[] row : rows) {
+				NotificationEntry entry = (NotificationEntry) row[0];
+				streamService.publish((String) row[1], NotificationEvent.of(entry));
+				cursor = entry.getStreamSeq();
+			}
+			published += rows.size();
+			if (rows.size() < batchSize) {
+				return published;
+			}
+		}
+	}
+
+	@PreDestroy
+	void shutdown() throws InterruptedException {
+		worker.shutdownNow();
+		worker.awaitTermination(5, TimeUnit.SECONDS);
+	}
+}
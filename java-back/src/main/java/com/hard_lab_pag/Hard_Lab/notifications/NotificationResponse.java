@@ -0,0 +1,35 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Formato consumido pela tela de notificações do app (message = corpo, read = já lida)
+public class NotificationResponse {
+	private Long id;
+	private String type;
+	private String title;
+	private String message;
+	private Map<String, Object> payload;
+	private boolean read;
+	private LocalDateTime createdAt;
+
+	public NotificationResponse() {}
+
+	public NotificationResponse(NotificationEntry entry) {
+		this.id = entry.getId();
+		this.type = entry.getType();
+		this.title = entry.getTitle();
+		this.message = entry.getBody();
+		this.payload = entry.getPayload();
+		this.read = entry.getReadAt() != null;
+		this.createdAt = entry.getCreatedAt();
+	}
+
+	public Long getId() { return id; }
+	public String getType() { return type; }
+	public String getTitle() { return title; }
+	public String getMessage() { return message; }
+	public Map<String, Object> getPayload() { return payload; }
+	public boolean isRead() { return read; }
+	public LocalDateTime getCreatedAt() { return createdAt; }
+}
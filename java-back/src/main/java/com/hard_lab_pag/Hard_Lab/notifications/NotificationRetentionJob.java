@@ -0,0 +1,112 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hard_lab_pag.Hard_Lab.infra.LeaseLockService;
+
+// Apaga notificações mais antigas que a retenção (lidas ou não, descontando as não lidas do contador),
+// eventos do outbox que esgotaram as tentativas e dispositivos que não se registram há muito tempo
+@Component
+public class NotificationRetentionJob {
+
+	private static final Logger log = LoggerFactory.getLogger(NotificationRetentionJob.class);
+	static final String LEASE_NAME = "notification-retention";
+	private static final int BATCH_SIZE = 1000;
+
+	private final NotificationEntryRepository entryRepository;
+	private final NotificationCounterRepository counterRepository;
+	private final NotificationOutboxRepository outboxRepository;
+	private final DeviceTokenRepository deviceTokenRepository;
+	private final LeaseLockService leaseLockService;
+	private final TransactionTemplate transactionTemplate;
+
+	@Value("${notifications.retention.max-age:P90D}")
+	private Duration maxAge;
+
+	@Value("${notifications.devices.stale-after:P60D}")
+	private Duration deviceStaleAfter;
+
+	@Value("${notifications.retention.lease:PT30M}")
+	private Duration lease;
+
+	public NotificationRetentionJob(
+		NotificationEntryRepository entryRepository,
+		NotificationCounterRepository counterRepository,
+		NotificationOutboxRepository outboxRepository,
+		DeviceTokenRepository deviceTokenRepository,
+		LeaseLockService leaseLockService,
+		PlatformTransactionManager transactionManager
+	) {
+		this.entryRepository = entryRepository;
+		this.counterRepository = counterRepository;
+		this.outboxRepository = outboxRepository;
+		this.deviceTokenRepository = deviceTokenRepository;
+		this.leaseLockService = leaseLockService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Scheduled(cron = "${notifications.retention.cron:0 45 3 * * *}")
+	public void run() {
+		leaseLockService.runExclusively(LEASE_NAME, lease, this::prune);
+	}
+
+	// Lotes pequenos, uma transação por lote, para não segurar locks na tabela
+	int prune() {
+		LocalDateTime cutoff = LocalDateTime.now().minus(maxAge);
+		int deleted = 0;
+		while (true) {
+			Integer batch = transactionTemplate.execute(status -> pruneBatch(cutoff));
+			if (batch == null || batch == 0) {
+				break;
+			}
+			deleted += batch;
+			if (batch < BATCH_SIZE) {
+				break;
+			}
+		}
+		Instant failedCutoff = Instant.now().minus(maxAge);
+		while (Integer.valueOf(BATCH_SIZE).equals(transactionTemplate.execute(status -> outboxRepository.deleteFailedBefore(failedCutoff, BATCH_SIZE)))) {
+			// continua até um lote incompleto
+		}
+		Instant staleCutoff = Instant.now().minus(deviceStaleAfter);
+		while (Integer.valueOf(BATCH_SIZE).equals(transactionTemplate.execute(status -> deviceTokenRepository.deleteStale(staleCutoff, BATCH_SIZE)))) {
+			// continua até um lote incompleto
+		}
+		if (deleted > 0) {
+			log.info("Retenção de notificações: {} removidas", deleted);
+		}
+		return deleted;
+	}
+
+	private int pruneBatch(LocalDateTime cutoff) {
+		List<Object[]> rows = entryRepository.lockExpired(cutoff, BATCH_SIZE);
+		if (rows.isEmpty()) {
+			return 0;
+		}
+		List<Long> ids = new ArrayList<>(rows.size());
+		Map<Long, Integer> unreadByUser = new HashMap<>();
+		for (Object[] row : rows) {
+			ids.add(((Number) row[0]).longValue());
+			if (((Number) row[2]).intValue() == 1) {
+				unreadByUser.merge(((Number) row[1]).longValue(), 1, Integer::sum);
+			}
+		}
+		entryRepository.deleteByIds(ids);
+		unreadByUser.forEach((userId, unread) -> counterRepository.add(userId, -unread));
+		return rows.size();
+	}
+}
@@ -0,0 +1,84 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hard_lab_pag.Hard_Lab.user.UserRepository;
+
+// Ponto de entrada para notificar usuários: grava a caixa de entrada e o outbox na transação de quem chama.
+// A requisição nunca espera o push; se a transação for desfeita, a notificação some junto.
+@Service
+public class NotificationService {
+
+	private static final int MAX_TITLE_LENGTH = 200;
+	private static final int MAX_BODY_LENGTH = 1000;
+
+	private final NotificationOutboxRepository outboxRepository;
+	private final NotificationInboxService inboxService;
+	private final NotificationDispatcher dispatcher;
+	private final NotificationRelay relay;
+	private final UserRepository userRepository;
+
+	public NotificationService(
+		NotificationOutboxRepository outboxRepository,
+		NotificationInboxService inboxService,
+		NotificationDispatcher dispatcher,
+		NotificationRelay relay,
+		UserRepository userRepository
+	) {
+		this.outboxRepository = outboxRepository;
+		this.inboxService = inboxService;
+		this.dispatcher = dispatcher;
+		this.relay = relay;
+		this.userRepository = userRepository;
+	}
+
+	// Destinatário sem conta não recebe nada (nem caixa de entrada nem push)
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void enqueue(String recipientGmail, String type, String title, String body, Map<String, Object> payload) {
+		Long userId = userRepository.findIdByGmail(recipientGmail).orElse(null);
+		if (userId == null) {
+			return;
+		}
+		String safeTitle = truncate(title, MAX_TITLE_LENGTH);
+		String safeBody = truncate(body, MAX_BODY_LENGTH);
+		inboxService.add(userId, type, safeTitle, safeBody, payload);
+
+		NotificationOutbox event = new NotificationOutbox();
+		event.setRecipientGmail(recipientGmail);
+		event.setType(type);
+		event.setTitle(safeTitle);
+		event.setBody(safeBody);
+		event.setPayload(payload);
+		outboxRepository.save(event);
+
+		// Após o commit: acorda o relay (stream SSE) e o dispatcher (push) em vez de esperar o próximo polling;
+		// as outras instâncias entregam às suas conexões pelo polling do relay
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				relay.wakeUp();
+				dispatcher.wakeUp();
+			}
+		});
+	}
+
+	// Mudança de status de um documento feita por outra pessoa avisa o dono; o próprio dono não é notificado
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void notifyStatusChange(String type, String label, Long documentId, String owner, String actor, Object before, Object after) {
+		if (owner == null || owner.equals(actor) || after == null || Objects.equals(before, after)) {
+			return;
+		}
+		enqueue(owner, type, label + " #" + documentId, "Status alterado para " + after, Map.of("id", documentId, "status", after));
+	}
+
+	private static String truncate(String value, int max) {
+		return value == null || value.length() <= max ? value : value.substring(0, max);
+	}
+}
@@ -0,0 +1,27 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Última posição dada no stream; a linha travada serializa o sequenciamento entre instâncias
+@Entity
+@Table(name = "notification_stream_sequence")
+public class NotificationStreamSequence {
+
+	static final String NAME = "notifications";
+
+	@Id
+	@Column(length = 64)
+	private String name;
+
+	@Column(name = "last_seq", nullable = false)
+	private Long lastSeq = 0L;
+
+	public String getName() { return name; }
+	public void setName(String name) { this.name = name; }
+
+	public Long getLastSeq() { return lastSeq; }
+	public void setLastSeq(Long lastSeq) { this.lastSeq = lastSeq; }
+}
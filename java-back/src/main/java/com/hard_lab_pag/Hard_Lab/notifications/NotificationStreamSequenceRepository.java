@@ -0,0 +1,23 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationStreamSequenceRepository extends JpaRepository<NotificationStreamSequence, String> {
+
+	@Modifying
+	@Query(value = "INSERT IGNORE INTO notification_stream_sequence (name, last_seq) VALUES (:name, 0)", nativeQuery = true)
+	int insertIfAbsent(@Param("name") String name);
+
+	// Travada até o commit: a instância seguinte só numera depois que esta numeração ficou visível
+	@Query(value = "SELECT last_seq FROM notification_stream_sequence WHERE name = :name FOR UPDATE", nativeQuery = true)
+	Long lockLastSeq(@Param("name") String name);
+
+	@Modifying
+	@Query(value = "UPDATE notification_stream_sequence SET last_seq = :lastSeq WHERE name = :name", nativeQuery = true)
+	int setLastSeq(@Param("name") String name, @Param("lastSeq") long lastSeq);
+}
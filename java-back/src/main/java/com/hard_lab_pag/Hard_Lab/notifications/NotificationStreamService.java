@@ -0,0 +1,185 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.hard_lab_pag.Hard_Lab.infra.ServiceOverloadedException;
+
+import jakarta.annotation.PreDestroy;
+
+// Conexões SSE abertas nesta instância, por usuário. Conexão ociosa não prende thread (async do servlet);
+// a escrita usa threads virtuais. Os eventos chegam pelo NotificationRelay; o Last-Event-ID é retomado do banco.
+@Service
+public class NotificationStreamService {
+
+	private final NotificationEntryRepository entryRepository;
+	private final Map<String, UserChannel> channels = new ConcurrentHashMap<>();
+	private final AtomicInteger openConnections = new AtomicInteger();
+	private final ExecutorService writers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("notification-stream-", 0).factory());
+
+	@Value("${notifications.stream.buffer-size:64}")
+	private int bufferSize;
+
+	@Value("${notifications.stream.replay-size:50}")
+	private int replaySize;
+
+	@Value("${notifications.stream.max-connections:10000}")
+	private int maxConnections;
+
+	@Value("${notifications.stream.max-connections-per-user:5}")
+	private int maxConnectionsPerUser;
+
+	@Value("${notifications.stream.timeout:PT15M}")
+	private Duration timeout;
+
+	public NotificationStreamService(NotificationEntryRepository entryRepository) {
+		this.entryRepository = entryRepository;
+	}
+
+	// Abre a conexão e reenvia o que o cliente perdeu depois de lastEventId (um stream_seq); acima de replaySize
+	// eventos perdidos, só os mais recentes vão e o cliente recebe "overflow" para recarregar a caixa de entrada
+	public SseEmitter open(String gmail, Long lastEventId) {
+		if (openConnections.incrementAndGet() > maxConnections) {
+			openConnections.decrementAndGet();
+			throw new ServiceOverloadedException("Muitas conexões abertas; tente novamente em instantes");
+		}
+		SseEmitter emitter = newEmitter(timeout.toMillis());
+		StreamConnection connection = new StreamConnection(gmail, emitter, writers, bufferSize);
+		emitter.onCompletion(() -> unregister(connection));
+		emitter.onTimeout(connection::close);
+		emitter.onError(error -> connection.close());
+
+		StreamConnection evicted = withChannel(gmail, channel -> {
+			// Replay e registro sob a mesma trava de publish: nada se perde nem chega fora de ordem entre os dois;
+			// o que o relay ainda não entregou e já veio no replay é descartado pela conexão (seq repetido)
+			if (lastEventId != null) {
+				replay(connection, gmail, lastEventId);
+			}
+			channel.connections.add(connection);
+			return channel.connections.size() > maxConnectionsPerUser ? channel.connections.remove(0) : null;
+		});
+		if (evicted != null) {
+			openConnections.decrementAndGet();
+			evicted.close();
+		}
+		// Primeiro byte imediato: proxies e o cliente sabem que o stream abriu
+		connection.heartbeat();
+		return emitter;
+	}
+
+	// Usuário sem conexão nesta instância: nada a fazer (a caixa de entrada já tem o evento)
+	public void publish(String gmail, NotificationEvent event) {
+		UserChannel channel = channels.get(gmail);
+		if (channel == null) {
+			return;
+		}
+		synchronized (channel) {
+			if (!channel.retired) {
+				for (StreamConnection connection : channel.connections) {
+					connection.offer(event);
+				}
+			}
+		}
+	}
+
+	private void replay(StreamConnection connection, String gmail, long lastEventId) {
+		List<NotificationEntry> recent = entryRepository.findRecentSequencedAfter(gmail, lastEventId, PageRequest.of(0, replaySize + 1));
+		if (recent.size() > replaySize) {
+			connection.missed(recent.size() - replaySize);
+			recent = recent.subList(0, replaySize);
+		}
+		for (int i = recent.size() - 1; i >= 0; i--) {
+			connection.offer(NotificationEvent.of(recent.get(i)));
+		}
+	}
+
+	// Comentário periódico mantém a conexão viva em proxies e detecta clientes que sumiram (a escrita falha)
+	@Scheduled(fixedDelayString = "${notifications.stream.heartbeat-interval-ms:15000}")
+	public void heartbeat() {
+		channels.forEach((gmail, channel) -> {
+			List<StreamConnection> connections;
+			int pruned;
+			synchronized (channel) {
+				// Conexões que falharam na escrita sem o container avisar
+				int before = channel.connections.size();
+				channel.connections.removeIf(StreamConnection::isClosed);
+				pruned = before - channel.connections.size();
+				if (channel.connections.isEmpty()) {
+					channel.retired = true;
+					channels.remove(gmail, channel);
+				}
+				connections = new ArrayList<>(channel.connections);
+			}
+			openConnections.addAndGet(-pruned);
+			connections.forEach(StreamConnection::heartbeat);
+		});
+	}
+
+	// Canal aposentado (removido do mapa) não recebe mais nada; quem o pegou no meio da remoção tenta de novo
+	private <T> T withChannel(String gmail, Function<UserChannel, T> action) {
+		while (true) {
+			UserChannel channel = channels.computeIfAbsent(gmail, key -> new UserChannel());
+			synchronized (channel) {
+				if (!channel.retired) {
+					return action.apply(channel);
+				}
+			}
+		}
+	}
+
+	SseEmitter newEmitter(long timeoutMs) {
+		return new SseEmitter(timeoutMs);
+	}
+
+	public int openConnections() {
+		return openConnections.get();
+	}
+
+	private void unregister(StreamConnection connection) {
+		connection.close();
+		UserChannel channel = channels.get(connection.gmail());
+		if (channel == null) {
+			return;
+		}
+		boolean removed;
+		synchronized (channel) {
+			removed = channel.connections.remove(connection);
+		}
+		if (removed) {
+			openConnections.decrementAndGet();
+		}
+	}
+
+	@PreDestroy
+	void shutdown() throws InterruptedException {
+		channels.values().forEach(channel -> {
+			List<StreamConnection> connections;
+			synchronized (channel) {
+				connections = new ArrayList<>(channel.connections);
+			}
+			connections.forEach(StreamConnection::close);
+		});
+		writers.shutdown();
+		writers.awaitTermination(5, TimeUnit.SECONDS);
+	}
+
+	private static class UserChannel {
+
+		private final List<StreamConnection> connections = new ArrayList<>();
+		private boolean retired;
+	}
+}
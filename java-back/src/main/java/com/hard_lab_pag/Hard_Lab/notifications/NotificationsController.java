@@ -1,43 +1,138 @@
 package com.hard_lab_pag.Hard_Lab.notifications;
 
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.hard_lab_pag.Hard_Lab.infra.KeysetPage;
+import com.hard_lab_pag.Hard_Lab.security.StreamTicketService;
 
-import com.hard_lab_pag.Hard_Lab.user.UserRepository;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/api/notifications")
 public class NotificationsController {
 
-	private final UserRepository userRepository;
+	private static final int MAX_PAGE_SIZE = 100;
 
-	public NotificationsController(UserRepository userRepository) {
-		this.userRepository = userRepository;
+	private final DeviceTokenService deviceTokenService;
+	private final NotificationInboxService inboxService;
+	private final NotificationStreamService streamService;
+	private final StreamTicketService streamTicketService;
+
+	public NotificationsController(
+		DeviceTokenService deviceTokenService,
+		NotificationInboxService inboxService,
+		NotificationStreamService streamService,
+		StreamTicketService streamTicketService
+	) {
+		this.deviceTokenService = deviceTokenService;
+		this.inboxService = inboxService;
+		this.streamService = streamService;
+		this.streamTicketService = streamTicketService;
 	}
 
+	// Mais recentes primeiro; o app consome um array simples
 	@GetMapping
-	public ResponseEntity<?> list(@AuthenticationPrincipal UserDetails user) {
-		// Retorna vazio por enquanto
-		return ResponseEntity.ok(java.util.Collections.emptyList());
+	public ResponseEntity<List<NotificationResponse>> list(
+		@AuthenticationPrincipal UserDetails user,
+		@RequestParam(value = "limit", defaultValue = "50") int limit
+	) {
+		return ResponseEntity.ok(inboxService.page(user.getUsername(), null, KeysetPage.clampLimit(limit, MAX_PAGE_SIZE)).getItems());
+	}
+
+	@GetMapping("/page")
+	public ResponseEntity<KeysetPage<NotificationResponse>> page(
+		@AuthenticationPrincipal UserDetails user,
+		@RequestParam(value = "cursor", required = false) String cursor,
+		@RequestParam(value = "limit", defaultValue = "20") int limit
+	) {
+		return ResponseEntity.ok(inboxService.page(user.getUsername(), cursor, KeysetPage.clampLimit(limit, MAX_PAGE_SIZE)));
+	}
+
+	// Badge do app: uma leitura do contador
+	@GetMapping("/unread-count")
+	public ResponseEntity<Map<String, Object>> unreadCount(@AuthenticationPrincipal UserDetails user) {
+		return ResponseEntity.ok(Map.of("unread", inboxService.unreadCount(user.getUsername())));
+	}
+
+	@PostMapping("/read")
+	public ResponseEntity<Map<String, Object>> markRead(
+		@AuthenticationPrincipal UserDetails user,
+		@Validated @RequestBody MarkReadRequest request
+	) {
+		return ResponseEntity.ok(Map.of("updated", inboxService.markRead(user.getUsername(), request.getIds())));
 	}
 
+	@PostMapping("/read-all")
+	public ResponseEntity<Map<String, Object>> markAllRead(@AuthenticationPrincipal UserDetails user) {
+		return ResponseEntity.ok(Map.of("updated", inboxService.markAllRead(user.getUsername())));
+	}
+
+	// Para EventSource, que não manda Authorization: GET /stream?ticket=... com validade de segundos
+	@PostMapping("/stream-ticket")
+	public ResponseEntity<StreamTicketService.Ticket> streamTicket(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+		String accessToken = authorization.startsWith("Bearer ") ? authorization.substring(7) : authorization;
+		return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(streamTicketService.issue(accessToken));
+	}
+
+	// Server-Sent Events: notificações em tempo real no lugar do polling; Last-Event-ID (stream_seq) retoma de onde parou
+	@GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter stream(
+		@AuthenticationPrincipal UserDetails user,
+		@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+		HttpServletResponse response
+	) {
+		// Proxies (nginx) não devem segurar os eventos em buffer
+		response.setHeader("X-Accel-Buffering", "no");
+		response.setHeader("Cache-Control", "no-cache");
+		return streamService.open(user.getUsername(), parseEventId(lastEventId));
+	}
+
+	// Um registro por aparelho; chamar de novo só renova o last_seen_at
 	@PostMapping("/device-token")
 	public ResponseEntity<?> registerDeviceToken(
 		@AuthenticationPrincipal UserDetails user,
 		@Validated @RequestBody RegisterDeviceTokenRequest request
 	) {
-		var domainUser = userRepository.findByGmail(user.getUsername()).orElseThrow();
-		domainUser.setDeviceToken(request.getDeviceToken());
-		userRepository.save(domainUser);
+		deviceTokenService.register(user.getUsername(), request.getDeviceToken());
 		return ResponseEntity.ok().build();
 	}
-}
 
+	// Logout no aparelho: para de receber push nele
+	@DeleteMapping("/device-token")
+	public ResponseEntity<?> unregisterDeviceToken(
+		@AuthenticationPrincipal UserDetails user,
+		@Validated @RequestBody RegisterDeviceTokenRequest request
+	) {
+		boolean removed = deviceTokenService.unregister(user.getUsername(), request.getDeviceToken());
+		return removed ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+	}
 
+	private static Long parseEventId(String lastEventId) {
+		if (lastEventId == null || lastEventId.isBlank()) {
+			return null;
+		}
+		try {
+			return Long.valueOf(lastEventId.trim());
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+}
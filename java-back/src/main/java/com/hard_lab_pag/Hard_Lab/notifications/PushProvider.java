@@ -0,0 +1,36 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.util.List;
+import java.util.Map;
+
+// Integração com o serviço de push (FCM/APNs/Expo); recebe um lote e devolve um resultado por mensagem
+public interface PushProvider {
+
+	List<PushResult> send(List<PushMessage> messages);
+
+	record PushMessage(Long outboxId, String deviceToken, String title, String body, Map<String, Object> data) {}
+
+	// Um resultado por mensagem (evento x dispositivo)
+	record PushResult(Long outboxId, String deviceToken, Outcome outcome, String error) {
+
+		public static PushResult delivered(PushMessage message) {
+			return new PushResult(message.outboxId(), message.deviceToken(), Outcome.DELIVERED, null);
+		}
+
+		public static PushResult retry(PushMessage message, String error) {
+			return new PushResult(message.outboxId(), message.deviceToken(), Outcome.RETRY, error);
+		}
+
+		public static PushResult invalidToken(PushMessage message) {
+			return new PushResult(message.outboxId(), message.deviceToken(), Outcome.INVALID_TOKEN, "Token de dispositivo inválido");
+		}
+	}
+
+	enum Outcome {
+		DELIVERED,
+		// Falha temporária (rede, 5xx, limite do provedor): nova tentativa com backoff
+		RETRY,
+		// Token não existe mais no provedor: não adianta repetir
+		INVALID_TOKEN
+	}
+}
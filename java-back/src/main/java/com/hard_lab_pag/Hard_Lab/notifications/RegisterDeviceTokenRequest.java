@@ -1,9 +1,11 @@
 package com.hard_lab_pag.Hard_Lab.notifications;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 
 public class RegisterDeviceTokenRequest {
 	@NotBlank
+	@Size(max = 512)
 	private String deviceToken;
 
 	public String getDeviceToken() { return deviceToken; }
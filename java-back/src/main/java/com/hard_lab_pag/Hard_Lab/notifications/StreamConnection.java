@@ -0,0 +1,166 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Uma conexão SSE com fila própria e limitada: cheia, descarta o evento mais antigo e avisa o cliente com "overflow".
+// A escrita roda fora de quem publica (uma thread virtual por dreno), então um cliente lento só atrasa a si mesmo.
+class StreamConnection {
+
+	static final String EVENT_NAME = "notification";
+	static final String OVERFLOW_EVENT_NAME = "overflow";
+
+	private final String gmail;
+	private final SseEmitter emitter;
+	private final Executor writer;
+	private final int capacity;
+	private final ArrayDeque<NotificationEvent> buffer;
+	private boolean draining;
+	private boolean heartbeatPending;
+	private boolean closed;
+	private int dropped;
+	// Maior seq já enfileirado: o mesmo evento vindo do replay e do relay só é escrito uma vez
+	private long lastSeq;
+
+	StreamConnection(String gmail, SseEmitter emitter, Executor writer, int capacity) {
+		this.gmail = gmail;
+		this.emitter = emitter;
+		this.writer = writer;
+		this.capacity = capacity;
+		this.buffer = new ArrayDeque<>(Math.min(capacity, 16));
+	}
+
+	String gmail() {
+		return gmail;
+	}
+
+	SseEmitter emitter() {
+		return emitter;
+	}
+
+	void offer(NotificationEvent event) {
+		synchronized (this) {
+			if (closed || (event.seq() != null && event.seq() <= lastSeq)) {
+				return;
+			}
+			if (event.seq() != null) {
+				lastSeq = event.seq();
+			}
+			if (buffer.size() >= capacity) {
+				buffer.pollFirst();
+				dropped++;
+			}
+			buffer.addLast(event);
+			if (!startDrain()) {
+				return;
+			}
+		}
+		schedule();
+	}
+
+	// Eventos que não cabem no replay: o cliente recebe "overflow" e recarrega a caixa de entrada
+	void missed(int count) {
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			dropped += count;
+			if (!startDrain()) {
+				return;
+			}
+		}
+		schedule();
+	}
+
+	// Heartbeat só quando a conexão está ociosa; com eventos na fila eles já mantêm a conexão viva
+	void heartbeat() {
+		synchronized (this) {
+			if (closed || draining) {
+				return;
+			}
+			heartbeatPending = true;
+			startDrain();
+		}
+		schedule();
+	}
+
+	synchronized boolean isClosed() {
+		return closed;
+	}
+
+	synchronized int dropped() {
+		return dropped;
+	}
+
+	void close() {
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			buffer.clear();
+		}
+		try {
+			emitter.complete();
+		} catch (IllegalStateException e) {
+			// Já finalizado pelo container
+		}
+	}
+
+	private boolean startDrain() {
+		if (draining) {
+			return false;
+		}
+		draining = true;
+		return true;
+	}
+
+	private void schedule() {
+		try {
+			writer.execute(this::drain);
+		} catch (RejectedExecutionException e) {
+			close();
+		}
+	}
+
+	private void drain() {
+		while (true) {
+			NotificationEvent event;
+			int overflow;
+			boolean heartbeat;
+			synchronized (this) {
+				event = buffer.pollFirst();
+				overflow = dropped;
+				dropped = 0;
+				heartbeat = heartbeatPending;
+				heartbeatPending = false;
+				if (closed || (event == null && overflow == 0 && !heartbeat)) {
+					draining = false;
+					return;
+				}
+			}
+			try {
+				if (overflow > 0) {
+					emitter.send(SseEmitter.event().name(OVERFLOW_EVENT_NAME).data(Map.of("dropped", overflow)));
+				}
+				if (event != null) {
+					emitter.send(SseEmitter.event().id(String.valueOf(event.seq())).name(EVENT_NAME).data(event));
+				} else if (heartbeat) {
+					emitter.send(SseEmitter.event().comment("heartbeat"));
+				}
+			} catch (IOException | IllegalStateException e) {
+				// Cliente desconectou ou o emitter já terminou
+				synchronized (this) {
+					draining = false;
+				}
+				close();
+				return;
+			}
+		}
+	}
+}
@@ -1,10 +1,18 @@
 package com.hard_lab_pag.Hard_Lab.orders;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-@Repository
-public interface OrderRepository extends JpaRepository<LabOrder, Long> {
-}
+import com.hard_lab_pag.Hard_Lab.documents.DocumentRepository;
 
+@Repository
+public interface OrderRepository extends DocumentRepository<LabOrder> {
 
+    // Bloco do rebuild dos agregados de gasto em ordem de id; FOR UPDATE segura escritas concorrentes nesses pedidos
+    // (no último bloco, também inserções novas) até o bloco confirmar junto com o avanço do watermark
+    @Query(value = "SELECT * FROM lab_orders WHERE id > :afterId ORDER BY id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<LabOrder> lockAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+}
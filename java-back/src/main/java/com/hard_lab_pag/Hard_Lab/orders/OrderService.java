@@ -0,0 +1,94 @@
+package com.hard_lab_pag.Hard_Lab.orders;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hard_lab_pag.Hard_Lab.attachments.AttachmentService;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentAccess;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentPatchService;
+import com.hard_lab_pag.Hard_Lab.infra.ETags;
+import com.hard_lab_pag.Hard_Lab.notifications.NotificationService;
+
+@Service
+public class OrderService {
+
+    private static final List<String> TOTAL_FIELDS = List.of("subtotal", "discounts", "shipping", "taxes", "total");
+
+    private final OrderRepository orderRepository;
+    private final SpendingRollupService spendingRollupService;
+    private final DocumentPatchService documentPatchService;
+    private final AttachmentService attachmentService;
+    private final NotificationService notificationService;
+
+    public OrderService(OrderRepository orderRepository, SpendingRollupService spendingRollupService, DocumentPatchService documentPatchService, AttachmentService attachmentService, NotificationService notificationService) {
+        this.orderRepository = orderRepository;
+        this.spendingRollupService = spendingRollupService;
+        this.documentPatchService = documentPatchService;
+        this.attachmentService = attachmentService;
+        this.notificationService = notificationService;
+    }
+
+    @Transactional
+    public LabOrder create(Map<String, Object> payload, UserDetails user) {
+        Long rebuildWatermark = spendingRollupService.lockForWrite();
+        LabOrder order = new LabOrder();
+        order.setData(OrderTotalsCalculator.applyTo(attachmentService.externalize(payload, user)));
+        order.setCreatedBy(user.getUsername());
+        LabOrder saved = orderRepository.save(order);
+        spendingRollupService.apply(rebuildWatermark, saved.getId(), null, SpendingRollupService.contributionOf(saved));
+        return saved;
+    }
+
+    // Merge patch no banco; depois só os totais que mudaram são regravados com JSON_SET
+    @Transactional
+    public Optional<LabOrder> patch(Long id, Map<String, Object> patch, UserDetails user, String ifMatch) {
+        // Antes de qualquer escrita no pedido: mesma ordem de travas do rebuild dos agregados
+        Long rebuildWatermark = spendingRollupService.lockForWrite();
+        return orderRepository.findById(id).map(order -> {
+            DocumentAccess.requirePatchable(order, patch, user);
+            ETags.requireMatch(ifMatch, order.getVersion());
+            SpendingRollupService.Contribution before = SpendingRollupService.contributionOf(order);
+            Object statusBefore = statusOf(order);
+
+            documentPatchService.mergePatch(order, attachmentService.externalize(patch, user));
+
+            Map<String, Object> recalculated = OrderTotalsCalculator.applyTo(order.getData());
+            Map<String, Object> changes = new LinkedHashMap<>();
+            for (String field : TOTAL_FIELDS) {
+                if (!sameAmount(order.getData().get(field), recalculated.get(field))) {
+                    changes.put(field, recalculated.get(field));
+                }
+            }
+            if (patch.containsKey("items")) {
+                changes.put("items", recalculated.get("items"));
+            }
+            documentPatchService.setFields(order, changes);
+
+            spendingRollupService.apply(rebuildWatermark, order.getId(), before, SpendingRollupService.contributionOf(order));
+            notificationService.notifyStatusChange("order.status", "Pedido", order.getId(), order.getCreatedBy(), user.getUsername(), statusBefore, statusOf(order));
+            return order;
+        });
+    }
+
+    private static Object statusOf(LabOrder order) {
+        return order.getData() != null ? order.getData().get("status") : null;
+    }
+
+    private static boolean sameAmount(Object stored, Object expected) {
+        if (stored == null || expected == null) {
+            return stored == expected;
+        }
+        try {
+            return new BigDecimal(stored.toString()).compareTo(new BigDecimal(expected.toString())) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.hard_lab_pag.Hard_Lab.orders;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Recalcula os valores financeiros do pedido a partir dos itens; os totais enviados pelo app são ignorados
+public final class OrderTotalsCalculator {
+
+    private static final int SCALE = 2;
+
+    private OrderTotalsCalculator() {}
+
+    public static OrderTotals calculate(Map<String, Object> data) {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        if (data != null && data.get("items") instanceof List<?> items) {
+            for (Object raw : items) {
+                if (raw instanceof Map<?, ?> item) {
+                    subtotal = subtotal.add(lineSubtotal(item));
+                }
+            }
+        }
+        BigDecimal discounts = nonNegative(data, "discounts");
+        BigDecimal shipping = nonNegative(data, "shipping");
+        BigDecimal taxes = nonNegative(data, "taxes");
+        BigDecimal total = subtotal.subtract(discounts).add(shipping).add(taxes).max(BigDecimal.ZERO);
+        return new OrderTotals(scale(subtotal), scale(discounts), scale(shipping), scale(taxes), scale(total));
+    }
+
+    // Devolve uma cópia do documento com os subtotais dos itens e os totais do pedido recalculados
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> applyTo(Map<String, Object> data) {
+        Map<String, Object> result = new LinkedHashMap<>(data != null ? data : Map.of());
+        if (result.get("items") instanceof List<?> items) {
+            List<Object> recalculated = new ArrayList<>(items.size());
+            for (Object raw : items) {
+                if (raw instanceof Map<?, ?> item) {
+                    Map<String, Object> copy = new LinkedHashMap<>((Map<String, Object>) item);
+                    copy.put("subtotal", scale(lineSubtotal(item)));
+                    recalculated.add(copy);
+                } else {
+                    recalculated.add(raw);
+                }
+            }
+            result.put("items", recalculated);
+        }
+        OrderTotals totals = calculate(result);
+        result.put("subtotal", totals.subtotal());
+        result.put("discounts", totals.discounts());
+        result.put("shipping", totals.shipping());
+        result.put("taxes", totals.taxes());
+        result.put("total", totals.total());
+        return result;
+    }
+
+    private static BigDecimal lineSubtotal(Map<?, ?> item) {
+        BigDecimal quantity = decimal(item.get("quantity"));
+        BigDecimal unitPrice = decimal(item.get("unitPrice"));
+        if (quantity.signum() <= 0 || unitPrice.signum() < 0) {
+            return BigDecimal.ZERO;
+        }
+        return quantity.multiply(unitPrice);
+    }
+
+    private static BigDecimal nonNegative(Map<String, Object> data, String field) {
+        if (data == null) return BigDecimal.ZERO;
+        return decimal(data.get(field)).max(BigDecimal.ZERO);
+    }
+
+    static BigDecimal decimal(Object value) {
+        if (value == null) return BigDecimal.ZERO;
+        try {
+            return new BigDecimal(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return BigDecimal.ZERO;
+        }
+    }
+
+    private static BigDecimal scale(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    public record OrderTotals(BigDecimal subtotal, BigDecimal discounts, BigDecimal shipping, BigDecimal taxes, BigDecimal total) {}
+}
@@ -1,32 +1,98 @@
 package com.hard_lab_pag.Hard_Lab.orders;
 
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.hard_lab_pag.Hard_Lab.documents.DocumentAccess;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentListing;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentQuery;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentQueryService;
+import com.hard_lab_pag.Hard_Lab.infra.ETags;
+import com.hard_lab_pag.Hard_Lab.infra.KeysetPage;
+import com.hard_lab_pag.Hard_Lab.infra.RollupRebuildJob;
+import com.hard_lab_pag.Hard_Lab.projects.ProjectMembers;
+import com.hard_lab_pag.Hard_Lab.projects.ProjectRepository;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrdersController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final SpendingRollupService spendingRollupService;
+    private final DocumentQueryService documentQueryService;
+    private final ProjectRepository projectRepository;
+    private final RollupRebuildJob rollupRebuildJob;
 
-    public OrdersController(OrderRepository orderRepository) {
+    public OrdersController(
+        OrderRepository orderRepository,
+        OrderService orderService,
+        SpendingRollupService spendingRollupService,
+        DocumentQueryService documentQueryService,
+        ProjectRepository projectRepository,
+        RollupRebuildJob rollupRebuildJob
+    ) {
         this.orderRepository = orderRepository;
+        this.orderService = orderService;
+        this.spendingRollupService = spendingRollupService;
+        this.documentQueryService = documentQueryService;
+        this.projectRepository = projectRepository;
+        this.rollupRebuildJob = rollupRebuildJob;
     }
 
+    // Professores e administradores veem todos os registros; os demais usuários, apenas os próprios
     @GetMapping
-    public ResponseEntity<List<LabOrder>> getAllOrders() {
-        List<LabOrder> orders = orderRepository.findAll();
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<List<LabOrder>> getAllOrders(@AuthenticationPrincipal UserDetails user) {
+        return ResponseEntity.ok(DocumentListing.visibleTo(orderRepository, user));
+    }
+
+    // Apenas os registros do usuário autenticado, paginados por cursor (mais recentes primeiro)
+    @GetMapping("/mine")
+    public ResponseEntity<KeysetPage<LabOrder>> mine(
+        @AuthenticationPrincipal UserDetails user,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "limit", defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(DocumentListing.ownedPage(orderRepository, user.getUsername(), cursor, KeysetPage.clampLimit(limit, MAX_PAGE_SIZE)));
+    }
+
+    // Filtro/ordenação pelos campos indexados do documento (ex.: ?status=approved&sort=-createdAt&limit=50),
+    // com o mesmo escopo da listagem: alunos só consultam os próprios registros
+    @GetMapping("/query")
+    public ResponseEntity<List<LabOrder>> query(@AuthenticationPrincipal UserDetails user, @RequestParam Map<String, String> params) {
+        return ResponseEntity.ok(documentQueryService.find(DocumentQuery.fromParams(LabOrder.class, params).visibleTo(user)));
+    }
+
+    // ETag forte pela versão; If-None-Match com a versão atual devolve 304. Só o autor, professores e administradores leem o registro;
+    // para os demais a resposta é 404, sem revelar que o id existe
+    @GetMapping("/{id}")
+    public ResponseEntity<LabOrder> getById(@AuthenticationPrincipal UserDetails user, @PathVariable Long id, WebRequest request) {
+        return orderRepository.findById(id)
+            .filter(order -> DocumentAccess.canView(order, user))
+            .map(order -> ETags.respond(request, order.getVersion(), order))
+            .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
@@ -34,11 +100,73 @@ public class OrdersController {
         @AuthenticationPrincipal UserDetails user,
         @Validated @RequestBody Map<String, Object> payload
     ) {
-        LabOrder order = new LabOrder();
-        order.setData(payload);
-        order.setCreatedBy(user.getUsername());
-        return ResponseEntity.ok(orderRepository.save(order));
+        DocumentAccess.requireCreatable(payload, user);
+        return ResponseEntity.ok(orderService.create(payload, user));
+    }
+
+    // Atualização parcial (RFC 7396): chaves com null são removidas, objetos são mesclados; If-Match opcional
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<LabOrder> patch(
+        @AuthenticationPrincipal UserDetails user,
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody Map<String, Object> patch
+    ) {
+        return orderService.patch(id, patch, user, ifMatch)
+            .map(order -> ETags.ok(order.getVersion(), order))
+            .orElse(ResponseEntity.notFound().build());
     }
-}
 
+    // Gasto do usuário autenticado no mês (yyyy-MM, padrão: mês atual)
+    @GetMapping("/spending/me")
+    public ResponseEntity<List<SpendingRollup>> mySpending(
+        @AuthenticationPrincipal UserDetails user,
+        @RequestParam(value = "period", required = false) YearMonth period
+    ) {
+        return ResponseEntity.ok(spendingRollupService.find(SpendingRollup.SCOPE_USER, user.getUsername(), periodOrCurrent(period)));
+    }
+
+    @GetMapping("/spending/users/{gmail}")
+    @PreAuthorize("hasRole('PROFESSOR') or hasRole('ADMIN')")
+    public ResponseEntity<List<SpendingRollup>> userSpending(
+        @PathVariable String gmail,
+        @RequestParam(value = "period", required = false) YearMonth period
+    ) {
+        return ResponseEntity.ok(spendingRollupService.find(SpendingRollup.SCOPE_USER, gmail, periodOrCurrent(period)));
+    }
+
+    // Professores/admins ou participantes do projeto
+    @GetMapping("/spending/projects/{projectId}")
+    public ResponseEntity<List<SpendingRollup>> projectSpending(
+        @AuthenticationPrincipal UserDetails user,
+        @PathVariable String projectId,
+        @RequestParam(value = "period", required = false) YearMonth period
+    ) {
+        if (!DocumentAccess.isPrivileged(user) && !isProjectMember(projectId, user.getUsername())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(spendingRollupService.find(SpendingRollup.SCOPE_PROJECT, projectId, periodOrCurrent(period)));
+    }
+
+    // Admin: recalcular os agregados a partir de todos os pedidos, em segundo plano
+    @PostMapping("/spending/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildSpending() {
+        rollupRebuildJob.request(SpendingRollupService.REBUILD_NAME);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("status", "running"));
+    }
 
+    private boolean isProjectMember(String projectId, String gmail) {
+        try {
+            return projectRepository.findById(Long.valueOf(projectId))
+                .map(project -> ProjectMembers.includes(project, gmail))
+                .orElse(false);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static YearMonth periodOrCurrent(YearMonth period) {
+        return period != null ? period : YearMonth.now();
+    }
+}
@@ -0,0 +1,73 @@
+package com.hard_lab_pag.Hard_Lab.orders;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// Gasto agregado por usuário ou projeto e mês; mantido incrementalmente a cada escrita de pedido
+@Entity
+@Table(name = "spending_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_spending_rollups_scope", columnNames = {"scope_type", "scope_key", "period", "currency"})
+})
+public class SpendingRollup {
+
+    public static final String SCOPE_USER = "USER";
+    public static final String SCOPE_PROJECT = "PROJECT";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "scope_type", nullable = false, length = 16)
+    private String scopeType;
+
+    @Column(name = "scope_key", nullable = false)
+    private String scopeKey;
+
+    // Mês no formato yyyy-MM
+    @Column(nullable = false, length = 7)
+    private String period;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal total = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private Integer orderCount = 0;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getScopeType() { return scopeType; }
+    public void setScopeType(String scopeType) { this.scopeType = scopeType; }
+
+    public String getScopeKey() { return scopeKey; }
+    public void setScopeKey(String scopeKey) { this.scopeKey = scopeKey; }
+
+    public String getPeriod() { return period; }
+    public void setPeriod(String period) { this.period = period; }
+
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
+    public BigDecimal getTotal() { return total; }
+    public void setTotal(BigDecimal total) { this.total = total; }
+
+    public Integer getOrderCount() { return orderCount; }
+    public void setOrderCount(Integer orderCount) { this.orderCount = orderCount; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+}
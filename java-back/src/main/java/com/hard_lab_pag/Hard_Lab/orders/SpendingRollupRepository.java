@@ -0,0 +1,37 @@
+package com.hard_lab_pag.Hard_Lab.orders;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SpendingRollupRepository extends JpaRepository<SpendingRollup, Long> {
+
+    List<SpendingRollup> findByScopeTypeAndScopeKeyAndPeriod(String scopeType, String scopeKey, String period);
+
+    // Incremento atômico (upsert) na linha do escopo/mês/moeda
+    @Modifying
+    @Query(value = "INSERT INTO spending_rollups (scope_type, scope_key, period, currency, total, order_count, updated_at) " +
+           "VALUES (:scopeType, :scopeKey, :period, :currency, :amount, :orders, :now) " +
+           "ON DUPLICATE KEY UPDATE total = total + VALUES(total), order_count = order_count + VALUES(order_count), " +
+           "updated_at = VALUES(updated_at)", nativeQuery = true)
+    int increment(
+        @Param("scopeType") String scopeType,
+        @Param("scopeKey") String scopeKey,
+        @Param("period") String period,
+        @Param("currency") String currency,
+        @Param("amount") BigDecimal amount,
+        @Param("orders") int orders,
+        @Param("now") Instant now
+    );
+
+    @Modifying
+    @Query(value = "DELETE FROM spending_rollups LIMIT :limit", nativeQuery = true)
+    int deleteChunk(@Param("limit") int limit);
+}
@@ -0,0 +1,143 @@
+package com.hard_lab_pag.Hard_Lab.orders;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hard_lab_pag.Hard_Lab.infra.RebuildableRollup;
+import com.hard_lab_pag.Hard_Lab.infra.RollupRebuildGuard;
+
+import jakarta.persistence.EntityManager;
+
+@Service
+public class SpendingRollupService implements RebuildableRollup {
+
+    public static final String REBUILD_NAME = "spending-rollups";
+    // Pedidos nestes status não comprometem orçamento
+    private static final Set<String> NON_SPENDING_STATUSES = Set.of("draft", "rejected", "cancelled");
+
+    private final SpendingRollupRepository rollupRepository;
+    private final OrderRepository orderRepository;
+    private final RollupRebuildGuard rebuildGuard;
+    private final EntityManager entityManager;
+
+    public SpendingRollupService(
+        SpendingRollupRepository rollupRepository,
+        OrderRepository orderRepository,
+        RollupRebuildGuard rebuildGuard,
+        EntityManager entityManager
+    ) {
+        this.rollupRepository = rollupRepository;
+        this.orderRepository = orderRepository;
+        this.rebuildGuard = rebuildGuard;
+        this.entityManager = entityManager;
+    }
+
+    // Fotografia do quanto um pedido contribui para os agregados; null se não conta como gasto
+    public static Contribution contributionOf(LabOrder order) {
+        Map<String, Object> data = order.getData();
+        if (data == null || NON_SPENDING_STATUSES.contains(String.valueOf(data.get("status")))) {
+            return null;
+        }
+        LocalDateTime createdAt = order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now();
+        Object currency = data.get("currency");
+        Object projectId = data.get("projectId");
+        return new Contribution(
+            order.getCreatedBy(),
+            projectId != null && !projectId.toString().isBlank() ? projectId.toString() : null,
+            YearMonth.from(createdAt).toString(),
+            currency != null && !currency.toString().isBlank() ? currency.toString().toUpperCase() : "BRL",
+            OrderTotalsCalculator.calculate(data).total()
+        );
+    }
+
+    // Início da transação da escrita, antes de gravar o pedido; o valor devolvido vai para apply
+    public Long lockForWrite() {
+        return rebuildGuard.lockForWrite(REBUILD_NAME);
+    }
+
+    // Aplica a diferença entre o estado anterior e o novo na mesma transação da escrita do pedido
+    @Transactional
+    public void apply(Long watermark, Long orderId, Contribution before, Contribution after) {
+        if ((before != null && before.equals(after)) || RollupRebuildGuard.leftToRebuild(watermark, orderId)) {
+            return;
+        }
+        Instant now = Instant.now();
+        if (before != null) {
+            increment(before, before.amount().negate(), -1, now);
+        }
+        if (after != null) {
+            increment(after, after.amount(), 1, now);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<SpendingRollup> find(String scopeType, String scopeKey, YearMonth period) {
+        return rollupRepository.findByScopeTypeAndScopeKeyAndPeriod(scopeType, scopeKey, period.toString());
+    }
+
+    @Override
+    public String rebuildName() {
+        return REBUILD_NAME;
+    }
+
+    @Override
+    public int clearChunk(int limit) {
+        return rollupRepository.deleteChunk(limit);
+    }
+
+    // Pedidos do bloco somados por escopo/mês/moeda antes de gravar: um upsert por linha do agregado
+    @Override
+    public Chunk recountAfter(long afterId, int limit) {
+        List<LabOrder> orders = orderRepository.lockAfter(afterId, limit);
+        if (orders.isEmpty()) {
+            return null;
+        }
+        Map<List<String>, Totals> totals = new HashMap<>();
+        for (LabOrder order : orders) {
+            Contribution c = contributionOf(order);
+            if (c == null) {
+                continue;
+            }
+            if (c.user() != null) {
+                totals.computeIfAbsent(List.of(SpendingRollup.SCOPE_USER, c.user(), c.period(), c.currency()), k -> new Totals()).add(c.amount());
+            }
+            if (c.project() != null) {
+                totals.computeIfAbsent(List.of(SpendingRollup.SCOPE_PROJECT, c.project(), c.period(), c.currency()), k -> new Totals()).add(c.amount());
+            }
+        }
+        Instant now = Instant.now();
+        totals.forEach((key, t) -> rollupRepository.increment(key.get(0), key.get(1), key.get(2), key.get(3), t.amount, t.orders, now));
+        entityManager.clear();
+        return new Chunk(orders.get(orders.size() - 1).getId(), orders.size());
+    }
+
+    private void increment(Contribution c, BigDecimal amount, int orders, Instant now) {
+        if (c.user() != null) {
+            rollupRepository.increment(SpendingRollup.SCOPE_USER, c.user(), c.period(), c.currency(), amount, orders, now);
+        }
+        if (c.project() != null) {
+            rollupRepository.increment(SpendingRollup.SCOPE_PROJECT, c.project(), c.period(), c.currency(), amount, orders, now);
+        }
+    }
+
+    private static final class Totals {
+        private BigDecimal amount = BigDecimal.ZERO;
+        private int orders;
+
+        void add(BigDecimal value) {
+            amount = amount.add(value);
+            orders++;
+        }
+    }
+
+    public record Contribution(String user, String project, String period, String currency, BigDecimal amount) {}
+}
@@ -1,66 +1,22 @@
 package com.hard_lab_pag.Hard_Lab.projects;
 
-import java.time.LocalDateTime;
-import java.util.Map;
+import com.hard_lab_pag.Hard_Lab.documents.IndexedPath;
+import com.hard_lab_pag.Hard_Lab.documents.IndexedPath.PathType;
+import com.hard_lab_pag.Hard_Lab.documents.JsonDocument;
 
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
-
-import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
-import jakarta.persistence.Id;
-import jakarta.persistence.PrePersist;
-import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "projects")
-public class Project {
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(columnDefinition = "JSON")
-    private Map<String, Object> data;
-
-    @Column(nullable = false)
-    private String createdBy;
-
-    @Column(nullable = false, updatable = false)
-    private LocalDateTime createdAt;
-
-    @Column(nullable = false)
-    private LocalDateTime updatedAt;
-
-    @PrePersist
-    protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
-    }
-
-    @PreUpdate
-    protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
-    }
-
-    public Long getId() { return id; }
-    public void setId(Long id) { this.id = id; }
-
-    public Map<String, Object> getData() { return data; }
-    public void setData(Map<String, Object> data) { this.data = data; }
-
-    public String getCreatedBy() { return createdBy; }
-    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
-
-    public LocalDateTime getCreatedAt() { return createdAt; }
-    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
-
-    public LocalDateTime getUpdatedAt() { return updatedAt; }
-    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+@Table(name = "projects", indexes = {
+    @Index(name = "idx_projects_owner", columnList = "created_by, created_at")
+})
+@IndexedPath(field = "phase", path = "$.phase", length = 32)
+@IndexedPath(field = "visibility", path = "$.visibility", length = 16)
+@IndexedPath(field = "code", path = "$.code", length = 64)
+@IndexedPath(field = "responsible", path = "$.responsible", length = 120)
+@IndexedPath(field = "plannedStart", path = "$.plannedStart", type = PathType.DATE)
+@IndexedPath(field = "plannedEnd", path = "$.plannedEnd", type = PathType.DATE)
+public class Project extends JsonDocument {
 }
-
-
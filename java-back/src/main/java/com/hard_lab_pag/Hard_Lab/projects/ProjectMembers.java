@@ -0,0 +1,51 @@
+package com.hard_lab_pag.Hard_Lab.projects;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.hard_lab_pag.Hard_Lab.documents.DocumentAccess;
+
+// Participação no projeto: o autor, o responsável/orientador ou um membro cujo contato (gmail) seja o do usuário
+public final class ProjectMembers {
+
+    private ProjectMembers() {}
+
+    // Leitura pelo id: além do autor, professores e administradores, qualquer participante
+    public static boolean canView(Project project, UserDetails user) {
+        return DocumentAccess.canView(project, user) || (user != null && includes(project, user.getUsername()));
+    }
+
+    public static boolean includes(Project project, String gmail) {
+        if (gmail == null) {
+            return false;
+        }
+        if (gmail.equalsIgnoreCase(project.getCreatedBy())) {
+            return true;
+        }
+        Map<String, Object> data = project.getData();
+        if (data == null) {
+            return false;
+        }
+        if (gmail.equalsIgnoreCase(text(data.get("responsible"))) || gmail.equalsIgnoreCase(text(data.get("advisor")))) {
+            return true;
+        }
+        if (data.get("members") instanceof List<?> members) {
+            for (Object member : members) {
+                if (member instanceof Map<?, ?> m
+                    && (gmail.equalsIgnoreCase(text(m.get("contact"))) || gmail.equalsIgnoreCase(text(m.get("id"))))) {
+                    return true;
+                }
+                if (member instanceof String s && gmail.equalsIgnoreCase(s.trim())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String text(Object value) {
+        return value != null ? value.toString().trim() : null;
+    }
+}
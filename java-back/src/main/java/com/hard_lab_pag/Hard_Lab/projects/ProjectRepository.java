@@ -1,10 +1,40 @@
 package com.hard_lab_pag.Hard_Lab.projects;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.hard_lab_pag.Hard_Lab.documents.DocumentRepository;
+
 @Repository
-public interface ProjectRepository extends JpaRepository<Project, Long> {
-}
+public interface ProjectRepository extends DocumentRepository<Project> {
+
+    List<Project> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    // Projetos do usuário: os que ele criou ou dos quais participa (faceta contact: do índice de busca, ver ProjectMembers)
+    String PARTICIPATING = "(p.createdBy = :gmail OR p.id IN "
+        + "(SELECT t.id.projectId FROM ProjectSearchTerm t WHERE t.id.term = :contactTerm))";
 
+    @Query("SELECT p FROM Project p WHERE " + PARTICIPATING + " ORDER BY p.createdAt DESC, p.id DESC")
+    List<Project> findAllParticipating(@Param("gmail") String gmail, @Param("contactTerm") String contactTerm);
 
+    @Query("SELECT p FROM Project p WHERE " + PARTICIPATING + " ORDER BY p.createdAt DESC, p.id DESC")
+    List<Project> findParticipatingFirstPage(@Param("gmail") String gmail, @Param("contactTerm") String contactTerm, Pageable pageable);
+
+    @Query("SELECT p FROM Project p WHERE " + PARTICIPATING + " ORDER BY p.id DESC")
+    List<Project> findParticipatingNewestFirst(@Param("gmail") String gmail, @Param("contactTerm") String contactTerm, Pageable pageable);
+
+    @Query("SELECT p FROM Project p WHERE " + PARTICIPATING + " "
+        + "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) "
+        + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Project> findParticipatingAfter(@Param("gmail") String gmail, @Param("contactTerm") String contactTerm,
+                                         @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    default List<Project> findAllParticipating(String gmail) {
+        return findAllParticipating(gmail, ProjectSearchService.contactTerm(gmail));
+    }
+}
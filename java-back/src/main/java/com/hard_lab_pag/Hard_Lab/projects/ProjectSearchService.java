@@ -0,0 +1,212 @@
+package com.hard_lab_pag.Hard_Lab.projects;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hard_lab_pag.Hard_Lab.documents.DocumentAccess;
+import com.hard_lab_pag.Hard_Lab.infra.SearchTerms;
+import com.hard_lab_pag.Hard_Lab.infra.TextNormalizer;
+
+import jakarta.persistence.EntityManager;
+
+@Service
+public class ProjectSearchService {
+
+    // Pesos por campo do documento
+    private static final int WEIGHT_TITLE = 8;
+    private static final int WEIGHT_TAG = 4;
+    private static final int WEIGHT_MEMBER = 2;
+    private static final int WEIGHT_DESCRIPTION = 1;
+
+    private static final int REINDEX_CHUNK_SIZE = 200;
+    // Valor que nunca é termo; evita IN () vazio
+    private static final List<String> NO_TERMS = List.of("");
+
+    private final ProjectSearchTermRepository termRepository;
+    private final ProjectRepository projectRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProjectSearchService(
+        ProjectSearchTermRepository termRepository,
+        ProjectRepository projectRepository,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.termRepository = termRepository;
+        this.projectRepository = projectRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Substitui as entradas do projeto no índice; chamado na mesma transação da escrita
+    @Transactional
+    public void index(Project project) {
+        termRepository.deleteByProjectId(project.getId());
+        extractTerms(project.getData()).forEach((term, weight) ->
+            entityManager.persist(new ProjectSearchTerm(project.getId(), term, weight)));
+    }
+
+    // Professores e administradores buscam em todos os projetos; os demais, nos que criaram ou dos quais participam
+    @Transactional(readOnly = true)
+    public List<Project> search(UserDetails user, String query, String status, String tag, String member, int page, int size) {
+        if (user == null) {
+            throw new AccessDeniedException("Não autenticado");
+        }
+        boolean everyone = DocumentAccess.isPrivileged(user);
+        String gmail = user.getUsername();
+        Set<String> text = TextNormalizer.tokens(query, SearchTerms.MIN_TOKEN_LENGTH);
+        Set<String> required = new LinkedHashSet<>();
+        if (status != null && !status.isBlank()) required.add(facet("status", TextNormalizer.normalize(status)));
+        if (tag != null && !tag.isBlank()) required.add(facet("tag", TextNormalizer.normalize(tag)));
+        for (String token : TextNormalizer.tokens(member, SearchTerms.MIN_TOKEN_LENGTH)) {
+            required.add(facet("member", token));
+        }
+
+        if (text.isEmpty() && required.isEmpty()) {
+            return everyone
+                ? projectRepository.findAll(PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"))).getContent()
+                : projectRepository.findParticipatingNewestFirst(gmail, contactTerm(gmail), PageRequest.of(page, size));
+        }
+
+        Set<String> terms = new LinkedHashSet<>(text);
+        terms.addAll(required);
+        List<Object[]> ranked = termRepository.search(
+            terms,
+            required.isEmpty() ? NO_TERMS : required,
+            required.size(),
+            text.isEmpty() ? NO_TERMS : text,
+            text.isEmpty() ? 0 : 1,
+            everyone ? 1 : 0,
+            gmail,
+            contactTerm(gmail),
+            size,
+            page * size
+        );
+
+        List<Long> ids = ranked.stream().map(row -> ((Number) row[0]).longValue()).toList();
+        return SearchTerms.inRankOrder(ids, projectRepository.findAllById(ids), Project::getId);
+    }
+
+    // Reconstrói o índice inteiro em blocos (ex.: após mudar pesos ou campos indexados)
+    public int reindexAll() {
+        return SearchTerms.reindexInChunks(transactionTemplate, afterId -> {
+            List<Project> projects = projectRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, REINDEX_CHUNK_SIZE));
+            projects.forEach(this::index);
+            entityManager.flush();
+            entityManager.clear();
+            return projects;
+        }, Project::getId);
+    }
+
+    // Termos do documento: título, descrição, membros e tags geram termos de texto; status/tag/membro geram facetas
+    static Map<String, Integer> extractTerms(Map<String, Object> data) {
+        Map<String, Integer> terms = new HashMap<>();
+        if (data == null) {
+            return terms;
+        }
+        addText(terms, data.get("name"), WEIGHT_TITLE);
+        addText(terms, data.get("code"), WEIGHT_TITLE);
+        addText(terms, data.get("shortDescription"), WEIGHT_DESCRIPTION);
+        addText(terms, data.get("detailedDescription"), WEIGHT_DESCRIPTION);
+
+        for (String tag : strings(data.get("tags"), data.get("categories"))) {
+            addText(terms, tag, WEIGHT_TAG);
+            addFacet(terms, "tag", TextNormalizer.normalize(tag));
+        }
+
+        List<String> members = new ArrayList<>(strings(data.get("responsible"), data.get("advisor")));
+        if (data.get("members") instanceof List<?> list) {
+            for (Object member : list) {
+                if (member instanceof Map<?, ?> m && m.get("name") != null) {
+                    members.add(m.get("name").toString());
+                } else if (member instanceof String s) {
+                    members.add(s);
+                }
+            }
+        }
+        for (String member : members) {
+            addText(terms, member, WEIGHT_MEMBER);
+            for (String token : TextNormalizer.tokens(member, SearchTerms.MIN_TOKEN_LENGTH)) {
+                addFacet(terms, "member", token);
+            }
+        }
+
+        // Contatos dos participantes (mesma regra de ProjectMembers): a listagem do usuário busca por esse termo no índice
+        List<String> contacts = new ArrayList<>(strings(data.get("responsible"), data.get("advisor")));
+        if (data.get("members") instanceof List<?> list) {
+            for (Object member : list) {
+                if (member instanceof Map<?, ?> m) {
+                    contacts.addAll(strings(m.get("contact"), m.get("id")));
+                } else if (member instanceof String s) {
+                    contacts.add(s);
+                }
+            }
+        }
+        for (String contact : contacts) {
+            if (contact.contains("@")) {
+                String term = contactTerm(contact);
+                if (term.length() <= SearchTerms.MAX_TERM_LENGTH) {
+                    terms.putIfAbsent(term, 0);
+                }
+            }
+        }
+
+        // O app usa "phase" como status do projeto
+        Object status = data.get("phase") != null ? data.get("phase") : data.get("status");
+        if (status != null) {
+            addFacet(terms, "status", TextNormalizer.normalize(status.toString()));
+        }
+        return terms;
+    }
+
+    // Termo repetido em mais de um campo soma os pesos
+    private static void addText(Map<String, Integer> terms, Object value, int weight) {
+        SearchTerms.add(terms, value, weight, Integer::sum);
+    }
+
+    private static void addFacet(Map<String, Integer> terms, String field, String value) {
+        if (value.isEmpty()) return;
+        String term = facet(field, value);
+        if (term.length() <= SearchTerms.MAX_TERM_LENGTH) {
+            terms.putIfAbsent(term, 0);
+        }
+    }
+
+    // Faceta de participação do gmail; não vem de parâmetros da busca, só das consultas de visibilidade
+    static String contactTerm(String gmail) {
+        return facet("contact", gmail.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static String facet(String field, String value) {
+        return field + ":" + value;
+    }
+
+    private static List<String> strings(Object... values) {
+        List<String> result = new ArrayList<>();
+        for (Object value : values) {
+            if (value instanceof List<?> list) {
+                for (Object item : list) {
+                    if (item != null && !item.toString().isBlank()) result.add(item.toString());
+                }
+            } else if (value != null && !value.toString().isBlank()) {
+                result.add(value.toString());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,67 @@
+package com.hard_lab_pag.Hard_Lab.projects;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Entrada do índice invertido: termo -> projeto, com peso acumulado dos campos onde aparece
+@Entity
+@Table(name = "project_search_terms", indexes = {
+    @Index(name = "idx_project_search_terms_term", columnList = "term, project_id")
+})
+public class ProjectSearchTerm {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private Integer weight;
+
+    protected ProjectSearchTerm() {}
+
+    public ProjectSearchTerm(Long projectId, String term, int weight) {
+        this.id = new Key(projectId, term);
+        this.weight = weight;
+    }
+
+    public Key getId() { return id; }
+    public Integer getWeight() { return weight; }
+
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "project_id", nullable = false)
+        private Long projectId;
+
+        @Column(nullable = false, length = 100)
+        private String term;
+
+        protected Key() {}
+
+        public Key(Long projectId, String term) {
+            this.projectId = projectId;
+            this.term = term;
+        }
+
+        public Long getProjectId() { return projectId; }
+        public String getTerm() { return term; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return Objects.equals(projectId, other.projectId) && Objects.equals(term, other.term);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(projectId, term);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.hard_lab_pag.Hard_Lab.projects;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProjectSearchTermRepository extends JpaRepository<ProjectSearchTerm, ProjectSearchTerm.Key> {
+
+    @Modifying
+    @Query("DELETE FROM ProjectSearchTerm t WHERE t.id.projectId = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+
+    // Ranqueia por soma de pesos; filtros (status/tag/member) são termos obrigatórios e o texto exige ao menos um termo.
+    // Escopo igual ao da listagem: com everyone = 0 só entram projetos do autor ou com a faceta contact: do usuário
+    @Query(value = "SELECT t.project_id, SUM(t.weight) AS score FROM project_search_terms t " +
+           "WHERE t.term IN (:terms) " +
+           "AND (:everyone = 1 " +
+           "OR t.project_id IN (SELECT p.id FROM projects p WHERE p.created_by = :gmail) " +
+           "OR t.project_id IN (SELECT c.project_id FROM project_search_terms c WHERE c.term = :contactTerm)) " +
+           "GROUP BY t.project_id " +
+           "HAVING SUM(CASE WHEN t.term IN (:required) THEN 1 ELSE 0 END) = :requiredCount " +
+           "AND SUM(CASE WHEN t.term IN (:text) THEN 1 ELSE 0 END) >= :minTextMatches " +
+           "ORDER BY score DESC, t.project_id DESC LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Object[]> search(
+        @Param("terms") Collection<String> terms,
+        @Param("required") Collection<String> required,
+        @Param("requiredCount") int requiredCount,
+        @Param("text") Collection<String> text,
+        @Param("minTextMatches") int minTextMatches,
+        @Param("everyone") int everyone,
+        @Param("gmail") String gmail,
+        @Param("contactTerm") String contactTerm,
+        @Param("limit") int limit,
+        @Param("offset") int offset
+    );
+}
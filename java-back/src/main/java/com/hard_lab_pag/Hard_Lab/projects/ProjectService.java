@@ -0,0 +1,72 @@
+package com.hard_lab_pag.Hard_Lab.projects;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hard_lab_pag.Hard_Lab.attachments.AttachmentService;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentAccess;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentListing;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentPatchService;
+import com.hard_lab_pag.Hard_Lab.infra.ETags;
+import com.hard_lab_pag.Hard_Lab.infra.KeysetPage;
+
+@Service
+public class ProjectService {
+
+    private final ProjectRepository projectRepository;
+    private final ProjectSearchService searchService;
+    private final DocumentPatchService documentPatchService;
+    private final AttachmentService attachmentService;
+
+    public ProjectService(ProjectRepository projectRepository, ProjectSearchService searchService, DocumentPatchService documentPatchService, AttachmentService attachmentService) {
+        this.projectRepository = projectRepository;
+        this.searchService = searchService;
+        this.documentPatchService = documentPatchService;
+        this.attachmentService = attachmentService;
+    }
+
+    // Professores e administradores veem todos os projetos; os demais, os que criaram ou dos quais participam
+    @Transactional(readOnly = true)
+    public List<Project> visibleTo(UserDetails user) {
+        if (user == null) {
+            throw new AccessDeniedException("Não autenticado");
+        }
+        return DocumentAccess.isPrivileged(user) ? projectRepository.findAll() : projectRepository.findAllParticipating(user.getUsername());
+    }
+
+    // Projetos do usuário (autor ou participante) paginados por cursor, mais recentes primeiro
+    @Transactional(readOnly = true)
+    public KeysetPage<Project> participatingPage(String gmail, String cursor, int pageSize) {
+        String contactTerm = ProjectSearchService.contactTerm(gmail);
+        return DocumentListing.keysetPage(cursor, pageSize,
+            page -> projectRepository.findParticipatingFirstPage(gmail, contactTerm, page),
+            (after, page) -> projectRepository.findParticipatingAfter(gmail, contactTerm, after.getCreatedAt(), after.getId(), page));
+    }
+
+    @Transactional
+    public Project create(Map<String, Object> payload, UserDetails user) {
+        Project project = new Project();
+        project.setData(attachmentService.externalize(payload, user));
+        project.setCreatedBy(user.getUsername());
+        Project saved = projectRepository.save(project);
+        searchService.index(saved);
+        return saved;
+    }
+
+    @Transactional
+    public Optional<Project> patch(Long id, Map<String, Object> patch, UserDetails user, String ifMatch) {
+        return projectRepository.findById(id).map(project -> {
+            DocumentAccess.requirePatchable(project, patch, user);
+            ETags.requireMatch(ifMatch, project.getVersion());
+            documentPatchService.mergePatch(project, attachmentService.externalize(patch, user));
+            searchService.index(project);
+            return project;
+        });
+    }
+}
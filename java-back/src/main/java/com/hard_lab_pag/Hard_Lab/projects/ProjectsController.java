@@ -3,30 +3,95 @@ package com.hard_lab_pag.Hard_Lab.projects;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.hard_lab_pag.Hard_Lab.documents.DocumentAccess;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentQuery;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentQueryService;
+import com.hard_lab_pag.Hard_Lab.infra.ETags;
+import com.hard_lab_pag.Hard_Lab.infra.KeysetPage;
 
 @RestController
 @RequestMapping("/api/projects")
 public class ProjectsController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ProjectRepository projectRepository;
+    private final ProjectService projectService;
+    private final ProjectSearchService searchService;
+    private final DocumentQueryService documentQueryService;
 
-    public ProjectsController(ProjectRepository projectRepository) {
+    public ProjectsController(ProjectRepository projectRepository, ProjectService projectService, ProjectSearchService searchService, DocumentQueryService documentQueryService) {
         this.projectRepository = projectRepository;
+        this.projectService = projectService;
+        this.searchService = searchService;
+        this.documentQueryService = documentQueryService;
     }
 
+    // Professores e administradores veem todos os projetos; os demais usuários, os que criaram ou dos quais participam
     @GetMapping
-    public ResponseEntity<List<Project>> getAllProjects() {
-        List<Project> projects = projectRepository.findAll();
-        return ResponseEntity.ok(projects);
+    public ResponseEntity<List<Project>> getAllProjects(@AuthenticationPrincipal UserDetails user) {
+        return ResponseEntity.ok(projectService.visibleTo(user));
+    }
+
+    // Projetos do usuário autenticado (autor ou participante), paginados por cursor (mais recentes primeiro)
+    @GetMapping("/mine")
+    public ResponseEntity<KeysetPage<Project>> mine(
+        @AuthenticationPrincipal UserDetails user,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "limit", defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(projectService.participatingPage(user.getUsername(), cursor, KeysetPage.clampLimit(limit, MAX_PAGE_SIZE)));
+    }
+
+    // Filtro/ordenação pelos campos indexados do documento (ex.: ?status=approved&sort=-createdAt&limit=50),
+    // com o mesmo escopo da listagem: alunos só consultam os próprios registros
+    @GetMapping("/query")
+    public ResponseEntity<List<Project>> query(@AuthenticationPrincipal UserDetails user, @RequestParam Map<String, String> params) {
+        return ResponseEntity.ok(documentQueryService.find(DocumentQuery.fromParams(Project.class, params).visibleTo(user)));
+    }
+
+    // ETag forte pela versão; If-None-Match com a versão atual devolve 304. Só o autor, participantes, professores e administradores leem o registro;
+    // para os demais a resposta é 404, sem revelar que o id existe
+    @GetMapping("/{id}")
+    public ResponseEntity<Project> getById(@AuthenticationPrincipal UserDetails user, @PathVariable Long id, WebRequest request) {
+        return projectRepository.findById(id)
+            .filter(project -> ProjectMembers.canView(project, user))
+            .map(project -> ETags.respond(request, project.getVersion(), project))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Busca ranqueada no índice invertido (nome, descrição, membros, tags) com filtros por status, tag e membro,
+    // no mesmo escopo da listagem
+    @GetMapping("/search")
+    public ResponseEntity<List<Project>> search(
+        @AuthenticationPrincipal UserDetails user,
+        @RequestParam(value = "q", required = false) String query,
+        @RequestParam(value = "status", required = false) String status,
+        @RequestParam(value = "tag", required = false) String tag,
+        @RequestParam(value = "member", required = false) String member,
+        @RequestParam(value = "page", defaultValue = "0") int page,
+        @RequestParam(value = "size", defaultValue = "20") int size
+    ) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(searchService.search(user, query, status, tag, member, Math.max(page, 0), pageSize));
     }
 
     @PostMapping
@@ -34,11 +99,27 @@ public class ProjectsController {
         @AuthenticationPrincipal UserDetails user,
         @Validated @RequestBody Map<String, Object> payload
     ) {
-        Project project = new Project();
-        project.setData(payload);
-        project.setCreatedBy(user.getUsername());
-        return ResponseEntity.ok(projectRepository.save(project));
+        DocumentAccess.requireCreatable(payload, user);
+        return ResponseEntity.ok(projectService.create(payload, user));
     }
-}
 
+    // Atualização parcial (RFC 7396): chaves com null são removidas, objetos são mesclados; If-Match opcional
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Project> patch(
+        @AuthenticationPrincipal UserDetails user,
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody Map<String, Object> patch
+    ) {
+        return projectService.patch(id, patch, user, ifMatch)
+            .map(project -> ETags.ok(project.getVersion(), project))
+            .orElse(ResponseEntity.notFound().build());
+    }
 
+    // Admin: reconstruir o índice de busca
+    @PostMapping("/search/reindex")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> reindex() {
+        return ResponseEntity.ok(Map.of("indexedProjects", searchService.reindexAll()));
+    }
+}
@@ -0,0 +1,15 @@
+package com.hard_lab_pag.Hard_Lab.purchasing;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PurchaseBatchRepository extends JpaRepository<PurchaseBatch, Long> {
+
+    Optional<PurchaseBatch> findFirstBySupplierAndCurrencyAndStatus(String supplier, String currency, String status);
+
+    List<PurchaseBatch> findByStatusOrderByUpdatedAtDesc(String status);
+}
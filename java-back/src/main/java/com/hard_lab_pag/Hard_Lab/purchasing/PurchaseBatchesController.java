@@ -0,0 +1,56 @@
+package com.hard_lab_pag.Hard_Lab.purchasing;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/purchase-batches")
+public class PurchaseBatchesController {
+
+    private final PurchaseBatchRepository batchRepository;
+    private final PurchaseConsolidationJob consolidationJob;
+
+    public PurchaseBatchesController(PurchaseBatchRepository batchRepository, PurchaseConsolidationJob consolidationJob) {
+        this.batchRepository = batchRepository;
+        this.consolidationJob = consolidationJob;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('PROFESSOR') or hasRole('ADMIN')")
+    public ResponseEntity<List<PurchaseBatch>> list(@RequestParam(value = "status", defaultValue = PurchaseBatch.STATUS_OPEN) String status) {
+        return ResponseEntity.ok(batchRepository.findByStatusOrderByUpdatedAtDesc(status));
+    }
+
+    // Fecha o lote: novos pedidos do mesmo fornecedor passam a compor um lote novo
+    @PostMapping("/{id}/close")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> close(@PathVariable Long id) {
+        return batchRepository.findById(id)
+            .map(batch -> {
+                batch.setStatus(PurchaseBatch.STATUS_ORDERED);
+                return ResponseEntity.ok(batchRepository.save(batch));
+            })
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Consolida agora, na própria requisição (respeita o mesmo lease do agendamento); 409 se já está rodando
+    @PostMapping("/consolidate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> consolidate() {
+        Integer consolidated = consolidationJob.runNow();
+        if (consolidated == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("status", "running"));
+        }
+        return ResponseEntity.ok(Map.of("consolidatedOrders", consolidated));
+    }
+}
@@ -0,0 +1,41 @@
+package com.hard_lab_pag.Hard_Lab.purchasing;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.hard_lab_pag.Hard_Lab.infra.LeaseLockService;
+
+@Component
+public class PurchaseConsolidationJob {
+
+    static final String LEASE_NAME = "purchase-consolidation";
+
+    private final PurchaseConsolidationService consolidationService;
+    private final LeaseLockService leaseLockService;
+
+    @Value("${purchasing.consolidation.lease:PT15M}")
+    private Duration lease;
+
+    public PurchaseConsolidationJob(PurchaseConsolidationService consolidationService, LeaseLockService leaseLockService) {
+        this.consolidationService = consolidationService;
+        this.leaseLockService = leaseLockService;
+    }
+
+    // Apenas uma instância executa por vez (lease no banco, renovado a cada bloco)
+    @Scheduled(cron = "${purchasing.consolidation.cron:0 0 * * * *}")
+    public void run() {
+        runNow();
+    }
+
+    // Pedidos consolidados, ou null se outra instância está com o lease
+    public Integer runNow() {
+        AtomicInteger consolidated = new AtomicInteger();
+        boolean ran = leaseLockService.runExclusively(LEASE_NAME, lease, () -> consolidated.set(
+            consolidationService.consolidateApprovedOrders(() -> leaseLockService.renew(LEASE_NAME, lease))));
+        return ran ? consolidated.get() : null;
+    }
+}
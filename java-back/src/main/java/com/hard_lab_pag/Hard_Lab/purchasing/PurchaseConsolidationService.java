@@ -0,0 +1,243 @@
+package com.hard_lab_pag.Hard_Lab.purchasing;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hard_lab_pag.Hard_Lab.documents.DocumentIndexRegistry;
+import com.hard_lab_pag.Hard_Lab.notifications.NotificationService;
+import com.hard_lab_pag.Hard_Lab.orders.LabOrder;
+
+import jakarta.persistence.EntityManager;
+
+@Service
+public class PurchaseConsolidationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PurchaseConsolidationService.class);
+
+    static final String SOURCE_STATUS = "approved";
+    static final String CONSOLIDATED_STATUS = "purchase";
+    private static final String DEFAULT_SUPPLIER = "Não informado";
+    private static final String DEFAULT_CURRENCY = "BRL";
+
+    private final PurchaseBatchRepository batchRepository;
+    private final DocumentIndexRegistry documentIndexRegistry;
+    private final NotificationService notificationService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${purchasing.consolidation.chunk-size:200}")
+    private int chunkSize;
+
+    public PurchaseConsolidationService(
+        PurchaseBatchRepository batchRepository,
+        DocumentIndexRegistry documentIndexRegistry,
+        NotificationService notificationService,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.batchRepository = batchRepository;
+        this.documentIndexRegistry = documentIndexRegistry;
+        this.notificationService = notificationService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Percorre os pedidos aprovados em blocos; cada bloco é uma transação própria.
+    // keepGoing é consultado antes de cada bloco (renovação do lease): se falhar, para sem processar mais nada
+    public int consolidateApprovedOrders(BooleanSupplier keepGoing) {
+        long afterId = 0;
+        int consolidated = 0;
+        while (true) {
+            if (!keepGoing.getAsBoolean()) {
+                log.warn("Consolidação de compras interrompida: lease perdido após {} pedidos", consolidated);
+                break;
+            }
+            final long cursor = afterId;
+            ChunkResult result = transactionTemplate.execute(status -> consolidateChunk(cursor));
+            if (result == null || result.lastId == null) {
+                break;
+            }
+            consolidated += result.consolidated;
+            afterId = result.lastId;
+        }
+        if (consolidated > 0) {
+            log.info("Consolidação de compras: {} pedidos agrupados em lotes", consolidated);
+        }
+        return consolidated;
+    }
+
+    private ChunkResult consolidateChunk(long afterId) {
+        List<LabOrder> orders = findApprovedAfter(afterId);
+        if (orders.isEmpty()) {
+            return new ChunkResult(null, 0);
+        }
+
+        // Carrega cada lote aberto uma única vez por bloco
+        Map<String, PurchaseBatch> openBatches = new HashMap<>();
+        int consolidated = 0;
+        for (LabOrder order : orders) {
+            Map<String, Object> data = order.getData();
+            if (data == null || !isConsolidable(data)) {
+                continue;
+            }
+            Map<String, List<Map<String, Object>>> linesByBatch = groupLines(data);
+            if (linesByBatch.isEmpty()) {
+                continue;
+            }
+
+            List<Long> batchIds = new ArrayList<>();
+            for (Map.Entry<String, List<Map<String, Object>>> entry : linesByBatch.entrySet()) {
+                PurchaseBatch batch = openBatches.computeIfAbsent(entry.getKey(), this::findOrCreateOpenBatch);
+                for (Map<String, Object> line : entry.getValue()) {
+                    mergeLine(batch, line, order.getId());
+                }
+                if (!batch.getOrderIds().contains(order.getId())) {
+                    batch.getOrderIds().add(order.getId());
+                }
+                batchRepository.save(batch);
+                batchIds.add(batch.getId());
+            }
+
+            Map<String, Object> updated = new LinkedHashMap<>(data);
+            updated.put("status", CONSOLIDATED_STATUS);
+            updated.put("purchaseBatchIds", batchIds);
+            order.setData(updated);
+            // Mesmo aviso das demais transições de status; o job não é o dono, então o dono sempre recebe
+            notificationService.notifyStatusChange("order.status", "Pedido", order.getId(), order.getCreatedBy(), null,
+                SOURCE_STATUS, CONSOLIDATED_STATUS);
+            consolidated++;
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return new ChunkResult(orders.get(orders.size() - 1).getId(), consolidated);
+    }
+
+    // Coluna gerada e indexada de $.status (ver @IndexedPath em LabOrder): cada bloco é uma busca no índice
+    @SuppressWarnings("unchecked")
+    private List<LabOrder> findApprovedAfter(long afterId) {
+        DocumentIndexRegistry.IndexedField status = documentIndexRegistry.get(LabOrder.class).field("status");
+        return entityManager.createNativeQuery("SELECT * FROM `" + status.getTable() + "` WHERE `" + status.getColumn() + "` = ?1 "
+                + "AND id > ?2 ORDER BY id LIMIT ?3", LabOrder.class)
+            .setParameter(1, SOURCE_STATUS)
+            .setParameter(2, afterId)
+            .setParameter(3, chunkSize)
+            .getResultList();
+    }
+
+    private boolean isConsolidable(Map<String, Object> data) {
+        Object orderType = data.get("orderType");
+        Object purchaseMode = data.get("purchaseMode");
+        return (orderType == null || "external_purchase".equals(orderType))
+            && !"internal_stock".equals(purchaseMode);
+    }
+
+    // Agrupa as linhas do pedido pela chave fornecedor|moeda do lote de destino
+    @SuppressWarnings("unchecked")
+    static Map<String, List<Map<String, Object>>> groupLines(Map<String, Object> data) {
+        Map<String, List<Map<String, Object>>> grouped = new LinkedHashMap<>();
+        if (!(data.get("items") instanceof List<?> items)) {
+            return grouped;
+        }
+        String orderSupplier = text(data.get("selectedSupplier"));
+        String orderCurrency = text(data.get("currency"));
+        for (Object raw : items) {
+            if (!(raw instanceof Map<?, ?>)) {
+                continue;
+            }
+            Map<String, Object> item = (Map<String, Object>) raw;
+            BigDecimal quantity = decimal(item.get("quantity"));
+            if (quantity.signum() <= 0) {
+                continue;
+            }
+            String supplier = orderSupplier != null ? orderSupplier : text(item.get("preferredSupplier"));
+            String currency = text(item.get("currency"));
+            if (currency == null) currency = orderCurrency;
+            String key = batchKey(supplier != null ? supplier : DEFAULT_SUPPLIER, currency != null ? currency : DEFAULT_CURRENCY);
+            grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(item);
+        }
+        return grouped;
+    }
+
+    // Mescla por SKU e preço unitário: o mesmo SKU com preços diferentes fica em linhas separadas
+    @SuppressWarnings("unchecked")
+    static void mergeLine(PurchaseBatch batch, Map<String, Object> item, Long orderId) {
+        String sku = skuOf(item);
+        BigDecimal quantity = decimal(item.get("quantity"));
+        BigDecimal unitPrice = decimal(item.get("unitPrice"));
+        for (Map<String, Object> line : batch.getItems()) {
+            if (sku.equals(line.get("sku")) && unitPrice.compareTo(decimal(line.get("unitPrice"))) == 0) {
+                line.put("quantity", decimal(line.get("quantity")).add(quantity));
+                Set<Object> orderIds = new LinkedHashSet<>((List<Object>) line.getOrDefault("orderIds", new ArrayList<>()));
+                orderIds.add(orderId);
+                line.put("orderIds", new ArrayList<>(orderIds));
+                return;
+            }
+        }
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("sku", sku);
+        line.put("componentId", item.get("componentId"));
+        line.put("componentName", item.get("componentName"));
+        line.put("unit", item.get("unit"));
+        line.put("quantity", quantity);
+        line.put("unitPrice", unitPrice);
+        line.put("orderIds", new ArrayList<>(List.of(orderId)));
+        batch.getItems().add(line);
+    }
+
+    private PurchaseBatch findOrCreateOpenBatch(String key) {
+        String[] parts = key.split("\\|", 2);
+        return batchRepository.findFirstBySupplierAndCurrencyAndStatus(parts[0], parts[1], PurchaseBatch.STATUS_OPEN)
+            .orElseGet(() -> {
+                PurchaseBatch batch = new PurchaseBatch();
+                batch.setSupplier(parts[0]);
+                batch.setCurrency(parts[1]);
+                return batch;
+            });
+    }
+
+    private static String batchKey(String supplier, String currency) {
+        return supplier.replace("|", "/") + "|" + currency.toUpperCase();
+    }
+
+    // SKU explícito; sem ele, usa o componente ou o nome como identificador da linha
+    private static String skuOf(Map<String, Object> item) {
+        String sku = text(item.get("sku"));
+        if (sku != null) return sku;
+        String componentId = text(item.get("componentId"));
+        if (componentId != null) return "component:" + componentId;
+        String name = text(item.get("componentName"));
+        return "name:" + (name != null ? name.toLowerCase() : "");
+    }
+
+    private static String text(Object value) {
+        if (value == null) return null;
+        String s = value.toString().trim();
+        return s.isEmpty() ? null : s;
+    }
+
+    private static BigDecimal decimal(Object value) {
+        if (value == null) return BigDecimal.ZERO;
+        try {
+            return new BigDecimal(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return BigDecimal.ZERO;
+        }
+    }
+
+    private record ChunkResult(Long lastId, int consolidated) {}
+}
@@ -1,66 +1,21 @@
 package com.hard_lab_pag.Hard_Lab.reservations;
 
-import java.time.LocalDateTime;
-import java.util.Map;
+import com.hard_lab_pag.Hard_Lab.documents.IndexedPath;
+import com.hard_lab_pag.Hard_Lab.documents.IndexedPath.PathType;
+import com.hard_lab_pag.Hard_Lab.documents.JsonDocument;
 
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
-
-import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
-import jakarta.persistence.Id;
-import jakarta.persistence.PrePersist;
-import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "reservations")
-public class Reservation {
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(columnDefinition = "JSON")
-    private Map<String, Object> data;
-
-    @Column(nullable = false)
-    private String createdBy;
-
-    @Column(nullable = false, updatable = false)
-    private LocalDateTime createdAt;
-
-    @Column(nullable = false)
-    private LocalDateTime updatedAt;
-
-    @PrePersist
-    protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
-    }
-
-    @PreUpdate
-    protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
-    }
-
-    public Long getId() { return id; }
-    public void setId(Long id) { this.id = id; }
-
-    public Map<String, Object> getData() { return data; }
-    public void setData(Map<String, Object> data) { this.data = data; }
-
-    public String getCreatedBy() { return createdBy; }
-    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
-
-    public LocalDateTime getCreatedAt() { return createdAt; }
-    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
-
-    public LocalDateTime getUpdatedAt() { return updatedAt; }
-    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+@Table(name = "reservations", indexes = {
+    @Index(name = "idx_reservations_owner", columnList = "created_by, created_at")
+})
+@IndexedPath(field = "status", path = "$.status", length = 32)
+@IndexedPath(field = "resourceType", path = "$.resourceType", length = 64)
+@IndexedPath(field = "resourceId", path = "$.resourceId", length = 64)
+@IndexedPath(field = "projectId", path = "$.projectId", length = 64)
+@IndexedPath(field = "date", path = "$.date", type = PathType.DATE)
+public class Reservation extends JsonDocument {
 }
-
-
@@ -0,0 +1,147 @@
+package com.hard_lab_pag.Hard_Lab.reservations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Converte o documento da reserva em minutos ocupados por hora do recurso, expandindo a recorrência
+public final class ReservationOccupancyCalculator {
+
+    // Rascunho, conflito e canceladas não ocupam o recurso
+    static final Set<String> BOOKED_STATUSES = Set.of("pending", "approved");
+    static final String APPROVED_STATUS = "approved";
+    // Teto de ocorrências por reserva (recorrência diária de um ano)
+    static final int MAX_OCCURRENCES = 366;
+    static final int MAX_KEY_LENGTH = 64;
+
+    private static final DateTimeFormatter BR_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private ReservationOccupancyCalculator() {}
+
+    // null se a reserva não ocupa o recurso ou não tem recurso/data/horário válidos
+    public static Occupancy calculate(Map<String, Object> data) {
+        if (data == null || !BOOKED_STATUSES.contains(String.valueOf(data.get("status")))) {
+            return null;
+        }
+        String resourceType = key(data.get("resourceType"));
+        String resourceId = key(data.get("resourceId"));
+        LocalDate date = parseDate(data.get("date"));
+        LocalTime start = parseTime(data.get("startTime"));
+        LocalTime end = parseTime(data.get("endTime"));
+        if (resourceType == null || resourceId == null || date == null || start == null || end == null || !end.isAfter(start)) {
+            return null;
+        }
+        Map<LocalDateTime, Integer> minutesByHour = new TreeMap<>();
+        for (LocalDate day : occurrences(date, data.get("recurrence"))) {
+            slice(day.atTime(start), day.atTime(end), minutesByHour);
+        }
+        return new Occupancy(resourceType, resourceId, APPROVED_STATUS.equals(data.get("status")), minutesByHour);
+    }
+
+    // Datas em que a reserva acontece: daily/weekly/monthly a cada "interval" até endDate ou "occurrences"
+    static List<LocalDate> occurrences(LocalDate first, Object rawRecurrence) {
+        if (!(rawRecurrence instanceof Map<?, ?> recurrence)) {
+            return List.of(first);
+        }
+        ChronoUnit unit = switch (String.valueOf(recurrence.get("type"))) {
+            case "daily" -> ChronoUnit.DAYS;
+            case "weekly" -> ChronoUnit.WEEKS;
+            case "monthly" -> ChronoUnit.MONTHS;
+            default -> null;
+        };
+        LocalDate endDate = parseDate(recurrence.get("endDate"));
+        int limit = Math.min(positiveInt(recurrence.get("occurrences"), MAX_OCCURRENCES), MAX_OCCURRENCES);
+        // Sem fim definido não há como saber até quando vai: conta só a primeira data
+        if (unit == null || (endDate == null && recurrence.get("occurrences") == null)) {
+            return List.of(first);
+        }
+        int interval = positiveInt(recurrence.get("interval"), 1);
+        Set<LocalDate> exceptions = new HashSet<>();
+        if (recurrence.get("exceptions") instanceof List<?> list) {
+            for (Object raw : list) {
+                LocalDate exception = parseDate(raw);
+                if (exception != null) {
+                    exceptions.add(exception);
+                }
+            }
+        }
+        List<LocalDate> days = new ArrayList<>();
+        for (int i = 0; i < limit; i++) {
+            // Mensal a partir da primeira data (31/01 -> 28/02 -> 31/03), sem acumular o ajuste de fim de mês
+            LocalDate day = first.plus((long) i * interval, unit);
+            if (endDate != null && day.isAfter(endDate)) {
+                break;
+            }
+            if (!exceptions.contains(day)) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    static void slice(LocalDateTime start, LocalDateTime end, Map<LocalDateTime, Integer> minutesByHour) {
+        LocalDateTime cursor = start;
+        while (cursor.isBefore(end)) {
+            LocalDateTime hour = cursor.truncatedTo(ChronoUnit.HOURS);
+            LocalDateTime next = hour.plusHours(1).isBefore(end) ? hour.plusHours(1) : end;
+            minutesByHour.merge(hour, (int) Duration.between(cursor, next).toMinutes(), Integer::sum);
+            cursor = next;
+        }
+    }
+
+    // Aceita ISO (2025-01-20) e o formato do app (20/01/2025)
+    static LocalDate parseDate(Object raw) {
+        if (raw == null || raw.toString().isBlank()) {
+            return null;
+        }
+        String value = raw.toString().trim();
+        try {
+            return value.contains("/") ? LocalDate.parse(value, BR_DATE) : LocalDate.parse(value.length() > 10 ? value.substring(0, 10) : value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    static LocalTime parseTime(Object raw) {
+        if (raw == null || raw.toString().isBlank()) {
+            return null;
+        }
+        try {
+            return LocalTime.parse(raw.toString().trim()).truncatedTo(ChronoUnit.MINUTES);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String key(Object raw) {
+        if (raw == null || raw.toString().isBlank() || raw.toString().length() > MAX_KEY_LENGTH) {
+            return null;
+        }
+        return raw.toString();
+    }
+
+    private static int positiveInt(Object raw, int fallback) {
+        if (raw == null) {
+            return fallback;
+        }
+        try {
+            int value = new BigDecimal(raw.toString().trim()).intValue();
+            return value > 0 ? value : fallback;
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    public record Occupancy(String resourceType, String resourceId, boolean approved, Map<LocalDateTime, Integer> minutesByHour) {}
+}
@@ -1,10 +1,18 @@
 package com.hard_lab_pag.Hard_Lab.reservations;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-@Repository
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
-}
+import com.hard_lab_pag.Hard_Lab.documents.DocumentRepository;
 
+@Repository
+public interface ReservationRepository extends DocumentRepository<Reservation> {
 
+    // Bloco do rebuild dos agregados de ocupação em ordem de id; FOR UPDATE segura escritas concorrentes nessas reservas (no último bloco,
+    // também inserções novas) até o bloco confirmar junto com o avanço do watermark
+    @Query(value = "SELECT * FROM reservations WHERE id > :afterId ORDER BY id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Reservation> lockAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+}
@@ -0,0 +1,65 @@
+package com.hard_lab_pag.Hard_Lab.reservations;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hard_lab_pag.Hard_Lab.documents.DocumentAccess;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentPatchService;
+import com.hard_lab_pag.Hard_Lab.infra.ETags;
+import com.hard_lab_pag.Hard_Lab.notifications.NotificationService;
+import com.hard_lab_pag.Hard_Lab.stats.AdminStatsService;
+
+@Service
+public class ReservationService {
+
+    private final ReservationRepository reservationRepository;
+    private final DocumentPatchService documentPatchService;
+    private final NotificationService notificationService;
+    private final AdminStatsService adminStatsService;
+    private final ReservationUsageService usageService;
+
+    public ReservationService(ReservationRepository reservationRepository, DocumentPatchService documentPatchService, NotificationService notificationService, AdminStatsService adminStatsService, ReservationUsageService usageService) {
+        this.reservationRepository = reservationRepository;
+        this.documentPatchService = documentPatchService;
+        this.notificationService = notificationService;
+        this.adminStatsService = adminStatsService;
+        this.usageService = usageService;
+    }
+
+    @Transactional
+    public Reservation create(Map<String, Object> payload, String createdBy) {
+        Long rebuildWatermark = usageService.lockForWrite();
+        Reservation reservation = new Reservation();
+        reservation.setData(payload);
+        reservation.setCreatedBy(createdBy);
+        Reservation saved = reservationRepository.save(reservation);
+        usageService.apply(rebuildWatermark, saved.getId(), null, ReservationUsageService.occupancyOf(saved));
+        return saved;
+    }
+
+    @Transactional
+    public Optional<Reservation> patch(Long id, Map<String, Object> patch, UserDetails user, String ifMatch) {
+        // Antes de qualquer escrita na reserva: mesma ordem de travas do rebuild dos agregados
+        Long rebuildWatermark = usageService.lockForWrite();
+        return reservationRepository.findById(id).map(reservation -> {
+            DocumentAccess.requirePatchable(reservation, patch, user);
+            ETags.requireMatch(ifMatch, reservation.getVersion());
+            Object statusBefore = statusOf(reservation);
+            ReservationOccupancyCalculator.Occupancy occupancyBefore = ReservationUsageService.occupancyOf(reservation);
+            documentPatchService.mergePatch(reservation, patch);
+            Object statusAfter = statusOf(reservation);
+            usageService.apply(rebuildWatermark, reservation.getId(), occupancyBefore, ReservationUsageService.occupancyOf(reservation));
+            notificationService.notifyStatusChange("reservation.status", "Reserva", reservation.getId(), reservation.getCreatedBy(), user.getUsername(), statusBefore, statusAfter);
+            adminStatsService.reservationStatusChanged(statusBefore, statusAfter);
+            return reservation;
+        });
+    }
+
+    private static Object statusOf(Reservation reservation) {
+        return reservation.getData() != null ? reservation.getData().get("status") : null;
+    }
+}
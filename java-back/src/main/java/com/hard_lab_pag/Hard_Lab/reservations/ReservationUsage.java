@@ -0,0 +1,61 @@
+package com.hard_lab_pag.Hard_Lab.reservations;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// Minutos reservados por recurso e hora (horário local do laboratório); mantido incrementalmente a cada escrita de reserva
+@Entity
+@Table(name = "reservation_usage_hourly", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_reservation_usage_bucket", columnNames = {"resource_type", "resource_id", "bucket_start"})
+}, indexes = {
+    @Index(name = "idx_reservation_usage_bucket", columnList = "bucket_start")
+})
+public class ReservationUsage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "resource_type", nullable = false, length = 64)
+    private String resourceType;
+
+    @Column(name = "resource_id", nullable = false, length = 64)
+    private String resourceId;
+
+    // Início da hora (minutos e segundos zerados)
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    // Reservas pendentes ou aprovadas
+    @Column(name = "booked_minutes", nullable = false)
+    private Integer bookedMinutes = 0;
+
+    @Column(name = "approved_minutes", nullable = false)
+    private Integer approvedMinutes = 0;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getResourceType() { return resourceType; }
+    public void setResourceType(String resourceType) { this.resourceType = resourceType; }
+
+    public String getResourceId() { return resourceId; }
+    public void setResourceId(String resourceId) { this.resourceId = resourceId; }
+
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+
+    public Integer getBookedMinutes() { return bookedMinutes; }
+    public void setBookedMinutes(Integer bookedMinutes) { this.bookedMinutes = bookedMinutes; }
+
+    public Integer getApprovedMinutes() { return approvedMinutes; }
+    public void setApprovedMinutes(Integer approvedMinutes) { this.approvedMinutes = approvedMinutes; }
+}
@@ -0,0 +1,65 @@
+package com.hard_lab_pag.Hard_Lab.reservations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReservationUsageRepository extends JpaRepository<ReservationUsage, Long> {
+
+    // Incremento atômico (upsert) na linha do recurso/hora
+    @Modifying
+    @Query(value = "INSERT INTO reservation_usage_hourly (resource_type, resource_id, bucket_start, booked_minutes, approved_minutes) " +
+           "VALUES (:resourceType, :resourceId, :bucketStart, :booked, :approved) " +
+           "ON DUPLICATE KEY UPDATE booked_minutes = booked_minutes + VALUES(booked_minutes), " +
+           "approved_minutes = approved_minutes + VALUES(approved_minutes)", nativeQuery = true)
+    int increment(
+        @Param("resourceType") String resourceType,
+        @Param("resourceId") String resourceId,
+        @Param("bucketStart") LocalDateTime bucketStart,
+        @Param("booked") int booked,
+        @Param("approved") int approved
+    );
+
+    @Modifying
+    @Query(value = "DELETE FROM reservation_usage_hourly LIMIT :limit", nativeQuery = true)
+    int deleteChunk(@Param("limit") int limit);
+
+    // Mapa de calor: soma por recurso, dia da semana (0 = segunda) e hora; filtro opcional por recurso
+    @Query(value = "SELECT resource_type, resource_id, WEEKDAY(bucket_start) AS weekday, HOUR(bucket_start) AS hour_of_day, " +
+           "SUM(booked_minutes), SUM(approved_minutes) FROM reservation_usage_hourly " +
+           "WHERE bucket_start >= :from AND bucket_start < :to " +
+           "AND (:resourceType IS NULL OR resource_type = :resourceType) AND (:resourceId IS NULL OR resource_id = :resourceId) " +
+           "GROUP BY resource_type, resource_id, weekday, hour_of_day " +
+           "ORDER BY resource_type, resource_id, weekday, hour_of_day", nativeQuery = true)
+    List<Object[]> sumByWeekdayAndHour(
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        @Param("resourceType") String resourceType,
+        @Param("resourceId") String resourceId
+    );
+
+    // Série temporal: soma por recurso e início do período (HOUR, DAY, WEEK começando na segunda, MONTH)
+    @Query(value = "SELECT resource_type, resource_id, " +
+           "CASE :granularity WHEN 'HOUR' THEN bucket_start " +
+           "WHEN 'DAY' THEN TIMESTAMP(DATE(bucket_start)) " +
+           "WHEN 'WEEK' THEN TIMESTAMP(DATE_SUB(DATE(bucket_start), INTERVAL WEEKDAY(bucket_start) DAY)) " +
+           "ELSE TIMESTAMP(DATE_FORMAT(bucket_start, '%Y-%m-01')) END AS period_start, " +
+           "SUM(booked_minutes), SUM(approved_minutes) FROM reservation_usage_hourly " +
+           "WHERE bucket_start >= :from AND bucket_start < :to " +
+           "AND (:resourceType IS NULL OR resource_type = :resourceType) AND (:resourceId IS NULL OR resource_id = :resourceId) " +
+           "GROUP BY resource_type, resource_id, period_start " +
+           "ORDER BY period_start, resource_type, resource_id", nativeQuery = true)
+    List<Object[]> sumByPeriod(
+        @Param("granularity") String granularity,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        @Param("resourceType") String resourceType,
+        @Param("resourceId") String resourceId
+    );
+}
@@ -0,0 +1,206 @@
+package com.hard_lab_pag.Hard_Lab.reservations;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hard_lab_pag.Hard_Lab.infra.RebuildableRollup;
+import com.hard_lab_pag.Hard_Lab.infra.RollupRebuildGuard;
+import com.hard_lab_pag.Hard_Lab.reservations.ReservationOccupancyCalculator.Occupancy;
+
+import jakarta.persistence.EntityManager;
+
+// Ocupação por recurso e hora: as escritas de reserva aplicam a diferença antes/depois na própria transação;
+// o RollupRebuildJob reconta o histórico em blocos por id, e consultas de qualquer janela leem só os agregados
+@Service
+public class ReservationUsageService implements RebuildableRollup {
+
+    // Uma semana cobre um semestre inteiro; por hora, o limite é menor para não devolver milhares de pontos por recurso
+    static final int MAX_WINDOW_DAYS = 400;
+    static final int MAX_HOURLY_WINDOW_DAYS = 31;
+    static final int DEFAULT_WINDOW_DAYS = 90;
+
+    public static final String REBUILD_NAME = "reservation-usage";
+
+    private final ReservationUsageRepository usageRepository;
+    private final ReservationRepository reservationRepository;
+    private final RollupRebuildGuard rebuildGuard;
+    private final EntityManager entityManager;
+
+    public ReservationUsageService(
+        ReservationUsageRepository usageRepository,
+        ReservationRepository reservationRepository,
+        RollupRebuildGuard rebuildGuard,
+        EntityManager entityManager
+    ) {
+        this.usageRepository = usageRepository;
+        this.reservationRepository = reservationRepository;
+        this.rebuildGuard = rebuildGuard;
+        this.entityManager = entityManager;
+    }
+
+    public static Occupancy occupancyOf(Reservation reservation) {
+        return ReservationOccupancyCalculator.calculate(reservation.getData());
+    }
+
+    // Início da transação da escrita, antes de gravar ou ler travada a reserva; o valor devolvido vai para apply
+    public Long lockForWrite() {
+        return rebuildGuard.lockForWrite(REBUILD_NAME);
+    }
+
+    // Aplica a diferença entre o estado anterior e o novo na mesma transação da escrita da reserva
+    @Transactional
+    public void apply(Long watermark, Long reservationId, Occupancy before, Occupancy after) {
+        if (Objects.equals(before, after) || RollupRebuildGuard.leftToRebuild(watermark, reservationId)) {
+            return;
+        }
+        Map<UsageKey, int[]> deltas = new HashMap<>();
+        accumulate(deltas, before, -1);
+        accumulate(deltas, after, 1);
+        write(deltas);
+    }
+
+    @Override
+    public String rebuildName() {
+        return REBUILD_NAME;
+    }
+
+    @Override
+    public int clearChunk(int limit) {
+        return usageRepository.deleteChunk(limit);
+    }
+
+    // Reservas do bloco somadas por recurso/hora antes de gravar: um upsert por linha do agregado
+    @Override
+    public Chunk recountAfter(long afterId, int limit) {
+        List<Reservation> reservations = reservationRepository.lockAfter(afterId, limit);
+        if (reservations.isEmpty()) {
+            return null;
+        }
+        Map<UsageKey, int[]> deltas = new HashMap<>();
+        for (Reservation reservation : reservations) {
+            accumulate(deltas, occupancyOf(reservation), 1);
+        }
+        write(deltas);
+        entityManager.clear();
+        return new Chunk(reservations.get(reservations.size() - 1).getId(), reservations.size());
+    }
+
+    @Transactional(readOnly = true)
+    public List<HeatmapCell> heatmap(LocalDate from, LocalDate to, String resourceType, String resourceId) {
+        Window window = Window.of(from, to, MAX_WINDOW_DAYS);
+        Map<DayOfWeek, Long> daysInWindow = new HashMap<>();
+        for (LocalDate day = window.from(); !day.isAfter(window.to()); day = day.plusDays(1)) {
+            daysInWindow.merge(day.getDayOfWeek(), 1L, Long::sum);
+        }
+        List<HeatmapCell> cells = new ArrayList<>();
+        for (Object[] row : usageRepository.sumByWeekdayAndHour(window.start(), window.end(), blankToNull(resourceType), blankToNull(resourceId))) {
+            // WEEKDAY do MySQL: 0 = segunda; ISO: 1 = segunda
+            DayOfWeek weekday = DayOfWeek.of(((Number) row[2]).intValue() + 1);
+            long booked = ((Number) row[4]).longValue();
+            long approved = ((Number) row[5]).longValue();
+            double capacity = daysInWindow.getOrDefault(weekday, 0L) * 60.0;
+            cells.add(new HeatmapCell((String) row[0], (String) row[1], weekday.getValue(), ((Number) row[3]).intValue(),
+                booked, approved, capacity > 0 ? booked / capacity : 0));
+        }
+        return cells;
+    }
+
+    @Transactional(readOnly = true)
+    public List<SeriesPoint> series(LocalDate from, LocalDate to, String granularity, String resourceType, String resourceId) {
+        Granularity unit = Granularity.parse(granularity);
+        Window window = Window.of(from, to, unit == Granularity.HOUR ? MAX_HOURLY_WINDOW_DAYS : MAX_WINDOW_DAYS);
+        List<SeriesPoint> points = new ArrayList<>();
+        for (Object[] row : usageRepository.sumByPeriod(unit.name(), window.start(), window.end(), blankToNull(resourceType), blankToNull(resourceId))) {
+            points.add(new SeriesPoint((String) row[0], (String) row[1], toLocalDateTime(row[2]),
+                ((Number) row[3]).longValue(), ((Number) row[4]).longValue()));
+        }
+        return points;
+    }
+
+    static void accumulate(Map<UsageKey, int[]> deltas, Occupancy occupancy, int sign) {
+        if (occupancy == null) {
+            return;
+        }
+        for (Map.Entry<LocalDateTime, Integer> slot : occupancy.minutesByHour().entrySet()) {
+            int[] delta = deltas.computeIfAbsent(new UsageKey(occupancy.resourceType(), occupancy.resourceId(), slot.getKey()), k -> new int[2]);
+            delta[0] += sign * slot.getValue();
+            if (occupancy.approved()) {
+                delta[1] += sign * slot.getValue();
+            }
+        }
+    }
+
+    private void write(Map<UsageKey, int[]> deltas) {
+        for (Map.Entry<UsageKey, int[]> entry : deltas.entrySet()) {
+            int[] delta = entry.getValue();
+            if (delta[0] != 0 || delta[1] != 0) {
+                UsageKey key = entry.getKey();
+                usageRepository.increment(key.resourceType(), key.resourceId(), key.bucketStart(), delta[0], delta[1]);
+            }
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    public enum Granularity {
+        HOUR, DAY, WEEK, MONTH;
+
+        static Granularity parse(String value) {
+            if (value == null || value.isBlank()) {
+                return DAY;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Granularidade inválida: use hour, day, week ou month");
+            }
+        }
+    }
+
+    // Datas inclusivas; sem "to" termina hoje, sem "from" cobre os DEFAULT_WINDOW_DAYS anteriores
+    record Window(LocalDate from, LocalDate to) {
+
+        static Window of(LocalDate from, LocalDate to, int maxDays) {
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusDays(DEFAULT_WINDOW_DAYS - 1);
+            if (start.isAfter(end)) {
+                throw new IllegalArgumentException("Período inválido: from deve ser anterior ou igual a to");
+            }
+            if (ChronoUnit.DAYS.between(start, end) + 1 > maxDays) {
+                throw new IllegalArgumentException("Período acima do máximo de " + maxDays + " dias");
+            }
+            return new Window(start, end);
+        }
+
+        LocalDateTime start() { return from.atStartOfDay(); }
+        LocalDateTime end() { return to.plusDays(1).atStartOfDay(); }
+    }
+
+    record UsageKey(String resourceType, String resourceId, LocalDateTime bucketStart) {}
+
+    // weekday ISO (1 = segunda); utilization = minutos reservados / minutos daquela hora na janela
+    public record HeatmapCell(String resourceType, String resourceId, int weekday, int hour, long bookedMinutes, long approvedMinutes, double utilization) {}
+
+    public record SeriesPoint(String resourceType, String resourceId, LocalDateTime periodStart, long bookedMinutes, long approvedMinutes) {}
+}
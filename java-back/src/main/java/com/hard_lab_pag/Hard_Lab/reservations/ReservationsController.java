@@ -1,32 +1,126 @@
 package com.hard_lab_pag.Hard_Lab.reservations;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.hard_lab_pag.Hard_Lab.documents.DocumentAccess;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentListing;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentQuery;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentQueryService;
+import com.hard_lab_pag.Hard_Lab.infra.ETags;
+import com.hard_lab_pag.Hard_Lab.infra.KeysetPage;
+import com.hard_lab_pag.Hard_Lab.infra.RollupRebuildJob;
 
 @RestController
 @RequestMapping("/api/reservations")
 public class ReservationsController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ReservationRepository reservationRepository;
+    private final DocumentQueryService documentQueryService;
+    private final ReservationService reservationService;
+    private final ReservationUsageService usageService;
+    private final RollupRebuildJob rollupRebuildJob;
 
-    public ReservationsController(ReservationRepository reservationRepository) {
+    public ReservationsController(
+        ReservationRepository reservationRepository,
+        DocumentQueryService documentQueryService,
+        ReservationService reservationService,
+        ReservationUsageService usageService,
+        RollupRebuildJob rollupRebuildJob
+    ) {
         this.reservationRepository = reservationRepository;
+        this.documentQueryService = documentQueryService;
+        this.reservationService = reservationService;
+        this.usageService = usageService;
+        this.rollupRebuildJob = rollupRebuildJob;
     }
 
+    // Professores e administradores veem todos os registros; os demais usuários, apenas os próprios
     @GetMapping
-    public ResponseEntity<List<Reservation>> getAllReservations() {
-        List<Reservation> reservations = reservationRepository.findAll();
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<List<Reservation>> getAllReservations(@AuthenticationPrincipal UserDetails user) {
+        return ResponseEntity.ok(DocumentListing.visibleTo(reservationRepository, user));
+    }
+
+    // Apenas os registros do usuário autenticado, paginados por cursor (mais recentes primeiro)
+    @GetMapping("/mine")
+    public ResponseEntity<KeysetPage<Reservation>> mine(
+        @AuthenticationPrincipal UserDetails user,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "limit", defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(DocumentListing.ownedPage(reservationRepository, user.getUsername(), cursor, KeysetPage.clampLimit(limit, MAX_PAGE_SIZE)));
+    }
+
+    // Filtro/ordenação pelos campos indexados do documento (ex.: ?status=approved&sort=-createdAt&limit=50),
+    // com o mesmo escopo da listagem: alunos só consultam os próprios registros
+    @GetMapping("/query")
+    public ResponseEntity<List<Reservation>> query(@AuthenticationPrincipal UserDetails user, @RequestParam Map<String, String> params) {
+        return ResponseEntity.ok(documentQueryService.find(DocumentQuery.fromParams(Reservation.class, params).visibleTo(user)));
+    }
+
+    // Ocupação por recurso, dia da semana e hora na janela (datas inclusivas), lida dos agregados por hora
+    @GetMapping("/usage/heatmap")
+    @PreAuthorize("hasRole('PROFESSOR') or hasRole('ADMIN')")
+    public ResponseEntity<List<ReservationUsageService.HeatmapCell>> usageHeatmap(
+        @RequestParam(value = "from", required = false) LocalDate from,
+        @RequestParam(value = "to", required = false) LocalDate to,
+        @RequestParam(value = "resourceType", required = false) String resourceType,
+        @RequestParam(value = "resourceId", required = false) String resourceId
+    ) {
+        return ResponseEntity.ok(usageService.heatmap(from, to, resourceType, resourceId));
+    }
+
+    // Tendência por recurso: granularity = hour, day (padrão), week ou month
+    @GetMapping("/usage/series")
+    @PreAuthorize("hasRole('PROFESSOR') or hasRole('ADMIN')")
+    public ResponseEntity<List<ReservationUsageService.SeriesPoint>> usageSeries(
+        @RequestParam(value = "from", required = false) LocalDate from,
+        @RequestParam(value = "to", required = false) LocalDate to,
+        @RequestParam(value = "granularity", required = false) String granularity,
+        @RequestParam(value = "resourceType", required = false) String resourceType,
+        @RequestParam(value = "resourceId", required = false) String resourceId
+    ) {
+        return ResponseEntity.ok(usageService.series(from, to, granularity, resourceType, resourceId));
+    }
+
+    // Admin: recontar os agregados a partir de todas as reservas, em segundo plano
+    @PostMapping("/usage/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildUsage() {
+        rollupRebuildJob.request(ReservationUsageService.REBUILD_NAME);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("status", "running"));
+    }
+
+    // ETag forte pela versão; If-None-Match com a versão atual devolve 304. Só o autor, professores e administradores leem o registro;
+    // para os demais a resposta é 404, sem revelar que o id existe
+    @GetMapping("/{id}")
+    public ResponseEntity<Reservation> getById(@AuthenticationPrincipal UserDetails user, @PathVariable Long id, WebRequest request) {
+        return reservationRepository.findById(id)
+            .filter(reservation -> DocumentAccess.canView(reservation, user))
+            .map(reservation -> ETags.respond(request, reservation.getVersion(), reservation))
+            .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
@@ -34,10 +128,21 @@ public class ReservationsController {
         @AuthenticationPrincipal UserDetails user,
         @Validated @RequestBody Map<String, Object> payload
     ) {
-        Reservation reservation = new Reservation();
-        reservation.setData(payload);
-        reservation.setCreatedBy(user.getUsername());
-        return ResponseEntity.ok(reservationRepository.save(reservation));
+        DocumentAccess.requireCreatable(payload, user);
+        return ResponseEntity.ok(reservationService.create(payload, user.getUsername()));
+    }
+
+    // Atualização parcial (RFC 7396): chaves com null são removidas, objetos são mesclados; If-Match opcional
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Reservation> patch(
+        @AuthenticationPrincipal UserDetails user,
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody Map<String, Object> patch
+    ) {
+        return reservationService.patch(id, patch, user, ifMatch)
+            .map(reservation -> ETags.ok(reservation.getVersion(), reservation))
+            .orElse(ResponseEntity.notFound().build());
     }
 }
 
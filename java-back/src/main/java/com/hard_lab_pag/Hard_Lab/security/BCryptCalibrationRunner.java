@@ -0,0 +1,40 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Opcional (security.bcrypt.calibrate-on-startup=true): mede o BCrypt no host de produção e registra no log
+// o custo recomendado para security.bcrypt.strength
+@Component
+@ConditionalOnProperty(name = "security.bcrypt.calibrate-on-startup", havingValue = "true")
+public class BCryptCalibrationRunner implements ApplicationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(BCryptCalibrationRunner.class);
+
+	private final BCryptStrength configuredStrength;
+
+	@Value("${security.bcrypt.target-latency:PT0.25S}")
+	private Duration targetLatency;
+
+	public BCryptCalibrationRunner(BCryptStrength configuredStrength) {
+		this.configuredStrength = configuredStrength;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		List<BCryptCostCalibrator.Measurement> measurements =
+			BCryptCostCalibrator.measure(8, 16, 5, targetLatency.multipliedBy(2));
+		measurements.forEach(m -> log.info("BCrypt custo {}: mediana {} ms", m.cost(), m.median().toMillis()));
+		int recommended = BCryptCostCalibrator.recommend(measurements, targetLatency);
+		log.info("BCrypt: custo recomendado {} para alvo de {} ms (configurado: {})",
+			recommended, targetLatency.toMillis(), configuredStrength.value());
+	}
+}
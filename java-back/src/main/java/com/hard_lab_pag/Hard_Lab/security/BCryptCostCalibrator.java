@@ -0,0 +1,62 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+// Mede a latência do BCrypt por custo neste host e escolhe o maior custo dentro do orçamento de latência
+public final class BCryptCostCalibrator {
+
+	public static final int MIN_COST = 4;
+	public static final int MAX_COST = 31;
+	private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$(\\d{2})\\$.{53}$");
+
+	private BCryptCostCalibrator() {}
+
+	public record Measurement(int cost, Duration median) {}
+
+	// Custos em ordem crescente; para no primeiro que passa de stopAbove (cada custo dobra o tempo)
+	public static List<Measurement> measure(int fromCost, int toCost, int samples, Duration stopAbove) {
+		List<Measurement> measurements = new ArrayList<>();
+		for (int cost = fromCost; cost <= toCost; cost++) {
+			String salt = BCrypt.gensalt(cost);
+			BCrypt.hashpw("aquecimento", salt);
+			long[] nanos = new long[Math.max(1, samples)];
+			for (int i = 0; i < nanos.length; i++) {
+				long start = System.nanoTime();
+				BCrypt.hashpw("senha-de-calibracao-" + i, salt);
+				nanos[i] = System.nanoTime() - start;
+			}
+			Arrays.sort(nanos);
+			Measurement measurement = new Measurement(cost, Duration.ofNanos(nanos[nanos.length / 2]));
+			measurements.add(measurement);
+			if (measurement.median().compareTo(stopAbove) > 0) {
+				break;
+			}
+		}
+		return measurements;
+	}
+
+	// Maior custo com mediana dentro do alvo; se nenhum couber, o menor medido
+	public static int recommend(List<Measurement> measurements, Duration target) {
+		int best = measurements.isEmpty() ? 10 : measurements.get(0).cost();
+		for (Measurement measurement : measurements) {
+			if (measurement.median().compareTo(target) <= 0) {
+				best = Math.max(best, measurement.cost());
+			}
+		}
+		return best;
+	}
+
+	// Custo gravado no hash ($2a$10$...), ou -1 se não for BCrypt
+	public static int costOf(String encodedPassword) {
+		if (encodedPassword == null) return -1;
+		Matcher matcher = BCRYPT_HASH.matcher(encodedPassword);
+		return matcher.matches() ? Integer.parseInt(matcher.group(1)) : -1;
+	}
+}
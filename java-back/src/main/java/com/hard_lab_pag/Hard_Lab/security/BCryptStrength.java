@@ -0,0 +1,6 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+// Custo do BCrypt configurado (security.bcrypt.strength), lido num só lugar (SecurityConfig) e injetado
+// no encoder, no pool de hash (rehash no login) e na calibração
+public record BCryptStrength(int value) {
+}
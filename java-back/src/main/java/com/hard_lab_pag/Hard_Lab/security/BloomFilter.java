@@ -0,0 +1,56 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bloom filter de strings, seguro para leitura/escrita concorrente. Sem remoção: reconstruir para descartar itens.
+final class BloomFilter {
+
+	private final AtomicLongArray words;
+	private final int bits;
+	private final int hashes;
+
+	BloomFilter(int expectedItems, double falsePositiveRate) {
+		int n = Math.max(expectedItems, 1);
+		long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		this.bits = (int) Math.max(64, Math.min(m, Integer.MAX_VALUE - 63));
+		this.hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+		this.words = new AtomicLongArray((bits + 63) / 64);
+	}
+
+	void put(String value) {
+		long hash = fnv1a64(value);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 0; i < hashes; i++) {
+			int bit = Math.floorMod(h1 + i * h2, bits);
+			long mask = 1L << (bit & 63);
+			words.getAndAccumulate(bit >>> 6, mask, (current, m) -> current | m);
+		}
+	}
+
+	boolean mightContain(String value) {
+		long hash = fnv1a64(value);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 0; i < hashes; i++) {
+			int bit = Math.floorMod(h1 + i * h2, bits);
+			if ((words.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static long fnv1a64(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		// Mistura final (splitmix64) para espalhar os bits altos e baixos
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
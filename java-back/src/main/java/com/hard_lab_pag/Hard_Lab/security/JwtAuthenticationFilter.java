@@ -1,16 +1,22 @@
 package com.hard_lab_pag.Hard_Lab.security;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.hard_lab_pag.Hard_Lab.user.UserActivityTracker;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,12 +25,24 @@ import jakarta.servlet.http.HttpServletResponse;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+	static final String STREAM_PATH = "/api/notifications/stream";
+	static final String TICKET_PARAM = "ticket";
+
 	private final JwtService jwtService;
-	private final UserDetailsService userDetailsService;
+	private final SecurityEpochService securityEpochService;
+	private final SessionRevocationList revocationList;
+	private final UserActivityTracker activityTracker;
 
-	public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+	public JwtAuthenticationFilter(
+		JwtService jwtService,
+		SecurityEpochService securityEpochService,
+		SessionRevocationList revocationList,
+		UserActivityTracker activityTracker
+	) {
 		this.jwtService = jwtService;
-		this.userDetailsService = userDetailsService;
+		this.securityEpochService = securityEpochService;
+		this.revocationList = revocationList;
+		this.activityTracker = activityTracker;
 	}
 
 	@Override
@@ -32,26 +50,53 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 			throws ServletException, IOException {
 
 		final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
-		if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+		final boolean fromHeader = authHeader != null && authHeader.startsWith("Bearer ");
+		final String ticket = fromHeader ? null : streamTicketOf(request);
+		if (!fromHeader && ticket == null) {
 			filterChain.doFilter(request, response);
 			return;
 		}
 
-		final String token = authHeader.substring(7);
-		final String username = jwtService.extractUsername(token);
-
-		if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-			UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-			if (jwtService.isTokenValid(token, userDetails.getUsername())) {
-				UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-						userDetails, null, userDetails.getAuthorities());
-				authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-				SecurityContextHolder.getContext().setAuthentication(authToken);
-			}
+		// Verificação única: assinatura e expiração checadas aqui, claims reaproveitadas abaixo.
+		// Ticket do stream só vale na URL do stream; no cabeçalho só vale o token de acesso.
+		final VerifiedToken verified = jwtService.verify(fromHeader ? authHeader.substring(7) : ticket);
+		final String expectedType = fromHeader ? null : JwtService.TYPE_STREAM;
+		final String username = verified != null && Objects.equals(expectedType, verified.type())
+			? verified.subject()
+			: null;
+
+		// Principal montado a partir do token; sessão revogada e época vêm da memória (o banco só na primeira vez)
+		if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+				&& !revocationList.isRevoked(verified.sessionId())
+				&& securityEpochService.isCurrent(username, verified.epoch())) {
+			UserDetails userDetails = new User(username, "", authoritiesOf(verified));
+			UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+					userDetails, null, userDetails.getAuthorities());
+			authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+			SecurityContextHolder.getContext().setAuthentication(authToken);
+			// Só marca em memória; o banco recebe em lote
+			activityTracker.recordSeen(username);
 		}
 
 		filterChain.doFilter(request, response);
 	}
-}
 
+	// EventSource não envia cabeçalhos: o ticket vem na query, aceito só no GET do stream
+	static String streamTicketOf(HttpServletRequest request) {
+		if (!"GET".equals(request.getMethod())) {
+			return null;
+		}
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		if (!STREAM_PATH.equals(path)) {
+			return null;
+		}
+		String ticket = request.getParameter(TICKET_PARAM);
+		return ticket == null || ticket.isBlank() ? null : ticket;
+	}
 
+	static List<GrantedAuthority> authoritiesOf(VerifiedToken verified) {
+		return verified.roles().stream()
+			.map(role -> (GrantedAuthority) new SimpleGrantedAuthority("ROLE_" + role))
+			.toList();
+	}
+}
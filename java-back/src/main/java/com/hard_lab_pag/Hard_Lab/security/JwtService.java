@@ -1,15 +1,16 @@
 package com.hard_lab_pag.Hard_Lab.security;
 
-import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.Map;
-import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -17,56 +18,77 @@ import org.springframework.stereotype.Service;
 @Service
 public class JwtService {
 
-	@Value("${security.jwt.secret}")
-	private String secret;
+	public static final String CLAIM_ROLES = "roles";
+	public static final String CLAIM_EPOCH = "epoch";
+	public static final String CLAIM_SESSION = "sid";
+	// Tokens de uso restrito (ex.: ticket do stream SSE) levam o tipo; o token de acesso não tem a claim
+	public static final String CLAIM_TYPE = "typ";
+	public static final String TYPE_STREAM = "stream";
+
+	private final long expirationMs;
+	private final long cacheTtlMs;
+	// Chave e parser montados uma vez; o parser do jjwt é imutável e thread-safe
+	private final Key signingKey;
+	private final JwtParser parser;
+	private final VerifiedTokenCache verifiedTokens;
+
+	public JwtService(
+		@Value("${security.jwt.secret}") String secret,
+		@Value("${security.jwt.expiration-ms:86400000}") long expirationMs,
+		@Value("${security.jwt.cache.max-entries:10000}") int cacheMaxEntries,
+		@Value("${security.jwt.cache.ttl:PT5M}") Duration cacheTtl
+	) {
+		this.expirationMs = expirationMs;
+		this.cacheTtlMs = cacheTtl.toMillis();
+		this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+		this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+		this.verifiedTokens = new VerifiedTokenCache(cacheMaxEntries);
+	}
 
-	@Value("${security.jwt.expiration-ms:86400000}")
-	private long expirationMs;
+	// Uma única verificação (assinatura + expiração) devolvendo o retrato imutável das claims; null se o token for inválido.
+	// O resultado fica em cache até o menor entre o TTL do cache e a expiração do token.
+	public VerifiedToken verify(String token) {
+		if (token == null || token.isBlank()) {
+			return null;
+		}
+		long now = System.currentTimeMillis();
+		String key = VerifiedTokenCache.keyOf(token);
+		VerifiedToken cached = verifiedTokens.get(key, now);
+		if (cached != null) {
+			return cached;
+		}
+		VerifiedToken verified;
+		try {
+			verified = VerifiedToken.of(parser.parseClaimsJws(token).getBody(), now);
+		} catch (JwtException | IllegalArgumentException e) {
+			return null;
+		}
+		verifiedTokens.put(key, verified, Math.min(verified.expiresAtMillis(), now + cacheTtlMs), now);
+		return verified;
+	}
 
 	public String extractUsername(String token) {
-		return extractClaim(token, Claims::getSubject);
+		final VerifiedToken verified = verify(token);
+		return verified != null ? verified.subject() : null;
 	}
 
-	public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-		final Claims claims = extractAllClaims(token);
-		return claimsResolver.apply(claims);
+	public String generateToken(String username, Map<String, Object> extraClaims) {
+		return generateToken(username, extraClaims, Duration.ofMillis(expirationMs));
 	}
 
-	public String generateToken(String username, Map<String, Object> extraClaims) {
+	public String generateToken(String username, Map<String, Object> extraClaims, Duration ttl) {
+		long now = System.currentTimeMillis();
 		return Jwts.builder()
 			.setClaims(extraClaims)
 			.setSubject(username)
-			.setIssuedAt(new Date(System.currentTimeMillis()))
-			.setExpiration(new Date(System.currentTimeMillis() + expirationMs))
-			.signWith(getSignInKey(), SignatureAlgorithm.HS256)
+			.setIssuedAt(new Date(now))
+			.setExpiration(new Date(now + ttl.toMillis()))
+			.signWith(signingKey, SignatureAlgorithm.HS256)
 			.compact();
 	}
 
 	public boolean isTokenValid(String token, String username) {
 		final String extracted = extractUsername(token);
-		return (extracted != null && extracted.equals(username) && !isTokenExpired(token));
-	}
-
-	private boolean isTokenExpired(String token) {
-		return extractExpiration(token).before(new Date());
-	}
-
-	private Date extractExpiration(String token) {
-		return extractClaim(token, Claims::getExpiration);
-	}
-
-	private Claims extractAllClaims(String token) {
-		return Jwts.parserBuilder()
-			.setSigningKey(getSignInKey())
-			.build()
-			.parseClaimsJws(token)
-			.getBody();
-	}
-
-	private Key getSignInKey() {
-		byte[] keyBytes = Decoders.BASE64.decode(secret);
-		return Keys.hmacShaKeyFor(keyBytes);
+		return extracted != null && extracted.equals(username);
 	}
 }
-
-
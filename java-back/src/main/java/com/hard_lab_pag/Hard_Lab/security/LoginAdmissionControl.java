@@ -0,0 +1,61 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.hard_lab_pag.Hard_Lab.infra.TooManyRequestsException;
+
+// Limites por conta e por IP aplicados antes de qualquer trabalho de BCrypt
+@Component
+public class LoginAdmissionControl {
+
+	private final TokenBucketLimiter perAccount;
+	private final TokenBucketLimiter perIp;
+
+	public LoginAdmissionControl(
+		@Value("${security.throttle.account.capacity:5}") int accountCapacity,
+		@Value("${security.throttle.account.refill:PT12S}") Duration accountRefill,
+		@Value("${security.throttle.ip.capacity:200}") int ipCapacity,
+		@Value("${security.throttle.ip.refill:PT0.2S}") Duration ipRefill
+	) {
+		this.perAccount = new TokenBucketLimiter(accountCapacity, accountRefill.toNanos());
+		this.perIp = new TokenBucketLimiter(ipCapacity, ipRefill.toNanos());
+	}
+
+	// Login, esqueci a senha: limita o IP de origem e a conta alvo vinda desse IP. A chave inclui o IP
+	// para que tentativas de terceiros contra um gmail não bloqueiem o dono da conta em outro endereço.
+	public void admit(String account, String ip) {
+		admitIp(ip);
+		if (account != null && !account.isBlank()) {
+			check(perAccount, account.trim().toLowerCase(Locale.ROOT) + "|" + ipKey(ip), "Muitas tentativas para esta conta");
+		}
+	}
+
+	// Cadastro e redefinição de senha: só o IP
+	public void admitIp(String ip) {
+		check(perIp, ipKey(ip), "Muitas tentativas deste endereço");
+	}
+
+	private static String ipKey(String ip) {
+		return ip != null ? ip : "";
+	}
+
+	@Scheduled(fixedDelayString = "${security.throttle.cleanup-interval-ms:60000}")
+	public void evictIdle() {
+		long now = System.nanoTime();
+		perAccount.evictIdle(now);
+		perIp.evictIdle(now);
+	}
+
+	private static void check(TokenBucketLimiter limiter, String key, String message) {
+		long waitNanos = limiter.tryAcquire(key, System.nanoTime());
+		if (waitNanos > 0) {
+			throw new TooManyRequestsException(message + "; tente novamente mais tarde", Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+		}
+	}
+}
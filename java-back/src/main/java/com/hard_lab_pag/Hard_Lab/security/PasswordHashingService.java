@@ -0,0 +1,135 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.hard_lab_pag.Hard_Lab.infra.ServiceOverloadedException;
+
+import jakarta.annotation.PreDestroy;
+
+// BCrypt em um pool próprio e limitado: rajadas de login não ocupam as threads do Tomcat.
+// Fila cheia ou espera longa falham rápido com 503 em vez de acumular requisições.
+@Service
+public class PasswordHashingService {
+
+	private final PasswordEncoder passwordEncoder;
+	private final ThreadPoolExecutor executor;
+	private final Duration maxWait;
+	private final int strength;
+	private final int bulkParallelism;
+
+	public PasswordHashingService(
+		PasswordEncoder passwordEncoder,
+		BCryptStrength strength,
+		@Value("${security.password-hashing.threads:0}") int threads,
+		@Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+		@Value("${security.password-hashing.max-wait:PT5S}") Duration maxWait
+	) {
+		int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		this.passwordEncoder = passwordEncoder;
+		this.maxWait = maxWait;
+		this.strength = strength.value();
+		this.bulkParallelism = Math.max(1, poolSize / 2);
+		this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(queueCapacity), namedThreads(), new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	public String encode(String rawPassword) {
+		return run(() -> passwordEncoder.encode(rawPassword));
+	}
+
+	public boolean matches(String rawPassword, String encodedPassword) {
+		return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+	}
+
+	// Lote (ex.: importação): no máximo metade do pool ocupada por vez, o restante segue atendendo logins.
+	// Com a fila cheia o hash roda na thread chamadora, o que freia o lote em vez de falhar
+	public List<String> encodeAll(List<String> rawPasswords) {
+		Semaphore slots = new Semaphore(bulkParallelism);
+		List<CompletableFuture<String>> hashes = new ArrayList<>(rawPasswords.size());
+		for (String rawPassword : rawPasswords) {
+			slots.acquireUninterruptibly();
+			CompletableFuture<String> hash = new CompletableFuture<>();
+			Runnable task = () -> {
+				try {
+					hash.complete(passwordEncoder.encode(rawPassword));
+				} catch (RuntimeException e) {
+					hash.completeExceptionally(e);
+				} finally {
+					slots.release();
+				}
+			};
+			try {
+				executor.execute(task);
+			} catch (RejectedExecutionException e) {
+				task.run();
+			}
+			hashes.add(hash);
+		}
+		return hashes.stream().map(CompletableFuture::join).toList();
+	}
+
+	// Hash gravado com custo diferente do configurado (para cima ou para baixo) deve ser refeito no próximo login
+	public boolean needsRehash(String encodedPassword) {
+		int cost = BCryptCostCalibrator.costOf(encodedPassword);
+		return cost > 0 && cost != strength;
+	}
+
+	private <T> T run(Callable<T> task) {
+		Future<T> future;
+		try {
+			future = executor.submit(task);
+		} catch (RejectedExecutionException e) {
+			throw new ServiceOverloadedException("Servidor ocupado; tente novamente em instantes");
+		}
+		try {
+			return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			throw new ServiceOverloadedException("Servidor ocupado; tente novamente em instantes");
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new ServiceOverloadedException("Requisição interrompida");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	// Hashes aguardando thread livre
+	int queued() {
+		return executor.getQueue().size();
+	}
+
+	@PreDestroy
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private static ThreadFactory namedThreads() {
+		AtomicInteger counter = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+}
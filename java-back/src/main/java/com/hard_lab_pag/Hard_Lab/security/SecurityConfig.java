@@ -1,5 +1,6 @@
 package com.hard_lab_pag.Hard_Lab.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -20,6 +21,8 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 @EnableMethodSecurity
 public class SecurityConfig {
@@ -33,25 +36,27 @@ public class SecurityConfig {
 	}
 
 	@Bean
-	public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+	public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider) throws Exception {
 		http
 			.cors(cors -> cors.configurationSource(corsConfigurationSource()))
 			.csrf(csrf -> csrf.disable())
 			.sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 			.authorizeHttpRequests(registry -> registry
-				.requestMatchers("/api/auth/**", "/api/notifications/device-token").permitAll()
+				// Redespacho assíncrono (fim do stream SSE) já foi autorizado na requisição original
+				.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+				.requestMatchers("/api/auth/**").permitAll()
 				.anyRequest().authenticated()
 			)
-			.authenticationProvider(authenticationProvider())
+			.authenticationProvider(authenticationProvider)
 			.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 		return http.build();
 	}
 
 	@Bean
-	public AuthenticationProvider authenticationProvider() {
+	public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
 		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
 		provider.setUserDetailsService(userDetailsService);
-		provider.setPasswordEncoder(passwordEncoder());
+		provider.setPasswordEncoder(passwordEncoder);
 		return provider;
 	}
 
@@ -60,9 +65,15 @@ public class SecurityConfig {
 		return config.getAuthenticationManager();
 	}
 
+	// Custo calibrado por host (ver BCryptCostCalibrator); hashes com outro custo são refeitos no login
+	@Bean
+	public BCryptStrength bcryptStrength(@Value("${security.bcrypt.strength:10}") int strength) {
+		return new BCryptStrength(strength);
+	}
+
 	@Bean
-	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	public PasswordEncoder passwordEncoder(BCryptStrength strength) {
+		return new BCryptPasswordEncoder(strength.value());
 	}
 
 	@Bean
@@ -93,13 +104,17 @@ public class SecurityConfig {
 			"Accept",
 			"Origin",
 			"Access-Control-Request-Method",
-			"Access-Control-Request-Headers"
+			"Access-Control-Request-Headers",
+			"If-Match",
+			"If-None-Match",
+			"Last-Event-ID"
 		));
 		
 		// Cabeçalhos expostos
 		configuration.setExposedHeaders(Arrays.asList(
 			"Access-Control-Allow-Origin",
-			"Access-Control-Allow-Credentials"
+			"Access-Control-Allow-Credentials",
+			"ETag"
 		));
 		
 		// Permitir credenciais
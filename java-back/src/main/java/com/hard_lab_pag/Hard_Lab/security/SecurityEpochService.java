@@ -0,0 +1,79 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hard_lab_pag.Hard_Lab.user.UserRepository;
+import com.hard_lab_pag.Hard_Lab.user.UserSecurityView;
+
+// Época de segurança e status de cada usuário em memória; evita consultar o usuário a cada requisição.
+// Mudanças locais invalidam na hora; as de outras instâncias chegam pelo polling de security_changed_at.
+@Service
+public class SecurityEpochService {
+
+	// Margem para diferenças de relógio entre instâncias
+	private static final Duration POLL_OVERLAP = Duration.ofSeconds(30);
+
+	private final UserRepository userRepository;
+	private final Map<String, State> states = new ConcurrentHashMap<>();
+	private volatile Instant lastPoll = Instant.now();
+
+	// Também limita o atraso para usuários removidos (remoção não aparece no polling)
+	@Value("${security.epoch.ttl:PT1M}")
+	private Duration ttl;
+
+	public SecurityEpochService(UserRepository userRepository) {
+		this.userRepository = userRepository;
+	}
+
+	// Token vale se o usuário existe, está ativo e a época do token é a atual
+	public boolean isCurrent(String gmail, long tokenEpoch) {
+		Instant now = Instant.now();
+		State state = states.get(gmail);
+		if (state == null || state.loadedAt.plus(ttl).isBefore(now)) {
+			state = userRepository.findSecurityViewByGmail(gmail)
+				.map(view -> State.of(view, now))
+				.orElseGet(() -> new State(false, false, -1, now));
+			states.put(gmail, state);
+		}
+		return state.exists && state.active && state.epoch == tokenEpoch;
+	}
+
+	// Descarta o estado após o commit da alteração (papéis, senha, status ou remoção)
+	public void invalidate(String gmail) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					states.remove(gmail);
+				}
+			});
+		} else {
+			states.remove(gmail);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${security.epoch.poll-interval-ms:5000}")
+	public void refreshChanged() {
+		Instant now = Instant.now();
+		for (UserSecurityView view : userRepository.findSecurityViewsChangedSince(lastPoll.minus(POLL_OVERLAP))) {
+			states.computeIfPresent(view.getGmail(), (gmail, old) -> State.of(view, now));
+		}
+		lastPoll = now;
+	}
+
+	private record State(boolean exists, boolean active, long epoch, Instant loadedAt) {
+		static State of(UserSecurityView view, Instant loadedAt) {
+			return new State(true, !Boolean.FALSE.equals(view.getAtivo()),
+				view.getSecurityEpoch() != null ? view.getSecurityEpoch() : 0L, loadedAt);
+		}
+	}
+}
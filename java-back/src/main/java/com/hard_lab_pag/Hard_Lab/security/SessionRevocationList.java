@@ -0,0 +1,77 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.hard_lab_pag.Hard_Lab.auth.RevokedSession;
+import com.hard_lab_pag.Hard_Lab.auth.RevokedSessionRepository;
+
+// Sessões revogadas em memória: Bloom filter para a resposta negativa rápida (caso comum) e
+// conjunto exato para confirmar os positivos. Atualizado por polling; o caminho da requisição não consulta o banco.
+@Service
+public class SessionRevocationList {
+
+	private static final Duration POLL_OVERLAP = Duration.ofSeconds(30);
+	private static final double FALSE_POSITIVE_RATE = 0.01;
+
+	private final RevokedSessionRepository revokedSessionRepository;
+	private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+	private final int expectedRevocations;
+	private volatile BloomFilter bloom;
+	private volatile Instant lastPoll;
+
+	public SessionRevocationList(
+		RevokedSessionRepository revokedSessionRepository,
+		@Value("${security.revocation.expected-entries:10000}") int expectedRevocations
+	) {
+		this.revokedSessionRepository = revokedSessionRepository;
+		this.expectedRevocations = expectedRevocations;
+		this.bloom = new BloomFilter(expectedRevocations, FALSE_POSITIVE_RATE);
+	}
+
+	public boolean isRevoked(String sessionId) {
+		if (sessionId == null || !bloom.mightContain(sessionId)) {
+			return false;
+		}
+		Instant expiresAt = revoked.get(sessionId);
+		return expiresAt != null && expiresAt.isAfter(Instant.now());
+	}
+
+	// Revogação feita nesta instância vale imediatamente
+	public void add(String sessionId, Instant expiresAt) {
+		revoked.merge(sessionId, expiresAt, (a, b) -> a.isAfter(b) ? a : b);
+		bloom.put(sessionId);
+	}
+
+	// Primeira execução carrega todas as revogações vigentes; depois só as novas.
+	// Entradas vencidas saem do conjunto e o Bloom filter é reconstruído sem elas.
+	@Scheduled(fixedDelayString = "${security.revocation.poll-interval-ms:2000}")
+	public void refresh() {
+		Instant now = Instant.now();
+		Iterable<RevokedSession> changes = lastPoll == null
+			? revokedSessionRepository.findByExpiresAtAfter(now)
+			: revokedSessionRepository.findByRevokedAtAfter(lastPoll.minus(POLL_OVERLAP));
+		for (RevokedSession session : changes) {
+			add(session.getSessionId(), session.getExpiresAt());
+		}
+		lastPoll = now;
+
+		if (revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now))) {
+			rebuildBloom();
+		}
+	}
+
+	private void rebuildBloom() {
+		BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revoked.size() * 2), FALSE_POSITIVE_RATE);
+		revoked.keySet().forEach(rebuilt::put);
+		bloom = rebuilt;
+		// Itens adicionados durante a reconstrução
+		revoked.keySet().forEach(rebuilt::put);
+	}
+}
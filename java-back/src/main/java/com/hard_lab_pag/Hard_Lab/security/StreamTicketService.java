@@ -0,0 +1,40 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.hard_lab_pag.Hard_Lab.infra.UnauthorizedException;
+
+// EventSource (navegador) não manda cabeçalho Authorization; o cliente troca o token de acesso por um ticket
+// curto que só vale como ?ticket= no GET do stream. Mesma sessão e época: logout e revogação derrubam o ticket também.
+@Service
+public class StreamTicketService {
+
+	private final JwtService jwtService;
+	private final Duration ttl;
+
+	public StreamTicketService(JwtService jwtService, @Value("${security.stream-ticket.ttl:PT1M}") Duration ttl) {
+		this.jwtService = jwtService;
+		this.ttl = ttl;
+	}
+
+	public Ticket issue(String accessToken) {
+		VerifiedToken access = jwtService.verify(accessToken);
+		if (access == null || access.subject() == null || access.type() != null) {
+			throw new UnauthorizedException("Token de acesso inválido");
+		}
+		Map<String, Object> claims = new HashMap<>();
+		claims.put(JwtService.CLAIM_ROLES, access.roles());
+		claims.put(JwtService.CLAIM_EPOCH, access.epoch());
+		claims.put(JwtService.CLAIM_SESSION, access.sessionId());
+		claims.put(JwtService.CLAIM_TYPE, JwtService.TYPE_STREAM);
+		return new Ticket(jwtService.generateToken(access.subject(), claims, ttl), Instant.now().plus(ttl));
+	}
+
+	public record Ticket(String ticket, Instant expiresAt) {}
+}
@@ -0,0 +1,62 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Token bucket por chave (conta ou IP): capacidade = rajada permitida, reposição contínua no intervalo
+class TokenBucketLimiter {
+
+	private final double capacity;
+	private final double refillPerNano;
+	private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+	TokenBucketLimiter(int capacity, long refillIntervalNanos) {
+		this.capacity = capacity;
+		this.refillPerNano = 1.0 / refillIntervalNanos;
+	}
+
+	// Devolve 0 se consumiu uma ficha; senão, os nanossegundos até a próxima ficha
+	long tryAcquire(String key, long nowNanos) {
+		Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, nowNanos));
+		synchronized (bucket) {
+			bucket.refill(nowNanos, capacity, refillPerNano);
+			if (bucket.tokens >= 1) {
+				bucket.tokens -= 1;
+				return 0;
+			}
+			return (long) Math.ceil((1 - bucket.tokens) / refillPerNano);
+		}
+	}
+
+	// Baldes cheios equivalem a baldes inexistentes; removê-los limita a memória
+	void evictIdle(long nowNanos) {
+		buckets.entrySet().removeIf(entry -> {
+			Bucket bucket = entry.getValue();
+			synchronized (bucket) {
+				bucket.refill(nowNanos, capacity, refillPerNano);
+				return bucket.tokens >= capacity;
+			}
+		});
+	}
+
+	int size() {
+		return buckets.size();
+	}
+
+	private static final class Bucket {
+		private double tokens;
+		private long updatedAt;
+
+		Bucket(double tokens, long updatedAt) {
+			this.tokens = tokens;
+			this.updatedAt = updatedAt;
+		}
+
+		void refill(long nowNanos, double capacity, double refillPerNano) {
+			if (nowNanos > updatedAt) {
+				tokens = Math.min(capacity, tokens + (nowNanos - updatedAt) * refillPerNano);
+				updatedAt = nowNanos;
+			}
+		}
+	}
+}
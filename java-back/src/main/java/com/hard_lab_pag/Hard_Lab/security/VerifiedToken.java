@@ -0,0 +1,32 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import java.util.Collection;
+import java.util.List;
+
+import io.jsonwebtoken.Claims;
+
+// Retrato imutável das claims usadas na autenticação; é o que fica no cache e pode ser lido por várias threads
+public record VerifiedToken(String subject, List<String> roles, long epoch, String sessionId, String type, long expiresAtMillis) {
+
+	public VerifiedToken {
+		roles = List.copyOf(roles);
+	}
+
+	static VerifiedToken of(Claims claims, long fallbackExpiresAtMillis) {
+		List<String> roles = claims.get(JwtService.CLAIM_ROLES) instanceof Collection<?> values
+			? values.stream().map(String::valueOf).toList()
+			: List.of();
+		// Tokens emitidos antes da época existir não têm a claim e valem como época 0
+		Object epoch = claims.get(JwtService.CLAIM_EPOCH);
+		Object session = claims.get(JwtService.CLAIM_SESSION);
+		Object type = claims.get(JwtService.CLAIM_TYPE);
+		return new VerifiedToken(
+			claims.getSubject(),
+			roles,
+			epoch instanceof Number n ? n.longValue() : 0L,
+			session != null ? session.toString() : null,
+			type != null ? type.toString() : null,
+			claims.getExpiration() != null ? claims.getExpiration().getTime() : fallbackExpiresAtMillis
+		);
+	}
+}
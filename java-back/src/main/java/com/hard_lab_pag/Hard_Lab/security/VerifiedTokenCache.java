@@ -0,0 +1,75 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Cache limitado de tokens já verificados, indexado pelo SHA-256 do token (o token em si não fica em memória).
+// Leituras e escritas não disputam trava global; o limite é aproximado: acima dele uma thread por vez descarta
+// os expirados e, se ainda faltar espaço, entradas quaisquer até voltar a EVICT_TARGET do limite.
+class VerifiedTokenCache {
+
+	private static final double EVICT_TARGET = 0.9;
+
+	private final int maxEntries;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private final AtomicBoolean evicting = new AtomicBoolean();
+
+	VerifiedTokenCache(int maxEntries) {
+		this.maxEntries = maxEntries;
+	}
+
+	VerifiedToken get(String key, long nowMillis) {
+		if (maxEntries <= 0) return null;
+		Entry entry = entries.get(key);
+		if (entry == null) return null;
+		if (entry.expiresAtMillis <= nowMillis) {
+			entries.remove(key, entry);
+			return null;
+		}
+		return entry.token;
+	}
+
+	void put(String key, VerifiedToken token, long expiresAtMillis, long nowMillis) {
+		if (maxEntries <= 0) return;
+		entries.put(key, new Entry(token, expiresAtMillis));
+		if (entries.size() > maxEntries && evicting.compareAndSet(false, true)) {
+			try {
+				evict(nowMillis);
+			} finally {
+				evicting.set(false);
+			}
+		}
+	}
+
+	int size() {
+		return entries.size();
+	}
+
+	// A ordem de iteração do ConcurrentHashMap segue o hash da chave (SHA-256), então o descarte é pseudoaleatório
+	private void evict(long nowMillis) {
+		int target = (int) (maxEntries * EVICT_TARGET);
+		entries.values().removeIf(entry -> entry.expiresAtMillis <= nowMillis);
+		Iterator<String> keys = entries.keySet().iterator();
+		while (entries.size() > target && keys.hasNext()) {
+			keys.next();
+			keys.remove();
+		}
+	}
+
+	static String keyOf(String token) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private record Entry(VerifiedToken token, long expiresAtMillis) {}
+}
@@ -0,0 +1,35 @@
+package com.hard_lab_pag.Hard_Lab.stats;
+
+import java.time.Instant;
+
+// Mesmos nomes que a tela de estatísticas do app calcula hoje no cliente
+public class AdminStats {
+	private long totalUsers;
+	private long totalProjects;
+	private long totalReservations;
+	private long totalComponents;
+	private long activeUsers;
+	private long pendingReservations;
+	private Instant reconciledAt;
+
+	public AdminStats() {}
+
+	public AdminStats(long totalUsers, long totalProjects, long totalReservations, long totalComponents,
+			long activeUsers, long pendingReservations, Instant reconciledAt) {
+		this.totalUsers = totalUsers;
+		this.totalProjects = totalProjects;
+		this.totalReservations = totalReservations;
+		this.totalComponents = totalComponents;
+		this.activeUsers = activeUsers;
+		this.pendingReservations = pendingReservations;
+		this.reconciledAt = reconciledAt;
+	}
+
+	public long getTotalUsers() { return totalUsers; }
+	public long getTotalProjects() { return totalProjects; }
+	public long getTotalReservations() { return totalReservations; }
+	public long getTotalComponents() { return totalComponents; }
+	public long getActiveUsers() { return activeUsers; }
+	public long getPendingReservations() { return pendingReservations; }
+	public Instant getReconciledAt() { return reconciledAt; }
+}
@@ -0,0 +1,33 @@
+package com.hard_lab_pag.Hard_Lab.stats;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/stats")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminStatsController {
+
+	private final AdminStatsService statsService;
+
+	public AdminStatsController(AdminStatsService statsService) {
+		this.statsService = statsService;
+	}
+
+	// Contadores em memória: nenhuma consulta ao banco por requisição
+	@GetMapping
+	public ResponseEntity<AdminStats> get() {
+		return ResponseEntity.ok(statsService.snapshot());
+	}
+
+	// Recontagem imediata (ex.: após carga manual no banco)
+	@PostMapping("/reconcile")
+	public ResponseEntity<AdminStats> reconcile() {
+		statsService.reconcile();
+		return ResponseEntity.ok(statsService.snapshot());
+	}
+}
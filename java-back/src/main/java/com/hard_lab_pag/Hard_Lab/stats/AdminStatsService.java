@@ -0,0 +1,174 @@
+package com.hard_lab_pag.Hard_Lab.stats;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hard_lab_pag.Hard_Lab.components.ComponentRepository;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentIndexRegistry;
+import com.hard_lab_pag.Hard_Lab.projects.ProjectRepository;
+import com.hard_lab_pag.Hard_Lab.reservations.Reservation;
+import com.hard_lab_pag.Hard_Lab.reservations.ReservationRepository;
+import com.hard_lab_pag.Hard_Lab.user.UserRepository;
+
+import jakarta.persistence.EntityManager;
+
+// Estatísticas do painel admin servidas da memória. Inserções/exclusões de entidades chegam pelo StatsEventListener;
+// escritas que não passam pelo Hibernate (UPDATE/INSERT nativos) avisam por adjustAfterCommit.
+// A reconciliação periódica reconta no banco e corrige desvios (inclusive escritas feitas por outras instâncias).
+@Service
+public class AdminStatsService {
+
+	private static final Logger log = LoggerFactory.getLogger(AdminStatsService.class);
+	static final String PENDING_STATUS = "pending";
+
+	private final UserRepository userRepository;
+	private final ProjectRepository projectRepository;
+	private final ReservationRepository reservationRepository;
+	private final ComponentRepository componentRepository;
+	private final DocumentIndexRegistry documentIndexRegistry;
+	private final EntityManager entityManager;
+	private final TransactionTemplate readOnlyTransaction;
+
+	private final AtomicLongArray values = new AtomicLongArray(StatCounter.values().length);
+	// Soma de todos os deltas já aplicados; usada para não perder os que chegam durante a recontagem
+	private final AtomicLongArray applied = new AtomicLongArray(StatCounter.values().length);
+	private volatile long activeUsers;
+	private volatile Instant reconciledAt;
+
+	@Value("${stats.active-user-window:P7D}")
+	private Duration activeUserWindow;
+
+	public AdminStatsService(
+		UserRepository userRepository,
+		ProjectRepository projectRepository,
+		ReservationRepository reservationRepository,
+		ComponentRepository componentRepository,
+		DocumentIndexRegistry documentIndexRegistry,
+		EntityManager entityManager,
+		PlatformTransactionManager transactionManager
+	) {
+		this.userRepository = userRepository;
+		this.projectRepository = projectRepository;
+		this.reservationRepository = reservationRepository;
+		this.componentRepository = componentRepository;
+		this.documentIndexRegistry = documentIndexRegistry;
+		this.entityManager = entityManager;
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+	}
+
+	public AdminStats snapshot() {
+		if (reconciledAt == null) {
+			reconcile();
+		}
+		return new AdminStats(
+			values.get(StatCounter.USERS.ordinal()),
+			values.get(StatCounter.PROJECTS.ordinal()),
+			values.get(StatCounter.RESERVATIONS.ordinal()),
+			values.get(StatCounter.COMPONENTS.ordinal()),
+			activeUsers,
+			values.get(StatCounter.PENDING_RESERVATIONS.ordinal()),
+			reconciledAt
+		);
+	}
+
+	// Chamado só depois do commit (listener pós-commit ou adjustAfterCommit)
+	public void adjust(StatCounter counter, long delta) {
+		if (delta == 0) {
+			return;
+		}
+		applied.addAndGet(counter.ordinal(), delta);
+		values.addAndGet(counter.ordinal(), delta);
+	}
+
+	// Com transação ativa, aplica só se ela confirmar; sem transação, na hora
+	public void adjustAfterCommit(StatCounter counter, long delta) {
+		if (delta == 0) {
+			return;
+		}
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			adjust(counter, delta);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				adjust(counter, delta);
+			}
+		});
+	}
+
+	// Status de reserva muda por JSON_MERGE_PATCH nativo, que o Hibernate não enxerga como update
+	public void reservationStatusChanged(Object before, Object after) {
+		if (Objects.equals(before, after)) {
+			return;
+		}
+		if (PENDING_STATUS.equals(before)) {
+			adjustAfterCommit(StatCounter.PENDING_RESERVATIONS, -1);
+		} else if (PENDING_STATUS.equals(after)) {
+			adjustAfterCommit(StatCounter.PENDING_RESERVATIONS, 1);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${stats.reconcile-interval-ms:600000}", initialDelayString = "${stats.reconcile-interval-ms:600000}")
+	public synchronized void reconcile() {
+		Map<StatCounter, Long> counted = new EnumMap<>(StatCounter.class);
+		long[][] before = new long[1][];
+		long[] active = new long[1];
+		readOnlyTransaction.executeWithoutResult(status -> {
+			counted.put(StatCounter.USERS, userRepository.count());
+			// O snapshot do REPEATABLE READ nasce na primeira leitura, não no início da transação: o que confirmou
+			// antes dela já está na contagem e não pode somar de novo
+			before[0] = appliedSnapshot();
+			counted.put(StatCounter.PROJECTS, projectRepository.count());
+			counted.put(StatCounter.RESERVATIONS, reservationRepository.count());
+			counted.put(StatCounter.COMPONENTS, componentRepository.count());
+			counted.put(StatCounter.PENDING_RESERVATIONS, countPendingReservations());
+			active[0] = userRepository.countByLastLoginAtAfter(Instant.now().minus(activeUserWindow));
+		});
+		long[] after = appliedSnapshot();
+		// Deltas confirmados durante a recontagem não entram no snapshot da transação: somam por cima
+		for (Map.Entry<StatCounter, Long> entry : counted.entrySet()) {
+			int i = entry.getKey().ordinal();
+			long expected = entry.getValue() + (after[i] - before[0][i]);
+			long previous = values.getAndSet(i, expected);
+			if (reconciledAt != null && previous != expected) {
+				log.debug("Estatística {} reconciliada: {} -> {}", entry.getKey(), previous, expected);
+			}
+		}
+		activeUsers = active[0];
+		reconciledAt = Instant.now();
+	}
+
+	// Coluna gerada e indexada de $.status (ver @IndexedPath em Reservation)
+	private long countPendingReservations() {
+		String column = documentIndexRegistry.get(Reservation.class).field("status").getColumn();
+		String table = documentIndexRegistry.get(Reservation.class).getTable();
+		Number count = (Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM `" + table + "` WHERE `" + column + "` = ?1")
+			.setParameter(1, PENDING_STATUS)
+			.getSingleResult();
+		return count.longValue();
+	}
+
+	private long[] appliedSnapshot() {
+		long[] snapshot = new long[applied.length()];
+		for (int i = 0; i < snapshot.length; i++) {
+			snapshot[i] = applied.get(i);
+		}
+		return snapshot;
+	}
+}
@@ -0,0 +1,10 @@
+package com.hard_lab_pag.Hard_Lab.stats;
+
+// Contadores mantidos em memória a cada escrita e reconciliados periodicamente com o banco
+public enum StatCounter {
+	USERS,
+	PROJECTS,
+	RESERVATIONS,
+	COMPONENTS,
+	PENDING_RESERVATIONS
+}
@@ -0,0 +1,90 @@
+package com.hard_lab_pag.Hard_Lab.stats;
+
+import java.util.Map;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import com.hard_lab_pag.Hard_Lab.projects.Project;
+import com.hard_lab_pag.Hard_Lab.reservations.Reservation;
+import com.hard_lab_pag.Hard_Lab.user.User;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+// Inserções e exclusões pelo Hibernate, só depois do commit (rollback não mexe nos contadores)
+@Component
+public class StatsEventListener implements PostCommitInsertEventListener, PostCommitDeleteEventListener {
+
+	private final EntityManagerFactory entityManagerFactory;
+	private final AdminStatsService statsService;
+
+	public StatsEventListener(EntityManagerFactory entityManagerFactory, AdminStatsService statsService) {
+		this.entityManagerFactory = entityManagerFactory;
+		this.statsService = statsService;
+	}
+
+	@PostConstruct
+	void register() {
+		EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+			.getServiceRegistry()
+			.getService(EventListenerRegistry.class);
+		registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+		registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+	}
+
+	@Override
+	public void onPostInsert(PostInsertEvent event) {
+		apply(event.getEntity(), 1);
+	}
+
+	@Override
+	public void onPostDelete(PostDeleteEvent event) {
+		apply(event.getEntity(), -1);
+	}
+
+	@Override
+	public void onPostInsertCommitFailed(PostInsertEvent event) {
+		// Nada foi contado antes do commit
+	}
+
+	@Override
+	public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+		// Nada foi contado antes do commit
+	}
+
+	@Override
+	public boolean requiresPostCommitHandling(EntityPersister persister) {
+		return counterFor(persister.getMappedClass()) != null;
+	}
+
+	void apply(Object entity, int delta) {
+		StatCounter counter = counterFor(entity.getClass());
+		if (counter == null) {
+			return;
+		}
+		statsService.adjust(counter, delta);
+		if (entity instanceof Reservation reservation && isPending(reservation.getData())) {
+			statsService.adjust(StatCounter.PENDING_RESERVATIONS, delta);
+		}
+	}
+
+	static StatCounter counterFor(Class<?> type) {
+		if (User.class.isAssignableFrom(type)) return StatCounter.USERS;
+		if (Project.class.isAssignableFrom(type)) return StatCounter.PROJECTS;
+		if (Reservation.class.isAssignableFrom(type)) return StatCounter.RESERVATIONS;
+		if (com.hard_lab_pag.Hard_Lab.components.Component.class.isAssignableFrom(type)) return StatCounter.COMPONENTS;
+		return null;
+	}
+
+	private static boolean isPending(Map<String, Object> data) {
+		return data != null && AdminStatsService.PENDING_STATUS.equals(data.get("status"));
+	}
+}
@@ -1,9 +1,55 @@
 package com.hard_lab_pag.Hard_Lab.user;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+// Cada papel ocupa um bit fixo em users.roles_mask; não reaproveitar bits ao remover papéis
 public enum Role {
-	ADMIN,
-	PROFESSOR,
-	ACADEMICO
-}
+	ADMIN(1),
+	PROFESSOR(2),
+	ACADEMICO(4);
+
+	private static final int ALL_BITS = 0b111;
+
+	private final int bit;
 
+	Role(int bit) {
+		this.bit = bit;
+	}
 
+	public int bit() { return bit; }
+
+	public static int toMask(Collection<Role> roles) {
+		int mask = 0;
+		if (roles != null) {
+			for (Role role : roles) {
+				mask |= role.bit;
+			}
+		}
+		return mask;
+	}
+
+	public static Set<Role> fromMask(int mask) {
+		Set<Role> roles = EnumSet.noneOf(Role.class);
+		for (Role role : values()) {
+			if ((mask & role.bit) != 0) {
+				roles.add(role);
+			}
+		}
+		return roles;
+	}
+
+	// Todas as máscaras que contêm o papel: vira roles_mask IN (...), que usa o índice (um AND bit a bit não usa)
+	public static List<Integer> masksContaining(Role role) {
+		List<Integer> masks = new ArrayList<>();
+		for (int mask = 0; mask <= ALL_BITS; mask++) {
+			if ((mask & role.bit) != 0) {
+				masks.add(mask);
+			}
+		}
+		return masks;
+	}
+}
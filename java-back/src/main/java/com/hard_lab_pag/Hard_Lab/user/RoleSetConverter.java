@@ -0,0 +1,21 @@
+package com.hard_lab_pag.Hard_Lab.user;
+
+import java.util.Set;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Set<Role> <-> users.roles_mask
+@Converter
+public class RoleSetConverter implements AttributeConverter<Set<Role>, Integer> {
+
+	@Override
+	public Integer convertToDatabaseColumn(Set<Role> roles) {
+		return Role.toMask(roles);
+	}
+
+	@Override
+	public Set<Role> convertToEntityAttribute(Integer mask) {
+		return Role.fromMask(mask != null ? mask : 0);
+	}
+}
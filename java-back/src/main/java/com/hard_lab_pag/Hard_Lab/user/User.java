@@ -1,22 +1,26 @@
 package com.hard_lab_pag.Hard_Lab.user;
 
-import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
-import jakarta.persistence.FetchType;
+import jakarta.persistence.Convert;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Version;
 import java.time.Instant;
-import java.util.HashSet;
+import java.util.EnumSet;
+import java.util.Locale;
 import java.util.Set;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+	@Index(name = "idx_users_security_changed", columnList = "security_changed_at"),
+	@Index(name = "idx_users_curso", columnList = "curso, id"),
+	@Index(name = "idx_users_roles_mask", columnList = "roles_mask, id"),
+	@Index(name = "idx_users_last_login", columnList = "last_login_at")
+})
 public class User {
 
 	@Id
@@ -50,28 +54,44 @@ public class User {
 	@Column
 	private Boolean ativo = true;
 
-	// Reset de senha
-	@Column(name = "reset_token", length = 100)
-	private String resetToken;
+	// Gravados em lote pelo UserActivityTracker (podem atrasar alguns segundos)
+	@Column(name = "last_login_at")
+	private Instant lastLoginAt;
 
-	@Column(name = "reset_token_expires_at")
-	private Instant resetTokenExpiresAt;
+	@Column(name = "last_seen_at")
+	private Instant lastSeenAt;
 
-	// Push notifications device token
-	@Column(name = "device_token", length = 512)
-	private String deviceToken;
+	// Época de segurança: muda quando papéis, senha ou status mudam; tokens com época anterior deixam de valer
+	@Column(nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+	private Long securityEpoch = 0L;
 
-	@ElementCollection(fetch = FetchType.EAGER)
-	@Enumerated(EnumType.STRING)
-	@CollectionTable(name = "user_roles")
-	@Column(name = "role")
-	private Set<Role> roles = new HashSet<>();
+	@Column(name = "security_changed_at")
+	private Instant securityChangedAt;
+
+	// Controle de concorrência otimista (ETag / If-Match)
+	@Version
+	@Column(nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+	private Long version = 0L;
+
+	// Papéis como máscara de bits na própria linha (ver Role); dispensa a tabela user_roles
+	@Convert(converter = RoleSetConverter.class)
+	@Column(name = "roles_mask", nullable = false, columnDefinition = "INT NOT NULL DEFAULT 0")
+	private Set<Role> roles = EnumSet.noneOf(Role.class);
+
+	// Mesma coluna, só leitura, para filtros em consultas (roles_mask IN :masks)
+	@Column(name = "roles_mask", insertable = false, updatable = false)
+	private Integer rolesMask;
 
 	public Long getId() { return id; }
 	public void setId(Long id) { this.id = id; }
 
 	public String getGmail() { return gmail; }
-	public void setGmail(String gmail) { this.gmail = gmail; }
+	public void setGmail(String gmail) { this.gmail = normalizeGmail(gmail); }
+
+	// Única regra de normalização do gmail (cadastro, login, reset, importação e edição pelo admin)
+	public static String normalizeGmail(String gmail) {
+		return gmail == null ? null : gmail.trim().toLowerCase(Locale.ROOT);
+	}
 
 	public String getNome() { return nome; }
 	public void setNome(String nome) { this.nome = nome; }
@@ -98,16 +118,30 @@ public class User {
 	public void setAtivo(Boolean ativo) { this.ativo = ativo; }
 
 	public Set<Role> getRoles() { return roles; }
-	public void setRoles(Set<Role> roles) { this.roles = roles; }
+	public void setRoles(Set<Role> roles) { this.roles = Role.fromMask(Role.toMask(roles)); }
+
+	public Integer getRolesMask() { return rolesMask; }
+
+
+	public Instant getLastLoginAt() { return lastLoginAt; }
+	public void setLastLoginAt(Instant lastLoginAt) { this.lastLoginAt = lastLoginAt; }
+
+	public Instant getLastSeenAt() { return lastSeenAt; }
+	public void setLastSeenAt(Instant lastSeenAt) { this.lastSeenAt = lastSeenAt; }
+
+	public Long getSecurityEpoch() { return securityEpoch; }
+	public void setSecurityEpoch(Long securityEpoch) { this.securityEpoch = securityEpoch; }
 
-	public String getResetToken() { return resetToken; }
-	public void setResetToken(String resetToken) { this.resetToken = resetToken; }
+	public Instant getSecurityChangedAt() { return securityChangedAt; }
+	public void setSecurityChangedAt(Instant securityChangedAt) { this.securityChangedAt = securityChangedAt; }
 
-	public Instant getResetTokenExpiresAt() { return resetTokenExpiresAt; }
-	public void setResetTokenExpiresAt(Instant resetTokenExpiresAt) { this.resetTokenExpiresAt = resetTokenExpiresAt; }
+	public void bumpSecurityEpoch() {
+		this.securityEpoch = (securityEpoch != null ? securityEpoch : 0L) + 1;
+		this.securityChangedAt = Instant.now();
+	}
 
-	public String getDeviceToken() { return deviceToken; }
-	public void setDeviceToken(String deviceToken) { this.deviceToken = deviceToken; }
+	public Long getVersion() { return version; }
+	public void setVersion(Long version) { this.version = version; }
 }
 
 
@@ -0,0 +1,105 @@
+package com.hard_lab_pag.Hard_Lab.user;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+// Último login / última atividade com escrita atrasada: as marcas se acumulam em memória (uma entrada por usuário)
+// e vão para o banco em um UPDATE em lote a cada intervalo. Uma queda perde no máximo um intervalo de atividade.
+@Component
+public class UserActivityTracker {
+
+	private static final Logger log = LoggerFactory.getLogger(UserActivityTracker.class);
+
+	// Só avança (GREATEST): flush atrasado de outra instância não volta o relógio; não mexe em version/atualizado_em
+	private static final String UPDATE_SQL = "UPDATE users SET "
+		+ "last_seen_at = COALESCE(GREATEST(last_seen_at, ?), ?), "
+		+ "last_login_at = COALESCE(GREATEST(last_login_at, ?), ?, last_login_at) "
+		+ "WHERE gmail = ?";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final ConcurrentHashMap<String, Activity> pending = new ConcurrentHashMap<>();
+
+	public UserActivityTracker(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	public void recordSeen(String gmail) {
+		record(gmail, new Activity(Instant.now(), null));
+	}
+
+	public void recordLogin(String gmail) {
+		Instant now = Instant.now();
+		record(gmail, new Activity(now, now));
+	}
+
+	private void record(String gmail, Activity activity) {
+		if (gmail != null) {
+			pending.merge(gmail, activity, Activity::latest);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${users.activity.flush-interval-ms:5000}")
+	public int flush() {
+		if (pending.isEmpty()) {
+			return 0;
+		}
+		List<Map.Entry<String, Activity>> batch = new ArrayList<>(pending.size());
+		for (String gmail : pending.keySet()) {
+			Activity activity = pending.remove(gmail);
+			if (activity != null) {
+				batch.add(Map.entry(gmail, activity));
+			}
+		}
+		try {
+			jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, entry) -> {
+				Timestamp seen = Timestamp.from(entry.getValue().seen());
+				Timestamp login = entry.getValue().login() != null ? Timestamp.from(entry.getValue().login()) : null;
+				ps.setTimestamp(1, seen);
+				ps.setTimestamp(2, seen);
+				ps.setTimestamp(3, login);
+				ps.setTimestamp(4, login);
+				ps.setString(5, entry.getKey());
+			});
+		} catch (RuntimeException e) {
+			// Devolve as marcas para a próxima tentativa, mescladas com o que chegou nesse meio tempo
+			batch.forEach(entry -> record(entry.getKey(), entry.getValue()));
+			log.warn("Falha ao gravar atividade de {} usuários; nova tentativa no próximo ciclo", batch.size(), e);
+			return 0;
+		}
+		return batch.size();
+	}
+
+	@PreDestroy
+	void flushOnShutdown() {
+		flush();
+	}
+
+	int pendingCount() {
+		return pending.size();
+	}
+
+	record Activity(Instant seen, Instant login) {
+
+		static Activity latest(Activity a, Activity b) {
+			return new Activity(max(a.seen, b.seen), max(a.login, b.login));
+		}
+
+		private static Instant max(Instant a, Instant b) {
+			if (a == null) return b;
+			if (b == null) return a;
+			return a.isAfter(b) ? a : b;
+		}
+	}
+}
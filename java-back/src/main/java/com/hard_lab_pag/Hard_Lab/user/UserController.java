@@ -1,6 +1,22 @@
 package com.hard_lab_pag.Hard_Lab.user;
 
+import com.hard_lab_pag.Hard_Lab.auth.AuthTokenService;
+import com.hard_lab_pag.Hard_Lab.auth.PasswordResetService;
+import com.hard_lab_pag.Hard_Lab.infra.ETags;
+import com.hard_lab_pag.Hard_Lab.infra.KeysetPage;
+import com.hard_lab_pag.Hard_Lab.security.PasswordHashingService;
+import com.hard_lab_pag.Hard_Lab.security.SecurityEpochService;
+import com.hard_lab_pag.Hard_Lab.user.dto.UserDirectoryEntry;
+import com.hard_lab_pag.Hard_Lab.user.dto.UserImportReport;
 import com.hard_lab_pag.Hard_Lab.user.dto.UserResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,19 +27,37 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
+	private static final int MAX_PAGE_SIZE = 200;
+	private static final int MAX_SEARCH_RESULTS = 50;
+
 	private final UserRepository userRepository;
-	private final org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
+	private final UserListingService userListingService;
+	private final UserImportService userImportService;
+	private final UserSearchService userSearchService;
+	private final PasswordHashingService passwordHashing;
+	private final SecurityEpochService securityEpochService;
+	private final AuthTokenService authTokenService;
+	private final PasswordResetService passwordResetService;
 
-	public UserController(UserRepository userRepository, org.springframework.security.crypto.password.PasswordEncoder passwordEncoder) {
+	public UserController(UserRepository userRepository, UserListingService userListingService, UserImportService userImportService, UserSearchService userSearchService, PasswordHashingService passwordHashing, SecurityEpochService securityEpochService, AuthTokenService authTokenService, PasswordResetService passwordResetService) {
 		this.userRepository = userRepository;
-		this.passwordEncoder = passwordEncoder;
+		this.userListingService = userListingService;
+		this.userImportService = userImportService;
+		this.userSearchService = userSearchService;
+		this.passwordHashing = passwordHashing;
+		this.securityEpochService = securityEpochService;
+		this.authTokenService = authTokenService;
+		this.passwordResetService = passwordResetService;
 	}
 
 	@GetMapping("/me")
@@ -34,11 +68,50 @@ public class UserController {
 			.orElse(ResponseEntity.notFound().build());
 	}
 
-	// Admin: listar usuários
+	// Admin: listar usuários (sem dados sensíveis; papéis em uma única consulta)
 	@GetMapping
 	@PreAuthorize("hasRole('ADMIN')")
 	public ResponseEntity<?> list() {
-		return ResponseEntity.ok(userRepository.findAll());
+		return ResponseEntity.ok(userListingService.all());
+	}
+
+	// Admin: listagem paginada por cursor com filtros opcionais (ex.: ?role=PROFESSOR&ativo=true&limit=50)
+	@GetMapping("/page")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<KeysetPage<UserResponse>> page(
+		@RequestParam(value = "cursor", required = false) String cursor,
+		@RequestParam(value = "limit", defaultValue = "50") int limit,
+		@RequestParam(value = "role", required = false) Role role,
+		@RequestParam(value = "curso", required = false) String curso,
+		@RequestParam(value = "ativo", required = false) Boolean ativo
+	) {
+		return ResponseEntity.ok(userListingService.page(cursor, KeysetPage.clampLimit(limit, MAX_PAGE_SIZE), role, curso, ativo));
+	}
+
+	// Diretório (ex.: adicionar participantes): prefixo sem acento em nome, matrícula, gmail e curso
+	@GetMapping("/search")
+	@PreAuthorize("hasRole('PROFESSOR') or hasRole('ADMIN')")
+	public ResponseEntity<List<UserDirectoryEntry>> search(
+		@RequestParam("q") String query,
+		@RequestParam(value = "limit", defaultValue = "10") int limit
+	) {
+		return ResponseEntity.ok(userSearchService.search(query, KeysetPage.clampLimit(limit, MAX_SEARCH_RESULTS)));
+	}
+
+	// Admin: reconstruir o índice de busca de usuários
+	@PostMapping("/search/reindex")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<Map<String, Object>> reindex() {
+		return ResponseEntity.ok(Map.of("indexedUsers", userSearchService.reindexAll()));
+	}
+
+	// Admin: obter usuário com ETag (versão) para edição concorrente
+	@GetMapping("/{id}")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<?> get(@PathVariable Long id, WebRequest request) {
+		return userRepository.findById(id)
+			.<ResponseEntity<?>>map(u -> ETags.respond(request, u.getVersion(), new UserResponse(u)))
+			.orElse(ResponseEntity.notFound().build());
 	}
 
 	// Admin: criar usuário simples
@@ -46,26 +119,68 @@ public class UserController {
 	@PreAuthorize("hasRole('ADMIN')")
 	public ResponseEntity<?> create(@RequestBody User payload) {
 		if (payload.getSenhaHash() != null) {
-			payload.setSenhaHash(passwordEncoder.encode(payload.getSenhaHash()));
+			payload.setSenhaHash(passwordHashing.encode(payload.getSenhaHash()));
 		}
-		return ResponseEntity.ok(userRepository.save(payload));
+		User saved = userRepository.save(payload);
+		userSearchService.index(saved);
+		return ResponseEntity.ok(new UserResponse(saved));
 	}
 
-	// Admin: atualizar
+	// Admin: emite um token de reset de senha (uso único) para repassar ao usuário; invalida os anteriores
+	@PostMapping("/{id}/password-reset")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<?> issuePasswordReset(@PathVariable Long id) {
+		return userRepository.findById(id)
+			.map(user -> passwordResetService.issue(user.getId()))
+			.<ResponseEntity<?>>map(issued -> ResponseEntity.ok()
+				.cacheControl(CacheControl.noStore())
+				.body(Map.of("token", issued.token(), "expiresAt", issued.expiresAt())))
+			.orElse(ResponseEntity.notFound().build());
+	}
+
+	// Admin: importação em massa por CSV (corpo cru text/csv); devolve o relatório por linha
+	@PostMapping(value = "/import", consumes = { "text/csv", MediaType.TEXT_PLAIN_VALUE })
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<UserImportReport> importCsv(
+		HttpServletRequest request,
+		@RequestParam(value = "role", defaultValue = "ACADEMICO") Role role
+	) throws IOException {
+		return ResponseEntity.ok(userImportService.importCsv(request.getInputStream(), role));
+	}
+
+	// Admin: atualizar (If-Match opcional; versão divergente devolve 412)
 	@PutMapping("/{id}")
 	@PreAuthorize("hasRole('ADMIN')")
-	public ResponseEntity<?> update(@PathVariable Long id, @RequestBody User payload) {
+	public ResponseEntity<?> update(
+		@PathVariable Long id,
+		@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+		@RequestBody User payload
+	) {
 		return userRepository.findById(id)
-			.map(u -> {
+			.<ResponseEntity<?>>map(u -> {
+				ETags.requireMatch(ifMatch, u.getVersion());
+				boolean securityChanged = !Objects.equals(u.getAtivo(), payload.getAtivo())
+					|| !Objects.equals(u.getRoles(), payload.getRoles());
 				u.setNome(payload.getNome());
 				u.setCurso(payload.getCurso());
 				u.setTelefone(payload.getTelefone());
 				u.setAtivo(payload.getAtivo());
 				u.setRoles(payload.getRoles());
-				if (payload.getSenhaHash() != null && !payload.getSenhaHash().isBlank()) {
-					u.setSenhaHash(passwordEncoder.encode(payload.getSenhaHash()));
+				boolean passwordChanged = payload.getSenhaHash() != null && !payload.getSenhaHash().isBlank();
+				if (passwordChanged) {
+					u.setSenhaHash(passwordHashing.encode(payload.getSenhaHash()));
+					securityChanged = true;
+				}
+				if (securityChanged) {
+					u.bumpSecurityEpoch();
+				}
+				User saved = userRepository.saveAndFlush(u);
+				userSearchService.index(saved);
+				securityEpochService.invalidate(saved.getGmail());
+				if (passwordChanged) {
+					authTokenService.logoutAll(saved.getGmail());
 				}
-				return ResponseEntity.ok(userRepository.save(u));
+				return ETags.ok(saved.getVersion(), new UserResponse(saved));
 			})
 			.orElse(ResponseEntity.notFound().build());
 	}
@@ -73,20 +188,38 @@ public class UserController {
 	// Admin: deletar
 	@DeleteMapping("/{id}")
 	@PreAuthorize("hasRole('ADMIN')")
-	public ResponseEntity<?> delete(@PathVariable Long id) {
-		if (!userRepository.existsById(id)) return ResponseEntity.notFound().build();
-		userRepository.deleteById(id);
-		return ResponseEntity.noContent().build();
+	public ResponseEntity<?> delete(
+		@PathVariable Long id,
+		@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+	) {
+		return userRepository.findById(id)
+			.<ResponseEntity<?>>map(u -> {
+				ETags.requireMatch(ifMatch, u.getVersion());
+				userRepository.delete(u);
+				userSearchService.remove(u.getId());
+				securityEpochService.invalidate(u.getGmail());
+				authTokenService.logoutAll(u.getGmail());
+				return ResponseEntity.noContent().build();
+			})
+			.orElse(ResponseEntity.notFound().build());
 	}
 
 	// Admin: atualizar roles
 	@PutMapping("/{id}/roles")
 	@PreAuthorize("hasRole('ADMIN')")
-	public ResponseEntity<?> updateRoles(@PathVariable Long id, @RequestBody UserRolesUpdateRequest request) {
+	public ResponseEntity<?> updateRoles(
+		@PathVariable Long id,
+		@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+		@RequestBody UserRolesUpdateRequest request
+	) {
 		return userRepository.findById(id)
-			.map(u -> {
+			.<ResponseEntity<?>>map(u -> {
+				ETags.requireMatch(ifMatch, u.getVersion());
 				u.setRoles(request.getRoles());
-				return ResponseEntity.ok(userRepository.save(u));
+				u.bumpSecurityEpoch();
+				User saved = userRepository.saveAndFlush(u);
+				securityEpochService.invalidate(saved.getGmail());
+				return ETags.ok(saved.getVersion(), new UserResponse(saved));
 			})
 			.orElse(ResponseEntity.notFound().build());
 	}
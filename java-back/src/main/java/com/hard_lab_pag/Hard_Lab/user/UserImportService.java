@@ -0,0 +1,319 @@
+package com.hard_lab_pag.Hard_Lab.user;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hard_lab_pag.Hard_Lab.security.PasswordHashingService;
+import com.hard_lab_pag.Hard_Lab.stats.AdminStatsService;
+import com.hard_lab_pag.Hard_Lab.stats.StatCounter;
+import com.hard_lab_pag.Hard_Lab.user.dto.UserImportReport;
+
+// Importação de usuários por CSV (gmail,nome,matricula,curso,telefone[,senha]) lida em blocos:
+// por bloco, uma consulta de existentes, hashes em paralelo no pool do BCrypt e um INSERT em lote via JDBC
+@Service
+public class UserImportService {
+
+	private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+	private static final int CHUNK_SIZE = 500;
+	private static final int GENERATED_PASSWORD_LENGTH = 12;
+	private static final String PASSWORD_ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnpqrstuvwxyz23456789";
+	private static final Pattern GMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+	private static final String INSERT_SQL = "INSERT INTO users "
+		+ "(gmail, nome, senha_hash, matricula, curso, telefone, ativo, roles_mask, security_epoch, version, criado_em, atualizado_em) "
+		+ "VALUES (?, ?, ?, ?, ?, ?, TRUE, ?, 0, 0, ?, ?)";
+
+	private final UserRepository userRepository;
+	private final PasswordHashingService passwordHashing;
+	private final UserSearchService userSearchService;
+	private final AdminStatsService adminStatsService;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final SecureRandom random = new SecureRandom();
+
+	@Value("${users.import.max-rows:5000}")
+	private int maxRows;
+
+	public UserImportService(
+		UserRepository userRepository,
+		PasswordHashingService passwordHashing,
+		UserSearchService userSearchService,
+		AdminStatsService adminStatsService,
+		JdbcTemplate jdbcTemplate,
+		PlatformTransactionManager transactionManager
+	) {
+		this.userRepository = userRepository;
+		this.passwordHashing = passwordHashing;
+		this.userSearchService = userSearchService;
+		this.adminStatsService = adminStatsService;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	public UserImportReport importCsv(InputStream in, Role role) throws IOException {
+		UserImportReport report = new UserImportReport();
+		Set<String> seen = new HashSet<>();
+		List<Candidate> chunk = new ArrayList<>(CHUNK_SIZE);
+		int dataRows = 0;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+			String line;
+			int lineNumber = 0;
+			Character separator = null;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (lineNumber == 1) {
+					line = stripBom(line);
+				}
+				if (line.isBlank()) continue;
+				// Separador decidido uma vez, pelo cabeçalho (ou pela primeira linha, sem cabeçalho)
+				if (separator == null) {
+					separator = detectSeparator(line);
+					if (isHeader(splitLine(line, separator))) continue;
+				}
+				if (++dataRows > maxRows) {
+					report.setTruncated(true);
+					break;
+				}
+				Candidate candidate;
+				try {
+					candidate = Candidate.parse(lineNumber, splitLine(line, separator));
+				} catch (IllegalArgumentException e) {
+					report.add(new UserImportReport.Row(lineNumber, null, UserImportReport.INVALID, e.getMessage(), null));
+					continue;
+				}
+				if (!seen.add(candidate.gmail)) {
+					report.add(new UserImportReport.Row(lineNumber, candidate.gmail, UserImportReport.DUPLICATE, "Gmail repetido no arquivo", null));
+					continue;
+				}
+				chunk.add(candidate);
+				if (chunk.size() == CHUNK_SIZE) {
+					flush(chunk, role, report);
+					chunk.clear();
+				}
+			}
+		}
+		flush(chunk, role, report);
+		report.sortByLine();
+		log.info("Importação de usuários: {} criados, {} ignorados{}", report.getCreated(), report.getSkipped(), report.isTruncated() ? " (arquivo truncado)" : "");
+		return report;
+	}
+
+	private void flush(List<Candidate> chunk, Role role, UserImportReport report) {
+		if (chunk.isEmpty()) {
+			return;
+		}
+		List<Candidate> fresh = withoutExisting(chunk, report);
+		if (fresh.isEmpty()) {
+			return;
+		}
+
+		List<String> rawPasswords = new ArrayList<>(fresh.size());
+		for (Candidate candidate : fresh) {
+			if (candidate.senha == null) {
+				candidate.generatedSenha = generatePassword();
+			}
+			rawPasswords.add(candidate.senha != null ? candidate.senha : candidate.generatedSenha);
+		}
+		List<String> hashes = passwordHashing.encodeAll(rawPasswords);
+		for (int i = 0; i < fresh.size(); i++) {
+			fresh.get(i).senhaHash = hashes.get(i);
+		}
+
+		try {
+			insert(fresh, role);
+		} catch (DuplicateKeyException e) {
+			// Alguém cadastrou um dos gmails entre a verificação e o INSERT: refaz a verificação e tenta uma vez
+			fresh = withoutExisting(fresh, report);
+			try {
+				insert(fresh, role);
+			} catch (DuplicateKeyException again) {
+				// Corrida de novo: linha a linha, para os blocos já gravados valerem e o conflito cair só na linha dele
+				fresh = insertOneByOne(fresh, role, report);
+			}
+		}
+		userSearchService.indexByGmails(fresh.stream().map(c -> c.gmail).toList());
+		for (Candidate candidate : fresh) {
+			report.add(new UserImportReport.Row(candidate.line, candidate.gmail, UserImportReport.CREATED, null, candidate.generatedSenha));
+		}
+	}
+
+	// Uma consulta por bloco (gmail IN ...) em vez de existsByGmail por linha
+	private List<Candidate> withoutExisting(List<Candidate> candidates, UserImportReport report) {
+		Set<String> existing = userRepository.findExistingGmails(candidates.stream().map(c -> c.gmail).toList()).stream()
+			.map(User::normalizeGmail)
+			.collect(Collectors.toSet());
+		List<Candidate> fresh = new ArrayList<>(candidates.size());
+		for (Candidate candidate : candidates) {
+			if (existing.contains(candidate.gmail)) {
+				report.add(new UserImportReport.Row(candidate.line, candidate.gmail, UserImportReport.EXISTS, "Gmail já cadastrado", null));
+			} else {
+				fresh.add(candidate);
+			}
+		}
+		return fresh;
+	}
+
+	private List<Candidate> insertOneByOne(List<Candidate> candidates, Role role, UserImportReport report) {
+		List<Candidate> inserted = new ArrayList<>(candidates.size());
+		for (Candidate candidate : candidates) {
+			try {
+				insert(List.of(candidate), role);
+				inserted.add(candidate);
+			} catch (DuplicateKeyException e) {
+				report.add(new UserImportReport.Row(candidate.line, candidate.gmail, UserImportReport.EXISTS, "Gmail já cadastrado", null));
+			}
+		}
+		return inserted;
+	}
+
+	// Lote único por bloco; com rewriteBatchedStatements=true o driver envia um INSERT multi-linha
+	private void insert(List<Candidate> candidates, Role role) {
+		if (candidates.isEmpty()) {
+			return;
+		}
+		Timestamp now = Timestamp.from(Instant.now());
+		int rolesMask = role.bit();
+		transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, candidates, candidates.size(), (ps, c) -> {
+			ps.setString(1, c.gmail);
+			ps.setString(2, c.nome);
+			ps.setString(3, c.senhaHash);
+			ps.setString(4, c.matricula);
+			ps.setString(5, c.curso);
+			ps.setString(6, c.telefone);
+			ps.setInt(7, rolesMask);
+			ps.setTimestamp(8, now);
+			ps.setTimestamp(9, now);
+		}));
+		// INSERT via JDBC não passa pelos listeners do Hibernate
+		adminStatsService.adjustAfterCommit(StatCounter.USERS, candidates.size());
+	}
+
+	private String generatePassword() {
+		StringBuilder password = new StringBuilder(GENERATED_PASSWORD_LENGTH);
+		for (int i = 0; i < GENERATED_PASSWORD_LENGTH; i++) {
+			password.append(PASSWORD_ALPHABET.charAt(random.nextInt(PASSWORD_ALPHABET.length())));
+		}
+		return password.toString();
+	}
+
+	private static boolean isHeader(List<String> fields) {
+		return !fields.isEmpty() && fields.get(0).trim().equalsIgnoreCase("gmail");
+	}
+
+	private static String stripBom(String line) {
+		return line.startsWith("\uFEFF") ? line.substring(1) : line;
+	}
+
+	// Vírgula ou ponto e vírgula (Excel pt-BR), pelo que aparece mais fora de aspas na linha
+	static char detectSeparator(String line) {
+		int commas = 0;
+		int semicolons = 0;
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char ch = line.charAt(i);
+			if (ch == '"') {
+				quoted = !quoted;
+			} else if (!quoted && ch == ',') {
+				commas++;
+			} else if (!quoted && ch == ';') {
+				semicolons++;
+			}
+		}
+		return semicolons > commas ? ';' : ',';
+	}
+
+	// Aspas duplas com "" como escape
+	static List<String> splitLine(String line, char separator) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder current = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char ch = line.charAt(i);
+			if (quoted) {
+				if (ch == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					current.append('"');
+					i++;
+				} else if (ch == '"') {
+					quoted = false;
+				} else {
+					current.append(ch);
+				}
+			} else if (ch == '"') {
+				quoted = true;
+			} else if (ch == separator) {
+				fields.add(current.toString());
+				current.setLength(0);
+			} else {
+				current.append(ch);
+			}
+		}
+		fields.add(current.toString());
+		return fields;
+	}
+
+	static final class Candidate {
+		final int line;
+		final String gmail;
+		final String nome;
+		final String matricula;
+		final String curso;
+		final String telefone;
+		final String senha;
+		String generatedSenha;
+		String senhaHash;
+
+		private Candidate(int line, String gmail, String nome, String matricula, String curso, String telefone, String senha) {
+			this.line = line;
+			this.gmail = gmail;
+			this.nome = nome;
+			this.matricula = matricula;
+			this.curso = curso;
+			this.telefone = telefone;
+			this.senha = senha;
+		}
+
+		// Mesmas regras do cadastro (RegisterRequest)
+		static Candidate parse(int line, List<String> fields) {
+			String gmail = field(fields, 0);
+			String nome = field(fields, 1);
+			String senha = field(fields, 5);
+			if (gmail == null || gmail.length() > 254 || !GMAIL.matcher(gmail).matches()) {
+				throw new IllegalArgumentException("Gmail inválido");
+			}
+			if (nome == null || nome.length() < 2 || nome.length() > 120) {
+				throw new IllegalArgumentException("Nome deve ter entre 2 e 120 caracteres");
+			}
+			if (senha != null && (senha.length() < 6 || senha.length() > 100)) {
+				throw new IllegalArgumentException("Senha deve ter entre 6 e 100 caracteres");
+			}
+			return new Candidate(line, User.normalizeGmail(gmail), nome, field(fields, 2), field(fields, 3), field(fields, 4), senha);
+		}
+
+		private static String field(List<String> fields, int index) {
+			if (index >= fields.size()) return null;
+			String value = fields.get(index).trim();
+			return value.isEmpty() ? null : value;
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.hard_lab_pag.Hard_Lab.user;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.hard_lab_pag.Hard_Lab.infra.KeysetPage;
+import com.hard_lab_pag.Hard_Lab.user.dto.UserResponse;
+
+// Listagem de usuários numa única consulta de projeção (papéis vêm da máscara), sem carregar entidades
+@Service
+public class UserListingService {
+
+	private static final List<Integer> NO_MASKS = List.of(-1);
+
+	private final UserRepository userRepository;
+
+	public UserListingService(UserRepository userRepository) {
+		this.userRepository = userRepository;
+	}
+
+	// Keyset por id crescente; o cursor é o id do último item da página anterior
+	@Transactional(readOnly = true)
+	public KeysetPage<UserResponse> page(String cursor, int limit, Role role, String curso, Boolean ativo) {
+		List<UserSummaryView> rows = userRepository.findSummaries(
+			decodeCursor(cursor),
+			role != null,
+			role != null ? Role.masksContaining(role) : NO_MASKS,
+			blankToNull(curso),
+			ativo,
+			PageRequest.of(0, limit + 1)
+		);
+		return KeysetPage.of(rows.stream().map(UserResponse::new).toList(), limit, u -> String.valueOf(u.getId()));
+	}
+
+	@Transactional(readOnly = true)
+	public List<UserResponse> all() {
+		return userRepository.findSummaries(0L, false, NO_MASKS, null, null, Pageable.unpaged()).stream()
+			.map(UserResponse::new)
+			.toList();
+	}
+
+	static long decodeCursor(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return 0L;
+		}
+		try {
+			return Long.parseLong(cursor);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Cursor inválido");
+		}
+	}
+
+	private static String blankToNull(String value) {
+		return value == null || value.isBlank() ? null : value;
+	}
+}
@@ -1,12 +1,63 @@
 package com.hard_lab_pag.Hard_Lab.user;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+
+	// Colunas de UserSummaryView (listagem, busca, importação)
+	String SUMMARY_SELECT = "SELECT u.id AS id, u.gmail AS gmail, u.nome AS nome, u.matricula AS matricula, u.curso AS curso, u.telefone AS telefone, "
+		+ "u.ativo AS ativo, u.rolesMask AS rolesMask, u.criadoEm AS criadoEm, u.atualizadoEm AS atualizadoEm, u.lastLoginAt AS lastLoginAt, u.lastSeenAt AS lastSeenAt FROM User u ";
+
 	boolean existsByGmail(String gmail);
 	Optional<User> findByGmail(String gmail);
-	Optional<User> findByResetToken(String resetToken);
-}
 
+	// Verificação em lote para importação
+	@Query("SELECT u.gmail FROM User u WHERE u.gmail IN :gmails")
+	List<String> findExistingGmails(@Param("gmails") Collection<String> gmails);
+
+	// Troca só o hash (mesma senha, novo custo); não altera se a senha mudou no meio tempo
+	@Modifying
+	@Transactional
+	@Query("UPDATE User u SET u.senhaHash = :newHash WHERE u.id = :id AND u.senhaHash = :oldHash")
+	int rehashPassword(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+	// Filtros opcionais (null/false = sem filtro); o papel vira roles_mask IN (máscaras que contêm o bit)
+	@Query(SUMMARY_SELECT
+		+ "WHERE u.id > :afterId AND (:filterRole = false OR u.rolesMask IN :roleMasks) "
+		+ "AND (:curso IS NULL OR u.curso = :curso) AND (:ativo IS NULL OR u.ativo = :ativo) ORDER BY u.id")
+	List<UserSummaryView> findSummaries(
+		@Param("afterId") Long afterId,
+		@Param("filterRole") boolean filterRole,
+		@Param("roleMasks") Collection<Integer> roleMasks,
+		@Param("curso") String curso,
+		@Param("ativo") Boolean ativo,
+		Pageable pageable
+	);
+
+	@Query(SUMMARY_SELECT + "WHERE u.id IN :ids")
+	List<UserSummaryView> findSummariesByIds(@Param("ids") Collection<Long> ids);
 
+	@Query(SUMMARY_SELECT + "WHERE u.gmail IN :gmails")
+	List<UserSummaryView> findSummariesByGmails(@Param("gmails") Collection<String> gmails);
+
+	@Query("SELECT u.gmail AS gmail, u.securityEpoch AS securityEpoch, u.ativo AS ativo FROM User u WHERE u.gmail = :gmail")
+	Optional<UserSecurityView> findSecurityViewByGmail(@Param("gmail") String gmail);
+
+	@Query("SELECT u.gmail AS gmail, u.securityEpoch AS securityEpoch, u.ativo AS ativo FROM User u WHERE u.securityChangedAt > :since")
+	List<UserSecurityView> findSecurityViewsChangedSince(@Param("since") Instant since);
+
+	// Usa idx_users_last_login
+	long countByLastLoginAtAfter(Instant since);
+
+	@Query("SELECT u.id FROM User u WHERE u.gmail = :gmail")
+	Optional<Long> findIdByGmail(@Param("gmail") String gmail);
+}
@@ -0,0 +1,71 @@
+package com.hard_lab_pag.Hard_Lab.user;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.hard_lab_pag.Hard_Lab.infra.StartupMigration;
+
+import jakarta.persistence.EntityManager;
+
+// Copia user_roles para users.roles_mask antes de a instância atender (ver StartupMigrationRunner). user_roles fica
+// intacta: instâncias antigas do rolling deploy continuam lendo os papéis e um rollback não perde nada; a tabela
+// só é removida num release posterior. Alterações de papel feitas nas instâncias antigas depois da cópia não voltam.
+@Component
+@ConditionalOnProperty(name = "users.roles-migration.enabled", havingValue = "true", matchIfMissing = true)
+public class UserRolesMigration implements StartupMigration {
+
+	static final String NAME = "user-roles";
+
+	private final EntityManager entityManager;
+
+	public UserRolesMigration(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	@Override
+	public String migrationName() {
+		return NAME;
+	}
+
+	@Override
+	public boolean hasLegacyData() {
+		Number count = (Number) entityManager.createNativeQuery(
+				"SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = 'user_roles'")
+			.getSingleResult();
+		return count.intValue() > 0;
+	}
+
+	// Cada usuário é copiado uma única vez (o checkpoint avança na mesma transação) e antes de qualquer requisição
+	// da versão nova, então atribuir a máscara não desfaz uma alteração feita por um administrador
+	@Override
+	@SuppressWarnings("unchecked")
+	public Chunk copyAfter(long afterId, int limit) {
+		List<Number> ids = entityManager.createNativeQuery("SELECT DISTINCT user_id FROM user_roles WHERE user_id > ?1 ORDER BY user_id LIMIT ?2")
+			.setParameter(1, afterId)
+			.setParameter(2, limit)
+			.getResultList();
+		if (ids.isEmpty()) {
+			return null;
+		}
+		long from = ids.get(0).longValue();
+		long to = ids.get(ids.size() - 1).longValue();
+		entityManager.createNativeQuery("UPDATE users u JOIN (SELECT user_id, BIT_OR(" + roleBitCase() + ") AS mask "
+				+ "FROM user_roles WHERE user_id BETWEEN ?1 AND ?2 GROUP BY user_id) r ON r.user_id = u.id "
+				+ "SET u.roles_mask = r.mask")
+			.setParameter(1, from)
+			.setParameter(2, to)
+			.executeUpdate();
+		return new Chunk(to, ids.size());
+	}
+
+	// CASE role WHEN 'ADMIN' THEN 1 ... gerado a partir do enum, para os bits não divergirem de Role
+	static String roleBitCase() {
+		return Stream.of(Role.values())
+			.map(role -> "WHEN '" + role.name() + "' THEN " + role.bit())
+			.collect(Collectors.joining(" ", "CASE role ", " ELSE 0 END"));
+	}
+}
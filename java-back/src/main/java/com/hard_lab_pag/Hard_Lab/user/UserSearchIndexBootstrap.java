@@ -0,0 +1,50 @@
+package com.hard_lab_pag.Hard_Lab.user;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.hard_lab_pag.Hard_Lab.infra.LeaseLockService;
+
+// Primeira implantação: índice de busca vazio com usuários cadastrados => indexa todos (uma instância só)
+@Component
+public class UserSearchIndexBootstrap implements ApplicationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(UserSearchIndexBootstrap.class);
+
+	static final String LEASE_NAME = "user-search-bootstrap";
+
+	private final UserSearchService userSearchService;
+	private final UserSearchTermRepository termRepository;
+	private final UserRepository userRepository;
+	private final LeaseLockService leaseLockService;
+
+	@Value("${users.search.bootstrap-lease:PT10M}")
+	private Duration lease;
+
+	public UserSearchIndexBootstrap(
+		UserSearchService userSearchService,
+		UserSearchTermRepository termRepository,
+		UserRepository userRepository,
+		LeaseLockService leaseLockService
+	) {
+		this.userSearchService = userSearchService;
+		this.termRepository = termRepository;
+		this.userRepository = userRepository;
+		this.leaseLockService = leaseLockService;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (termRepository.count() > 0 || userRepository.count() == 0) {
+			return;
+		}
+		leaseLockService.runExclusively(LEASE_NAME, lease, () ->
+			log.info("Índice de busca de usuários criado: {} usuários", userSearchService.reindexAll()));
+	}
+}
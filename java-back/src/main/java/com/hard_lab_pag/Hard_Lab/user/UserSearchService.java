@@ -0,0 +1,163 @@
+package com.hard_lab_pag.Hard_Lab.user;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.hard_lab_pag.Hard_Lab.infra.SearchTerms;
+import com.hard_lab_pag.Hard_Lab.infra.TextNormalizer;
+import com.hard_lab_pag.Hard_Lab.user.dto.UserDirectoryEntry;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+// Diretório de usuários: termos normalizados de nome, matrícula, gmail e curso em user_search_terms.
+// Cada palavra da busca é um prefixo (LIKE 'silv%') que precisa casar com algum termo do usuário.
+@Service
+public class UserSearchService {
+
+	// Pesos por campo: matrícula > nome > gmail > curso
+	private static final int WEIGHT_MATRICULA = 8;
+	private static final int WEIGHT_NOME = 4;
+	private static final int WEIGHT_GMAIL = 2;
+	private static final int WEIGHT_CURSO = 1;
+
+	private static final int MAX_QUERY_TOKENS = 5;
+	private static final int REINDEX_CHUNK_SIZE = 500;
+	private static final List<Integer> ANY_ROLE = List.of(-1);
+
+	private final UserSearchTermRepository termRepository;
+	private final UserRepository userRepository;
+	private final EntityManager entityManager;
+	private final TransactionTemplate transactionTemplate;
+
+	public UserSearchService(
+		UserSearchTermRepository termRepository,
+		UserRepository userRepository,
+		EntityManager entityManager,
+		PlatformTransactionManager transactionManager
+	) {
+		this.termRepository = termRepository;
+		this.userRepository = userRepository;
+		this.entityManager = entityManager;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Transactional
+	public void index(User user) {
+		replaceTerms(user.getId(), extractTerms(user.getNome(), user.getMatricula(), user.getGmail(), user.getCurso()));
+	}
+
+	// Usuários gravados fora do JPA (importação CSV)
+	@Transactional
+	public void indexByGmails(Collection<String> gmails) {
+		if (gmails.isEmpty()) {
+			return;
+		}
+		indexSummaries(userRepository.findSummariesByGmails(gmails));
+	}
+
+	@Transactional
+	public void remove(Long userId) {
+		termRepository.deleteByUserIds(List.of(userId));
+	}
+
+	@Transactional(readOnly = true)
+	public List<UserDirectoryEntry> search(String query, int limit) {
+		List<String> tokens = TextNormalizer.tokens(query, SearchTerms.MIN_TOKEN_LENGTH).stream().limit(MAX_QUERY_TOKENS).toList();
+		if (tokens.isEmpty()) {
+			return List.of();
+		}
+
+		List<Long> ids = rankedIds(tokens, limit);
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		return SearchTerms.inRankOrder(ids, userRepository.findSummariesByIds(ids), UserSummaryView::getId).stream()
+			.map(UserDirectoryEntry::new)
+			.toList();
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Long> rankedIds(List<String> tokens, int limit) {
+		Query query = entityManager.createNativeQuery(rankingSql(tokens.size(), limit));
+		for (int i = 0; i < tokens.size(); i++) {
+			// Tokens só têm letras e dígitos: não há % ou _ para escapar
+			query.setParameter(i + 1, tokens.get(i) + "%");
+		}
+		return ((List<Number>) query.getResultList()).stream().map(Number::longValue).toList();
+	}
+
+	// Uma faixa do índice por palavra; o HAVING exige que todas as palavras tenham casado e a soma dos pesos ordena
+	static String rankingSql(int tokenCount, int limit) {
+		StringBuilder where = new StringBuilder();
+		StringBuilder matched = new StringBuilder();
+		for (int i = 1; i <= tokenCount; i++) {
+			if (i > 1) {
+				where.append(" OR ");
+				matched.append(" + ");
+			}
+			where.append("t.term LIKE ?").append(i);
+			matched.append("MAX(t.term LIKE ?").append(i).append(")");
+		}
+		return "SELECT t.user_id FROM user_search_terms t WHERE " + where
+			+ " GROUP BY t.user_id HAVING " + matched + " = " + tokenCount
+			+ " ORDER BY SUM(t.weight) DESC, t.user_id LIMIT " + limit;
+	}
+
+	// Reconstrói o índice inteiro em blocos (ex.: primeira implantação ou mudança de pesos)
+	public int reindexAll() {
+		return SearchTerms.reindexInChunks(transactionTemplate, afterId -> {
+			List<UserSummaryView> rows = userRepository.findSummaries(afterId, false, ANY_ROLE, null, null, PageRequest.of(0, REINDEX_CHUNK_SIZE));
+			indexSummaries(rows);
+			return rows;
+		}, UserSummaryView::getId);
+	}
+
+	private void indexSummaries(List<UserSummaryView> rows) {
+		if (rows.isEmpty()) {
+			return;
+		}
+		termRepository.deleteByUserIds(rows.stream().map(UserSummaryView::getId).toList());
+		for (UserSummaryView row : rows) {
+			persistTerms(row.getId(), extractTerms(row.getNome(), row.getMatricula(), row.getGmail(), row.getCurso()));
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	private void replaceTerms(Long userId, Map<String, Integer> terms) {
+		termRepository.deleteByUserIds(List.of(userId));
+		persistTerms(userId, terms);
+	}
+
+	private void persistTerms(Long userId, Map<String, Integer> terms) {
+		terms.forEach((term, weight) -> entityManager.persist(new UserSearchTerm(userId, term, weight)));
+	}
+
+	// Gmail indexa só a parte local ("ana.silva" -> ana, silva); a matrícula também entra inteira.
+	// Termo repetido em dois campos fica com o maior peso
+	static Map<String, Integer> extractTerms(String nome, String matricula, String gmail, String curso) {
+		Map<String, Integer> terms = new HashMap<>();
+		SearchTerms.add(terms, nome, WEIGHT_NOME, Math::max);
+		if (matricula != null && !matricula.isBlank()) {
+			String whole = TextNormalizer.normalize(matricula).replaceAll("[^\\p{Alnum}]", "");
+			SearchTerms.add(terms, Set.of(whole), WEIGHT_MATRICULA, Math::max);
+			SearchTerms.add(terms, matricula, WEIGHT_MATRICULA, Math::max);
+		}
+		if (gmail != null) {
+			int at = gmail.indexOf('@');
+			SearchTerms.add(terms, at > 0 ? gmail.substring(0, at) : gmail, WEIGHT_GMAIL, Math::max);
+		}
+		SearchTerms.add(terms, curso, WEIGHT_CURSO, Math::max);
+		return terms;
+	}
+}
@@ -0,0 +1,67 @@
+package com.hard_lab_pag.Hard_Lab.user;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Termo normalizado (sem acento, minúsculo) -> usuário; o índice (term, user_id) atende LIKE 'prefixo%' por faixa
+@Entity
+@Table(name = "user_search_terms", indexes = {
+	@Index(name = "idx_user_search_terms_term", columnList = "term, user_id")
+})
+public class UserSearchTerm {
+
+	@EmbeddedId
+	private Key id;
+
+	@Column(nullable = false)
+	private Integer weight;
+
+	protected UserSearchTerm() {}
+
+	public UserSearchTerm(Long userId, String term, int weight) {
+		this.id = new Key(userId, term);
+		this.weight = weight;
+	}
+
+	public Key getId() { return id; }
+	public Integer getWeight() { return weight; }
+
+	@Embeddable
+	public static class Key implements Serializable {
+
+		@Column(name = "user_id", nullable = false)
+		private Long userId;
+
+		@Column(nullable = false, length = 100)
+		private String term;
+
+		protected Key() {}
+
+		public Key(Long userId, String term) {
+			this.userId = userId;
+			this.term = term;
+		}
+
+		public Long getUserId() { return userId; }
+		public String getTerm() { return term; }
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Key other)) return false;
+			return Objects.equals(userId, other.userId) && Objects.equals(term, other.term);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(userId, term);
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package com.hard_lab_pag.Hard_Lab.user;
+
+import java.util.Collection;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserSearchTermRepository extends JpaRepository<UserSearchTerm, UserSearchTerm.Key> {
+
+	@Modifying
+	@Query("DELETE FROM UserSearchTerm t WHERE t.id.userId IN :userIds")
+	int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+}
@@ -0,0 +1,8 @@
+package com.hard_lab_pag.Hard_Lab.user;
+
+// Projeção mínima usada na autenticação por token (sem senha e sem a coleção de papéis)
+public interface UserSecurityView {
+	String getGmail();
+	Long getSecurityEpoch();
+	Boolean getAtivo();
+}
@@ -1,44 +1,75 @@
 package com.hard_lab_pag.Hard_Lab.user;
 
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
-import java.util.UUID;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.hard_lab_pag.Hard_Lab.auth.AuthTokenService;
+import com.hard_lab_pag.Hard_Lab.auth.PasswordResetDelivery;
+import com.hard_lab_pag.Hard_Lab.auth.PasswordResetService;
+import com.hard_lab_pag.Hard_Lab.auth.dto.AuthResponse;
 import com.hard_lab_pag.Hard_Lab.auth.dto.LoginRequest;
 import com.hard_lab_pag.Hard_Lab.auth.dto.RegisterRequest;
-import com.hard_lab_pag.Hard_Lab.security.JwtService;
+import com.hard_lab_pag.Hard_Lab.infra.ConflictException;
+import com.hard_lab_pag.Hard_Lab.infra.ServiceOverloadedException;
+import com.hard_lab_pag.Hard_Lab.security.PasswordHashingService;
+import com.hard_lab_pag.Hard_Lab.security.SecurityEpochService;
 
 @Service
 public class UserService {
 
-	private final UserRepository userRepository;
-	private final PasswordEncoder passwordEncoder;
-	private final JwtService jwtService;
+	private static final Logger log = LoggerFactory.getLogger(UserService.class);
 
-	public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtService jwtService) {
+	private final UserRepository userRepository;
+	private final PasswordHashingService passwordHashing;
+	private final AuthTokenService authTokenService;
+	private final SecurityEpochService securityEpochService;
+	private final PasswordResetService passwordResetService;
+	private final ObjectProvider<PasswordResetDelivery> resetDelivery;
+	private final UserActivityTracker activityTracker;
+	private final UserSearchService userSearchService;
+	private final TransactionTemplate transactionTemplate;
+
+	public UserService(
+		UserRepository userRepository,
+		PasswordHashingService passwordHashing,
+		AuthTokenService authTokenService,
+		SecurityEpochService securityEpochService,
+		PasswordResetService passwordResetService,
+		ObjectProvider<PasswordResetDelivery> resetDelivery,
+		UserActivityTracker activityTracker,
+		UserSearchService userSearchService,
+		PlatformTransactionManager transactionManager
+	) {
 		this.userRepository = userRepository;
-		this.passwordEncoder = passwordEncoder;
-		this.jwtService = jwtService;
+		this.passwordHashing = passwordHashing;
+		this.authTokenService = authTokenService;
+		this.securityEpochService = securityEpochService;
+		this.passwordResetService = passwordResetService;
+		this.resetDelivery = resetDelivery;
+		this.activityTracker = activityTracker;
+		this.userSearchService = userSearchService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
 	}
 
-	@Transactional
-	public String register(RegisterRequest request) {
+	// O BCrypt roda fora da transação: nenhuma conexão do pool fica presa esperando o hash
+	public AuthResponse register(RegisterRequest request) {
 		if (userRepository.existsByGmail(request.getGmail())) {
-			throw new IllegalArgumentException("Gmail já cadastrado");
+			throw new ConflictException("Gmail já cadastrado");
 		}
+		String senhaHash = passwordHashing.encode(request.getSenha());
 
 		User user = new User();
 		user.setGmail(request.getGmail());
 		user.setNome(request.getNome());
-		user.setSenhaHash(passwordEncoder.encode(request.getSenha()));
+		user.setSenhaHash(senhaHash);
 		user.setMatricula(request.getMatricula());
 		user.setCurso(request.getCurso());
 		user.setTelefone(request.getTelefone());
@@ -50,46 +81,72 @@ public class UserService {
 		}
 		user.setRoles(roles);
 
-		userRepository.save(user);
-
-		Map<String, Object> claims = new HashMap<>();
-		claims.put("roles", roles);
-		return jwtService.generateToken(user.getGmail(), claims);
+		try {
+			return transactionTemplate.execute(status -> {
+				userRepository.saveAndFlush(user);
+				userSearchService.index(user);
+				return authTokenService.issue(user);
+			});
+		} catch (DataIntegrityViolationException e) {
+			// Outro cadastro do mesmo gmail confirmou entre a verificação e o INSERT (o hash roda fora da transação)
+			throw new ConflictException("Gmail já cadastrado");
+		}
 	}
 
-	@Transactional(readOnly = true)
-	public String login(LoginRequest request) {
+	public AuthResponse login(LoginRequest request) {
 		User user = userRepository.findByGmail(request.getGmail())
 				.orElseThrow(() -> new IllegalArgumentException("Credenciais inválidas"));
-		if (!passwordEncoder.matches(request.getSenha(), user.getSenhaHash())) {
+		if (!passwordHashing.matches(request.getSenha(), user.getSenhaHash())) {
 			throw new IllegalArgumentException("Credenciais inválidas");
 		}
-		Map<String, Object> claims = new HashMap<>();
-		claims.put("roles", user.getRoles());
-		return jwtService.generateToken(user.getGmail(), claims);
+		rehashIfNeeded(user, request.getSenha());
+		activityTracker.recordLogin(user.getGmail());
+		return authTokenService.issue(user);
+	}
+
+	// Migra o hash para o custo configurado usando a senha recebida no login; falha aqui não impede o login
+	private void rehashIfNeeded(User user, String senha) {
+		if (!passwordHashing.needsRehash(user.getSenhaHash())) {
+			return;
+		}
+		try {
+			userRepository.rehashPassword(user.getId(), user.getSenhaHash(), passwordHashing.encode(senha));
+		} catch (ServiceOverloadedException e) {
+			// Pool ocupado: tenta de novo no próximo login
+		} catch (RuntimeException e) {
+			log.warn("Falha ao refazer o hash da senha de {}; nova tentativa no próximo login", user.getGmail(), e);
+		}
 	}
 
-	@Transactional
+	// Só grava em password_reset_tokens; a linha do usuário fica intocada até o reset ser efetivado.
+	// Sem canal de entrega não emite nada: um token que ninguém recebe só invalidaria o emitido pelo administrador
 	public void initiatePasswordReset(String gmail) {
 		userRepository.findByGmail(gmail).ifPresent(user -> {
-			user.setResetToken(UUID.randomUUID().toString());
-			user.setResetTokenExpiresAt(Instant.now().plus(1, ChronoUnit.HOURS));
-			userRepository.save(user);
-			// TODO: enviar e-mail com token (fora de escopo agora)
+			PasswordResetDelivery delivery = resetDelivery.getIfAvailable();
+			if (delivery == null) {
+				log.warn("Reset de senha pedido para o usuário {} sem canal de entrega configurado; "
+					+ "um administrador pode emitir o token em POST /api/users/{}/password-reset", user.getId(), user.getId());
+				return;
+			}
+			delivery.deliver(user, passwordResetService.issue(user.getId()));
 		});
 	}
 
-	@Transactional
+	// Token validado antes do hash (barato); a gravação consome o token dentro da transação
 	public void resetPassword(String token, String novaSenha) {
-		User user = userRepository.findByResetToken(token)
-			.orElseThrow(() -> new IllegalArgumentException("Token inválido"));
-		if (user.getResetTokenExpiresAt() == null || user.getResetTokenExpiresAt().isBefore(Instant.now())) {
-			throw new IllegalArgumentException("Token expirado");
-		}
-		user.setSenhaHash(passwordEncoder.encode(novaSenha));
-		user.setResetToken(null);
-		user.setResetTokenExpiresAt(null);
-		userRepository.save(user);
+		passwordResetService.requireValid(token);
+		String senhaHash = passwordHashing.encode(novaSenha);
+		transactionTemplate.executeWithoutResult(status -> {
+			Long userId = passwordResetService.consume(token);
+			User user = userRepository.findById(userId)
+				.orElseThrow(() -> new IllegalArgumentException("Token inválido ou expirado"));
+			user.setSenhaHash(senhaHash);
+			// Troca de senha encerra as sessões abertas com a senha antiga
+			user.bumpSecurityEpoch();
+			userRepository.save(user);
+			securityEpochService.invalidate(user.getGmail());
+			authTokenService.logoutAll(user.getGmail());
+		});
 	}
 }
 
@@ -0,0 +1,19 @@
+package com.hard_lab_pag.Hard_Lab.user;
+
+import java.time.Instant;
+
+// Colunas escalares da listagem; os papéis vêm da máscara (Role.fromMask)
+public interface UserSummaryView {
+	Long getId();
+	String getGmail();
+	String getNome();
+	String getMatricula();
+	String getCurso();
+	String getTelefone();
+	Boolean getAtivo();
+	Integer getRolesMask();
+	Instant getCriadoEm();
+	Instant getAtualizadoEm();
+	Instant getLastLoginAt();
+	Instant getLastSeenAt();
+}
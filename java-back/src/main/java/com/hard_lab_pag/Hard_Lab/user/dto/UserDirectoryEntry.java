@@ -0,0 +1,32 @@
+package com.hard_lab_pag.Hard_Lab.user.dto;
+
+import com.hard_lab_pag.Hard_Lab.user.UserSummaryView;
+
+// Resultado da busca no diretório: só o necessário para escolher um aluno (sem gmail, telefone, papéis ou acessos)
+public class UserDirectoryEntry {
+	private Long id;
+	private String nome;
+	private String matricula;
+	private String curso;
+
+	public UserDirectoryEntry() {}
+
+	public UserDirectoryEntry(UserSummaryView view) {
+		this.id = view.getId();
+		this.nome = view.getNome();
+		this.matricula = view.getMatricula();
+		this.curso = view.getCurso();
+	}
+
+	public Long getId() { return id; }
+	public void setId(Long id) { this.id = id; }
+
+	public String getNome() { return nome; }
+	public void setNome(String nome) { this.nome = nome; }
+
+	public String getMatricula() { return matricula; }
+	public void setMatricula(String matricula) { this.matricula = matricula; }
+
+	public String getCurso() { return curso; }
+	public void setCurso(String curso) { this.curso = curso; }
+}
@@ -0,0 +1,64 @@
+package com.hard_lab_pag.Hard_Lab.user.dto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Resultado da importação CSV, uma linha do relatório por linha de dados do arquivo
+public class UserImportReport {
+
+	public static final String CREATED = "CREATED";
+	public static final String EXISTS = "EXISTS";
+	public static final String DUPLICATE = "DUPLICATE";
+	public static final String INVALID = "INVALID";
+
+	private int created;
+	private int skipped;
+	private boolean truncated;
+	private final List<Row> rows = new ArrayList<>();
+
+	public void add(Row row) {
+		rows.add(row);
+		if (CREATED.equals(row.getStatus())) {
+			created++;
+		} else {
+			skipped++;
+		}
+	}
+
+	public void sortByLine() {
+		rows.sort(Comparator.comparingInt(Row::getLine));
+	}
+
+	public int getCreated() { return created; }
+	public int getSkipped() { return skipped; }
+
+	// Arquivo acima do limite de linhas: o restante não foi lido
+	public boolean isTruncated() { return truncated; }
+	public void setTruncated(boolean truncated) { this.truncated = truncated; }
+
+	public List<Row> getRows() { return rows; }
+
+	public static class Row {
+		private final int line;
+		private final String gmail;
+		private final String status;
+		private final String message;
+		// Só quando a senha foi gerada pela importação (coluna senha vazia)
+		private final String senhaInicial;
+
+		public Row(int line, String gmail, String status, String message, String senhaInicial) {
+			this.line = line;
+			this.gmail = gmail;
+			this.status = status;
+			this.message = message;
+			this.senhaInicial = senhaInicial;
+		}
+
+		public int getLine() { return line; }
+		public String getGmail() { return gmail; }
+		public String getStatus() { return status; }
+		public String getMessage() { return message; }
+		public String getSenhaInicial() { return senhaInicial; }
+	}
+}
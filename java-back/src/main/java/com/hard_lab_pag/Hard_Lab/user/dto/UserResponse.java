@@ -2,6 +2,7 @@ package com.hard_lab_pag.Hard_Lab.user.dto;
 
 import com.hard_lab_pag.Hard_Lab.user.Role;
 import com.hard_lab_pag.Hard_Lab.user.User;
+import com.hard_lab_pag.Hard_Lab.user.UserSummaryView;
 import java.time.Instant;
 import java.util.Set;
 
@@ -16,6 +17,8 @@ public class UserResponse {
 	private Set<Role> roles;
 	private Instant criadoEm;
 	private Instant atualizadoEm;
+	private Instant lastLogin;
+	private Instant lastSeen;
 
 	public UserResponse() {}
 
@@ -30,6 +33,23 @@ public class UserResponse {
 		this.roles = user.getRoles();
 		this.criadoEm = user.getCriadoEm();
 		this.atualizadoEm = user.getAtualizadoEm();
+		this.lastLogin = user.getLastLoginAt();
+		this.lastSeen = user.getLastSeenAt();
+	}
+
+	public UserResponse(UserSummaryView view) {
+		this.id = view.getId();
+		this.gmail = view.getGmail();
+		this.nome = view.getNome();
+		this.matricula = view.getMatricula();
+		this.curso = view.getCurso();
+		this.telefone = view.getTelefone();
+		this.ativo = view.getAtivo();
+		this.roles = Role.fromMask(view.getRolesMask() != null ? view.getRolesMask() : 0);
+		this.criadoEm = view.getCriadoEm();
+		this.atualizadoEm = view.getAtualizadoEm();
+		this.lastLogin = view.getLastLoginAt();
+		this.lastSeen = view.getLastSeenAt();
 	}
 
 	// Getters e Setters
@@ -62,5 +82,10 @@ public class UserResponse {
 
 	public Instant getAtualizadoEm() { return atualizadoEm; }
 	public void setAtualizadoEm(Instant atualizadoEm) { this.atualizadoEm = atualizadoEm; }
-}
 
+	public Instant getLastLogin() { return lastLogin; }
+	public void setLastLogin(Instant lastLogin) { this.lastLogin = lastLogin; }
+
+	public Instant getLastSeen() { return lastSeen; }
+	public void setLastSeen(Instant lastSeen) { this.lastSeen = lastSeen; }
+}
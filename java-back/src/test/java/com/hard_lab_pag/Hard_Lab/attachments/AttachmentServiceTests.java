@@ -0,0 +1,84 @@
+package com.hard_lab_pag.Hard_Lab.attachments;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.hard_lab_pag.Hard_Lab.documents.DocumentIndexRegistry;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+class AttachmentServiceTests {
+
+	private static final String SHA = "b".repeat(64);
+
+	private final AttachmentGrantRepository grantRepository = mock(AttachmentGrantRepository.class);
+	private final DocumentIndexRegistry registry = mock(DocumentIndexRegistry.class);
+	private final EntityManager entityManager = mock(EntityManager.class);
+	private final Query touch = mock(Query.class);
+	private final AttachmentService service = new AttachmentService(mock(LocalBlobStore.class), mock(AttachmentBlobRepository.class),
+		grantRepository, registry, entityManager, mock(PlatformTransactionManager.class));
+	private final UserDetails student = User.withUsername("aluno@gmail.com").password("x").roles("ACADEMICO").build();
+	private final Map<String, Object> payload = Map.of("attachments", List.of(Map.of("sha256", SHA, "name", "relatorio.pdf")));
+
+	@BeforeEach
+	void setUp() {
+		when(registry.all()).thenReturn(List.of());
+		when(entityManager.createNativeQuery(startsWith("UPDATE attachment_blobs"))).thenReturn(touch);
+		when(touch.setParameter(anyInt(), any())).thenReturn(touch);
+	}
+
+	@Test
+	void refusesAHashTheCallerNeitherUploadedNorReads() {
+		IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> service.externalize(payload, student));
+
+		assertEquals("Anexo não encontrado; envie o arquivo novamente", error.getMessage());
+		verify(entityManager, never()).createNativeQuery(anyString());
+	}
+
+	@Test
+	void acceptsAHashTheCallerUploaded() {
+		when(grantRepository.existsById(new AttachmentGrant.Key(SHA, "aluno@gmail.com"))).thenReturn(true);
+		when(touch.executeUpdate()).thenReturn(1);
+
+		assertEquals(payload, service.externalize(payload, student));
+	}
+
+	@Test
+	void aMissingBlobAnswersLikeAForeignOne() {
+		when(grantRepository.existsById(new AttachmentGrant.Key(SHA, "aluno@gmail.com"))).thenReturn(true);
+		when(touch.executeUpdate()).thenReturn(0);
+
+		IllegalArgumentException missing = assertThrows(IllegalArgumentException.class, () -> service.externalize(payload, student));
+		IllegalArgumentException foreign = assertThrows(IllegalArgumentException.class,
+			() -> service.externalize(payload, User.withUsername("outro@gmail.com").password("x").roles("ACADEMICO").build()));
+
+		assertEquals(foreign.getMessage(), missing.getMessage());
+	}
+
+	@Test
+	void professorsMayCiteAnyStoredHash() {
+		when(touch.executeUpdate()).thenReturn(1);
+		UserDetails professor = User.withUsername("prof@gmail.com").password("x").roles("PROFESSOR").build();
+
+		assertEquals(payload, service.externalize(payload, professor));
+		verify(grantRepository, never()).existsById(any());
+	}
+}
@@ -0,0 +1,71 @@
+package com.hard_lab_pag.Hard_Lab.attachments;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+class AttachmentsControllerTests {
+
+	private static final String SHA = "a".repeat(64);
+
+	@TempDir
+	Path root;
+
+	private final AttachmentService attachmentService = mock(AttachmentService.class);
+	private final AttachmentsController controller = new AttachmentsController(attachmentService);
+	private final UserDetails student = User.withUsername("aluno@gmail.com").password("x").roles("ACADEMICO").build();
+	private final AttachmentBlob blob = new AttachmentBlob();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Path file = Files.writeString(root.resolve(SHA), "<script>alert(1)</script>");
+		blob.setSha256(SHA);
+		when(attachmentService.find(SHA)).thenReturn(blob);
+		when(attachmentService.path(SHA)).thenReturn(file);
+	}
+
+	@Test
+	void hidesBlobsTheCallerCannotReachThroughADocument() {
+		blob.setContentType("application/pdf");
+		when(attachmentService.canRead(SHA, student)).thenReturn(false);
+
+		assertEquals(HttpStatus.NOT_FOUND, controller.download(student, SHA, "relatorio.pdf").getStatusCode());
+	}
+
+	@Test
+	void servesUploadedHtmlAsADownload() {
+		blob.setContentType("text/html");
+		when(attachmentService.canRead(SHA, student)).thenReturn(true);
+
+		ResponseEntity<Resource> response = controller.download(student, SHA, "pagina.html");
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertTrue(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION).startsWith("attachment"));
+		assertEquals("nosniff", response.getHeaders().getFirst("X-Content-Type-Options"));
+	}
+
+	@Test
+	void showsImagesAndPdfsInline() {
+		blob.setContentType("image/png");
+		when(attachmentService.canRead(SHA, student)).thenReturn(true);
+
+		ResponseEntity<Resource> response = controller.download(student, SHA, null);
+
+		assertEquals("inline", response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+		assertEquals("nosniff", response.getHeaders().getFirst("X-Content-Type-Options"));
+	}
+}
@@ -0,0 +1,69 @@
+package com.hard_lab_pag.Hard_Lab.attachments;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.hard_lab_pag.Hard_Lab.infra.PayloadTooLargeException;
+
+class LocalBlobStoreTests {
+
+	@TempDir
+	Path root;
+
+	@Test
+	void sameContentIsStoredOnce() throws Exception {
+		LocalBlobStore store = new LocalBlobStore(root.toString());
+		byte[] content = "datasheet".getBytes(StandardCharsets.UTF_8);
+
+		LocalBlobStore.StagedBlob first = store.stage(new ByteArrayInputStream(content), 1024);
+		store.commit(first);
+		LocalBlobStore.StagedBlob second = store.stage(new ByteArrayInputStream(content), 1024);
+		store.commit(second);
+
+		assertEquals(first.sha256(), second.sha256());
+		assertEquals(64, first.sha256().length());
+		assertTrue(Files.exists(store.path(first.sha256())));
+		assertFalse(Files.exists(second.temp()));
+		try (var staged = Files.list(root.resolve("tmp"))) {
+			assertEquals(0, staged.count());
+		}
+	}
+
+	@Test
+	void rejectsOversizedUploadAndCleansUp() throws Exception {
+		LocalBlobStore store = new LocalBlobStore(root.toString());
+
+		assertThrows(PayloadTooLargeException.class, () -> store.stage(new ByteArrayInputStream(new byte[2048]), 1024));
+		try (var staged = Files.list(root.resolve("tmp"))) {
+			assertEquals(0, staged.count());
+		}
+	}
+
+	@Test
+	void rejectsPathsThatAreNotHashes() {
+		LocalBlobStore store = new LocalBlobStore(root.toString());
+
+		assertThrows(IllegalArgumentException.class, () -> store.path("../../etc/passwd"));
+	}
+
+	@Test
+	void parsesInlineDataUrls() {
+		var inline = AttachmentService.inlineContent(Map.of("name", "foto.png", "url", "data:image/png;base64,iVBORw0KGgo="));
+
+		assertEquals("image/png", inline.contentType());
+		assertEquals("iVBORw0KGgo=", inline.base64());
+		assertNull(AttachmentService.inlineContent(Map.of("url", "/api/attachments/abc")));
+	}
+}
@@ -0,0 +1,121 @@
+package com.hard_lab_pag.Hard_Lab.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.hard_lab_pag.Hard_Lab.auth.dto.AuthResponse;
+import com.hard_lab_pag.Hard_Lab.infra.UnauthorizedException;
+import com.hard_lab_pag.Hard_Lab.security.JwtService;
+import com.hard_lab_pag.Hard_Lab.security.SessionRevocationList;
+import com.hard_lab_pag.Hard_Lab.user.Role;
+import com.hard_lab_pag.Hard_Lab.user.User;
+import com.hard_lab_pag.Hard_Lab.user.UserRepository;
+
+class AuthTokenServiceTests {
+
+	private static final String SECRET = "VGhpc0lzQVN1cGVyU2VjcmV0S2V5MTIzNDU2Nzg5MDEyMzQ1Njc4OTA=";
+	private static final String RAW = "refresh-atual";
+
+	private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+	private final RevokedSessionRepository revokedSessionRepository = mock(RevokedSessionRepository.class);
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final SessionRevocationList revocationList = mock(SessionRevocationList.class);
+	private final JwtService jwtService = new JwtService(SECRET, 60_000L, 0, Duration.ofMinutes(5));
+	private final AuthTokenService service = new AuthTokenService(
+		refreshTokenRepository, revokedSessionRepository, userRepository, jwtService, revocationList);
+
+	private RefreshToken current;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "refreshTtl", Duration.ofDays(30));
+		ReflectionTestUtils.setField(service, "accessTokenTtlMs", 60_000L);
+		TransactionSynchronizationManager.initSynchronization();
+
+		current = new RefreshToken();
+		current.setId(1L);
+		current.setSessionId("sessao-1");
+		current.setUserGmail("aluno@gmail.com");
+		current.setExpiresAt(Instant.now().plusSeconds(3600));
+		when(refreshTokenRepository.findByTokenHash(AuthTokenService.hash(RAW))).thenReturn(Optional.of(current));
+
+		User user = new User();
+		user.setGmail("aluno@gmail.com");
+		user.setAtivo(true);
+		user.setRoles(Set.of(Role.ACADEMICO));
+		user.setSecurityEpoch(0L);
+		when(userRepository.findByGmail("aluno@gmail.com")).thenReturn(Optional.of(user));
+	}
+
+	@AfterEach
+	void tearDown() {
+		TransactionSynchronizationManager.clearSynchronization();
+	}
+
+	@Test
+	void rotationIssuesANewRefreshTokenInTheSameSession() {
+		when(refreshTokenRepository.markUsed(eq(1L), any())).thenReturn(1);
+
+		AuthResponse response = service.refresh(RAW);
+
+		ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+		verify(refreshTokenRepository).save(saved.capture());
+		assertEquals("sessao-1", saved.getValue().getSessionId());
+		assertEquals(AuthTokenService.hash(response.getRefreshToken()), saved.getValue().getTokenHash());
+		assertNotEquals(RAW, response.getRefreshToken());
+		assertEquals("sessao-1", jwtService.verify(response.getToken()).sessionId());
+		verify(revokedSessionRepository, never()).upsert(anyString(), any(), any());
+	}
+
+	@Test
+	void reusingAConsumedTokenRevokesTheWholeSession() {
+		when(refreshTokenRepository.markUsed(eq(1L), any())).thenReturn(0);
+
+		assertThrows(UnauthorizedException.class, () -> service.refresh(RAW));
+
+		verify(refreshTokenRepository).revokeSession(eq("sessao-1"), any());
+		verify(revokedSessionRepository).upsert(eq("sessao-1"), any(), any());
+		verify(refreshTokenRepository, never()).save(any());
+		// A lista local só recebe a sessão depois do commit
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			synchronization.afterCommit();
+		}
+		verify(revocationList).add(eq("sessao-1"), any());
+	}
+
+	@Test
+	void revokedOrExpiredTokensAreRejectedWithoutRotation() {
+		current.setRevokedAt(Instant.now());
+
+		assertThrows(UnauthorizedException.class, () -> service.refresh(RAW));
+
+		current.setRevokedAt(null);
+		current.setExpiresAt(Instant.now().minusSeconds(1));
+		assertThrows(UnauthorizedException.class, () -> service.refresh(RAW));
+
+		verify(refreshTokenRepository, never()).markUsed(any(), any());
+		assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+	}
+}
@@ -0,0 +1,108 @@
+package com.hard_lab_pag.Hard_Lab.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+class PasswordResetServiceTests {
+
+	// Tabela em memória com a mesma semântica das consultas do repositório
+	private final Map<String, PasswordResetToken> table = new HashMap<>();
+	private final PasswordResetTokenRepository repository = mock(PasswordResetTokenRepository.class);
+
+	PasswordResetServiceTests() {
+		when(repository.save(any())).thenAnswer(inv -> {
+			PasswordResetToken token = inv.getArgument(0);
+			table.put(token.getTokenHash(), token);
+			return token;
+		});
+		when(repository.findById(anyString())).thenAnswer(inv -> Optional.ofNullable(table.get(inv.<String>getArgument(0))));
+		when(repository.consume(anyString(), any())).thenAnswer(inv -> {
+			PasswordResetToken token = table.get(inv.<String>getArgument(0));
+			if (token == null || !token.getExpiresAt().isAfter(inv.getArgument(1))) {
+				return 0;
+			}
+			table.remove(token.getTokenHash());
+			return 1;
+		});
+		when(repository.deleteByUserId(anyLong())).thenAnswer(inv -> {
+			Long userId = inv.getArgument(0);
+			int before = table.size();
+			table.values().removeIf(token -> token.getUserId().equals(userId));
+			return before - table.size();
+		});
+	}
+
+	@Test
+	void databaseKeepsOnlyTheHashOfTheIssuedToken() {
+		PasswordResetService.Issued issued = service(Duration.ofHours(1)).issue(7L);
+
+		assertFalse(table.containsKey(issued.token()));
+		assertTrue(table.containsKey(TokenDigests.sha256Hex(issued.token())));
+		assertTrue(issued.expiresAt().isAfter(Instant.now()));
+	}
+
+	@Test
+	void consumeReturnsTheOwnerOfTheToken() {
+		PasswordResetService service = service(Duration.ofHours(1));
+		PasswordResetService.Issued issued = service.issue(7L);
+
+		assertEquals(7L, service.requireValid(issued.token()));
+		assertEquals(7L, service.consume(issued.token()));
+	}
+
+	@Test
+	void tokenIsSingleUse() {
+		PasswordResetService service = service(Duration.ofHours(1));
+		PasswordResetService.Issued issued = service.issue(7L);
+		service.consume(issued.token());
+
+		assertThrows(IllegalArgumentException.class, () -> service.consume(issued.token()));
+		assertThrows(IllegalArgumentException.class, () -> service.requireValid(issued.token()));
+	}
+
+	@Test
+	void newRequestInvalidatesThePreviousToken() {
+		PasswordResetService service = service(Duration.ofHours(1));
+		PasswordResetService.Issued first = service.issue(7L);
+		PasswordResetService.Issued second = service.issue(7L);
+
+		assertThrows(IllegalArgumentException.class, () -> service.consume(first.token()));
+		assertEquals(7L, service.consume(second.token()));
+	}
+
+	@Test
+	void expiredTokenIsRejected() {
+		PasswordResetService service = service(Duration.ofSeconds(-1));
+		PasswordResetService.Issued issued = service.issue(7L);
+
+		assertThrows(IllegalArgumentException.class, () -> service.requireValid(issued.token()));
+		assertThrows(IllegalArgumentException.class, () -> service.consume(issued.token()));
+	}
+
+	@Test
+	void blankOrUnknownTokenIsRejected() {
+		PasswordResetService service = service(Duration.ofHours(1));
+
+		assertThrows(IllegalArgumentException.class, () -> service.requireValid(" "));
+		assertThrows(IllegalArgumentException.class, () -> service.consume(TokenDigests.newToken()));
+	}
+
+	private PasswordResetService service(Duration ttl) {
+		return new PasswordResetService(repository, ttl);
+	}
+}
@@ -0,0 +1,48 @@
+package com.hard_lab_pag.Hard_Lab.documents;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.hard_lab_pag.Hard_Lab.orders.LabOrder;
+
+class DocumentAccessTests {
+
+	private final UserDetails student = User.withUsername("aluno@gmail.com").password("x").roles("ACADEMICO").build();
+	private final UserDetails admin = User.withUsername("admin@gmail.com").password("x").roles("ADMIN").build();
+
+	@Test
+	void studentsCreateOnlyDraftsOrPendingRecords() {
+		assertDoesNotThrow(() -> DocumentAccess.requireCreatable(Map.of("status", "draft", "approvals", List.of()), student));
+		assertDoesNotThrow(() -> DocumentAccess.requireCreatable(Map.of("title", "Sem status"), student));
+		assertThrows(AccessDeniedException.class, () -> DocumentAccess.requireCreatable(Map.of("status", "approved"), student));
+		assertThrows(AccessDeniedException.class,
+			() -> DocumentAccess.requireCreatable(Map.of("approvals", List.of(Map.of("status", "approved"))), student));
+	}
+
+	@Test
+	void adminsMayCreateInAnyState() {
+		assertDoesNotThrow(() -> DocumentAccess.requireCreatable(Map.of("status", "approved"), admin));
+	}
+
+	@Test
+	void onlyTheAuthorAndPrivilegedUsersViewARecord() {
+		LabOrder order = new LabOrder();
+		order.setCreatedBy("aluno@gmail.com");
+		UserDetails other = User.withUsername("outro@gmail.com").password("x").roles("ACADEMICO").build();
+
+		assertTrue(DocumentAccess.canView(order, student));
+		assertTrue(DocumentAccess.canView(order, admin));
+		assertFalse(DocumentAccess.canView(order, other));
+		assertFalse(DocumentAccess.canView(order, null));
+	}
+}
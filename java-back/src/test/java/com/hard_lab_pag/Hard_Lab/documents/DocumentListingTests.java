@@ -0,0 +1,87 @@
+package com.hard_lab_pag.Hard_Lab.documents;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.hard_lab_pag.Hard_Lab.infra.KeysetCursor;
+import com.hard_lab_pag.Hard_Lab.infra.KeysetPage;
+import com.hard_lab_pag.Hard_Lab.orders.LabOrder;
+import com.hard_lab_pag.Hard_Lab.orders.OrderRepository;
+
+class DocumentListingTests {
+
+	private final OrderRepository repository = mock(OrderRepository.class);
+
+	@Test
+	void studentsOnlySeeTheirOwnRecords() {
+		List<LabOrder> own = List.of(order(1L, LocalDateTime.of(2026, 3, 1, 10, 0)));
+		when(repository.findAllOwned("aluno@gmail.com")).thenReturn(own);
+
+		assertEquals(own, DocumentListing.visibleTo(repository, user("aluno@gmail.com", "ACADEMICO")));
+		verify(repository, never()).findAll();
+	}
+
+	@Test
+	void professorsSeeEveryRecord() {
+		List<LabOrder> all = List.of(order(1L, LocalDateTime.of(2026, 3, 1, 10, 0)), order(2L, LocalDateTime.of(2026, 3, 2, 10, 0)));
+		when(repository.findAll()).thenReturn(all);
+
+		assertEquals(all, DocumentListing.visibleTo(repository, user("prof@gmail.com", "PROFESSOR")));
+		verify(repository, never()).findAllOwned(any());
+	}
+
+	@Test
+	void anonymousCallersAreRejected() {
+		assertThrows(AccessDeniedException.class, () -> DocumentListing.visibleTo(repository, null));
+	}
+
+	@Test
+	void ownedPageReturnsACursorThatResumesAfterTheLastItem() {
+		LabOrder newest = order(3L, LocalDateTime.of(2026, 3, 3, 10, 0));
+		LabOrder middle = order(2L, LocalDateTime.of(2026, 3, 2, 10, 0));
+		LabOrder oldest = order(1L, LocalDateTime.of(2026, 3, 1, 10, 0));
+		when(repository.findOwnedFirstPage(eq("aluno@gmail.com"), any(Pageable.class))).thenReturn(List.of(newest, middle, oldest));
+
+		KeysetPage<LabOrder> first = DocumentListing.ownedPage(repository, "aluno@gmail.com", null, 2);
+
+		assertEquals(List.of(newest, middle), first.getItems());
+		KeysetCursor cursor = KeysetCursor.decode(first.getNextCursor());
+		assertEquals(middle.getCreatedAt(), cursor.getCreatedAt());
+		assertEquals(2L, cursor.getId());
+
+		when(repository.findOwnedAfter(eq("aluno@gmail.com"), eq(middle.getCreatedAt()), eq(2L), any(Pageable.class))).thenReturn(List.of(oldest));
+
+		KeysetPage<LabOrder> second = DocumentListing.ownedPage(repository, "aluno@gmail.com", first.getNextCursor(), 2);
+
+		assertEquals(List.of(oldest), second.getItems());
+		assertNull(second.getNextCursor());
+	}
+
+	private static LabOrder order(Long id, LocalDateTime createdAt) {
+		LabOrder order = new LabOrder();
+		order.setId(id);
+		order.setCreatedBy("aluno@gmail.com");
+		order.setCreatedAt(createdAt);
+		return order;
+	}
+
+	private static UserDetails user(String gmail, String role) {
+		return User.withUsername(gmail).password("x").roles(role).build();
+	}
+}
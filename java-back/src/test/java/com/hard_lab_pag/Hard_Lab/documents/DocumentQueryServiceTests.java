@@ -0,0 +1,93 @@
+package com.hard_lab_pag.Hard_Lab.documents;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+
+import com.hard_lab_pag.Hard_Lab.documents.DocumentIndexRegistry.DocumentType;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentIndexRegistry.IndexedField;
+import com.hard_lab_pag.Hard_Lab.orders.LabOrder;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+class DocumentQueryServiceTests {
+
+	private final DocumentIndexRegistry registry = mock(DocumentIndexRegistry.class);
+	private final JsonPathIndexManager indexManager = mock(JsonPathIndexManager.class);
+	private final EntityManager entityManager = mock(EntityManager.class);
+	private final Query nativeQuery = mock(Query.class);
+	private final DocumentQueryService service = new DocumentQueryService(registry, indexManager, entityManager);
+
+	@BeforeEach
+	void setUp() {
+		Map<String, IndexedField> fields = new LinkedHashMap<>();
+		for (IndexedPath path : LabOrder.class.getAnnotationsByType(IndexedPath.class)) {
+			fields.put(path.field(), new IndexedField("lab_orders", path));
+		}
+		when(registry.get(LabOrder.class)).thenReturn(new DocumentType(LabOrder.class, "lab_orders", fields));
+		when(indexManager.isReady(any())).thenReturn(true);
+		when(entityManager.createNativeQuery(anyString(), eq(LabOrder.class))).thenReturn(nativeQuery);
+		when(nativeQuery.getResultList()).thenReturn(List.of());
+	}
+
+	@Test
+	void rejectsParamsThatAreNotIndexedFields() {
+		IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+			() -> service.find(DocumentQuery.fromParams(LabOrder.class, Map.of("page", "2"))));
+
+		assertTrue(error.getMessage().contains("page"));
+		verify(entityManager, never()).createNativeQuery(anyString(), eq(LabOrder.class));
+	}
+
+	@Test
+	void rejectsFieldsWhoseGeneratedColumnIsNotReady() {
+		when(indexManager.isReady(any())).thenReturn(false);
+
+		assertThrows(IllegalArgumentException.class,
+			() -> service.find(DocumentQuery.fromParams(LabOrder.class, Map.of("sort", "-total"))));
+		verify(entityManager, never()).createNativeQuery(anyString(), eq(LabOrder.class));
+	}
+
+	@Test
+	void studentsOnlyQueryTheirOwnRecords() {
+		DocumentQuery<LabOrder> query = DocumentQuery.fromParams(LabOrder.class, Map.of("status", "approved"))
+			.visibleTo(User.withUsername("aluno@gmail.com").password("x").roles("ACADEMICO").build());
+
+		service.find(query);
+
+		verify(entityManager).createNativeQuery(
+			"SELECT * FROM `lab_orders` WHERE `created_by` = ? AND `doc_status` = ? ORDER BY `created_at` DESC, `id` DESC LIMIT ? OFFSET ?",
+			LabOrder.class);
+		verify(nativeQuery).setParameter(1, "aluno@gmail.com");
+		verify(nativeQuery).setParameter(2, "approved");
+	}
+
+	@Test
+	void professorsQueryEveryRecord() {
+		DocumentQuery<LabOrder> query = DocumentQuery.fromParams(LabOrder.class, Map.of("status", "approved"))
+			.visibleTo(User.withUsername("prof@gmail.com").password("x").roles("PROFESSOR").build());
+
+		assertNull(query.getOwner());
+		service.find(query);
+
+		verify(entityManager).createNativeQuery(
+			"SELECT * FROM `lab_orders` WHERE `doc_status` = ? ORDER BY `created_at` DESC, `id` DESC LIMIT ? OFFSET ?",
+			LabOrder.class);
+	}
+}
@@ -0,0 +1,42 @@
+package com.hard_lab_pag.Hard_Lab.documents;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.hard_lab_pag.Hard_Lab.orders.LabOrder;
+
+class DocumentQueryTests {
+
+	@Test
+	void parsesFiltersSortAndLimitFromParams() {
+		Map<String, String> params = new LinkedHashMap<>();
+		params.put("status", "approved");
+		params.put("total.gte", "100");
+		params.put("priority.in", "high,critical");
+		params.put("sort", "-total");
+		params.put("limit", "10000");
+
+		DocumentQuery<LabOrder> query = DocumentQuery.fromParams(LabOrder.class, params);
+
+		assertEquals(3, query.getFilters().size());
+		assertEquals(new DocumentQuery.Filter("status", DocumentQuery.Op.EQ, List.of("approved")), query.getFilters().get(0));
+		assertEquals(DocumentQuery.Op.GTE, query.getFilters().get(1).op());
+		assertEquals(List.of("high", "critical"), query.getFilters().get(2).values());
+		assertEquals("total", query.getSortField());
+		assertTrue(query.isDescending());
+		assertEquals(500, query.getLimit());
+	}
+
+	@Test
+	void rejectsUnknownOperator() {
+		assertThrows(IllegalArgumentException.class,
+			() -> DocumentQuery.fromParams(LabOrder.class, Map.of("total.between", "1")));
+	}
+}
@@ -0,0 +1,88 @@
+package com.hard_lab_pag.Hard_Lab.documents;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.hard_lab_pag.Hard_Lab.documents.DocumentIndexRegistry.DocumentType;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentIndexRegistry.IndexedField;
+import com.hard_lab_pag.Hard_Lab.infra.LeaseLockService;
+import com.hard_lab_pag.Hard_Lab.orders.LabOrder;
+
+class JsonPathIndexManagerTests {
+
+	private final DocumentIndexRegistry registry = mock(DocumentIndexRegistry.class);
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final LeaseLockService leaseLockService = mock(LeaseLockService.class);
+	private final JsonPathIndexManager manager = new JsonPathIndexManager(registry, jdbcTemplate, leaseLockService);
+	private final Map<String, IndexedField> fields = new LinkedHashMap<>();
+
+	@BeforeEach
+	void setUp() {
+		for (IndexedPath path : LabOrder.class.getAnnotationsByType(IndexedPath.class)) {
+			fields.put(path.field(), new IndexedField("lab_orders", path));
+		}
+		when(registry.all()).thenReturn(List.of(new DocumentType(LabOrder.class, "lab_orders", fields)));
+		ReflectionTestUtils.setField(manager, "manage", true);
+		ReflectionTestUtils.setField(manager, "lease", Duration.ofMinutes(10));
+	}
+
+	@Test
+	void queriesOnlyReadTheCachedReadiness() {
+		assertFalse(manager.isReady(fields.get("status")));
+
+		verifyNoInteractions(jdbcTemplate);
+	}
+
+	@Test
+	void instanceWithoutTheLeasePicksUpColumnsAlreadyInTheSchema() {
+		IndexedField status = fields.get("status");
+		when(leaseLockService.runExclusively(eq("document-indexes"), any(), any())).thenReturn(false);
+		schemaHas(status);
+
+		manager.run(null);
+
+		assertTrue(manager.isReady(status));
+		assertFalse(manager.isReady(fields.get("priority")));
+	}
+
+	@Test
+	void recheckStopsQueryingOnceEveryFieldIsReady() {
+		schemaHas(fields.values().toArray(IndexedField[]::new));
+
+		manager.recheck();
+		manager.recheck();
+
+		fields.values().forEach(field -> assertTrue(manager.isReady(field)));
+		verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(String.class), eq("lab_orders"));
+	}
+
+	private void schemaHas(IndexedField... ready) {
+		List<Map<String, Object>> columns = new ArrayList<>();
+		List<String> indexes = new ArrayList<>();
+		for (IndexedField field : ready) {
+			columns.add(Map.of("COLUMN_NAME", field.getColumn(), "COLUMN_COMMENT", field.signature()));
+			indexes.add(field.getIndexName());
+		}
+		when(jdbcTemplate.queryForList(anyString(), eq("lab_orders"), anyString())).thenReturn(columns);
+		when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("lab_orders"))).thenReturn(indexes);
+	}
+}
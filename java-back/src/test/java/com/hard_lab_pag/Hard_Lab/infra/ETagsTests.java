@@ -0,0 +1,44 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+class ETagsTests {
+
+	@Test
+	void ifMatchRequiresCurrentVersion() {
+		assertDoesNotThrow(() -> ETags.requireMatch(null, 3L));
+		assertDoesNotThrow(() -> ETags.requireMatch("\"3\"", 3L));
+		assertDoesNotThrow(() -> ETags.requireMatch("\"1\", \"3\"", 3L));
+		assertThrows(PreconditionFailedException.class, () -> ETags.requireMatch("\"2\"", 3L));
+		assertThrows(PreconditionFailedException.class, () -> ETags.requireMatch("W/\"3\"", 3L));
+	}
+
+	@Test
+	void ifNoneMatchReturnsNotModified() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("If-None-Match", "W/\"5\"");
+
+		var response = ETags.respond(new ServletWebRequest(request), 5L, "body");
+
+		assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+		assertEquals("\"5\"", response.getHeaders().getETag());
+	}
+
+	@Test
+	void staleIfNoneMatchReturnsBody() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("If-None-Match", "\"4\"");
+
+		var response = ETags.respond(new ServletWebRequest(request), 5L, "body");
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals("body", response.getBody());
+	}
+}
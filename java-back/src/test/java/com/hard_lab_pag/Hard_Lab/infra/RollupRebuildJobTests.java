@@ -0,0 +1,78 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class RollupRebuildJobTests {
+
+	private static final String NAME = "spending-rollups";
+
+	private RollupRebuildStateRepository stateRepository;
+	private RebuildableRollup rollup;
+	private RollupRebuildJob job;
+
+	@BeforeEach
+	void setUp() {
+		stateRepository = mock(RollupRebuildStateRepository.class);
+		rollup = mock(RebuildableRollup.class);
+		when(rollup.rebuildName()).thenReturn(NAME);
+		job = new RollupRebuildJob(List.of(rollup), stateRepository, mock(LeaseLockService.class), mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(job, "chunkSize", 2);
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		job.shutdown();
+	}
+
+	@Test
+	void clearsThenRecountsChunkByChunkAndFinishes() {
+		when(stateRepository.findWatermarkForUpdate(NAME)).thenReturn(RollupRebuildState.CLEARING, RollupRebuildState.CLEARING, 0L, 2L, 3L);
+		when(rollup.clearChunk(2)).thenReturn(2, 0);
+		when(rollup.recountAfter(anyLong(), anyInt())).thenReturn(
+			new RebuildableRollup.Chunk(2L, 2),
+			new RebuildableRollup.Chunk(3L, 1),
+			null
+		);
+
+		assertEquals(3, job.resume(rollup, () -> true));
+
+		verify(stateRepository).insertIfAbsent(NAME);
+		verify(stateRepository).setWatermark(NAME, 0L);
+		verify(stateRepository).setWatermark(NAME, 2L);
+		verify(stateRepository).setWatermark(NAME, 3L);
+		verify(stateRepository).finish(any(), any());
+	}
+
+	@Test
+	void stopsWhenTheLeaseCannotBeRenewed() {
+		assertEquals(0, job.resume(rollup, () -> false));
+
+		verify(stateRepository, never()).findWatermarkForUpdate(any());
+	}
+
+	@Test
+	void liveWritesAheadOfTheWatermarkAreLeftToTheRebuild() {
+		assertFalse(RollupRebuildGuard.leftToRebuild(null, 150L));
+		assertTrue(RollupRebuildGuard.leftToRebuild(100L, 150L));
+		assertFalse(RollupRebuildGuard.leftToRebuild(100L, 50L));
+		// Rebuild ainda esvaziando o agregado: nenhuma escrita ao vivo conta
+		assertTrue(RollupRebuildGuard.leftToRebuild(RollupRebuildState.CLEARING, 1L));
+	}
+}
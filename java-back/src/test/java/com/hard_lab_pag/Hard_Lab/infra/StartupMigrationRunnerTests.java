@@ -0,0 +1,95 @@
+package com.hard_lab_pag.Hard_Lab.infra;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class StartupMigrationRunnerTests {
+
+	private static final String NAME = "user-roles";
+
+	private MigrationCheckpointRepository checkpointRepository;
+	private LeaseLockService leaseLockService;
+	private StartupMigration migration;
+	private StartupMigrationRunner runner;
+
+	@BeforeEach
+	void setUp() {
+		checkpointRepository = mock(MigrationCheckpointRepository.class);
+		leaseLockService = mock(LeaseLockService.class);
+		migration = mock(StartupMigration.class);
+		when(migration.migrationName()).thenReturn(NAME);
+		runner = new StartupMigrationRunner(List.of(migration), checkpointRepository, leaseLockService, mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(runner, "chunkSize", 2);
+		ReflectionTestUtils.setField(runner, "lease", Duration.ofMinutes(5));
+		ReflectionTestUtils.setField(runner, "waitInterval", Duration.ofMillis(1));
+	}
+
+	@Test
+	void resumesFromTheCheckpointAndCompletes() {
+		when(checkpointRepository.findPendingLastIdForUpdate(NAME)).thenReturn(4L, 6L, 7L);
+		when(migration.copyAfter(anyLong(), eq(2))).thenReturn(
+			new StartupMigration.Chunk(6L, 2),
+			new StartupMigration.Chunk(7L, 1),
+			null
+		);
+
+		assertEquals(3, runner.resume(migration, () -> true));
+
+		verify(migration).copyAfter(4L, 2);
+		verify(checkpointRepository).advance(NAME, 6L);
+		verify(checkpointRepository).advance(NAME, 7L);
+		verify(checkpointRepository).complete(eq(NAME), any());
+	}
+
+	@Test
+	void completedMigrationDoesNotRunAgain() {
+		when(checkpointRepository.findById(NAME)).thenReturn(Optional.of(checkpoint(Instant.now())));
+
+		runner.afterSingletonsInstantiated();
+
+		verify(migration, never()).hasLegacyData();
+		verify(leaseLockService, never()).runExclusively(any(), any(), any());
+	}
+
+	@Test
+	void waitsWhileAnotherInstanceHoldsTheLease() {
+		when(migration.hasLegacyData()).thenReturn(true);
+		when(checkpointRepository.findById(NAME)).thenReturn(
+			Optional.empty(),
+			Optional.of(checkpoint(null)),
+			Optional.of(checkpoint(null)),
+			Optional.of(checkpoint(Instant.now()))
+		);
+		when(leaseLockService.runExclusively(eq(StartupMigrationRunner.LEASE_PREFIX + NAME), any(), any())).thenReturn(false);
+
+		runner.afterSingletonsInstantiated();
+
+		verify(leaseLockService, times(2)).runExclusively(any(), any(), any());
+		verify(migration, never()).copyAfter(anyLong(), anyInt());
+	}
+
+	private static MigrationCheckpoint checkpoint(Instant completedAt) {
+		MigrationCheckpoint checkpoint = new MigrationCheckpoint();
+		checkpoint.setName(NAME);
+		checkpoint.setCompletedAt(completedAt);
+		return checkpoint;
+	}
+}
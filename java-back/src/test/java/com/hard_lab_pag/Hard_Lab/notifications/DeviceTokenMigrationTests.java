@@ -0,0 +1,68 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.hard_lab_pag.Hard_Lab.infra.StartupMigration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+class DeviceTokenMigrationTests {
+
+	private EntityManager entityManager;
+	private Query query;
+	private final List<String> statements = new ArrayList<>();
+	private DeviceTokenMigration migration;
+
+	@BeforeEach
+	void setUp() {
+		entityManager = mock(EntityManager.class);
+		query = mock(Query.class);
+		when(entityManager.createNativeQuery(anyString())).thenAnswer(invocation -> {
+			statements.add(invocation.getArgument(0));
+			return query;
+		});
+		when(query.setParameter(anyInt(), any())).thenReturn(query);
+		migration = new DeviceTokenMigration(entityManager);
+	}
+
+	@Test
+	void copiesTheChunkAfterTheCheckpointAndLeavesTheLegacyColumn() {
+		when(query.getResultList()).thenReturn(List.of(5L, 9L, 12L));
+
+		StartupMigration.Chunk chunk = migration.copyAfter(4L, 3);
+
+		assertEquals(new StartupMigration.Chunk(12L, 3), chunk);
+		verify(query).setParameter(1, 4L);
+		verify(query).setParameter(1, 5L);
+		verify(query).setParameter(2, 12L);
+		assertEquals(2, statements.size());
+		assertTrue(statements.get(0).contains("id > ?1"));
+		assertTrue(statements.get(1).startsWith("INSERT INTO device_tokens"));
+		// Cópia apenas: instâncias antigas e um rollback ainda leem users.device_token
+		assertFalse(statements.stream().anyMatch(sql -> sql.contains("UPDATE users") || sql.contains("DELETE")));
+	}
+
+	@Test
+	void nothingLeftEndsTheMigration() {
+		when(query.getResultList()).thenReturn(List.of());
+
+		assertNull(migration.copyAfter(12L, 500));
+		assertEquals(1, statements.size());
+	}
+}
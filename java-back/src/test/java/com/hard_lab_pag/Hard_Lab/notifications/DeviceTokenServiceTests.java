@@ -0,0 +1,63 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.hard_lab_pag.Hard_Lab.user.UserRepository;
+
+class DeviceTokenServiceTests {
+
+	private final DeviceTokenRepository repository = mock(DeviceTokenRepository.class);
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final DeviceTokenService service = new DeviceTokenService(repository, userRepository);
+
+	{
+		ReflectionTestUtils.setField(service, "maxPerUser", 2);
+	}
+
+	@Test
+	void trimDeletesOnlyWhatIsBeyondTheLimitNewestFirst() {
+		// "b" e "c" foram vistos no mesmo instante; a ordem (last_seen_at, hash) já veio desempatada do banco
+		when(repository.findHashesNewestFirst(7L)).thenReturn(List.of("a", "c", "b", "old"));
+		when(repository.deleteByHashes(List.of("b", "old"))).thenReturn(2);
+
+		assertEquals(2, service.trimToMostRecent(7L));
+
+		verify(repository).deleteByHashes(List.of("b", "old"));
+	}
+
+	@Test
+	void trimWithinTheLimitDeletesNothing() {
+		when(repository.findHashesNewestFirst(7L)).thenReturn(List.of("a", "b"));
+
+		assertEquals(0, service.trimToMostRecent(7L));
+
+		verify(repository, never()).deleteByHashes(anyCollection());
+	}
+
+	@Test
+	void registerUpsertsByHashThenTrims() {
+		when(userRepository.findIdByGmail("ana@gmail.com")).thenReturn(Optional.of(7L));
+		when(repository.findHashesNewestFirst(7L)).thenReturn(List.of(DeviceTokenService.hash("tok")));
+
+		service.register("ana@gmail.com", "tok");
+
+		InOrder order = inOrder(repository);
+		order.verify(repository).upsert(eq(DeviceTokenService.hash("tok")), eq("tok"), eq(7L), any());
+		order.verify(repository).findHashesNewestFirst(7L);
+	}
+}
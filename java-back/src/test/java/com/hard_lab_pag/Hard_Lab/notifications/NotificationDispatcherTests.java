@@ -0,0 +1,170 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.hard_lab_pag.Hard_Lab.notifications.PushProvider.PushMessage;
+import com.hard_lab_pag.Hard_Lab.notifications.PushProvider.PushResult;
+
+class NotificationDispatcherTests {
+
+	private final NotificationOutboxRepository outboxRepository = mock(NotificationOutboxRepository.class);
+	private final DeviceTokenService deviceTokenService = mock(DeviceTokenService.class);
+	private NotificationDispatcher dispatcher;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		if (dispatcher != null) {
+			dispatcher.shutdown();
+		}
+	}
+
+	@Test
+	void backoffDoublesUntilTheCap() {
+		Duration base = Duration.ofSeconds(10);
+		Duration max = Duration.ofMinutes(5);
+
+		assertEquals(Duration.ofSeconds(10), NotificationDispatcher.backoff(1, base, max));
+		assertEquals(Duration.ofSeconds(40), NotificationDispatcher.backoff(3, base, max));
+		assertEquals(max, NotificationDispatcher.backoff(6, base, max));
+		assertEquals(max, NotificationDispatcher.backoff(1000, base, max));
+	}
+
+	@Test
+	void appliesEachOutcomeOfTheBatch() {
+		dispatcher = newDispatcher(messages -> messages.stream().map(m -> switch (m.deviceToken()) {
+			case "token-bia" -> PushResult.retry(m, "timeout");
+			case "token-caio", "token-ana-antigo" -> PushResult.invalidToken(m);
+			default -> PushResult.delivered(m);
+		}).toList(), 100, 500);
+		when(deviceTokenService.tokensFor(anyCollection())).thenReturn(Map.of(
+			"ana@gmail.com", List.of("token-ana", "token-ana-antigo"),
+			"bia@gmail.com", List.of("token-bia"),
+			"caio@gmail.com", List.of("token-caio")
+		));
+
+		dispatcher.deliver(List.of(
+			event(1L, "ana@gmail.com", 0),
+			event(2L, "bia@gmail.com", 2),
+			event(3L, "caio@gmail.com", 0),
+			event(4L, "sem-dispositivo@gmail.com", 0)
+		));
+
+		verify(outboxRepository).deleteDelivered(List.of(1L, 3L, 4L));
+		verify(outboxRepository).reschedule(eq(2L), eq(NotificationOutbox.STATUS_PENDING), eq(3), any(), eq("timeout"));
+		verify(deviceTokenService).invalidate(Set.of("token-caio", "token-ana-antigo"));
+	}
+
+	@Test
+	void retriesOnlyWhenNoDeviceReceivedTheEvent() {
+		PushMessage phone = new PushMessage(1L, "token-phone", "t", null, null);
+		PushMessage tablet = new PushMessage(1L, "token-tablet", "t", null, null);
+
+		assertNull(NotificationDispatcher.retryError(List.of(PushResult.delivered(phone), PushResult.retry(tablet, "timeout")), 2));
+		assertNull(NotificationDispatcher.retryError(List.of(PushResult.invalidToken(phone), PushResult.invalidToken(tablet)), 2));
+		assertNull(NotificationDispatcher.retryError(List.of(), 0));
+		assertEquals("timeout", NotificationDispatcher.retryError(List.of(PushResult.invalidToken(phone), PushResult.retry(tablet, "timeout")), 2));
+		assertNotNull(NotificationDispatcher.retryError(List.of(PushResult.invalidToken(phone)), 2));
+	}
+
+	@Test
+	void marksAsFailedAfterMaxAttemptsAndRetriesWhenTheProviderThrows() {
+		dispatcher = newDispatcher(messages -> {
+			throw new IllegalStateException("provedor fora do ar");
+		}, 100, 500);
+		when(deviceTokenService.tokensFor(anyCollection())).thenReturn(Map.of(
+			"ana@gmail.com", List.of("token-ana"),
+			"bia@gmail.com", List.of("token-bia")
+		));
+
+		dispatcher.deliver(List.of(event(1L, "ana@gmail.com", 0), event(2L, "bia@gmail.com", 7)));
+
+		verify(outboxRepository).reschedule(eq(1L), eq(NotificationOutbox.STATUS_PENDING), eq(1), any(), anyString());
+		verify(outboxRepository).reschedule(eq(2L), eq(NotificationOutbox.STATUS_FAILED), eq(8), any(), anyString());
+		verify(outboxRepository, never()).deleteDelivered(anyCollection());
+	}
+
+	@Test
+	void stopsClaimingWhenTheInFlightWindowIsFull() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch sent = new CountDownLatch(2);
+		dispatcher = newDispatcher(messages -> {
+			await(release);
+			sent.countDown();
+			return messages.stream().map(PushResult::delivered).toList();
+		}, 2, 3);
+		AtomicLong ids = new AtomicLong();
+		when(outboxRepository.lockDue(any(), anyInt())).thenAnswer(invocation -> {
+			int limit = invocation.getArgument(1);
+			List<NotificationOutbox> due = new ArrayList<>();
+			for (int i = 0; i < limit; i++) {
+				due.add(event(ids.incrementAndGet(), "ana@gmail.com", 0));
+			}
+			return due;
+		});
+		when(deviceTokenService.tokensFor(anyCollection())).thenReturn(Map.of("ana@gmail.com", List.of("token-ana")));
+
+		// Lotes de 2 com janela de 3: o segundo lote só leva 1 e o dreno para
+		assertEquals(3, dispatcher.drain());
+		assertEquals(0, dispatcher.availableWindow());
+		assertEquals(0, dispatcher.drain());
+
+		release.countDown();
+		assertTrue(sent.await(5, TimeUnit.SECONDS));
+		dispatcher.shutdown();
+		assertEquals(3, dispatcher.availableWindow());
+	}
+
+	private NotificationDispatcher newDispatcher(PushProvider provider, int batchSize, int maxInFlight) {
+		NotificationDispatcher created = new NotificationDispatcher(outboxRepository, deviceTokenService, provider,
+			mock(PlatformTransactionManager.class), batchSize, maxInFlight, 1);
+		ReflectionTestUtils.setField(created, "claimTimeout", Duration.ofMinutes(2));
+		ReflectionTestUtils.setField(created, "backoffBase", Duration.ofSeconds(10));
+		ReflectionTestUtils.setField(created, "backoffMax", Duration.ofHours(1));
+		ReflectionTestUtils.setField(created, "maxAttempts", 8);
+		return created;
+	}
+
+	private static NotificationOutbox event(Long id, String recipient, int attempts) {
+		NotificationOutbox event = new NotificationOutbox();
+		event.setId(id);
+		event.setRecipientGmail(recipient);
+		event.setType("order.status");
+		event.setTitle("Pedido #" + id);
+		event.setAttempts(attempts);
+		return event;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
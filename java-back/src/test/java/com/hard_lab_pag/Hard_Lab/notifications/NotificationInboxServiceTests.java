@@ -0,0 +1,105 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.hard_lab_pag.Hard_Lab.infra.KeysetCursor;
+import com.hard_lab_pag.Hard_Lab.infra.KeysetPage;
+import com.hard_lab_pag.Hard_Lab.infra.LeaseLockService;
+import com.hard_lab_pag.Hard_Lab.user.UserRepository;
+
+class NotificationInboxServiceTests {
+
+	private NotificationEntryRepository entryRepository;
+	private NotificationCounterRepository counterRepository;
+	private NotificationInboxService service;
+
+	@BeforeEach
+	void setUp() {
+		entryRepository = mock(NotificationEntryRepository.class);
+		counterRepository = mock(NotificationCounterRepository.class);
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findIdByGmail("ana@gmail.com")).thenReturn(Optional.of(7L));
+		service = new NotificationInboxService(entryRepository, counterRepository, userRepository);
+	}
+
+	@Test
+	void counterMovesOnlyByTheRowsThatActuallyChanged() {
+		when(entryRepository.markRead(eq(7L), anyList(), any())).thenReturn(2, 0);
+
+		assertEquals(2, service.markRead("ana@gmail.com", List.of(1L, 2L, 3L)));
+		assertEquals(0, service.markRead("ana@gmail.com", List.of(1L, 2L, 3L)));
+
+		verify(counterRepository).add(7L, -2);
+		verify(counterRepository, never()).add(7L, 0);
+	}
+
+	@Test
+	void pageCursorPointsAtTheLastReturnedEntry() {
+		List<NotificationEntry> rows = new ArrayList<>();
+		LocalDateTime now = LocalDateTime.of(2025, 3, 1, 10, 0);
+		for (long id = 5; id >= 1; id--) {
+			rows.add(entry(id, now.minusMinutes(5 - id)));
+		}
+		when(entryRepository.findFirstPage(eq(7L), any(Pageable.class))).thenReturn(rows);
+
+		KeysetPage<NotificationResponse> page = service.page("ana@gmail.com", null, 4);
+
+		assertEquals(4, page.getItems().size());
+		assertNotNull(page.getNextCursor());
+		KeysetCursor cursor = KeysetCursor.decode(page.getNextCursor());
+		assertEquals(2L, cursor.getId());
+		assertEquals(now.minusMinutes(3), cursor.getCreatedAt());
+	}
+
+	@Test
+	void retentionDiscountsOnlyUnreadEntriesPerUser() {
+		NotificationOutboxRepository outboxRepository = mock(NotificationOutboxRepository.class);
+		NotificationRetentionJob job = new NotificationRetentionJob(entryRepository, counterRepository, outboxRepository,
+			mock(DeviceTokenRepository.class), mock(LeaseLockService.class), mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(job, "maxAge", Duration.ofDays(90));
+		ReflectionTestUtils.setField(job, "deviceStaleAfter", Duration.ofDays(60));
+		when(entryRepository.lockExpired(any(), anyInt())).thenReturn(List.of(
+			new Object[] { 1L, 7L, 1L },
+			new Object[] { 2L, 7L, 1L },
+			new Object[] { 3L, 7L, 0L },
+			new Object[] { 4L, 9L, 0L }
+		));
+
+		assertEquals(4, job.prune());
+
+		verify(entryRepository).deleteByIds(List.of(1L, 2L, 3L, 4L));
+		verify(counterRepository).add(7L, -2);
+		verify(counterRepository, never()).add(eq(9L), anyInt());
+	}
+
+	private static NotificationEntry entry(long id, LocalDateTime createdAt) {
+		NotificationEntry entry = new NotificationEntry();
+		entry.setId(id);
+		entry.setUserId(7L);
+		entry.setType("order.status");
+		entry.setTitle("Pedido #" + id);
+		entry.setCreatedAt(createdAt);
+		return entry;
+	}
+}
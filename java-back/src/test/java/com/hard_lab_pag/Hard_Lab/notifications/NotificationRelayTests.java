@@ -0,0 +1,87 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class NotificationRelayTests {
+
+	private final NotificationEntryRepository entries = mock(NotificationEntryRepository.class);
+	private final NotificationStreamSequenceRepository sequences = mock(NotificationStreamSequenceRepository.class);
+	private final NotificationStreamService streamService = mock(NotificationStreamService.class);
+	private final NotificationRelay relay = new NotificationRelay(entries, sequences, streamService, mock(PlatformTransactionManager.class));
+
+	{
+		ReflectionTestUtils.setField(relay, "batchSize", 200);
+	}
+
+	@Test
+	void committedRowsGetTheNextSeqsInOneLockedChunk() {
+		when(entries.anyUnsequenced()).thenReturn(1L, 0L);
+		when(sequences.lockLastSeq(NotificationStreamSequence.NAME)).thenReturn(7L);
+		// Ordem de id, não de commit: o 12 confirmou antes do 10, que ainda não apareceu
+		when(entries.lockUnsequenced(200)).thenReturn(List.of(12L, 13L));
+
+		assertEquals(2, relay.sequence());
+
+		InOrder order = inOrder(sequences, entries);
+		order.verify(sequences).insertIfAbsent(NotificationStreamSequence.NAME);
+		order.verify(sequences).lockLastSeq(NotificationStreamSequence.NAME);
+		order.verify(entries).assignStreamSeq(12L, 8L);
+		order.verify(entries).assignStreamSeq(13L, 9L);
+		order.verify(sequences).setLastSeq(NotificationStreamSequence.NAME, 9L);
+	}
+
+	@Test
+	void nothingUnsequencedTakesNoLock() {
+		when(entries.anyUnsequenced()).thenReturn(0L);
+
+		assertEquals(0, relay.sequence());
+
+		verify(sequences, never()).lockLastSeq(any());
+		verify(entries, never()).assignStreamSeq(any(), anyLong());
+	}
+
+	@Test
+	void startsAtTheEndAndPublishesEachSeqOnceInOrder() {
+		when(entries.maxStreamSeq()).thenReturn(7L);
+		when(entries.findSequencedAfter(eq(7L), any(Pageable.class)))
+			.thenReturn(List.of(row(8, "ana@gmail.com"), row(9, "bia@gmail.com")));
+		when(entries.findSequencedAfter(eq(9L), any(Pageable.class)))
+			.thenReturn(List.<Object[]>of(row(10, "ana@gmail.com")));
+
+		relay.relay();
+		relay.relay();
+
+		InOrder order = inOrder(streamService);
+		order.verify(streamService).publish(eq("ana@gmail.com"), argThat(event -> event.seq() == 8L));
+		order.verify(streamService).publish(eq("bia@gmail.com"), argThat(event -> event.seq() == 9L));
+		order.verify(streamService).publish(eq("ana@gmail.com"), argThat(event -> event.seq() == 10L));
+		// Histórico anterior ao início não é reenviado como ao vivo
+		verify(entries, never()).findSequencedAfter(eq(0L), any(Pageable.class));
+	}
+
+	private static Object[] row(long seq, String gmail) {
+		NotificationEntry entry = new NotificationEntry();
+		entry.setId(100 + seq);
+		entry.setStreamSeq(seq);
+		entry.setType("order.status");
+		entry.setTitle("Pedido #" + seq);
+		return new Object[] { entry, gmail };
+	}
+}
@@ -0,0 +1,207 @@
+package com.hard_lab_pag.Hard_Lab.notifications;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.hard_lab_pag.Hard_Lab.infra.ServiceOverloadedException;
+
+class NotificationStreamTests {
+
+	@Test
+	void fullBufferDropsTheOldestAndWarnsTheClient() {
+		RecordingEmitter emitter = new RecordingEmitter();
+		List<Runnable> pending = new ArrayList<>();
+		StreamConnection connection = new StreamConnection("ana@gmail.com", emitter, pending::add, 3);
+
+		for (long id = 1; id <= 6; id++) {
+			connection.offer(event(id));
+		}
+		// Um único dreno agendado, por mais eventos que cheguem enquanto ele não roda
+		assertEquals(1, pending.size());
+		pending.get(0).run();
+
+		assertEquals(List.of("overflow:{dropped=3}", "4", "5", "6"), emitter.sent);
+	}
+
+	@Test
+	void failedWriteClosesTheConnection() {
+		RecordingEmitter emitter = new RecordingEmitter();
+		emitter.fail = true;
+		StreamConnection connection = new StreamConnection("ana@gmail.com", emitter, Runnable::run, 3);
+
+		connection.offer(event(1));
+
+		assertTrue(connection.isClosed());
+	}
+
+	@Test
+	void sameSeqFromReplayAndRelayIsWrittenOnce() {
+		RecordingEmitter emitter = new RecordingEmitter();
+		List<Runnable> pending = new ArrayList<>();
+		StreamConnection connection = new StreamConnection("ana@gmail.com", emitter, pending::add, 10);
+
+		connection.offer(event(3));
+		connection.offer(event(4));
+		connection.offer(event(4));
+		connection.offer(event(2));
+		connection.offer(event(5));
+		pending.get(0).run();
+
+		assertEquals(List.of("3", "4", "5"), emitter.sent);
+	}
+
+	@Test
+	void reconnectReplaysFromTheInboxAfterLastEventId() throws InterruptedException {
+		List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+		NotificationEntryRepository entries = mock(NotificationEntryRepository.class);
+		when(entries.findRecentSequencedAfter(eq("ana@gmail.com"), eq(2L), any(Pageable.class)))
+			.thenReturn(List.of(entry(4), entry(3)));
+		NotificationStreamService service = newService(entries, emitters, 10, 50);
+
+		service.open("ana@gmail.com", 2L);
+		// O relay ainda entrega o 4 (já veio no replay) antes do 5
+		service.publish("ana@gmail.com", event(4));
+		service.publish("ana@gmail.com", event(5));
+
+		assertEquals(List.of("3", "4", "5"), awaitEvents(emitters.get(0), 3));
+		service.shutdown();
+	}
+
+	@Test
+	void replayBeyondTheLimitSendsTheNewestAndWarnsTheClient() throws InterruptedException {
+		List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+		NotificationEntryRepository entries = mock(NotificationEntryRepository.class);
+		when(entries.findRecentSequencedAfter(eq("ana@gmail.com"), eq(0L), any(Pageable.class)))
+			.thenReturn(List.of(entry(9), entry(8), entry(7)));
+		NotificationStreamService service = newService(entries, emitters, 10, 2);
+
+		service.open("ana@gmail.com", 0L);
+
+		assertEquals(List.of("overflow:{dropped=1}", "8", "9"), awaitEvents(emitters.get(0), 3));
+		service.shutdown();
+	}
+
+	@Test
+	void publishWithoutConnectionsKeepsNothing() throws InterruptedException {
+		List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+		NotificationStreamService service = newService(mock(NotificationEntryRepository.class), emitters, 10, 50);
+
+		service.publish("ana@gmail.com", event(1));
+		service.open("ana@gmail.com", null);
+		service.publish("ana@gmail.com", event(2));
+
+		assertEquals(List.of("2"), awaitEvents(emitters.get(0), 1));
+		service.shutdown();
+	}
+
+	@Test
+	void rejectsConnectionsAboveTheGlobalLimit() throws InterruptedException {
+		NotificationStreamService service = newService(mock(NotificationEntryRepository.class), new CopyOnWriteArrayList<>(), 1, 50);
+		service.open("ana@gmail.com", null);
+
+		assertThrows(ServiceOverloadedException.class, () -> service.open("bia@gmail.com", null));
+		assertEquals(1, service.openConnections());
+		service.shutdown();
+	}
+
+	private static NotificationStreamService newService(
+		NotificationEntryRepository entries,
+		List<RecordingEmitter> emitters,
+		int maxConnections,
+		int replaySize
+	) {
+		NotificationStreamService service = new NotificationStreamService(entries) {
+			@Override
+			SseEmitter newEmitter(long timeoutMs) {
+				RecordingEmitter emitter = new RecordingEmitter();
+				emitters.add(emitter);
+				return emitter;
+			}
+		};
+		ReflectionTestUtils.setField(service, "bufferSize", 16);
+		ReflectionTestUtils.setField(service, "replaySize", replaySize);
+		ReflectionTestUtils.setField(service, "maxConnections", maxConnections);
+		ReflectionTestUtils.setField(service, "maxConnectionsPerUser", 5);
+		ReflectionTestUtils.setField(service, "timeout", Duration.ofMinutes(15));
+		return service;
+	}
+
+	// Eventos na ordem de escrita, sem os heartbeats (dependem de a conexão estar ociosa)
+	private static List<String> awaitEvents(RecordingEmitter emitter, int count) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		List<String> events = List.of();
+		while (System.nanoTime() < deadline) {
+			events = emitter.sent.stream().filter(sent -> !sent.equals("heartbeat")).toList();
+			if (events.size() >= count) {
+				break;
+			}
+			Thread.sleep(10);
+		}
+		return events;
+	}
+
+	// id da caixa de entrada propositalmente diferente do seq: o stream anda pelo seq
+	private static NotificationEvent event(long seq) {
+		return new NotificationEvent(100 + seq, seq, "order.status", "Pedido #" + seq, null, Map.of(), LocalDateTime.now());
+	}
+
+	private static NotificationEntry entry(long seq) {
+		NotificationEntry entry = new NotificationEntry();
+		entry.setId(100 + seq);
+		entry.setStreamSeq(seq);
+		entry.setType("order.status");
+		entry.setTitle("Pedido #" + seq);
+		return entry;
+	}
+
+	// Registra o que seria escrito no stream: seq do evento, overflow ou heartbeat
+	private static class RecordingEmitter extends SseEmitter {
+
+		private final List<String> sent = new CopyOnWriteArrayList<>();
+		private volatile boolean fail;
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			if (fail) {
+				throw new IOException("Broken pipe");
+			}
+			String text = "";
+			for (DataWithMediaType part : builder.build()) {
+				Object data = part.getData();
+				if (data instanceof NotificationEvent event) {
+					sent.add(String.valueOf(event.seq()));
+					return;
+				}
+				if (data instanceof Map<?, ?> map) {
+					sent.add(StreamConnection.OVERFLOW_EVENT_NAME + ":" + map);
+					return;
+				}
+				if (MediaType.TEXT_PLAIN.equals(part.getMediaType())) {
+					text += data;
+				}
+			}
+			if (text.startsWith(":")) {
+				sent.add("heartbeat");
+			}
+		}
+	}
+}
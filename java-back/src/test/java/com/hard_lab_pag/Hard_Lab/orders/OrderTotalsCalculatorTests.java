@@ -0,0 +1,60 @@
+package com.hard_lab_pag.Hard_Lab.orders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class OrderTotalsCalculatorTests {
+
+	@Test
+	void recomputesTotalsFromItemsIgnoringClientValues() {
+		Map<String, Object> data = Map.of(
+			"items", List.of(
+				Map.of("quantity", 10, "unitPrice", 0.05),
+				Map.of("quantity", 3, "unitPrice", "1.10")
+			),
+			"discounts", 0.30,
+			"shipping", 15,
+			"taxes", 1.5,
+			"subtotal", 999,
+			"total", 999
+		);
+
+		var totals = OrderTotalsCalculator.calculate(data);
+
+		assertEquals(new BigDecimal("3.80"), totals.subtotal());
+		assertEquals(new BigDecimal("20.00"), totals.total());
+	}
+
+	@Test
+	void ignoresNegativeAndMalformedValues() {
+		Map<String, Object> data = Map.of(
+			"items", List.of(
+				Map.of("quantity", -2, "unitPrice", 10),
+				Map.of("quantity", "abc", "unitPrice", 10),
+				Map.of("quantity", 1, "unitPrice", 10)
+			),
+			"discounts", -5
+		);
+
+		var totals = OrderTotalsCalculator.calculate(data);
+
+		assertEquals(new BigDecimal("10.00"), totals.total());
+	}
+
+	@Test
+	void writesLineSubtotalsIntoDocument() {
+		Map<String, Object> data = Map.of("items", List.of(Map.of("quantity", 4, "unitPrice", 2.5)));
+
+		Map<String, Object> result = OrderTotalsCalculator.applyTo(data);
+
+		@SuppressWarnings("unchecked")
+		var item = (Map<String, Object>) ((List<?>) result.get("items")).get(0);
+		assertEquals(new BigDecimal("10.00"), item.get("subtotal"));
+		assertEquals(new BigDecimal("10.00"), result.get("total"));
+	}
+}
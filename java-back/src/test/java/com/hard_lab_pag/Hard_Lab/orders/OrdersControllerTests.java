@@ -0,0 +1,56 @@
+package com.hard_lab_pag.Hard_Lab.orders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.hard_lab_pag.Hard_Lab.documents.DocumentQueryService;
+import com.hard_lab_pag.Hard_Lab.infra.RollupRebuildJob;
+import com.hard_lab_pag.Hard_Lab.projects.ProjectRepository;
+
+class OrdersControllerTests {
+
+	private final OrderRepository orderRepository = mock(OrderRepository.class);
+	private final OrdersController controller = new OrdersController(orderRepository, mock(OrderService.class),
+		mock(SpendingRollupService.class), mock(DocumentQueryService.class), mock(ProjectRepository.class), mock(RollupRebuildJob.class));
+
+	@Test
+	void hidesOrdersFromUsersWhoAreNotTheAuthor() {
+		when(orderRepository.findById(1L)).thenReturn(Optional.of(order("aluno@gmail.com")));
+
+		assertEquals(HttpStatus.NOT_FOUND, controller.getById(user("outro@gmail.com", "ACADEMICO"), 1L, request()).getStatusCode());
+	}
+
+	@Test
+	void authorsAndProfessorsReadTheOrder() {
+		when(orderRepository.findById(1L)).thenReturn(Optional.of(order("aluno@gmail.com")));
+
+		assertEquals(HttpStatus.OK, controller.getById(user("aluno@gmail.com", "ACADEMICO"), 1L, request()).getStatusCode());
+		assertEquals(HttpStatus.OK, controller.getById(user("prof@gmail.com", "PROFESSOR"), 1L, request()).getStatusCode());
+	}
+
+	private static LabOrder order(String createdBy) {
+		LabOrder order = new LabOrder();
+		order.setId(1L);
+		order.setVersion(3L);
+		order.setCreatedBy(createdBy);
+		return order;
+	}
+
+	private static ServletWebRequest request() {
+		return new ServletWebRequest(new MockHttpServletRequest());
+	}
+
+	private static UserDetails user(String gmail, String role) {
+		return User.withUsername(gmail).password("x").roles(role).build();
+	}
+}
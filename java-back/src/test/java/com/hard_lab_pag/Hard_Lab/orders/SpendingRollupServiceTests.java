@@ -0,0 +1,73 @@
+package com.hard_lab_pag.Hard_Lab.orders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.hard_lab_pag.Hard_Lab.infra.RebuildableRollup;
+import com.hard_lab_pag.Hard_Lab.infra.RollupRebuildGuard;
+
+import jakarta.persistence.EntityManager;
+
+class SpendingRollupServiceTests {
+
+	private final SpendingRollupRepository rollupRepository = mock(SpendingRollupRepository.class);
+	private final OrderRepository orderRepository = mock(OrderRepository.class);
+	private final SpendingRollupService service = new SpendingRollupService(rollupRepository, orderRepository,
+		mock(RollupRebuildGuard.class), mock(EntityManager.class));
+
+	@Test
+	void ordersAheadOfARunningRebuildAreNotCountedLive() {
+		SpendingRollupService.Contribution contribution = new SpendingRollupService.Contribution(
+			"ana@gmail.com", null, "2025-03", "BRL", new BigDecimal("10.00"));
+
+		service.apply(100L, 101L, null, contribution);
+		verify(rollupRepository, never()).increment(anyString(), anyString(), anyString(), anyString(), any(), anyInt(), any());
+
+		service.apply(100L, 99L, null, contribution);
+		verify(rollupRepository).increment(eq("USER"), eq("ana@gmail.com"), eq("2025-03"), eq("BRL"), eq(new BigDecimal("10.00")), eq(1), any());
+	}
+
+	@Test
+	void recountSumsTheChunkPerScopeBeforeWriting() {
+		when(orderRepository.lockAfter(0L, 500)).thenReturn(List.of(
+			order(1L, "ana@gmail.com", "7", 10),
+			order(2L, "ana@gmail.com", "7", 5),
+			order(3L, "bia@gmail.com", null, 2)
+		));
+
+		RebuildableRollup.Chunk chunk = service.recountAfter(0L, 500);
+
+		assertEquals(new RebuildableRollup.Chunk(3L, 3), chunk);
+		verify(rollupRepository).increment(eq("USER"), eq("ana@gmail.com"), eq("2025-03"), eq("BRL"), eq(new BigDecimal("15.00")), eq(2), any());
+		verify(rollupRepository).increment(eq("PROJECT"), eq("7"), eq("2025-03"), eq("BRL"), eq(new BigDecimal("15.00")), eq(2), any());
+		verify(rollupRepository).increment(eq("USER"), eq("bia@gmail.com"), eq("2025-03"), eq("BRL"), eq(new BigDecimal("2.00")), eq(1), any());
+	}
+
+	private static LabOrder order(Long id, String owner, String projectId, int unitPrice) {
+		LabOrder order = new LabOrder();
+		order.setId(id);
+		order.setCreatedBy(owner);
+		order.setCreatedAt(LocalDateTime.of(2025, 3, 10, 9, 0));
+		Map<String, Object> data = new HashMap<>();
+		data.put("status", "approved");
+		data.put("projectId", projectId);
+		data.put("items", List.of(Map.of("quantity", 1, "unitPrice", unitPrice)));
+		order.setData(data);
+		return order;
+	}
+}
@@ -0,0 +1,134 @@
+package com.hard_lab_pag.Hard_Lab.projects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import jakarta.persistence.EntityManager;
+
+class ProjectSearchServiceTests {
+
+	private final ProjectSearchTermRepository termRepository = mock(ProjectSearchTermRepository.class);
+	private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+	private final ProjectSearchService service = new ProjectSearchService(termRepository, projectRepository,
+		mock(EntityManager.class), mock(PlatformTransactionManager.class));
+
+	@Test
+	void extractsWeightedTermsAndFacets() {
+		Map<String, Object> data = Map.of(
+			"name", "Monitoramento IoT",
+			"shortDescription", "Sensores de temperatura para o laboratório",
+			"tags", List.of("IoT"),
+			"members", List.of(Map.of("name", "João Silva")),
+			"phase", "prototype"
+		);
+
+		Map<String, Integer> terms = ProjectSearchService.extractTerms(data);
+
+		// "iot" aparece no título e na tag
+		assertEquals(12, terms.get("iot"));
+		assertTrue(terms.containsKey("laboratorio"));
+		assertTrue(terms.containsKey("joao"));
+		assertTrue(terms.containsKey("member:joao"));
+		assertTrue(terms.containsKey("tag:iot"));
+		assertTrue(terms.containsKey("status:prototype"));
+	}
+
+	@Test
+	void extractsContactFacetsForEveryParticipant() {
+		Map<String, Object> data = Map.of(
+			"responsible", "Prof@Gmail.com",
+			"advisor", "Orientador Sem Email",
+			"members", List.of(Map.of("name", "João", "contact", "joao@gmail.com"), "maria@gmail.com")
+		);
+
+		Map<String, Integer> terms = ProjectSearchService.extractTerms(data);
+
+		assertTrue(terms.containsKey(ProjectSearchService.contactTerm("prof@gmail.com")));
+		assertTrue(terms.containsKey("contact:joao@gmail.com"));
+		assertTrue(terms.containsKey("contact:maria@gmail.com"));
+		assertFalse(terms.keySet().stream().anyMatch(term -> term.startsWith("contact:orientador")));
+	}
+
+	@Test
+	void filtersBecomeRequiredTermsAndTextNeedsAtLeastOneMatch() {
+		service.search(user("aluno@gmail.com", "ACADEMICO"), "Sensores IoT", "Prototype", "IoT", "João Silva", 0, 20);
+
+		Set<String> required = Set.of("status:prototype", "tag:iot", "member:joao", "member:silva");
+		Set<String> text = Set.of("sensores", "iot");
+		Set<String> terms = new HashSet<>(text);
+		terms.addAll(required);
+		verify(termRepository).search(eq(terms), eq(required), eq(4), eq(text), eq(1), eq(0),
+			eq("aluno@gmail.com"), eq("contact:aluno@gmail.com"), eq(20), eq(0));
+	}
+
+	@Test
+	void filtersWithoutTextDoNotRequireATextMatch() {
+		service.search(user("prof@gmail.com", "PROFESSOR"), null, "prototype", null, null, 0, 20);
+
+		verify(termRepository).search(eq(Set.of("status:prototype")), eq(Set.of("status:prototype")), eq(1),
+			eq(List.of("")), eq(0), eq(1), eq("prof@gmail.com"), anyString(), eq(20), eq(0));
+	}
+
+	@Test
+	void resultsKeepTheRankOrderAndPagesBecomeOffsets() {
+		when(termRepository.search(any(), any(), anyInt(), any(), anyInt(), anyInt(), any(), any(), anyInt(), anyInt()))
+			.thenReturn(List.of(new Object[] {3L, 16}, new Object[] {1L, 8}, new Object[] {2L, 1}));
+		when(projectRepository.findAllById(List.of(3L, 1L, 2L))).thenReturn(List.of(project(1L), project(2L), project(3L)));
+
+		List<Project> found = service.search(user("prof@gmail.com", "PROFESSOR"), "iot", null, null, null, 2, 10);
+
+		assertEquals(List.of(3L, 1L, 2L), found.stream().map(Project::getId).toList());
+		verify(termRepository).search(any(), any(), anyInt(), any(), anyInt(), eq(1), any(), any(), eq(10), eq(20));
+	}
+
+	@Test
+	void blankSearchListsOnlyProjectsTheStudentTakesPartIn() {
+		List<Project> participating = List.of(project(2L));
+		when(projectRepository.findParticipatingNewestFirst("aluno@gmail.com", "contact:aluno@gmail.com", PageRequest.of(1, 5)))
+			.thenReturn(participating);
+
+		assertEquals(participating, service.search(user("aluno@gmail.com", "ACADEMICO"), " ", null, null, null, 1, 5));
+		verify(projectRepository, never()).findAll(any(Pageable.class));
+	}
+
+	@Test
+	void blankSearchListsEveryProjectForProfessors() {
+		when(projectRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(project(1L))));
+
+		assertEquals(1, service.search(user("prof@gmail.com", "PROFESSOR"), null, null, null, null, 0, 20).size());
+		verify(projectRepository, never()).findParticipatingNewestFirst(any(), any(), any());
+	}
+
+	private static Project project(Long id) {
+		Project project = new Project();
+		project.setId(id);
+		return project;
+	}
+
+	private static UserDetails user(String gmail, String role) {
+		return User.withUsername(gmail).password("x").roles(role).build();
+	}
+}
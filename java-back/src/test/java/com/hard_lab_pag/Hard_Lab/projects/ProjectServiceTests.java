@@ -0,0 +1,79 @@
+package com.hard_lab_pag.Hard_Lab.projects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.hard_lab_pag.Hard_Lab.attachments.AttachmentService;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentPatchService;
+import com.hard_lab_pag.Hard_Lab.infra.KeysetPage;
+
+class ProjectServiceTests {
+
+	private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+	private final ProjectService service = new ProjectService(projectRepository, mock(ProjectSearchService.class),
+		mock(DocumentPatchService.class), mock(AttachmentService.class));
+
+	@Test
+	void studentsSeeProjectsTheyCreatedOrTakePartIn() {
+		List<Project> participating = List.of(project(2L, "outro@gmail.com"), project(1L, "aluno@gmail.com"));
+		when(projectRepository.findAllParticipating("aluno@gmail.com")).thenReturn(participating);
+
+		assertEquals(participating, service.visibleTo(user("aluno@gmail.com", "ACADEMICO")));
+		verify(projectRepository, never()).findAll();
+	}
+
+	@Test
+	void professorsSeeEveryProject() {
+		List<Project> all = List.of(project(1L, "aluno@gmail.com"));
+		when(projectRepository.findAll()).thenReturn(all);
+
+		assertEquals(all, service.visibleTo(user("prof@gmail.com", "PROFESSOR")));
+	}
+
+	@Test
+	void participatingPageQueriesByCreatorOrContactAndResumesFromTheCursor() {
+		Project newest = project(2L, "outro@gmail.com");
+		Project oldest = project(1L, "aluno@gmail.com");
+		newest.setCreatedAt(LocalDateTime.of(2026, 3, 2, 10, 0));
+		oldest.setCreatedAt(LocalDateTime.of(2026, 3, 1, 10, 0));
+		when(projectRepository.findParticipatingFirstPage(eq("aluno@gmail.com"), eq("contact:aluno@gmail.com"), any(Pageable.class)))
+			.thenReturn(List.of(newest, oldest));
+
+		KeysetPage<Project> first = service.participatingPage("aluno@gmail.com", null, 1);
+
+		assertEquals(List.of(newest), first.getItems());
+
+		when(projectRepository.findParticipatingAfter(eq("aluno@gmail.com"), eq("contact:aluno@gmail.com"),
+			eq(newest.getCreatedAt()), eq(2L), any(Pageable.class))).thenReturn(List.of(oldest));
+
+		KeysetPage<Project> second = service.participatingPage("aluno@gmail.com", first.getNextCursor(), 1);
+
+		assertEquals(List.of(oldest), second.getItems());
+		assertNull(second.getNextCursor());
+	}
+
+	private static Project project(Long id, String createdBy) {
+		Project project = new Project();
+		project.setId(id);
+		project.setCreatedBy(createdBy);
+		return project;
+	}
+
+	private static UserDetails user(String gmail, String role) {
+		return User.withUsername(gmail).password("x").roles(role).build();
+	}
+}
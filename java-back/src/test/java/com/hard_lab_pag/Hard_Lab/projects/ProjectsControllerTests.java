@@ -0,0 +1,47 @@
+package com.hard_lab_pag.Hard_Lab.projects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.hard_lab_pag.Hard_Lab.documents.DocumentQueryService;
+
+class ProjectsControllerTests {
+
+	private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+	private final ProjectsController controller = new ProjectsController(projectRepository, mock(ProjectService.class),
+		mock(ProjectSearchService.class), mock(DocumentQueryService.class));
+
+	@Test
+	void membersReadTheProjectAndOutsidersGetNotFound() {
+		Project project = new Project();
+		project.setId(1L);
+		project.setVersion(0L);
+		project.setCreatedBy("aluno@gmail.com");
+		project.setData(Map.of("members", List.of(Map.of("name", "Maria", "contact", "maria@gmail.com"))));
+		when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+
+		assertEquals(HttpStatus.OK, controller.getById(user("maria@gmail.com"), 1L, request()).getStatusCode());
+		assertEquals(HttpStatus.OK, controller.getById(user("aluno@gmail.com"), 1L, request()).getStatusCode());
+		assertEquals(HttpStatus.NOT_FOUND, controller.getById(user("outro@gmail.com"), 1L, request()).getStatusCode());
+	}
+
+	private static ServletWebRequest request() {
+		return new ServletWebRequest(new MockHttpServletRequest());
+	}
+
+	private static UserDetails user(String gmail) {
+		return User.withUsername(gmail).password("x").roles("ACADEMICO").build();
+	}
+}
@@ -0,0 +1,175 @@
+package com.hard_lab_pag.Hard_Lab.purchasing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.hard_lab_pag.Hard_Lab.documents.DocumentIndexRegistry;
+import com.hard_lab_pag.Hard_Lab.notifications.NotificationService;
+import com.hard_lab_pag.Hard_Lab.orders.LabOrder;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+class PurchaseConsolidationServiceTests {
+
+	private final PurchaseBatchRepository batchRepository = mock(PurchaseBatchRepository.class);
+	private final NotificationService notificationService = mock(NotificationService.class);
+	private final EntityManager entityManager = mock(EntityManager.class);
+	private final Query chunkQuery = mock(Query.class);
+	private PurchaseConsolidationService service;
+
+	@Test
+	void groupsItemsBySupplierAndCurrency() {
+		Map<String, Object> data = Map.of(
+			"currency", "BRL",
+			"items", List.of(
+				Map.of("sku", "R10K", "quantity", 10, "preferredSupplier", "Mouser"),
+				Map.of("sku", "C100N", "quantity", 5, "preferredSupplier", "Digikey", "currency", "USD"),
+				Map.of("sku", "R1K", "quantity", 0, "preferredSupplier", "Mouser")
+			)
+		);
+
+		var grouped = PurchaseConsolidationService.groupLines(data);
+
+		assertEquals(2, grouped.size());
+		assertEquals(1, grouped.get("Mouser|BRL").size());
+		assertEquals(1, grouped.get("Digikey|USD").size());
+	}
+
+	@Test
+	void selectedSupplierOverridesItemSupplier() {
+		Map<String, Object> data = Map.of(
+			"selectedSupplier", "LCSC",
+			"items", List.of(
+				Map.of("sku", "R10K", "quantity", 10, "preferredSupplier", "Mouser"),
+				Map.of("sku", "C100N", "quantity", 5, "preferredSupplier", "Digikey")
+			)
+		);
+
+		var grouped = PurchaseConsolidationService.groupLines(data);
+
+		assertEquals(1, grouped.size());
+		assertEquals(2, grouped.get("LCSC|BRL").size());
+	}
+
+	@Test
+	void mergesIdenticalSkusAcrossOrders() {
+		PurchaseBatch batch = new PurchaseBatch();
+
+		PurchaseConsolidationService.mergeLine(batch, Map.of("sku", "R10K", "quantity", 10, "unitPrice", 0.05), 1L);
+		PurchaseConsolidationService.mergeLine(batch, Map.of("sku", "R10K", "quantity", 15, "unitPrice", "0.05"), 2L);
+		PurchaseConsolidationService.mergeLine(batch, Map.of("sku", "C100N", "quantity", 3), 2L);
+
+		assertEquals(2, batch.getItems().size());
+		assertEquals(0, new BigDecimal("25").compareTo((BigDecimal) batch.getItems().get(0).get("quantity")));
+		assertEquals(List.of(1L, 2L), batch.getItems().get(0).get("orderIds"));
+	}
+
+	@Test
+	void keepsDifferentPricesForTheSameSkuOnSeparateLines() {
+		PurchaseBatch batch = new PurchaseBatch();
+
+		PurchaseConsolidationService.mergeLine(batch, Map.of("sku", "R10K", "quantity", 10, "unitPrice", "0.05"), 1L);
+		PurchaseConsolidationService.mergeLine(batch, Map.of("sku", "R10K", "quantity", 5, "unitPrice", 0.050), 2L);
+		PurchaseConsolidationService.mergeLine(batch, Map.of("sku", "R10K", "quantity", 15, "unitPrice", 0.07), 3L);
+
+		assertEquals(2, batch.getItems().size());
+		assertEquals(0, new BigDecimal("15").compareTo((BigDecimal) batch.getItems().get(0).get("quantity")));
+		assertEquals(0, new BigDecimal("0.07").compareTo((BigDecimal) batch.getItems().get(1).get("unitPrice")));
+	}
+
+	@Test
+	void consolidatesChunksIntoOneBatchPerSupplierAndMarksTheOrders() {
+		LabOrder first = order(1L, "Mouser", "R10K");
+		LabOrder second = order(2L, "Mouser", "C100N");
+		when(chunkQuery.getResultList()).thenReturn(List.of(first), List.of(second), List.of());
+		when(batchRepository.findFirstBySupplierAndCurrencyAndStatus(anyString(), anyString(), anyString())).thenReturn(Optional.empty());
+
+		assertEquals(2, service.consolidateApprovedOrders(() -> true));
+
+		// Um lote por bloco (cada bloco carrega o lote aberto de novo)
+		verify(batchRepository, times(2)).save(any(PurchaseBatch.class));
+		assertEquals("purchase", first.getData().get("status"));
+		assertEquals("purchase", second.getData().get("status"));
+	}
+
+	@Test
+	void chunksComeFromTheIndexedStatusColumn() {
+		when(chunkQuery.getResultList()).thenReturn(List.of());
+
+		service.consolidateApprovedOrders(() -> true);
+
+		verify(entityManager).createNativeQuery(
+			"SELECT * FROM `lab_orders` WHERE `doc_status` = ?1 AND id > ?2 ORDER BY id LIMIT ?3", LabOrder.class);
+		verify(chunkQuery).setParameter(1, "approved");
+	}
+
+	@Test
+	void ownersAreNotifiedOfTheMoveToPurchase() {
+		LabOrder order = order(1L, "Mouser", "R10K");
+		order.setCreatedBy("aluno@gmail.com");
+		when(chunkQuery.getResultList()).thenReturn(List.of(order), List.of());
+		when(batchRepository.findFirstBySupplierAndCurrencyAndStatus(anyString(), anyString(), anyString())).thenReturn(Optional.empty());
+
+		service.consolidateApprovedOrders(() -> true);
+
+		verify(notificationService).notifyStatusChange("order.status", "Pedido", 1L, "aluno@gmail.com", null, "approved", "purchase");
+	}
+
+	@Test
+	void stopsBeforeTheNextChunkWhenTheLeaseIsLost() {
+		when(chunkQuery.getResultList()).thenReturn(List.of(order(1L, "Mouser", "R10K")));
+		when(batchRepository.findFirstBySupplierAndCurrencyAndStatus(anyString(), anyString(), anyString())).thenReturn(Optional.empty());
+		AtomicInteger renewals = new AtomicInteger();
+
+		assertEquals(1, service.consolidateApprovedOrders(() -> renewals.incrementAndGet() == 1));
+
+		verify(chunkQuery).setParameter(2, 0L);
+		verify(chunkQuery, never()).setParameter(2, 1L);
+	}
+
+	@BeforeEach
+	void setUp() {
+		DocumentIndexRegistry registry = mock(DocumentIndexRegistry.class, RETURNS_DEEP_STUBS);
+		when(registry.get(LabOrder.class).field("status").getTable()).thenReturn("lab_orders");
+		when(registry.get(LabOrder.class).field("status").getColumn()).thenReturn("doc_status");
+		when(entityManager.createNativeQuery(anyString(), eq(LabOrder.class))).thenReturn(chunkQuery);
+		when(chunkQuery.setParameter(anyInt(), any())).thenReturn(chunkQuery);
+		service = new PurchaseConsolidationService(batchRepository, registry, notificationService, entityManager,
+			mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(service, "chunkSize", 1);
+	}
+
+	private static LabOrder order(Long id, String supplier, String sku) {
+		LabOrder order = new LabOrder();
+		order.setId(id);
+		Map<String, Object> data = new HashMap<>();
+		data.put("status", "approved");
+		data.put("selectedSupplier", supplier);
+		data.put("items", new ArrayList<>(List.of(Map.of("sku", sku, "quantity", 2, "unitPrice", 1))));
+		order.setData(data);
+		return order;
+	}
+}
@@ -0,0 +1,71 @@
+package com.hard_lab_pag.Hard_Lab.reservations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.hard_lab_pag.Hard_Lab.reservations.ReservationOccupancyCalculator.Occupancy;
+
+class ReservationOccupancyCalculatorTests {
+
+	@Test
+	void splitsTheSpanIntoHourBuckets() {
+		Occupancy occupancy = ReservationOccupancyCalculator.calculate(reservation("approved", "2025-03-10", "09:30", "11:15", null));
+
+		assertEquals(Map.of(
+			LocalDateTime.of(2025, 3, 10, 9, 0), 30,
+			LocalDateTime.of(2025, 3, 10, 10, 0), 60,
+			LocalDateTime.of(2025, 3, 10, 11, 0), 15
+		), occupancy.minutesByHour());
+		assertTrue(occupancy.approved());
+	}
+
+	@Test
+	void onlyPendingAndApprovedOccupyTheResource() {
+		assertNull(ReservationOccupancyCalculator.calculate(reservation("draft", "2025-03-10", "09:00", "10:00", null)));
+		assertNull(ReservationOccupancyCalculator.calculate(reservation("cancelled", "2025-03-10", "09:00", "10:00", null)));
+		assertNull(ReservationOccupancyCalculator.calculate(reservation("pending", "2025-03-10", "10:00", "09:00", null)));
+		assertNull(ReservationOccupancyCalculator.calculate(reservation("pending", "sem data", "09:00", "10:00", null)));
+	}
+
+	@Test
+	void expandsWeeklyRecurrenceUntilEndDateSkippingExceptions() {
+		Map<String, Object> recurrence = Map.of(
+			"type", "weekly",
+			"interval", 1,
+			"endDate", "31/03/2025",
+			"exceptions", List.of("2025-03-17")
+		);
+
+		List<LocalDate> days = ReservationOccupancyCalculator.occurrences(LocalDate.of(2025, 3, 3), recurrence);
+
+		assertEquals(List.of(LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 24), LocalDate.of(2025, 3, 31)), days);
+	}
+
+	@Test
+	void recurrenceWithoutEndCountsOnlyTheFirstDate() {
+		List<LocalDate> days = ReservationOccupancyCalculator.occurrences(LocalDate.of(2025, 3, 3), Map.of("type", "daily", "interval", 1));
+
+		assertEquals(List.of(LocalDate.of(2025, 3, 3)), days);
+	}
+
+	private static Map<String, Object> reservation(String status, String date, String start, String end, Object recurrence) {
+		Map<String, Object> data = new HashMap<>();
+		data.put("status", status);
+		data.put("resourceType", "equipment");
+		data.put("resourceId", "OSC-001");
+		data.put("date", date);
+		data.put("startTime", start);
+		data.put("endTime", end);
+		data.put("recurrence", recurrence);
+		return data;
+	}
+}
@@ -0,0 +1,123 @@
+package com.hard_lab_pag.Hard_Lab.reservations;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.hard_lab_pag.Hard_Lab.documents.DocumentPatchService;
+import com.hard_lab_pag.Hard_Lab.notifications.NotificationService;
+import com.hard_lab_pag.Hard_Lab.stats.AdminStatsService;
+
+class ReservationServiceTests {
+
+	private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+	private final DocumentPatchService documentPatchService = mock(DocumentPatchService.class);
+	private final NotificationService notificationService = mock(NotificationService.class);
+	private final AdminStatsService adminStatsService = mock(AdminStatsService.class);
+	private final ReservationUsageService usageService = mock(ReservationUsageService.class);
+	private final ReservationService service = new ReservationService(
+		reservationRepository, documentPatchService, notificationService, adminStatsService, usageService);
+
+	private Reservation reservation;
+
+	@BeforeEach
+	void setUp() {
+		reservation = new Reservation();
+		reservation.setId(7L);
+		reservation.setCreatedBy("aluno@gmail.com");
+		reservation.setData(new HashMap<>(Map.of("status", "pending", "notes", "bancada 2")));
+		when(reservationRepository.findById(7L)).thenReturn(Optional.of(reservation));
+	}
+
+	@Test
+	void patchTakesTheRebuildLockBeforeReadingTheReservation() {
+		when(usageService.lockForWrite()).thenReturn(3L);
+		Map<String, Object> patch = Map.of("notes", "bancada 3");
+
+		service.patch(7L, patch, user("aluno@gmail.com", "ACADEMICO"), null);
+
+		InOrder order = inOrder(usageService, reservationRepository);
+		order.verify(usageService).lockForWrite();
+		order.verify(reservationRepository).findById(7L);
+		verify(usageService).apply(eq(3L), eq(7L), any(), any());
+	}
+
+	@Test
+	void createTakesTheRebuildLockBeforeSaving() {
+		when(usageService.lockForWrite()).thenReturn(null);
+		when(reservationRepository.save(any())).thenAnswer(invocation -> {
+			Reservation saved = invocation.getArgument(0);
+			saved.setId(8L);
+			return saved;
+		});
+
+		service.create(new HashMap<>(Map.of("status", "pending")), "aluno@gmail.com");
+
+		InOrder order = inOrder(usageService, reservationRepository);
+		order.verify(usageService).lockForWrite();
+		order.verify(reservationRepository).save(any());
+		order.verify(usageService).apply(eq(null), eq(8L), eq(null), any());
+	}
+
+	@Test
+	void authorCannotApproveTheirOwnReservation() {
+		assertThrows(AccessDeniedException.class,
+			() -> service.patch(7L, Map.of("status", "approved"), user("aluno@gmail.com", "ACADEMICO"), null));
+
+		verifyNoInteractions(documentPatchService, notificationService, adminStatsService);
+	}
+
+	@Test
+	void authorCanEditTheRestOfTheDocument() {
+		Map<String, Object> patch = Map.of("notes", "bancada 3");
+
+		assertTrue(service.patch(7L, patch, user("aluno@gmail.com", "ACADEMICO"), null).isPresent());
+
+		verify(documentPatchService).mergePatch(reservation, patch);
+	}
+
+	@Test
+	void otherStudentsCannotPatchAtAll() {
+		assertThrows(AccessDeniedException.class,
+			() -> service.patch(7L, Map.of("notes", "x"), user("outro@gmail.com", "ACADEMICO"), null));
+
+		verify(documentPatchService, never()).mergePatch(any(), any());
+	}
+
+	@Test
+	void professorCanChangeTheStatus() {
+		Map<String, Object> patch = Map.of("status", "approved");
+		when(documentPatchService.mergePatch(reservation, patch)).thenAnswer(invocation -> {
+			reservation.getData().put("status", "approved");
+			return reservation;
+		});
+
+		assertTrue(service.patch(7L, patch, user("prof@gmail.com", "PROFESSOR"), null).isPresent());
+
+		verify(notificationService).notifyStatusChange(anyString(), anyString(), any(), anyString(), anyString(), any(), any());
+		verify(adminStatsService).reservationStatusChanged("pending", "approved");
+	}
+
+	private static UserDetails user(String gmail, String role) {
+		return User.withUsername(gmail).password("x").roles(role).build();
+	}
+}
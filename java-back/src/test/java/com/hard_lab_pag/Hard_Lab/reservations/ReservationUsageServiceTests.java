@@ -0,0 +1,103 @@
+package com.hard_lab_pag.Hard_Lab.reservations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.hard_lab_pag.Hard_Lab.infra.RebuildableRollup;
+import com.hard_lab_pag.Hard_Lab.infra.RollupRebuildGuard;
+import com.hard_lab_pag.Hard_Lab.reservations.ReservationOccupancyCalculator.Occupancy;
+
+import jakarta.persistence.EntityManager;
+
+class ReservationUsageServiceTests {
+
+	private static final LocalDateTime NINE = LocalDateTime.of(2025, 3, 10, 9, 0);
+	private static final LocalDateTime TEN = LocalDateTime.of(2025, 3, 10, 10, 0);
+
+	private ReservationUsageRepository usageRepository;
+	private ReservationRepository reservationRepository;
+	private RollupRebuildGuard rebuildGuard;
+	private ReservationUsageService service;
+
+	@BeforeEach
+	void setUp() {
+		usageRepository = mock(ReservationUsageRepository.class);
+		reservationRepository = mock(ReservationRepository.class);
+		rebuildGuard = mock(RollupRebuildGuard.class);
+		service = new ReservationUsageService(usageRepository, reservationRepository, rebuildGuard, mock(EntityManager.class));
+	}
+
+	@Test
+	void approvalMovesOnlyTheApprovedMinutes() {
+		Occupancy pending = new Occupancy("equipment", "OSC-001", false, Map.of(NINE, 60, TEN, 30));
+		Occupancy approved = new Occupancy("equipment", "OSC-001", true, Map.of(NINE, 60, TEN, 30));
+
+		service.apply(null, 5L, pending, approved);
+
+		verify(usageRepository).increment("equipment", "OSC-001", NINE, 0, 60);
+		verify(usageRepository).increment("equipment", "OSC-001", TEN, 0, 30);
+	}
+
+	@Test
+	void writesAheadOfTheRebuildAreLeftToIt() {
+		Occupancy occupancy = new Occupancy("equipment", "OSC-001", false, Map.of(NINE, 60));
+
+		service.apply(100L, 150L, null, occupancy);
+		verify(usageRepository, never()).increment(anyString(), anyString(), any(), anyInt(), anyInt());
+
+		service.apply(100L, 50L, null, occupancy);
+		verify(usageRepository).increment("equipment", "OSC-001", NINE, 60, 0);
+	}
+
+	@Test
+	void lockForWriteTakesTheSharedRebuildLockOfThisRollup() {
+		when(rebuildGuard.lockForWrite(ReservationUsageService.REBUILD_NAME)).thenReturn(42L);
+
+		assertEquals(42L, service.lockForWrite());
+	}
+
+	@Test
+	void recountSumsTheChunkBeforeWriting() {
+		when(reservationRepository.lockAfter(0L, 500)).thenReturn(List.of(reservation(1L, "09:00"), reservation(2L, "09:30")));
+		when(reservationRepository.lockAfter(2L, 500)).thenReturn(List.of());
+
+		assertEquals(new RebuildableRollup.Chunk(2L, 2), service.recountAfter(0L, 500));
+		assertNull(service.recountAfter(2L, 500));
+
+		// Reservas do mesmo bloco somadas antes de gravar
+		verify(usageRepository).increment("room", "LAB-1", NINE, 90, 90);
+	}
+
+	@Test
+	void rejectsWindowsAboveTheLimit() {
+		LocalDate from = LocalDate.of(2025, 1, 1);
+
+		assertThrows(IllegalArgumentException.class, () -> service.series(from, from.plusDays(40), "hour", null, null));
+		assertThrows(IllegalArgumentException.class, () -> service.heatmap(from, from.minusDays(1), null, null));
+		assertThrows(IllegalArgumentException.class, () -> service.series(from, from, "year", null, null));
+	}
+
+	private static Reservation reservation(long id, String start) {
+		Reservation reservation = new Reservation();
+		reservation.setId(id);
+		reservation.setData(Map.of("status", "approved", "resourceType", "room", "resourceId", "LAB-1",
+			"date", "2025-03-10", "startTime", start, "endTime", "10:00"));
+		return reservation;
+	}
+}
@@ -0,0 +1,67 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+// Latência do BCrypt por custo no host atual; o main imprime o custo recomendado para o alvo
+// (-Dbcrypt.target-ms=250). Executar como JwtVerificationBenchmark, trocando o nome da classe.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class BCryptCostBenchmark {
+
+	private static final Logger log = LoggerFactory.getLogger(BCryptCostBenchmark.class);
+
+	@Param({"8", "10", "11", "12", "13", "14"})
+	public int cost;
+
+	private String salt;
+
+	@Setup
+	public void setUp() {
+		salt = BCrypt.gensalt(cost);
+	}
+
+	@Benchmark
+	public String hash() {
+		return BCrypt.hashpw("SenhaForte123", salt);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Duration target = Duration.ofMillis(Long.getLong("bcrypt.target-ms", 250));
+		Collection<RunResult> results = new Runner(new OptionsBuilder().include(BCryptCostBenchmark.class.getSimpleName()).build()).run();
+		List<BCryptCostCalibrator.Measurement> measurements = new ArrayList<>();
+		for (RunResult result : results) {
+			int cost = Integer.parseInt(result.getParams().getParam("cost"));
+			double millis = result.getPrimaryResult().getScore();
+			measurements.add(new BCryptCostCalibrator.Measurement(cost, Duration.ofNanos((long) (millis * 1_000_000))));
+		}
+		measurements.sort((a, b) -> Integer.compare(a.cost(), b.cost()));
+		log.info("security.bcrypt.strength recomendado para {} ms: {}", target.toMillis(), BCryptCostCalibrator.recommend(measurements, target));
+	}
+}
@@ -0,0 +1,51 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+class BCryptCostCalibratorTests {
+
+	@Test
+	void recommendsHighestCostWithinBudget() {
+		List<BCryptCostCalibrator.Measurement> measurements = List.of(
+			new BCryptCostCalibrator.Measurement(10, Duration.ofMillis(60)),
+			new BCryptCostCalibrator.Measurement(11, Duration.ofMillis(120)),
+			new BCryptCostCalibrator.Measurement(12, Duration.ofMillis(240)),
+			new BCryptCostCalibrator.Measurement(13, Duration.ofMillis(480))
+		);
+
+		assertEquals(12, BCryptCostCalibrator.recommend(measurements, Duration.ofMillis(250)));
+		assertEquals(10, BCryptCostCalibrator.recommend(measurements, Duration.ofMillis(10)));
+	}
+
+	@Test
+	void measuresUntilBudgetIsExceeded() {
+		var measurements = BCryptCostCalibrator.measure(4, 31, 1, Duration.ZERO);
+
+		assertEquals(1, measurements.size());
+		assertEquals(4, measurements.get(0).cost());
+	}
+
+	@Test
+	void detectsHashesWithAnotherCost() {
+		PasswordHashingService hashing = new PasswordHashingService(new BCryptPasswordEncoder(5), new BCryptStrength(5), 1, 4, Duration.ofSeconds(5));
+		try {
+			String current = hashing.encode("SenhaForte123");
+			String older = new BCryptPasswordEncoder(4).encode("SenhaForte123");
+
+			assertEquals(5, BCryptCostCalibrator.costOf(current));
+			assertFalse(hashing.needsRehash(current));
+			assertTrue(hashing.needsRehash(older));
+			assertFalse(hashing.needsRehash("texto-puro"));
+		} finally {
+			hashing.shutdown();
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.hard_lab_pag.Hard_Lab.infra.UnauthorizedException;
+import com.hard_lab_pag.Hard_Lab.user.UserActivityTracker;
+
+class JwtAuthenticationFilterTests {
+
+	private static final String SECRET = "VGhpc0lzQVN1cGVyU2VjcmV0S2V5MTIzNDU2Nzg5MDEyMzQ1Njc4OTA=";
+
+	private final JwtService jwtService = new JwtService(SECRET, 60_000L, 100, Duration.ofMinutes(5));
+	private final StreamTicketService ticketService = new StreamTicketService(jwtService, Duration.ofMinutes(1));
+	private final JwtAuthenticationFilter filter;
+
+	JwtAuthenticationFilterTests() {
+		SecurityEpochService epochs = mock(SecurityEpochService.class);
+		when(epochs.isCurrent(anyString(), anyLong())).thenReturn(true);
+		SessionRevocationList revocations = mock(SessionRevocationList.class);
+		when(revocations.isRevoked(any())).thenReturn(false);
+		filter = new JwtAuthenticationFilter(jwtService, epochs, revocations, mock(UserActivityTracker.class));
+	}
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void ticketAuthenticatesTheStreamWithTheSessionRoles() throws Exception {
+		String ticket = ticketService.issue(accessToken()).ticket();
+
+		Authentication auth = authenticate(streamRequest(ticket));
+
+		assertEquals("aluno@gmail.com", auth.getName());
+		assertEquals("ROLE_ACADEMICO", auth.getAuthorities().iterator().next().getAuthority());
+	}
+
+	@Test
+	void ticketIsIgnoredOutsideTheStreamAndInTheHeader() throws Exception {
+		String ticket = ticketService.issue(accessToken()).ticket();
+
+		MockHttpServletRequest otherPath = new MockHttpServletRequest("GET", "/api/notifications");
+		otherPath.setParameter(JwtAuthenticationFilter.TICKET_PARAM, ticket);
+		assertNull(authenticate(otherPath));
+
+		MockHttpServletRequest inHeader = new MockHttpServletRequest("GET", "/api/notifications");
+		inHeader.addHeader("Authorization", "Bearer " + ticket);
+		assertNull(authenticate(inHeader));
+	}
+
+	@Test
+	void accessTokenInTheQueryIsNotATicket() throws Exception {
+		assertNull(authenticate(streamRequest(accessToken())));
+	}
+
+	@Test
+	void ticketCannotBeTradedForAnotherTicket() {
+		String ticket = ticketService.issue(accessToken()).ticket();
+
+		assertThrows(UnauthorizedException.class, () -> ticketService.issue(ticket));
+	}
+
+	private String accessToken() {
+		return jwtService.generateToken("aluno@gmail.com", Map.of(
+			JwtService.CLAIM_ROLES, List.of("ACADEMICO"),
+			JwtService.CLAIM_EPOCH, 0,
+			JwtService.CLAIM_SESSION, "sessao-1"
+		));
+	}
+
+	private static MockHttpServletRequest streamRequest(String ticket) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", JwtAuthenticationFilter.STREAM_PATH);
+		request.setParameter(JwtAuthenticationFilter.TICKET_PARAM, ticket);
+		return request;
+	}
+
+	private Authentication authenticate(MockHttpServletRequest request) throws Exception {
+		SecurityContextHolder.clearContext();
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+}
@@ -0,0 +1,55 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class JwtServiceTests {
+
+	private static final String SECRET = "VGhpc0lzQVN1cGVyU2VjcmV0S2V5MTIzNDU2Nzg5MDEyMzQ1Njc4OTA=";
+	private static final String OTHER_SECRET = "T3V0cmFDaGF2ZVNlY3JldGFDb21UYW1hbmhvU3VmaWNpZW50ZTEyMzQ1Ng==";
+
+	@Test
+	void verifiesOnceAndServesRepeatsFromCache() {
+		JwtService service = new JwtService(SECRET, 60_000L, 100, Duration.ofMinutes(5));
+		String token = service.generateToken("aluno@gmail.com", Map.of("roles", List.of("ACADEMICO")));
+
+		var first = service.verify(token);
+		var second = service.verify(token);
+
+		assertEquals("aluno@gmail.com", first.subject());
+		assertEquals(List.of("ACADEMICO"), first.roles());
+		assertSame(first, second);
+	}
+
+	@Test
+	void cachedTokenIsAnImmutableSnapshot() {
+		JwtService service = new JwtService(SECRET, 60_000L, 100, Duration.ofMinutes(5));
+		String token = service.generateToken("aluno@gmail.com", Map.of("roles", List.of("ACADEMICO"), "epoch", 3, "sid", "sessao-1"));
+
+		VerifiedToken verified = service.verify(token);
+
+		assertEquals(3L, verified.epoch());
+		assertEquals("sessao-1", verified.sessionId());
+		assertThrows(UnsupportedOperationException.class, () -> verified.roles().add("ADMIN"));
+	}
+
+	@Test
+	void rejectsForeignSignatureExpiredAndMalformedTokens() {
+		JwtService service = new JwtService(SECRET, 60_000L, 100, Duration.ofMinutes(5));
+		String foreign = new JwtService(OTHER_SECRET, 60_000L, 0, Duration.ZERO).generateToken("x@gmail.com", Map.of());
+		String expired = new JwtService(SECRET, -1_000L, 0, Duration.ZERO).generateToken("x@gmail.com", Map.of());
+
+		assertNull(service.verify(foreign));
+		assertNull(service.verify(expired));
+		assertNull(service.verify("nao.e.jwt"));
+		assertNull(service.extractUsername(expired));
+	}
+}
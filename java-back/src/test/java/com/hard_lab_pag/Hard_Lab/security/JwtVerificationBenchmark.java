@@ -0,0 +1,140 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+// Custo de autenticar uma requisição: fluxo antigo (3 parses, chave recriada) x verificação única x cache
+// (acerto com o mesmo token e falta com tokens distintos, mais do que cabem no cache). As variantes com @Threads e
+// o grupo "mixed" medem o cache disputado por várias threads, como no filtro sob carga.
+// Executar: mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test
+//   java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main JwtVerificationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+	private static final String SECRET = "VGhpc0lzQVN1cGVyU2VjcmV0S2V5MTIzNDU2Nzg5MDEyMzQ1Njc4OTA=";
+
+	private static final int DISTINCT_TOKENS = 4_096;
+
+	private JwtService uncached;
+	private JwtService cached;
+	private JwtService smallCache;
+	private String token;
+	private String[] distinctTokens;
+
+	// Cursor por thread: cada thread percorre os tokens distintos sem disputar o índice
+	@State(Scope.Thread)
+	public static class Cursor {
+		int next;
+
+		String advance(String[] tokens) {
+			next = (next + 1) % tokens.length;
+			return tokens[next];
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		uncached = new JwtService(SECRET, 3_600_000L, 0, Duration.ofMinutes(5));
+		cached = new JwtService(SECRET, 3_600_000L, 10_000, Duration.ofMinutes(5));
+		token = cached.generateToken("aluno@gmail.com", Map.of("roles", List.of("ACADEMICO")));
+		smallCache = new JwtService(SECRET, 3_600_000L, 64, Duration.ofMinutes(5));
+		distinctTokens = new String[DISTINCT_TOKENS];
+		for (int i = 0; i < DISTINCT_TOKENS; i++) {
+			distinctTokens[i] = cached.generateToken("aluno" + i + "@gmail.com", Map.of("roles", List.of("ACADEMICO")));
+		}
+	}
+
+	// Reproduz o caminho anterior: extractUsername + isTokenValid + isTokenExpired, cada um montando chave e parser
+	@Benchmark
+	public boolean legacyTripleParse() {
+		String username = legacyClaims(token).getSubject();
+		String again = legacyClaims(token).getSubject();
+		Date expiration = legacyClaims(token).getExpiration();
+		return username.equals(again) && expiration.after(new Date());
+	}
+
+	@Benchmark
+	public VerifiedToken singleVerify() {
+		return uncached.verify(token);
+	}
+
+	@Benchmark
+	public VerifiedToken cachedVerify() {
+		return cached.verify(token);
+	}
+
+	// Pior caso do cache: toda chamada é falta (hash do token + verificação + inserção com despejo)
+	@Benchmark
+	public VerifiedToken cacheMissVerify(Cursor cursor) {
+		return smallCache.verify(cursor.advance(distinctTokens));
+	}
+
+	// Acertos simultâneos na mesma entrada
+	@Benchmark
+	@Threads(8)
+	public VerifiedToken cachedVerifyContended() {
+		return cached.verify(token);
+	}
+
+	// Faltas simultâneas: inserções e despejos concorrentes
+	@Benchmark
+	@Threads(8)
+	public VerifiedToken cacheMissVerifyContended(Cursor cursor) {
+		return smallCache.verify(cursor.advance(distinctTokens));
+	}
+
+	// Carga mista: leitores acertando enquanto outras threads inserem e despejam no mesmo cache
+	@Benchmark
+	@Group("mixed")
+	@GroupThreads(6)
+	public VerifiedToken mixedHit() {
+		return smallCache.verify(token);
+	}
+
+	@Benchmark
+	@Group("mixed")
+	@GroupThreads(2)
+	public VerifiedToken mixedMiss(Cursor cursor) {
+		return smallCache.verify(cursor.advance(distinctTokens));
+	}
+
+	private static Claims legacyClaims(String token) {
+		Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+		return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(JwtVerificationBenchmark.class.getSimpleName()).build()).run();
+	}
+}
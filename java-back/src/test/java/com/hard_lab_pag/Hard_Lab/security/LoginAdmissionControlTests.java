@@ -0,0 +1,96 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.hard_lab_pag.Hard_Lab.infra.ServiceOverloadedException;
+import com.hard_lab_pag.Hard_Lab.infra.TooManyRequestsException;
+
+class LoginAdmissionControlTests {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	void bucketAllowsBurstThenRefillsOverTime() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(3, 10 * SECOND);
+		long t0 = 0;
+
+		assertEquals(0, limiter.tryAcquire("a", t0));
+		assertEquals(0, limiter.tryAcquire("a", t0));
+		assertEquals(0, limiter.tryAcquire("a", t0));
+		assertEquals(10 * SECOND, limiter.tryAcquire("a", t0));
+		assertEquals(0, limiter.tryAcquire("b", t0));
+
+		assertEquals(0, limiter.tryAcquire("a", t0 + 10 * SECOND));
+	}
+
+	@Test
+	void idleFullBucketsAreEvicted() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(2, SECOND);
+		limiter.tryAcquire("a", 0);
+		limiter.tryAcquire("b", 0);
+
+		limiter.evictIdle(5 * SECOND);
+
+		assertEquals(0, limiter.size());
+	}
+
+	@Test
+	void accountLimitIsPerAccountAndIp() {
+		LoginAdmissionControl control = new LoginAdmissionControl(2, Duration.ofMinutes(1), 100, Duration.ofSeconds(1));
+
+		control.admit("Aluno@Gmail.com", "10.0.0.1");
+		control.admit("aluno@gmail.com", "10.0.0.1");
+		TooManyRequestsException ex = assertThrows(TooManyRequestsException.class, () -> control.admit("aluno@gmail.com", "10.0.0.1"));
+		assertTrue(ex.getRetryAfterSeconds() >= 1);
+
+		// Quem esgotou a conta a partir de um endereço não bloqueia o dono em outro
+		assertDoesNotThrow(() -> control.admit("aluno@gmail.com", "10.0.0.2"));
+	}
+
+	@Test
+	void hashingFailsFastWhenQueueIsFull() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		PasswordEncoder slow = new PasswordEncoder() {
+			public String encode(CharSequence raw) {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return raw.toString();
+			}
+			public boolean matches(CharSequence raw, String encoded) { return raw.toString().equals(encoded); }
+		};
+		PasswordHashingService hashing = new PasswordHashingService(slow, new BCryptStrength(10), 1, 1, Duration.ofSeconds(30));
+		try {
+			Thread busy = new Thread(() -> { try { hashing.encode("a"); } catch (ServiceOverloadedException ignored) { } });
+			Thread queued = new Thread(() -> { try { hashing.encode("b"); } catch (ServiceOverloadedException ignored) { } });
+			busy.start();
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			queued.start();
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (hashing.queued() < 1 && System.nanoTime() < deadline) {
+				Thread.onSpinWait();
+			}
+			assertEquals(1, hashing.queued());
+
+			// Única thread ocupada e fila cheia: a terceira chamada é recusada na hora, sem esperar max-wait
+			assertThrows(ServiceOverloadedException.class, () -> hashing.encode("c"));
+		} finally {
+			release.countDown();
+			hashing.shutdown();
+		}
+	}
+}
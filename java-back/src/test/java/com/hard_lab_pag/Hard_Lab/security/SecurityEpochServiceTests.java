@@ -0,0 +1,81 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.hard_lab_pag.Hard_Lab.user.UserRepository;
+import com.hard_lab_pag.Hard_Lab.user.UserSecurityView;
+
+class SecurityEpochServiceTests {
+
+	private UserRepository userRepository;
+	private SecurityEpochService service;
+
+	@BeforeEach
+	void setUp() {
+		userRepository = mock(UserRepository.class);
+		service = new SecurityEpochService(userRepository);
+		ReflectionTestUtils.setField(service, "ttl", Duration.ofMinutes(1));
+	}
+
+	@Test
+	void loadsStateOnceAndRejectsOldEpochs() {
+		when(userRepository.findSecurityViewByGmail("aluno@gmail.com")).thenReturn(Optional.of(view("aluno@gmail.com", 2L, true)));
+
+		assertTrue(service.isCurrent("aluno@gmail.com", 2L));
+		assertFalse(service.isCurrent("aluno@gmail.com", 1L));
+		verify(userRepository, times(1)).findSecurityViewByGmail("aluno@gmail.com");
+	}
+
+	@Test
+	void pollingPicksUpChangesFromOtherInstances() {
+		when(userRepository.findSecurityViewByGmail("aluno@gmail.com")).thenReturn(Optional.of(view("aluno@gmail.com", 0L, true)));
+		assertTrue(service.isCurrent("aluno@gmail.com", 0L));
+
+		when(userRepository.findSecurityViewsChangedSince(any())).thenReturn(List.of(view("aluno@gmail.com", 0L, false)));
+		service.refreshChanged();
+
+		assertFalse(service.isCurrent("aluno@gmail.com", 0L));
+	}
+
+	@Test
+	void invalidateForcesReload() {
+		when(userRepository.findSecurityViewByGmail("aluno@gmail.com"))
+			.thenReturn(Optional.of(view("aluno@gmail.com", 0L, true)))
+			.thenReturn(Optional.of(view("aluno@gmail.com", 1L, true)));
+		assertTrue(service.isCurrent("aluno@gmail.com", 0L));
+
+		service.invalidate("aluno@gmail.com");
+
+		assertFalse(service.isCurrent("aluno@gmail.com", 0L));
+		assertTrue(service.isCurrent("aluno@gmail.com", 1L));
+	}
+
+	@Test
+	void unknownUsersAreRejected() {
+		when(userRepository.findSecurityViewByGmail("removido@gmail.com")).thenReturn(Optional.empty());
+
+		assertFalse(service.isCurrent("removido@gmail.com", 0L));
+	}
+
+	private static UserSecurityView view(String gmail, Long epoch, Boolean ativo) {
+		return new UserSecurityView() {
+			public String getGmail() { return gmail; }
+			public Long getSecurityEpoch() { return epoch; }
+			public Boolean getAtivo() { return ativo; }
+		};
+	}
+}
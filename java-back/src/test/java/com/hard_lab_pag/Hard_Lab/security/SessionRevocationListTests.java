@@ -0,0 +1,67 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.hard_lab_pag.Hard_Lab.auth.RevokedSession;
+import com.hard_lab_pag.Hard_Lab.auth.RevokedSessionRepository;
+
+class SessionRevocationListTests {
+
+	@Test
+	void bloomFilterHasNoFalseNegatives() {
+		BloomFilter bloom = new BloomFilter(1000, 0.01);
+		List<String> ids = IntStream.range(0, 1000).mapToObj(i -> UUID.randomUUID().toString()).toList();
+		ids.forEach(bloom::put);
+
+		ids.forEach(id -> assertTrue(bloom.mightContain(id)));
+		long falsePositives = IntStream.range(0, 10_000)
+			.filter(i -> bloom.mightContain(UUID.randomUUID().toString()))
+			.count();
+		assertTrue(falsePositives < 300, "falsos positivos: " + falsePositives);
+	}
+
+	@Test
+	void pollingLoadsRevocationsAndDropsExpiredOnes() {
+		RevokedSessionRepository repository = mock(RevokedSessionRepository.class);
+		when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(
+			revoked("ativa", Instant.now().plusSeconds(600)),
+			revoked("vencida", Instant.now().minusSeconds(1))
+		));
+		SessionRevocationList list = new SessionRevocationList(repository, 100);
+
+		list.refresh();
+
+		assertTrue(list.isRevoked("ativa"));
+		assertFalse(list.isRevoked("vencida"));
+		assertFalse(list.isRevoked("outra"));
+		assertFalse(list.isRevoked(null));
+	}
+
+	@Test
+	void localRevocationIsImmediate() {
+		SessionRevocationList list = new SessionRevocationList(mock(RevokedSessionRepository.class), 100);
+
+		list.add("sessao", Instant.now().plusSeconds(60));
+
+		assertTrue(list.isRevoked("sessao"));
+	}
+
+	private static RevokedSession revoked(String sessionId, Instant expiresAt) {
+		RevokedSession session = new RevokedSession();
+		session.setSessionId(sessionId);
+		session.setRevokedAt(Instant.now());
+		session.setExpiresAt(expiresAt);
+		return session;
+	}
+}
@@ -0,0 +1,72 @@
+package com.hard_lab_pag.Hard_Lab.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class VerifiedTokenCacheTests {
+
+	@Test
+	void servesEntriesUntilTheyExpire() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(10);
+		VerifiedToken token = token("aluno@gmail.com");
+		cache.put("a", token, 2_000L, 1_000L);
+
+		assertSame(token, cache.get("a", 1_999L));
+		assertNull(cache.get("a", 2_000L));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void evictsExpiredEntriesFirstAndStaysNearTheLimit() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(10);
+		cache.put("velho", token("velho@gmail.com"), 1_500L, 1_000L);
+		for (int i = 0; i < 50; i++) {
+			cache.put("k" + i, token("aluno" + i + "@gmail.com"), 60_000L, 2_000L);
+		}
+
+		assertTrue(cache.size() <= 10);
+		assertNull(cache.get("velho", 2_000L));
+	}
+
+	@Test
+	void concurrentWritersKeepTheBoundApproximately() throws Exception {
+		VerifiedTokenCache cache = new VerifiedTokenCache(100);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> writers = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				int thread = t;
+				writers.add(pool.submit(() -> {
+					for (int i = 0; i < 5_000; i++) {
+						String key = thread + ":" + i;
+						cache.put(key, token(key), 60_000L, 1_000L);
+						cache.get(key, 1_000L);
+					}
+				}));
+			}
+			for (Future<?> writer : writers) {
+				writer.get();
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		// Durante a disputa o limite é aproximado; a próxima inserção sem concorrência volta a respeitá-lo
+		cache.put("fim", token("fim@gmail.com"), 60_000L, 1_000L);
+		assertTrue(cache.size() <= 100, "tamanho " + cache.size());
+	}
+
+	private static VerifiedToken token(String subject) {
+		return new VerifiedToken(subject, List.of("ACADEMICO"), 0L, null, null, 60_000L);
+	}
+}
@@ -0,0 +1,116 @@
+package com.hard_lab_pag.Hard_Lab.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.hard_lab_pag.Hard_Lab.components.ComponentRepository;
+import com.hard_lab_pag.Hard_Lab.documents.DocumentIndexRegistry;
+import com.hard_lab_pag.Hard_Lab.projects.ProjectRepository;
+import com.hard_lab_pag.Hard_Lab.reservations.Reservation;
+import com.hard_lab_pag.Hard_Lab.reservations.ReservationRepository;
+import com.hard_lab_pag.Hard_Lab.user.User;
+import com.hard_lab_pag.Hard_Lab.user.UserRepository;
+
+import jakarta.persistence.EntityManager;
+
+class AdminStatsServiceTests {
+
+	private UserRepository userRepository;
+	private ProjectRepository projectRepository;
+	private PlatformTransactionManager transactionManager;
+	private EntityManager entityManager;
+	private AdminStatsService service;
+
+	@BeforeEach
+	void setUp() {
+		userRepository = mock(UserRepository.class);
+		projectRepository = mock(ProjectRepository.class);
+		transactionManager = mock(PlatformTransactionManager.class);
+		ReservationRepository reservationRepository = mock(ReservationRepository.class);
+		ComponentRepository componentRepository = mock(ComponentRepository.class);
+		DocumentIndexRegistry registry = mock(DocumentIndexRegistry.class, RETURNS_DEEP_STUBS);
+		entityManager = mock(EntityManager.class, RETURNS_DEEP_STUBS);
+		when(userRepository.count()).thenReturn(10L);
+		when(userRepository.countByLastLoginAtAfter(any())).thenReturn(4L);
+		when(projectRepository.count()).thenReturn(3L);
+		when(reservationRepository.count()).thenReturn(8L);
+		when(componentRepository.count()).thenReturn(20L);
+		when(registry.get(Reservation.class).getTable()).thenReturn("reservations");
+		when(registry.get(Reservation.class).field("status").getColumn()).thenReturn("doc_status");
+		when(entityManager.createNativeQuery(anyString()).setParameter(1, "pending").getSingleResult()).thenReturn(2L);
+		service = new AdminStatsService(userRepository, projectRepository, reservationRepository, componentRepository,
+			registry, entityManager, transactionManager);
+		ReflectionTestUtils.setField(service, "activeUserWindow", Duration.ofDays(7));
+	}
+
+	@Test
+	void firstSnapshotReconcilesAgainstTheDatabase() {
+		AdminStats stats = service.snapshot();
+
+		assertEquals(10, stats.getTotalUsers());
+		assertEquals(3, stats.getTotalProjects());
+		assertEquals(8, stats.getTotalReservations());
+		assertEquals(20, stats.getTotalComponents());
+		assertEquals(4, stats.getActiveUsers());
+		assertEquals(2, stats.getPendingReservations());
+	}
+
+	@Test
+	void deltasCommittedDuringTheRecountAreKept() {
+		// Um usuário confirmado depois da primeira leitura: fora do snapshot, a recontagem não o vê
+		when(projectRepository.count()).thenAnswer(invocation -> {
+			service.adjust(StatCounter.USERS, 1);
+			return 3L;
+		});
+
+		service.reconcile();
+
+		assertEquals(11, service.snapshot().getTotalUsers());
+	}
+
+	@Test
+	void deltasCommittedBeforeTheFirstReadAreNotCountedTwice() {
+		// Confirmado entre o BEGIN e a primeira leitura: o snapshot já o inclui
+		when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+			service.adjust(StatCounter.USERS, 1);
+			return null;
+		});
+		when(userRepository.count()).thenReturn(11L);
+
+		service.reconcile();
+
+		assertEquals(11, service.snapshot().getTotalUsers());
+	}
+
+	@Test
+	void listenerAndStatusChangesMoveTheCounters() {
+		service.reconcile();
+		StatsEventListener listener = new StatsEventListener(null, service);
+		Reservation pending = new Reservation();
+		pending.setData(new HashMap<>(Map.of("status", "pending")));
+
+		listener.apply(pending, 1);
+		listener.apply(new User(), -1);
+		listener.apply("não é entidade contada", 1);
+		service.reservationStatusChanged("pending", "approved");
+		service.reservationStatusChanged("approved", "approved");
+
+		AdminStats stats = service.snapshot();
+		assertEquals(9, stats.getTotalReservations());
+		assertEquals(2, stats.getPendingReservations());
+		assertEquals(9, stats.getTotalUsers());
+	}
+}
@@ -0,0 +1,65 @@
+package com.hard_lab_pag.Hard_Lab.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Collection;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class UserActivityTrackerTests {
+
+	private JdbcTemplate jdbcTemplate;
+	private UserActivityTracker tracker;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		tracker = new UserActivityTracker(jdbcTemplate);
+	}
+
+	@Test
+	void coalescesRequestsIntoOneUpdatePerUser() {
+		for (int i = 0; i < 1000; i++) {
+			tracker.recordSeen("ana@gmail.com");
+			tracker.recordSeen("bia@gmail.com");
+		}
+		tracker.recordLogin("ana@gmail.com");
+
+		assertEquals(2, tracker.flush());
+		assertEquals(0, tracker.flush());
+		verify(jdbcTemplate, times(1)).batchUpdate(anyString(), argThat((Collection<?> rows) -> rows.size() == 2), anyInt(), any());
+	}
+
+	@Test
+	void failedFlushKeepsActivityForTheNextCycle() {
+		when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any())).thenThrow(new QueryTimeoutException("timeout"));
+		tracker.recordLogin("ana@gmail.com");
+
+		assertEquals(0, tracker.flush());
+		assertEquals(1, tracker.pendingCount());
+	}
+
+	@Test
+	void mergeKeepsTheLatestOfEachTimestamp() {
+		Instant t1 = Instant.parse("2025-03-01T10:00:00Z");
+		Instant t2 = Instant.parse("2025-03-01T10:05:00Z");
+
+		UserActivityTracker.Activity merged = UserActivityTracker.Activity.latest(
+			new UserActivityTracker.Activity(t1, t1), new UserActivityTracker.Activity(t2, null));
+
+		assertEquals(t2, merged.seen());
+		assertEquals(t1, merged.login());
+	}
+}
@@ -0,0 +1,132 @@
+package com.hard_lab_pag.Hard_Lab.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.hard_lab_pag.Hard_Lab.security.BCryptStrength;
+import com.hard_lab_pag.Hard_Lab.security.PasswordHashingService;
+import com.hard_lab_pag.Hard_Lab.stats.AdminStatsService;
+import com.hard_lab_pag.Hard_Lab.user.dto.UserImportReport;
+
+class UserImportServiceTests {
+
+	private UserRepository userRepository;
+	private JdbcTemplate jdbcTemplate;
+	private PasswordHashingService hashing;
+	private UserImportService service;
+
+	@BeforeEach
+	void setUp() {
+		userRepository = mock(UserRepository.class);
+		jdbcTemplate = mock(JdbcTemplate.class);
+		hashing = new PasswordHashingService(new BCryptPasswordEncoder(4), new BCryptStrength(4), 2, 1, Duration.ofSeconds(5));
+		service = new UserImportService(userRepository, hashing, mock(UserSearchService.class), mock(AdminStatsService.class), jdbcTemplate, mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(service, "maxRows", 5000);
+	}
+
+	@AfterEach
+	void tearDown() {
+		ReflectionTestUtils.invokeMethod(hashing, "shutdown");
+	}
+
+	@Test
+	void reportsEachRowAndInsertsOnlyNewUsersInOneBatch() throws Exception {
+		when(userRepository.findExistingGmails(any())).thenReturn(List.of("Antigo@gmail.com"));
+		String csv = "\uFEFFgmail,nome,matricula,curso,telefone,senha\n"
+			+ "ana@gmail.com,\"Silva, Ana\",2025001,Engenharia,,\n"
+			+ "antigo@gmail.com,Antigo,,,,\n"
+			+ "sem-arroba,Fulano,,,,\n"
+			+ "\n"
+			+ "ANA@gmail.com,Ana de novo,,,,\n"
+			+ "bruno@gmail.com,Bruno,,,,SenhaBruno1\n";
+
+		UserImportReport report = service.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), Role.ACADEMICO);
+
+		assertEquals(2, report.getCreated());
+		assertEquals(3, report.getSkipped());
+		List<UserImportReport.Row> rows = report.getRows();
+		assertEquals(List.of(2, 3, 4, 6, 7), rows.stream().map(UserImportReport.Row::getLine).toList());
+		assertEquals(List.of(UserImportReport.CREATED, UserImportReport.EXISTS, UserImportReport.INVALID, UserImportReport.DUPLICATE, UserImportReport.CREATED),
+			rows.stream().map(UserImportReport.Row::getStatus).toList());
+		assertNotNull(rows.get(0).getSenhaInicial());
+		assertNull(rows.get(4).getSenhaInicial());
+		verify(userRepository, times(1)).findExistingGmails(any());
+		verify(jdbcTemplate, times(1)).batchUpdate(anyString(), any(List.class), anyInt(), any());
+	}
+
+	@Test
+	void splitsQuotedAndSemicolonSeparatedLines() {
+		assertEquals(List.of("a@b.com", "Nome \"Apelido\", Jr", ""), UserImportService.splitLine("a@b.com,\"Nome \"\"Apelido\"\", Jr\",", ','));
+		assertEquals(List.of("a@b.com", "Nome", "123"), UserImportService.splitLine("a@b.com;Nome;123", ';'));
+		assertEquals(';', UserImportService.detectSeparator("gmail;nome;matricula;curso;telefone"));
+		assertEquals(',', UserImportService.detectSeparator("gmail,nome,matricula,curso,telefone"));
+	}
+
+	@Test
+	void separatorComesFromTheHeaderNotFromEachLine() throws Exception {
+		when(userRepository.findExistingGmails(any())).thenReturn(List.of());
+		// Sem ponto e vírgula nem vírgula fora do nome: a linha sozinha pareceria separada por vírgula
+		String csv = "gmail;nome;matricula\n"
+			+ "ana@gmail.com;Silva, Ana;2025001\n"
+			+ "bia@gmail.com;Bia;2025002\n";
+
+		UserImportReport report = service.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), Role.ACADEMICO);
+
+		assertEquals(2, report.getCreated());
+		assertEquals(List.of("ana@gmail.com", "bia@gmail.com"), report.getRows().stream().map(UserImportReport.Row::getGmail).toList());
+	}
+
+	@Test
+	void rowsLostToASecondRaceAreReportedAndTheRestIsKept() throws Exception {
+		when(userRepository.findExistingGmails(any())).thenReturn(List.of());
+		// Lote falha duas vezes; linha a linha, só bia colide
+		when(jdbcTemplate.batchUpdate(anyString(), any(List.class), anyInt(), any())).thenAnswer(inv -> {
+			List<?> batch = inv.getArgument(1);
+			if (batch.size() > 1 || ((UserImportService.Candidate) batch.get(0)).gmail.equals("bia@gmail.com")) {
+				throw new DuplicateKeyException("Duplicate entry");
+			}
+			return new int[][] { { 1 } };
+		});
+		String csv = "ana@gmail.com,Ana\nbia@gmail.com,Bia\ncaio@gmail.com,Caio\n";
+
+		UserImportReport report = service.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), Role.ACADEMICO);
+
+		assertEquals(2, report.getCreated());
+		assertEquals(List.of(UserImportReport.CREATED, UserImportReport.EXISTS, UserImportReport.CREATED),
+			report.getRows().stream().map(UserImportReport.Row::getStatus).toList());
+	}
+
+	@Test
+	void stopsReadingAboveTheRowLimit() throws Exception {
+		ReflectionTestUtils.setField(service, "maxRows", 1);
+		when(userRepository.findExistingGmails(any())).thenReturn(List.of());
+
+		UserImportReport report = service.importCsv(new ByteArrayInputStream("a@gmail.com,Ana\nb@gmail.com,Bia\n".getBytes(StandardCharsets.UTF_8)), Role.ACADEMICO);
+
+		assertTrue(report.isTruncated());
+		assertEquals(1, report.getCreated());
+	}
+}
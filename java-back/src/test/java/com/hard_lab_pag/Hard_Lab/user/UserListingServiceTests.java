@@ -0,0 +1,73 @@
+package com.hard_lab_pag.Hard_Lab.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.hard_lab_pag.Hard_Lab.infra.KeysetPage;
+import com.hard_lab_pag.Hard_Lab.user.dto.UserResponse;
+
+class UserListingServiceTests {
+
+	private UserRepository userRepository;
+	private UserListingService service;
+
+	@BeforeEach
+	void setUp() {
+		userRepository = mock(UserRepository.class);
+		service = new UserListingService(userRepository);
+	}
+
+	@Test
+	void filtersByRoleMasksAndDecodesRolesFromTheRow() {
+		List<UserSummaryView> rows = List.of(summary(3L, 3), summary(7L, 2), summary(9L, 6));
+		when(userRepository.findSummaries(eq(0L), eq(true), eq(List.of(2, 3, 6, 7)), eq(null), eq(true), any())).thenReturn(rows);
+
+		KeysetPage<UserResponse> page = service.page(null, 2, Role.PROFESSOR, " ", true);
+
+		assertEquals(2, page.getItems().size());
+		assertEquals(Set.of(Role.PROFESSOR, Role.ADMIN), page.getItems().get(0).getRoles());
+		assertEquals(Set.of(Role.PROFESSOR), page.getItems().get(1).getRoles());
+		assertEquals("7", page.getNextCursor());
+	}
+
+	@Test
+	void lastPageHasNoCursorAndRejectsGarbageCursors() {
+		List<UserSummaryView> rows = List.of(summary(9L, 0));
+		when(userRepository.findSummaries(eq(7L), eq(false), any(), eq(null), eq(null), any())).thenReturn(rows);
+
+		KeysetPage<UserResponse> page = service.page("7", 2, null, null, null);
+
+		assertEquals(1, page.getItems().size());
+		assertEquals(Set.of(), page.getItems().get(0).getRoles());
+		assertNull(page.getNextCursor());
+		assertThrows(IllegalArgumentException.class, () -> service.page("abc", 2, null, null, null));
+	}
+
+	@Test
+	void roleMaskRoundTrips() {
+		assertEquals(5, Role.toMask(EnumSet.of(Role.ADMIN, Role.ACADEMICO)));
+		assertEquals(EnumSet.of(Role.ADMIN, Role.ACADEMICO), Role.fromMask(5));
+		assertEquals(List.of(1, 3, 5, 7), Role.masksContaining(Role.ADMIN));
+		assertEquals("CASE role WHEN 'ADMIN' THEN 1 WHEN 'PROFESSOR' THEN 2 WHEN 'ACADEMICO' THEN 4 ELSE 0 END", UserRolesMigration.roleBitCase());
+	}
+
+	private static UserSummaryView summary(Long id, int rolesMask) {
+		UserSummaryView view = mock(UserSummaryView.class);
+		when(view.getId()).thenReturn(id);
+		when(view.getGmail()).thenReturn("u" + id + "@gmail.com");
+		when(view.getRolesMask()).thenReturn(rolesMask);
+		return view;
+	}
+}
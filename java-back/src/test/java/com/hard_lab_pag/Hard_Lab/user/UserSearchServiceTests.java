@@ -0,0 +1,93 @@
+package com.hard_lab_pag.Hard_Lab.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.hard_lab_pag.Hard_Lab.user.dto.UserDirectoryEntry;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+class UserSearchServiceTests {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final EntityManager entityManager = mock(EntityManager.class);
+	private final UserSearchService service = new UserSearchService(
+		mock(UserSearchTermRepository.class),
+		userRepository,
+		entityManager,
+		mock(PlatformTransactionManager.class)
+	);
+
+	@Test
+	void extractsAccentFreeTermsWithFieldWeights() {
+		Map<String, Integer> terms = UserSearchService.extractTerms("José Conceição da Silva", "2025.001-3", "jose.silva@gmail.com", "Engenharia Elétrica");
+
+		assertEquals(4, terms.get("jose"));
+		assertEquals(4, terms.get("conceicao"));
+		assertEquals(4, terms.get("silva"));
+		// Matrícula inteira (sem pontuação) e por partes
+		assertEquals(8, terms.get("20250013"));
+		assertEquals(8, terms.get("2025"));
+		assertEquals(1, terms.get("eletrica"));
+		// Domínio do gmail não é indexado
+		assertFalse(terms.containsKey("gmail"));
+	}
+
+	@Test
+	void everyWordMustMatchAPrefixAndWeightsRankTheRest() {
+		String sql = UserSearchService.rankingSql(2, 10);
+
+		assertTrue(sql.contains("WHERE t.term LIKE ?1 OR t.term LIKE ?2"));
+		// Um usuário que só casa "jose" tem 1 no HAVING e fica de fora de "jose silva"
+		assertTrue(sql.contains("HAVING MAX(t.term LIKE ?1) + MAX(t.term LIKE ?2) = 2"));
+		assertTrue(sql.endsWith("ORDER BY SUM(t.weight) DESC, t.user_id LIMIT 10"));
+	}
+
+	@Test
+	void searchBindsNormalizedPrefixesAndKeepsTheRankingOrder() {
+		Query query = mock(Query.class);
+		ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+		when(entityManager.createNativeQuery(sql.capture())).thenReturn(query);
+		when(query.getResultList()).thenReturn(List.of(7L, 3L));
+		// O IN por id devolve na ordem do banco, não na do ranking
+		List<UserSummaryView> byId = List.of(summary(3L, "José Souza"), summary(7L, "Josefa Silva"));
+		when(userRepository.findSummariesByIds(List.of(7L, 3L))).thenReturn(byId);
+
+		List<UserDirectoryEntry> result = service.search("JOSÉ  s", 10);
+
+		assertEquals(List.of(7L, 3L), result.stream().map(UserDirectoryEntry::getId).toList());
+		assertEquals("Josefa Silva", result.get(0).getNome());
+		assertEquals(UserSearchService.rankingSql(1, 10), sql.getValue());
+		// "s" fica abaixo do tamanho mínimo; "josé" vira o prefixo jose%
+		verify(query).setParameter(1, "jose%");
+	}
+
+	@Test
+	void queryWithoutUsableWordsDoesNotHitTheIndex() {
+		assertTrue(service.search("a - .", 10).isEmpty());
+		verify(entityManager, never()).createNativeQuery(anyString());
+	}
+
+	private static UserSummaryView summary(Long id, String nome) {
+		UserSummaryView view = mock(UserSummaryView.class);
+		when(view.getId()).thenReturn(id);
+		when(view.getNome()).thenReturn(nome);
+		when(view.getMatricula()).thenReturn("2025" + id);
+		when(view.getCurso()).thenReturn("Engenharia");
+		return view;
+	}
+}
@@ -0,0 +1,132 @@
+package com.hard_lab_pag.Hard_Lab.user;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.hard_lab_pag.Hard_Lab.auth.AuthTokenService;
+import com.hard_lab_pag.Hard_Lab.auth.PasswordResetDelivery;
+import com.hard_lab_pag.Hard_Lab.auth.PasswordResetService;
+import com.hard_lab_pag.Hard_Lab.auth.dto.AuthResponse;
+import com.hard_lab_pag.Hard_Lab.auth.dto.LoginRequest;
+import com.hard_lab_pag.Hard_Lab.auth.dto.RegisterRequest;
+import com.hard_lab_pag.Hard_Lab.infra.ConflictException;
+import com.hard_lab_pag.Hard_Lab.security.PasswordHashingService;
+import com.hard_lab_pag.Hard_Lab.security.SecurityEpochService;
+
+class UserServiceTests {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final PasswordHashingService passwordHashing = mock(PasswordHashingService.class);
+	private final AuthTokenService authTokenService = mock(AuthTokenService.class);
+	private final PasswordResetService passwordResetService = mock(PasswordResetService.class);
+	@SuppressWarnings("unchecked")
+	private final ObjectProvider<PasswordResetDelivery> resetDelivery = mock(ObjectProvider.class);
+	private final UserService service = new UserService(
+		userRepository,
+		passwordHashing,
+		authTokenService,
+		mock(SecurityEpochService.class),
+		passwordResetService,
+		resetDelivery,
+		mock(UserActivityTracker.class),
+		mock(UserSearchService.class),
+		mock(PlatformTransactionManager.class)
+	);
+
+	@Test
+	void existingGmailIsAConflict() {
+		when(userRepository.existsByGmail("aluno@gmail.com")).thenReturn(true);
+
+		assertThrows(ConflictException.class, () -> service.register(request("aluno@gmail.com")));
+		verify(passwordHashing, never()).encode(any());
+	}
+
+	@Test
+	void concurrentRegistrationOfTheSameGmailIsAConflictNotA500() {
+		when(passwordHashing.encode("SenhaForte123")).thenReturn("$2a$10$hash");
+		when(userRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+
+		assertThrows(ConflictException.class, () -> service.register(request("aluno@gmail.com")));
+		verify(authTokenService, never()).issue(any());
+	}
+
+	@Test
+	void loginSucceedsWhenTheRehashWriteFails() {
+		User user = new User();
+		user.setId(1L);
+		user.setGmail("aluno@gmail.com");
+		user.setSenhaHash("$2a$08$antigo");
+		when(userRepository.findByGmail("aluno@gmail.com")).thenReturn(Optional.of(user));
+		when(passwordHashing.matches("SenhaForte123", "$2a$08$antigo")).thenReturn(true);
+		when(passwordHashing.needsRehash("$2a$08$antigo")).thenReturn(true);
+		when(passwordHashing.encode("SenhaForte123")).thenReturn("$2a$10$novo");
+		when(userRepository.rehashPassword(1L, "$2a$08$antigo", "$2a$10$novo")).thenThrow(new QueryTimeoutException("lock wait timeout"));
+		AuthResponse issued = new AuthResponse("access", "refresh");
+		when(authTokenService.issue(user)).thenReturn(issued);
+
+		LoginRequest login = new LoginRequest();
+		login.setGmail("aluno@gmail.com");
+		login.setSenha("SenhaForte123");
+
+		assertSame(issued, service.login(login));
+	}
+
+	@Test
+	void resetTokenIsHandedToTheDeliveryChannel() {
+		User user = new User();
+		user.setId(1L);
+		when(userRepository.findByGmail("aluno@gmail.com")).thenReturn(Optional.of(user));
+		PasswordResetDelivery delivery = mock(PasswordResetDelivery.class);
+		when(resetDelivery.getIfAvailable()).thenReturn(delivery);
+		PasswordResetService.Issued issued = new PasswordResetService.Issued("raw", Instant.now());
+		when(passwordResetService.issue(1L)).thenReturn(issued);
+
+		service.initiatePasswordReset("aluno@gmail.com");
+
+		verify(delivery).deliver(user, issued);
+	}
+
+	@Test
+	void withoutDeliveryChannelNoTokenIsIssued() {
+		User user = new User();
+		user.setId(1L);
+		when(userRepository.findByGmail("aluno@gmail.com")).thenReturn(Optional.of(user));
+
+		service.initiatePasswordReset("aluno@gmail.com");
+
+		verify(passwordResetService, never()).issue(any());
+	}
+
+	@Test
+	void registerNormalizesTheGmailLikeTheImport() {
+		when(passwordHashing.encode("SenhaForte123")).thenReturn("$2a$10$hash");
+
+		service.register(request("  Aluno@Gmail.COM "));
+
+		verify(userRepository).existsByGmail("aluno@gmail.com");
+		verify(userRepository).saveAndFlush(argThat(user -> "aluno@gmail.com".equals(user.getGmail())));
+	}
+
+	private static RegisterRequest request(String gmail) {
+		RegisterRequest request = new RegisterRequest();
+		request.setGmail(gmail);
+		request.setNome("Aluno");
+		request.setSenha("SenhaForte123");
+		return request;
+	}
+}
@@ -66,69 +66,25 @@ export default function StatsScreen() {
     try {
       setLoading(true);
       
-      // Buscar dados reais das APIs
-      const [usersResponse, projectsResponse, reservationsResponse, componentsResponse] = await Promise.all([
-        fetch(`${API_BASE_URL}/api/users`, {
-          headers: {
-            'Authorization': `Bearer ${token}`,
-            'Content-Type': 'application/json',
-          },
-        }),
-        fetch(`${API_BASE_URL}/api/projects`, {
-          headers: {
-            'Authorization': `Bearer ${token}`,
-            'Content-Type': 'application/json',
-          },
-        }),
-        fetch(`${API_BASE_URL}/api/reservations`, {
-          headers: {
-            'Authorization': `Bearer ${token}`,
-            'Content-Type': 'application/json',
-          },
-        }),
-        fetch(`${API_BASE_URL}/api/components`, {
-          headers: {
-            'Authorization': `Bearer ${token}`,
-            'Content-Type': 'application/json',
-          },
-        }),
-      ]);
-
-      const [users, projects, reservations, components] = await Promise.all([
-        usersResponse.ok ? usersResponse.json() : [],
-        projectsResponse.ok ? projectsResponse.json() : [],
-        reservationsResponse.ok ? reservationsResponse.json() : [],
-        componentsResponse.ok ? componentsResponse.json() : [],
-      ]);
-
-      // Calcular estatísticas
-      const totalUsers = users.length;
-      const totalProjects = projects.length;
-      const totalReservations = reservations.length;
-      const totalComponents = components.length;
-      
-      // Usuários ativos (com login recente - últimos 7 dias)
-      const activeUsers = users.filter((user: any) => {
-        if (!user.lastLogin) return false;
-        const lastLogin = new Date(user.lastLogin);
-        const sevenDaysAgo = new Date();
-        sevenDaysAgo.setDate(sevenDaysAgo.getDate() - 7);
-        return lastLogin > sevenDaysAgo;
-      }).length;
-
-      // Reservas pendentes (status pending)
-      const pendingReservations = reservations.filter((reservation: any) => {
-        const status = reservation.data?.status || reservation.status;
-        return status === 'pending';
-      }).length;
+      // Totais já contados no servidor (em memória, recontados periodicamente), sem baixar as listas inteiras
+      const response = await fetch(`${API_BASE_URL}/api/admin/stats`, {
+        headers: {
+          'Authorization': `Bearer ${token}`,
+          'Content-Type': 'application/json',
+        },
+      });
+      if (!response.ok) {
+        throw new Error(`Falha ao carregar estatísticas (${response.status})`);
+      }
+      const data = await response.json();
 
       setStats({
-        totalUsers,
-        totalProjects,
-        totalReservations,
-        totalComponents,
-        activeUsers,
-        pendingReservations,
+        totalUsers: data.totalUsers ?? 0,
+        totalProjects: data.totalProjects ?? 0,
+        totalReservations: data.totalReservations ?? 0,
+        totalComponents: data.totalComponents ?? 0,
+        activeUsers: data.activeUsers ?? 0,
+        pendingReservations: data.pendingReservations ?? 0,
       });
     } catch (error) {
       console.error('Erro ao buscar estatísticas:', error);
@@ -1,5 +1,6 @@
 import { Colors } from '@/constants/Colors';
 import { useColorScheme } from '@/hooks/useColorScheme';
+import { useNotificationStream } from '@/hooks/useNotificationStream';
 import { Ionicons } from '@expo/vector-icons';
 import { router } from 'expo-router';
 import React, { useEffect, useState } from 'react';
@@ -299,6 +300,25 @@ export default function NotificationsScreen() {
     fetchNotifications();
   }, []);
 
+  // Tempo real: novas notificações entram no topo; se o servidor avisar que houve perda, recarrega a lista
+  useNotificationStream({
+    onNotification: (n) => {
+      const incoming: Notification = {
+        id: String(n.id),
+        title: n.title || 'Notificação',
+        message: n.body || '',
+        type: (n.type || 'system') as Notification['type'],
+        status: 'unread',
+        priority: 'medium',
+        timestamp: n.createdAt || new Date().toISOString(),
+      };
+      setNotifications(prev => prev.some(item => item.id === incoming.id) ? prev : [incoming, ...prev]);
+    },
+    onOverflow: () => {
+      fetchNotifications();
+    },
+  });
+
   // Obter ícone por tipo
   const getTypeIcon = (type: string) => {
     switch (type) {
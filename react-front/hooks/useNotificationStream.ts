@@ -0,0 +1,99 @@
+import { useEffect, useRef } from 'react';
+
+import { API_BASE_URL } from '@/env';
+
+// Evento "notification" do stream SSE (GET /api/notifications/stream)
+export interface NotificationStreamEvent {
+  id: number;
+  seq: number;
+  type: string;
+  title: string;
+  body?: string | null;
+  payload?: Record<string, unknown> | null;
+  createdAt: string;
+}
+
+interface Handlers {
+  onNotification: (event: NotificationStreamEvent) => void;
+  // Eventos perdidos (fila cheia ou replay além do limite): recarregar a lista
+  onOverflow?: () => void;
+}
+
+const RECONNECT_DELAY_MS = 3000;
+
+// React Native não tem EventSource; XMLHttpRequest entrega o corpo aos poucos (onprogress) e aceita o
+// cabeçalho Authorization. Reconecta com Last-Event-ID para o servidor reenviar o que faltou.
+export function useNotificationStream({ onNotification, onOverflow }: Handlers) {
+  const handlers = useRef({ onNotification, onOverflow });
+  handlers.current = { onNotification, onOverflow };
+
+  useEffect(() => {
+    let stopped = false;
+    let xhr: XMLHttpRequest | null = null;
+    let retry: ReturnType<typeof setTimeout> | null = null;
+    let lastEventId: string | null = null;
+
+    const dispatch = (block: string) => {
+      let name = 'message';
+      let id: string | null = null;
+      const data: string[] = [];
+      for (const line of block.split('\n')) {
+        if (line.startsWith(':')) continue;
+        const sep = line.indexOf(':');
+        const field = sep < 0 ? line : line.slice(0, sep);
+        const value = sep < 0 ? '' : line.slice(sep + 1).replace(/^ /, '');
+        if (field === 'event') name = value;
+        else if (field === 'id') id = value;
+        else if (field === 'data') data.push(value);
+      }
+      if (id) lastEventId = id;
+      if (name === 'notification' && data.length > 0) {
+        try {
+          handlers.current.onNotification(JSON.parse(data.join('\n')));
+        } catch {
+          // Evento malformado: ignora, o próximo fetch da lista corrige
+        }
+      } else if (name === 'overflow') {
+        handlers.current.onOverflow?.();
+      }
+    };
+
+    const connect = async () => {
+      const AsyncStorage = (await import('@react-native-async-storage/async-storage')).default;
+      const token = await AsyncStorage.getItem('@LabPage:token');
+      if (stopped || !token) return;
+
+      const request = new XMLHttpRequest();
+      xhr = request;
+      let consumed = 0;
+      let pending = '';
+      request.open('GET', `${API_BASE_URL}/api/notifications/stream`);
+      request.setRequestHeader('Accept', 'text/event-stream');
+      request.setRequestHeader('Authorization', `Bearer ${token}`);
+      if (lastEventId) request.setRequestHeader('Last-Event-ID', lastEventId);
+      request.onprogress = () => {
+        pending += request.responseText.slice(consumed).replace(/\r\n?/g, '\n');
+        consumed = request.responseText.length;
+        let end = pending.indexOf('\n\n');
+        while (end >= 0) {
+          dispatch(pending.slice(0, end));
+          pending = pending.slice(end + 2);
+          end = pending.indexOf('\n\n');
+        }
+      };
+      // Fim normal (timeout do servidor), erro de rede ou 401: tenta de novo com o token vigente
+      request.onloadend = () => {
+        if (xhr === request) xhr = null;
+        if (!stopped) retry = setTimeout(connect, RECONNECT_DELAY_MS);
+      };
+      request.send();
+    };
+
+    connect();
+    return () => {
+      stopped = true;
+      if (retry) clearTimeout(retry);
+      xhr?.abort();
+    };
+  }, []);
+}